@@ -0,0 +1,179 @@
+package org.elixir_lang;
+
+import com.ericsson.otp.erlang.*;
+import org.elixir_lang.beam.Beam;
+import org.elixir_lang.beam.Corpus;
+import org.elixir_lang.beam.chunk.DebugInfo;
+import org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.V1;
+import org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.v1.Definitions;
+import org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.v1.definitions.Definition;
+import org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.v1.definitions.definition.Clause;
+import org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.v1.type_specifications.TypeSpecification;
+import org.elixir_lang.beam.chunk.debug_info.v1.erl_abstract_code.AbstractCodeCompileOptions;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders the quoted forms in the Dbgi chunks of the corpus with `Macro.toString`: the arguments and bodies of the
+ * clauses of Elixir definitions, and the types of the `-type`, `-opaque`, `-spec`, and `-callback` attributes of
+ * Erlang modules.  The forms are decoded once per trial, so that only rendering is measured.  One operation is one pass
+ * over all the forms, so `ops/s` is corpus passes per second.
+ *
+ * `string` renders each form to its own `String`, as the decompiler and the Dbgi viewers do, while `appendable`
+ * appends all the forms to one `StringBuilder`.
+ *
+ * Run with `./gradlew jmh`.  The `gc` profiler reports `gc.alloc.rate.norm`, the bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MacroBenchmark {
+    private static final OtpErlangAtom ATTRIBUTE = new OtpErlangAtom("attribute");
+
+    private final List<OtpErlangObject> quotedList = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void loadCorpus() throws IOException, OtpErlangDecodeException {
+        Corpus corpus = Corpus.load();
+
+        for (int i = 0; i < corpus.size(); i++) {
+            Beam beam = Beam.Companion.from(corpus.contentList.get(i), corpus.pathList.get(i));
+
+            if (beam != null) {
+                DebugInfo debugInfo;
+
+                try {
+                    debugInfo = beam.debugInfo();
+                } catch (AssertionError | RuntimeException exception) {
+                    // Dbgi that cannot be decoded is not rendered by the decompiler either
+                    continue;
+                }
+
+                if (debugInfo instanceof V1) {
+                    addDefinitions(((V1) debugInfo).getDefinitions());
+                } else if (debugInfo instanceof AbstractCodeCompileOptions) {
+                    addAbstractCode(((AbstractCodeCompileOptions) debugInfo).getAbstractCode());
+                }
+            }
+        }
+
+        if (quotedList.isEmpty()) {
+            throw new IllegalStateException("No quoted forms found in the Dbgi chunks of the corpus");
+        }
+    }
+
+    @Benchmark
+    public void string(Blackhole blackhole) {
+        for (OtpErlangObject quoted : quotedList) {
+            blackhole.consume(Macro.INSTANCE.toString(quoted));
+        }
+    }
+
+    @Benchmark
+    public void appendable(Blackhole blackhole) {
+        StringBuilder builder = new StringBuilder();
+
+        for (OtpErlangObject quoted : quotedList) {
+            Macro.INSTANCE.toString(quoted, builder).append('\n');
+        }
+
+        blackhole.consume(builder);
+    }
+
+    private void addDefinitions(Definitions definitions) {
+        if (definitions != null) {
+            for (int i = 0; i < definitions.size(); i++) {
+                Definition definition = definitions.get(i);
+                List<Clause> clauses = definition.getClauses();
+
+                if (clauses != null) {
+                    for (Clause clause : clauses) {
+                        OtpErlangList arguments = clause.getArguments();
+
+                        if (arguments != null) {
+                            for (OtpErlangObject argument : arguments) {
+                                add(argument);
+                            }
+                        }
+
+                        add(clause.getBlock());
+                    }
+                }
+            }
+        }
+    }
+
+    private void addAbstractCode(OtpErlangList abstractCode) {
+        if (abstractCode != null) {
+            for (OtpErlangObject form : abstractCode) {
+                if (form instanceof OtpErlangTuple) {
+                    OtpErlangTuple tuple = (OtpErlangTuple) form;
+
+                    if (tuple.arity() == 4 && ATTRIBUTE.equals(tuple.elementAt(0))) {
+                        addAttribute(tuple.elementAt(2), tuple.elementAt(3));
+                    }
+                }
+            }
+        }
+    }
+
+    private void addAttribute(@NotNull OtpErlangObject name, @NotNull OtpErlangObject value) {
+        if (name instanceof OtpErlangAtom && value instanceof OtpErlangTuple) {
+            OtpErlangTuple tuple = (OtpErlangTuple) value;
+
+            switch (((OtpErlangAtom) name).atomValue()) {
+                // {Name, Type, Parameters}
+                case "opaque":
+                case "type":
+                    if (tuple.arity() == 3) {
+                        addType(tuple.elementAt(1));
+                    }
+                    break;
+                // {{Name, Arity}, FunctionTypes}
+                case "callback":
+                case "spec":
+                    if (tuple.arity() == 2 && tuple.elementAt(1) instanceof OtpErlangList) {
+                        for (OtpErlangObject functionType : (OtpErlangList) tuple.elementAt(1)) {
+                            addType(functionType);
+                        }
+                    }
+                    break;
+            }
+        }
+    }
+
+    private void addType(@NotNull OtpErlangObject type) {
+        OtpErlangObject quoted;
+
+        try {
+            quoted = TypeSpecification.Companion.toQuoted(type);
+        } catch (AssertionError | RuntimeException exception) {
+            // types that cannot be quoted are not rendered by the Dbgi viewers either
+            return;
+        }
+
+        if (quoted != null) {
+            add(quoted);
+        }
+    }
+
+    private void add(@NotNull OtpErlangObject quoted) {
+        try {
+            Macro.INSTANCE.toString(quoted);
+        } catch (Error | RuntimeException exception) {
+            // forms that `Macro.toString` cannot render yet, such as sigils, would end the benchmark
+            return;
+        }
+
+        quotedList.add(quoted);
+    }
+}
@@ -0,0 +1,86 @@
+package org.elixir_lang.beam;
+
+import com.ericsson.otp.erlang.OtpErlangDecodeException;
+import org.elixir_lang.beam.chunk.Atoms;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Compares reading the chunk directory through a {@link DataInputStream}, which copies every chunk, against reading
+ * it as views into the file's bytes, and against reading only the selected chunks.  All read what stub building needs:
+ * the atoms and the export/local tables.
+ *
+ * Run with `./gradlew jmh`.  The `gc` profiler reports `gc.alloc.rate.norm`, the bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BeamBenchmark {
+    private Corpus corpus;
+
+    @Setup(Level.Trial)
+    public void loadCorpus() throws IOException {
+        corpus = Corpus.load();
+    }
+
+    @Benchmark
+    public void dataInputStream(Blackhole blackhole) throws IOException {
+        for (int i = 0; i < corpus.size(); i++) {
+            DataInputStream dataInputStream = new DataInputStream(inputStream(corpus.contentList.get(i)));
+            Beam beam = Beam.Companion.from(dataInputStream, corpus.pathList.get(i));
+
+            stubInputs(beam, blackhole);
+        }
+    }
+
+    @Benchmark
+    public void chunkViews(Blackhole blackhole) throws IOException, OtpErlangDecodeException {
+        for (int i = 0; i < corpus.size(); i++) {
+            Beam beam = Beam.Companion.from(corpus.contentList.get(i), corpus.pathList.get(i));
+
+            stubInputs(beam, blackhole);
+        }
+    }
+
+    @Benchmark
+    public void selectedChunks(Blackhole blackhole) throws IOException, OtpErlangDecodeException {
+        for (int i = 0; i < corpus.size(); i++) {
+            Beam beam = Beam.Companion.from(
+                    corpus.contentList.get(i),
+                    corpus.pathList.get(i),
+                    Beam.CALL_DEFINITIONS_TYPE_ID_SET
+            );
+
+            stubInputs(beam, blackhole);
+        }
+    }
+
+    private static InputStream inputStream(byte[] content) throws IOException {
+        InputStream inputStream = new ByteArrayInputStream(content);
+
+        if (content.length >= 2 && content[0] == (byte) 0x1f && content[1] == (byte) 0x8b) {
+            inputStream = new GZIPInputStream(inputStream);
+        }
+
+        return inputStream;
+    }
+
+    private static void stubInputs(Beam beam, Blackhole blackhole) {
+        if (beam != null) {
+            Atoms atoms = beam.atoms();
+
+            blackhole.consume(atoms);
+            blackhole.consume(beam.callDefinitionsList(atoms));
+        }
+    }
+}
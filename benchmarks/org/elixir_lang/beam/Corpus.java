@@ -0,0 +1,75 @@
+package org.elixir_lang.beam;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The `.beam` files under `testData/org/elixir_lang`, loaded into memory once per trial, so that benchmarks
+ * measure decoding and not disk access.
+ *
+ * The `.beam` files of a project can be added by setting the {@link #BUILD_PATH_PROPERTY} system property to its
+ * `_build` directory, which `./gradlew jmh -PbenchmarkBuildPath=/path/to/project/_build` does for the forked JVMs.
+ */
+public class Corpus {
+    public static final String BUILD_PATH_PROPERTY = "elixir.beam.benchmark.build.path";
+    private static final String TEST_DATA_PATH = "testData/org/elixir_lang";
+
+    @NotNull
+    public final List<String> pathList = new ArrayList<>();
+    @NotNull
+    public final List<byte[]> contentList = new ArrayList<>();
+
+    @NotNull
+    public static Corpus load() throws IOException {
+        Corpus corpus = new Corpus();
+
+        corpus.addDirectory(new File(TEST_DATA_PATH));
+
+        String buildPath = System.getProperty(BUILD_PATH_PROPERTY);
+
+        if (buildPath != null && !buildPath.isEmpty()) {
+            File buildDirectory = new File(buildPath);
+
+            if (!buildDirectory.isDirectory()) {
+                throw new IllegalArgumentException(
+                        BUILD_PATH_PROPERTY + " (" + buildDirectory.getAbsolutePath() + ") is not a directory"
+                );
+            }
+
+            corpus.addDirectory(buildDirectory);
+        }
+
+        if (corpus.size() == 0) {
+            throw new IllegalStateException(
+                    "No .beam files found under " + new File(TEST_DATA_PATH).getAbsolutePath() + ".  " +
+                            "Benchmarks must be run from the root of the project."
+            );
+        }
+
+        return corpus;
+    }
+
+    public int size() {
+        return pathList.size();
+    }
+
+    private void addDirectory(@NotNull File directory) throws IOException {
+        File[] children = directory.listFiles();
+
+        if (children != null) {
+            for (File child : children) {
+                if (child.isDirectory()) {
+                    addDirectory(child);
+                } else if (child.getName().endsWith(".beam")) {
+                    pathList.add(child.getPath());
+                    contentList.add(Files.readAllBytes(child.toPath()));
+                }
+            }
+        }
+    }
+}
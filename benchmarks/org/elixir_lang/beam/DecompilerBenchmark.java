@@ -0,0 +1,69 @@
+package org.elixir_lang.beam;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.testFramework.BinaryLightVirtualFile;
+import org.elixir_lang.beam.cache.Decompiled;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decompiles every file of the corpus, as opening a `.beam` file or building its stubs does.  One operation is one pass
+ * over the whole corpus, so `ops/s` is corpus passes per second.
+ *
+ * `decompile` clears the {@link Decompiled} texts before each pass, so it measures decompiling; `decompileShared` keeps
+ * them, so it measures the lookup when the same content was already decompiled, such as in another project.
+ *
+ * Run with `./gradlew jmh`.  The `gc` profiler reports `gc.alloc.rate.norm`, the bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DecompilerBenchmark {
+    private final Decompiler decompiler = new Decompiler();
+    private final List<VirtualFile> virtualFileList = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void loadCorpus() throws IOException {
+        Corpus corpus = Corpus.load();
+
+        for (int i = 0; i < corpus.size(); i++) {
+            String name = new File(corpus.pathList.get(i)).getName();
+
+            virtualFileList.add(new BinaryLightVirtualFile(name, corpus.contentList.get(i)));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Uncached {
+        // a pass over the corpus takes milliseconds, so the per-invocation overhead of `Level.Invocation` is negligible
+        @Setup(Level.Invocation)
+        public void clear() {
+            Decompiled.INSTANCE.clear();
+        }
+    }
+
+    @Benchmark
+    public void decompile(Uncached uncached, Blackhole blackhole) {
+        decompileCorpus(blackhole);
+    }
+
+    @Benchmark
+    public void decompileShared(Blackhole blackhole) {
+        decompileCorpus(blackhole);
+    }
+
+    private void decompileCorpus(Blackhole blackhole) {
+        for (VirtualFile virtualFile : virtualFileList) {
+            blackhole.consume(decompiler.decompile(virtualFile));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.elixir_lang.beam.cache;
+
+import com.ericsson.otp.erlang.OtpErlangDecodeException;
+import com.intellij.util.io.DataExternalizer;
+import org.elixir_lang.beam.Beam;
+import org.elixir_lang.beam.Corpus;
+import org.elixir_lang.beam.chunk.Atoms;
+import org.elixir_lang.beam.chunk.CallDefinitions;
+import org.elixir_lang.beam.chunk.Chunk;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding the export table of every file of the corpus from the `.beam` content, as on a miss in
+ * {@link Persistent}, with reading it back from a file written by its {@link Persistent} externalizer, as on a hit.
+ * One operation is one pass over the whole corpus.
+ *
+ * Both benchmarks read the chunks with `Beam.from` and decode the atom table, as a {@link org.elixir_lang.beam.Cache}
+ * does: the persisted export table only has atom indices and the atom table itself is not persisted.
+ *
+ * Run with `./gradlew jmh`.  The `gc` profiler reports `gc.alloc.rate.norm`, the bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PersistentBenchmark {
+    private Corpus corpus;
+    private File directory;
+    private final List<File> exportsFileList = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void persistCorpus() throws IOException, OtpErlangDecodeException {
+        corpus = Corpus.load();
+        directory = Files.createTempDirectory("persistent-benchmark").toFile();
+
+        for (int i = 0; i < corpus.size(); i++) {
+            Beam beam = beam(i);
+            File exportsFile = null;
+
+            if (beam != null) {
+                Atoms atoms = beam.atoms();
+                CallDefinitions exports = beam.exports(atoms);
+
+                if (exports != null) {
+                    exportsFile = write(i + ".ExpT", exportsExternalizer(atoms), exports);
+                }
+            }
+
+            exportsFileList.add(exportsFile);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDirectory() {
+        for (File exportsFile : exportsFileList) {
+            if (exportsFile != null) {
+                exportsFile.delete();
+            }
+        }
+
+        directory.delete();
+    }
+
+    @Benchmark
+    public void decodeExports(Blackhole blackhole) throws IOException, OtpErlangDecodeException {
+        for (int i = 0; i < corpus.size(); i++) {
+            Beam beam = beam(i);
+
+            if (beam != null) {
+                blackhole.consume(beam.exports(beam.atoms()));
+            }
+        }
+    }
+
+    @Benchmark
+    public void readExports(Blackhole blackhole) throws IOException, OtpErlangDecodeException {
+        for (int i = 0; i < corpus.size(); i++) {
+            Beam beam = beam(i);
+            File exportsFile = exportsFileList.get(i);
+
+            if (beam != null && exportsFile != null) {
+                blackhole.consume(read(exportsFile, exportsExternalizer(beam.atoms())));
+            }
+        }
+    }
+
+    private Beam beam(int index) throws IOException, OtpErlangDecodeException {
+        return Beam.Companion.from(
+                corpus.contentList.get(index),
+                corpus.pathList.get(index),
+                Beam.CALL_DEFINITIONS_TYPE_ID_SET
+        );
+    }
+
+    private static DataExternalizer<CallDefinitions> exportsExternalizer(Atoms atoms) {
+        return new org.elixir_lang.beam.cache.persistent.CallDefinitions(Chunk.TypeID.EXPT, atoms);
+    }
+
+    private static <T> T read(File file, DataExternalizer<T> externalizer) throws IOException {
+        try (DataInputStream dataInputStream =
+                     new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return externalizer.read(dataInputStream);
+        }
+    }
+
+    private <T> File write(String name, DataExternalizer<T> externalizer, T model) throws IOException {
+        File file = new File(directory, name);
+
+        try (DataOutputStream dataOutputStream =
+                     new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            externalizer.save(dataOutputStream, model);
+        }
+
+        return file;
+    }
+}
@@ -0,0 +1,157 @@
+package org.elixir_lang.beam.chunk;
+
+import com.ericsson.otp.erlang.OtpErlangDecodeException;
+import org.elixir_lang.beam.Beam;
+import org.elixir_lang.beam.Corpus;
+import org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.V1;
+import org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.v1.Definitions;
+import org.elixir_lang.beam.chunk.debug_info.v1.erl_abstract_code.AbstractCodeCompileOptions;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads every file of the corpus with `Beam.from` and decodes each kind of chunk of every file of the corpus.  One
+ * operation is one pass over the whole corpus, so `ops/s` is corpus passes per second.
+ *
+ * Run with `./gradlew jmh`.  The `gc` profiler reports `gc.alloc.rate.norm`, the bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ChunkBenchmark {
+    private Corpus corpus;
+    private final List<Beam> beamList = new ArrayList<>();
+    private final List<Atoms> atomsList = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void loadCorpus() throws IOException, OtpErlangDecodeException {
+        corpus = Corpus.load();
+
+        for (int i = 0; i < corpus.size(); i++) {
+            Beam beam = Beam.Companion.from(corpus.contentList.get(i), corpus.pathList.get(i));
+
+            if (beam != null) {
+                beamList.add(beam);
+                atomsList.add(beam.atoms());
+            }
+        }
+    }
+
+    @Benchmark
+    public void beam(Blackhole blackhole) throws IOException, OtpErlangDecodeException {
+        for (int i = 0; i < corpus.size(); i++) {
+            blackhole.consume(Beam.Companion.from(corpus.contentList.get(i), corpus.pathList.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void atoms(Blackhole blackhole) {
+        for (Beam beam : beamList) {
+            blackhole.consume(beam.atoms());
+        }
+    }
+
+    @Benchmark
+    public void callDefinitions(Blackhole blackhole) {
+        for (int i = 0; i < beamList.size(); i++) {
+            blackhole.consume(beamList.get(i).callDefinitionsList(atomsList.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void code(Blackhole blackhole) {
+        for (Beam beam : beamList) {
+            blackhole.consume(beam.code());
+        }
+    }
+
+    /**
+     * Decodes every literal, as {@link Literals} only indexes the table until a literal is read.
+     */
+    @Benchmark
+    public void literals(Blackhole blackhole) {
+        for (Beam beam : beamList) {
+            Literals literals = beam.literals();
+
+            if (literals != null) {
+                for (int index = 0; index < literals.size(); index++) {
+                    blackhole.consume(literals.get(index));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void lines(Blackhole blackhole) {
+        for (int i = 0; i < beamList.size(); i++) {
+            blackhole.consume(beamList.get(i).lines(atomsList.get(i)));
+        }
+    }
+
+    /**
+     * Decodes the clauses of every definition, as {@link V1} only indexes the definitions until their clauses are read.
+     */
+    @Benchmark
+    public void debugInfo(Blackhole blackhole) {
+        for (Beam beam : beamList) {
+            DebugInfo debugInfo = beam.debugInfo();
+
+            if (debugInfo instanceof V1) {
+                Definitions definitions = ((V1) debugInfo).getDefinitions();
+
+                if (definitions != null) {
+                    for (int index = 0; index < definitions.size(); index++) {
+                        blackhole.consume(definitions.get(index).getClauses());
+                    }
+                }
+            } else if (debugInfo instanceof AbstractCodeCompileOptions) {
+                blackhole.consume(((AbstractCodeCompileOptions) debugInfo).getFunctions());
+            } else {
+                blackhole.consume(debugInfo);
+            }
+        }
+    }
+
+    /**
+     * Decodes every entry, as {@link Docs} only indexes the entries until one is read.
+     */
+    @Benchmark
+    public void docs(Blackhole blackhole) {
+        for (Beam beam : beamList) {
+            Docs docs = beam.docs();
+
+            if (docs != null) {
+                blackhole.consume(docs.getModuleDoc());
+
+                for (int index = 0; index < docs.size(); index++) {
+                    blackhole.consume(docs.get(index));
+                }
+            }
+        }
+    }
+
+    /**
+     * Decodes every section, as {@link ElixirDocumentation} only indexes the sections until one is read.
+     */
+    @Benchmark
+    public void elixirDocumentation(Blackhole blackhole) {
+        for (Beam beam : beamList) {
+            ElixirDocumentation elixirDocumentation = beam.elixirDocumentation();
+
+            if (elixirDocumentation != null) {
+                blackhole.consume(elixirDocumentation.getCallbackDocs());
+                blackhole.consume(elixirDocumentation.getDocs());
+                blackhole.consume(elixirDocumentation.getModuledoc());
+                blackhole.consume(elixirDocumentation.getTypeDocs());
+            }
+        }
+    }
+}
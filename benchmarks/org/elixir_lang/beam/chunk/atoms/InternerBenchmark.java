@@ -0,0 +1,102 @@
+package org.elixir_lang.beam.chunk.atoms;
+
+import com.ericsson.otp.erlang.OtpErlangDecodeException;
+import org.elixir_lang.beam.Beam;
+import org.elixir_lang.beam.Corpus;
+import org.elixir_lang.beam.chunk.Atoms;
+import org.openjdk.jmh.annotations.*;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes the atoms of the corpus {@link #COPY_COUNT} times, as when the same SDK and dependencies are decoded for
+ * several projects, and keeps all of them, with and without {@link Interner}.
+ *
+ * After each trial, the class histogram of the retained heap is printed for `String` and its backing arrays, so that
+ * the instance counts and bytes of the two benchmarks can be compared.  The `gc` profiler's `gc.alloc.rate.norm`
+ * shows the `String`s that interning does not allocate.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+public class InternerBenchmark {
+    private static final int COPY_COUNT = 4;
+
+    private Corpus corpus;
+    private final List<Atoms> retained = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void loadCorpus() throws IOException {
+        corpus = Corpus.load();
+    }
+
+    @Setup(Level.Iteration)
+    public void release() {
+        retained.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void printHistogram() throws Exception {
+        System.gc();
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        String histogram = (String) server.invoke(
+                new ObjectName("com.sun.management:type=DiagnosticCommand"),
+                "gcClassHistogram",
+                new Object[]{null},
+                new String[]{String[].class.getName()}
+        );
+
+        System.out.println();
+        System.out.println("Retained " + retained.size() + " atom tables; interned " + Interner.INSTANCE.size());
+
+        for (String line : histogram.split("\n")) {
+            if (line.endsWith(" java.lang.String") || line.endsWith(" [B") || line.endsWith(" [C") ||
+                    line.startsWith("Total")) {
+                System.out.println(line);
+            }
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Delixir.beam.atoms.intern=true")
+    public List<Atoms> interned() throws IOException, OtpErlangDecodeException {
+        return decode();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Delixir.beam.atoms.intern=false")
+    public List<Atoms> notInterned() throws IOException, OtpErlangDecodeException {
+        return decode();
+    }
+
+    private List<Atoms> decode() throws IOException, OtpErlangDecodeException {
+        for (int copy = 0; copy < COPY_COUNT; copy++) {
+            for (int i = 0; i < corpus.size(); i++) {
+                Beam beam = Beam.Companion.from(
+                        corpus.contentList.get(i),
+                        corpus.pathList.get(i),
+                        Beam.CALL_DEFINITIONS_TYPE_ID_SET
+                );
+
+                if (beam != null) {
+                    Atoms atoms = beam.atoms();
+
+                    if (atoms != null) {
+                        retained.add(atoms);
+                    }
+                }
+            }
+        }
+
+        return retained;
+    }
+}
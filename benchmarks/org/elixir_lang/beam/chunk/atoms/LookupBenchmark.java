@@ -0,0 +1,84 @@
+package org.elixir_lang.beam.chunk.atoms;
+
+import com.ericsson.otp.erlang.OtpErlangDecodeException;
+import com.google.common.collect.Interners;
+import org.elixir_lang.beam.Beam;
+import org.elixir_lang.beam.Corpus;
+import org.elixir_lang.beam.chunk.Atoms;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up every atom name of the corpus, all already interned, as when the atoms of a `.beam` whose names were
+ * decoded for another `.beam` are decoded.  One operation is one pass over all the names.
+ *
+ * `bytes` looks the names up from their bytes, as {@link Atoms} does, while `string` and `guava` first decode a
+ * `String`, as any `String` interner, such as Guava's weak interner, needs.  The `gc` profiler's
+ * `gc.alloc.rate.norm` shows the `String`s that looking up from the bytes does not allocate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class LookupBenchmark {
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    private final List<byte[]> nameBytesList = new ArrayList<>();
+    private final com.google.common.collect.Interner<String> guavaInterner = Interners.newWeakInterner();
+    // Strongly hold the interned names, so that the weak interners cannot drop them between operations
+    private final List<String> internedList = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void internCorpus() throws IOException, OtpErlangDecodeException {
+        Corpus corpus = Corpus.load();
+
+        for (int i = 0; i < corpus.size(); i++) {
+            Beam beam = Beam.Companion.from(
+                    corpus.contentList.get(i),
+                    corpus.pathList.get(i),
+                    Beam.CALL_DEFINITIONS_TYPE_ID_SET
+            );
+            Atoms atoms = beam != null ? beam.atoms() : null;
+
+            if (atoms != null) {
+                for (int index = 1; index <= atoms.size(); index++) {
+                    String name = atoms.get(index).getString();
+
+                    nameBytesList.add(name.getBytes(CHARSET));
+                    internedList.add(Interner.INSTANCE.intern(name));
+                    internedList.add(guavaInterner.intern(name));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void bytes(Blackhole blackhole) {
+        for (byte[] nameBytes : nameBytesList) {
+            blackhole.consume(Interner.INSTANCE.intern(nameBytes, 0, nameBytes.length, CHARSET));
+        }
+    }
+
+    @Benchmark
+    public void string(Blackhole blackhole) {
+        for (byte[] nameBytes : nameBytesList) {
+            blackhole.consume(Interner.INSTANCE.intern(new String(nameBytes, 0, nameBytes.length, CHARSET)));
+        }
+    }
+
+    @Benchmark
+    public void guava(Blackhole blackhole) {
+        for (byte[] nameBytes : nameBytesList) {
+            blackhole.consume(guavaInterner.intern(new String(nameBytes, 0, nameBytes.length, CHARSET)));
+        }
+    }
+}
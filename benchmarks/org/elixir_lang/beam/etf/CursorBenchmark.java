@@ -0,0 +1,123 @@
+package org.elixir_lang.beam.etf;
+
+import com.ericsson.otp.erlang.*;
+import org.elixir_lang.beam.Beam;
+import org.elixir_lang.beam.BeamKt;
+import org.elixir_lang.beam.Corpus;
+import org.elixir_lang.beam.chunk.Chunk;
+import org.elixir_lang.beam.chunk.ElixirDocumentation;
+import org.elixir_lang.beam.chunk.KeywordKt;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.elixir_lang.beam.chunk.Chunk.TypeID.*;
+
+/**
+ * Compares decoding the External Term Format chunks with {@link OtpInputStream}, which builds the whole
+ * `OtpErlangObject` graph, against reading them with a {@link Cursor}.
+ *
+ * Run with `./gradlew jmh`.  The `gc` profiler reports `gc.alloc.rate.norm`, the bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CursorBenchmark {
+    /**
+     * Attr, CInf, Dbgi and ExDc chunks of the corpus
+     */
+    private final List<Chunk> termChunkList = new ArrayList<>();
+    private final List<Chunk> keywordChunkList = new ArrayList<>();
+    private final List<Chunk> elixirDocumentationChunkList = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void loadChunks() throws IOException, OtpErlangDecodeException {
+        Corpus corpus = Corpus.load();
+
+        for (int i = 0; i < corpus.size(); i++) {
+            Beam beam = Beam.Companion.from(corpus.contentList.get(i), corpus.pathList.get(i));
+
+            if (beam != null) {
+                for (Chunk.TypeID typeID : new Chunk.TypeID[]{ATTR, CINF, DBGI, EXDC}) {
+                    Chunk chunk = beam.chunk(typeID);
+
+                    if (chunk != null) {
+                        termChunkList.add(chunk);
+
+                        if (typeID == ATTR || typeID == CINF) {
+                            keywordChunkList.add(chunk);
+                        } else if (typeID == EXDC) {
+                            elixirDocumentationChunkList.add(chunk);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void otpInputStreamTerm(Blackhole blackhole) throws OtpErlangDecodeException {
+        for (Chunk chunk : termChunkList) {
+            blackhole.consume(BeamKt.binaryToTerm(chunk.bytes, chunk.offset));
+        }
+    }
+
+    @Benchmark
+    public void cursorTerm(Blackhole blackhole) throws OtpErlangDecodeException {
+        for (Chunk chunk : termChunkList) {
+            blackhole.consume(Cursor.Companion.from(chunk.bytes, chunk.offset, chunk.end()).term());
+        }
+    }
+
+    @Benchmark
+    public void cursorSkip(Blackhole blackhole) throws OtpErlangDecodeException {
+        for (Chunk chunk : termChunkList) {
+            Cursor cursor = Cursor.Companion.from(chunk.bytes, chunk.offset, chunk.end());
+            cursor.skip();
+
+            blackhole.consume(cursor.getPosition());
+        }
+    }
+
+    @Benchmark
+    public void otpInputStreamKeyword(Blackhole blackhole) throws OtpErlangDecodeException {
+        for (Chunk chunk : keywordChunkList) {
+            blackhole.consume(KeywordKt.from(BeamKt.binaryToTerm(chunk.bytes, chunk.offset).getFirst()));
+        }
+    }
+
+    @Benchmark
+    public void cursorKeyword(Blackhole blackhole) throws OtpErlangDecodeException {
+        for (Chunk chunk : keywordChunkList) {
+            blackhole.consume(KeywordKt.from(chunk));
+        }
+    }
+
+    @Benchmark
+    public void otpInputStreamModuledoc(Blackhole blackhole) throws OtpErlangDecodeException {
+        for (Chunk chunk : elixirDocumentationChunkList) {
+            OtpErlangObject term = BeamKt.binaryToTerm(chunk.bytes, chunk.offset).getFirst();
+            OtpErlangList keyword = (OtpErlangList) ((OtpErlangTuple) term).elementAt(1);
+
+            blackhole.consume(new ElixirDocumentation(keyword).getModuledoc());
+        }
+    }
+
+    @Benchmark
+    public void cursorModuledoc(Blackhole blackhole) throws OtpErlangDecodeException {
+        for (Chunk chunk : elixirDocumentationChunkList) {
+            ElixirDocumentation elixirDocumentation = ElixirDocumentation.Companion.from(chunk);
+
+            if (elixirDocumentation != null) {
+                blackhole.consume(elixirDocumentation.getModuledoc());
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.elixir_lang.psi.scope;
+
+import kotlin.collections.SetsKt;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays the visited elements of resolving a call in a module with {@value #IMPORTS} imports and
+ * {@value #CLAUSES} clauses: each import is reached through the module imported before it, as when {@code use}
+ * macros are layered, and each imported module has {@value #CLAUSES_PER_MODULAR} clauses.  Each step down puts the
+ * import, the imported modular, and each of its clauses, after checking that the clause has not been visited, as
+ * {@code Import}, {@code Modular}, and {@code QuoteMacro} do.  One operation is one resolve.
+ *
+ * {@code copiedSet} is the previous {@code visitedElementSet + setOf(visitedElement)}, which copies the whole set on
+ * each put, while {@code visitedElementSet} is {@link VisitedElementSet}.
+ *
+ * Run with `./gradlew jmh`.  The `gc` profiler reports `gc.alloc.rate.norm`, the bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class VisitedElementSetBenchmark {
+    private static final int IMPORTS = 50;
+    private static final int CLAUSES = 500;
+    private static final int CLAUSES_PER_MODULAR = CLAUSES / IMPORTS;
+
+    private final Object entrance = new Object();
+    private final Object[] importCalls = new Object[IMPORTS];
+    private final Object[] modulars = new Object[IMPORTS];
+    private final Object[][] callDefinitionClauseCalls = new Object[IMPORTS][CLAUSES_PER_MODULAR];
+
+    @Setup(Level.Trial)
+    public void createElements() {
+        for (int i = 0; i < IMPORTS; i++) {
+            importCalls[i] = new Object();
+            modulars[i] = new Object();
+
+            for (int j = 0; j < CLAUSES_PER_MODULAR; j++) {
+                callDefinitionClauseCalls[i][j] = new Object();
+            }
+        }
+    }
+
+    @Benchmark
+    public int copiedSet() {
+        return copiedSet(0, SetsKt.setOf(entrance));
+    }
+
+    @Benchmark
+    public int visitedElementSet() {
+        return visitedElementSet(0, VisitedElementSet.of(entrance));
+    }
+
+    private int copiedSet(int depth, Set<Object> visitedElementSet) {
+        int visitedCount = 0;
+
+        if (depth < IMPORTS) {
+            Set<Object> importVisitedElementSet = SetsKt.plus(visitedElementSet, SetsKt.setOf(importCalls[depth]));
+            Set<Object> modularVisitedElementSet = SetsKt.plus(importVisitedElementSet, SetsKt.setOf(modulars[depth]));
+
+            for (Object callDefinitionClauseCall : callDefinitionClauseCalls[depth]) {
+                if (!modularVisitedElementSet.contains(callDefinitionClauseCall)) {
+                    visitedCount += SetsKt.plus(modularVisitedElementSet, SetsKt.setOf(callDefinitionClauseCall)).size();
+                }
+            }
+
+            visitedCount += copiedSet(depth + 1, modularVisitedElementSet);
+        }
+
+        return visitedCount;
+    }
+
+    private int visitedElementSet(int depth, VisitedElementSet<Object> visitedElementSet) {
+        int visitedCount = 0;
+
+        if (depth < IMPORTS) {
+            VisitedElementSet<Object> importVisitedElementSet = visitedElementSet.plus(importCalls[depth]);
+            VisitedElementSet<Object> modularVisitedElementSet = importVisitedElementSet.plus(modulars[depth]);
+
+            for (Object callDefinitionClauseCall : callDefinitionClauseCalls[depth]) {
+                if (!modularVisitedElementSet.contains(callDefinitionClauseCall)) {
+                    visitedCount += modularVisitedElementSet.plus(callDefinitionClauseCall).getSize();
+                }
+            }
+
+            visitedCount += visitedElementSet(depth + 1, modularVisitedElementSet);
+        }
+
+        return visitedCount;
+    }
+}
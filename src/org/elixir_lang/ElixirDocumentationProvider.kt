@@ -1,28 +1,23 @@
 package org.elixir_lang
 
 import com.intellij.lang.documentation.DocumentationProvider
-import com.intellij.openapi.module.Module
 import com.intellij.psi.PsiElement
-import org.elixir_lang.jps.sdk_type.Elixir
+import org.elixir_lang.beam.Documentation
 import org.elixir_lang.psi.*
 import org.elixir_lang.psi.impl.isOutermostQualifiableAlias
-import org.elixir_lang.sdk.elixir.Type
 import org.intellij.markdown.flavours.gfm.GFMFlavourDescriptor
 import org.intellij.markdown.html.HtmlGenerator
 import org.intellij.markdown.parser.MarkdownParser
-import org.jetbrains.annotations.NotNull
-import java.io.BufferedReader
-import java.io.File
-import java.io.InputStreamReader
-import java.util.stream.Collectors
-
 
+/**
+ * Documentation is read from the documentation chunk of the resolved module's `.beam` file, which is fast enough to also
+ * show on hover.
+ */
 class ElixirDocumentationProvider : DocumentationProvider {
     private data class HelpArguments(val moduleName: String, val functionName: String? = null, val arity: Int? = null)
 
-    override fun generateHoverDoc(element: PsiElement, originalElement: PsiElement?): String? {
-        return null
-    }
+    override fun generateHoverDoc(element: PsiElement, originalElement: PsiElement?): String? =
+            generateDoc(element, originalElement)
 
     override fun generateDoc(element: PsiElement, originalElement: PsiElement?): String? {
         val helpArguments = getHelpArguments(element)
@@ -30,13 +25,7 @@ class ElixirDocumentationProvider : DocumentationProvider {
             return null
         }
 
-        val sdkPath = Type.mostSpecificSdk(element)?.homePath.toString()
-        if (sdkPath.isBlank())
-            return "Please configure Elixir SDK first";
-
-        val iexExecutable = Elixir.getIExExecutable(sdkPath).absolutePath
-        val projectBasePath = element.project.basePath ?: return null
-        return fetchDocumentation(projectBasePath, iexExecutable, helpArguments.moduleName, helpArguments.functionName, helpArguments.arity)
+        return fetchDocumentation(element, helpArguments.moduleName, helpArguments.functionName, helpArguments.arity)
     }
 
     private fun getHelpArguments(element: PsiElement) : HelpArguments?{
@@ -81,41 +70,12 @@ class ElixirDocumentationProvider : DocumentationProvider {
     }
 
 
-    private fun fetchDocumentation(projectBasePath: String, iexExecutablePath: String, moduleName: String, functionName: String?, arity: Int?): String? {
-        val helpArgumentBuilder = StringBuilder()
-                .append(moduleName)
-
-        if (functionName != null){
-            helpArgumentBuilder.append(".$functionName")
-            if (arity != null){
-                helpArgumentBuilder.append("/${arity}")
-            }
-        }
-
-        val startDocumentationMarker = "START_DOCUMENTATION"
-        val endDocumentationMarker = "END_DOCUMENTATION"
-
-        val iexCommand = "import IEx.Helpers;" +
-                "IO.puts \"$startDocumentationMarker\";" +
-                "h $helpArgumentBuilder;" +
-                "IO.puts \"$endDocumentationMarker\";" +
-                "System.halt;"
-
-        val cmdArray = arrayOf(iexExecutablePath, "--no-start", "--no-compile", "-S", "mix", "run", "-e", iexCommand)
-        val process = Runtime.getRuntime().exec(cmdArray, null, File(projectBasePath))
-
-        val stdInput = BufferedReader(InputStreamReader(process.inputStream))
-
-        val stdInputString = stdInput.lines().collect(Collectors.joining("\n"))
-
-        val reg = Regex("$startDocumentationMarker([\\s\\S]*)$endDocumentationMarker")
-        val src = reg.find(stdInputString) ?: return null
-        if (src.groups.size < 2)
-            return null
-
-        val iexDocumentation = src.groups[1]?.value.orEmpty()
+    private fun fetchDocumentation(element: PsiElement, moduleName: String, functionName: String?, arity: Int?): String? {
+        val markdown =
+                Documentation.markdown(element.project, element.resolveScope, moduleName, functionName, arity) ?:
+                return null
         val flavour = GFMFlavourDescriptor()
-        val parsedTree = MarkdownParser(flavour).buildMarkdownTreeFromString(iexDocumentation)
-        return HtmlGenerator(iexDocumentation, parsedTree, flavour, false).generateHtml()
+        val parsedTree = MarkdownParser(flavour).buildMarkdownTreeFromString(markdown)
+        return HtmlGenerator(markdown, parsedTree, flavour, false).generateHtml()
     }
-}
\ No newline at end of file
+}
@@ -183,24 +183,11 @@ object Macro {
 
         return variable
     }
-
     fun metadata(expression: OtpErlangTuple): OtpErlangList = expression.elementAt(1) as OtpErlangList
 
     // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L721-L722
     fun otherToString(macro: OtpErlangObject): String = inspect(macro)
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L948-L952
-    private fun keywordListToString(list: OtpErlangList): String =
-        list.joinToString(", ") { element ->
-            val tuple = element as OtpErlangTuple
-
-            assert(tuple.arity() == 2)
-
-            val (key, value) = tuple
-
-            "${Identifier.inspectAsKey(key as OtpErlangAtom)} ${toString(value)}"
-        }
-
     inline fun <T> ifTupleTo(macro: OtpErlangObject, arity: Int, tupleTo: (OtpErlangTuple) -> T?): T? =
             (macro as? OtpErlangTuple)?.let { tuple ->
                 if (tuple.arity() == arity) {
@@ -210,670 +197,801 @@ object Macro {
                 }
             }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L543-L546
-    private fun ifAliasToString(macro: OtpErlangObject): String? =
-            ifTagged3TupleTo(macro, "__aliases__") { tuple ->
-                (tuple.elementAt(2) as OtpErlangList).joinToString(".") { callToString(it) }
-            }
-
-    private fun ifArrowToString(macro: OtpErlangObject): String? =
-            (macro as? OtpErlangList)?.let { list ->
-                if (list.arity() > 0) {
-                    ifTagged3TupleTo(list.elementAt(0), "->") {
-                        "(${arrowToString(list, true)})"
-                    }
+    inline fun <T> ifTagged3TupleTo(
+            macro: OtpErlangObject,
+            tag: String,
+            crossinline taggedTupleTo: (OtpErlangTuple) -> T?
+    ): T? =
+            ifTupleTo(macro, 3) { tuple: OtpErlangTuple ->
+                if (tuple.elementAt(0) == OtpErlangAtom(tag)) {
+                    taggedTupleTo(tuple)
                 } else {
                     null
                 }
             }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L558-L576
-    private fun ifBitContainerToString(macro: OtpErlangObject): String? =
-            ifTagged3TupleTo(macro, "<<>>") { tuple ->
-                if (isInterpolated(tuple)) {
-                    interpolate(tuple)
-                } else {
-                    val result = (tuple.elementAt(2) as OtpErlangList).joinToString(", ") { part ->
-                        val partString = bitPartToString(part)
+    fun toString(macro: OtpErlangObject): String = toString(macro, StringBuilder()).toString()
 
-                        if (partString.startsWith('<') || partString.endsWith('>')) {
-                            "($partString)"
-                        } else {
-                            partString
-                        }
-                    }
+    /**
+     * Appends the code for `macro` to `appendable`.
+     *
+     * The macro is rendered in a single pass into one [StringBuilder]: each node is dispatched once on its shape and
+     * nested nodes append to the same builder, with the indentation of nested blocks applied as the text is appended,
+     * instead of building and re-indenting a `String` for each node.  The text is the same as [toString] `(macro)`.
+     */
+    fun <A : Appendable> toString(macro: OtpErlangObject, appendable: A): A {
+        if (appendable is StringBuilder) {
+            append(Writer(appendable), macro)
+        } else {
+            appendable.append(toString(macro))
+        }
 
-                    "<<$result>>"
-                }
+        return appendable
+    }
+
+    /**
+     * Appends text to `builder`, indenting each new line by 2 spaces per level of [indented] blocks the text is
+     * appended in.
+     */
+    private class Writer(val builder: StringBuilder) {
+        var depth = 0
+
+        fun append(char: Char): Writer {
+            if (char == '\n') {
+                newLine()
+            } else {
+                builder.append(char)
             }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L553-L556
-    private fun ifBlockToString(macro: OtpErlangObject): String? =
-            ifTagged3TupleTo(macro, "__block__") { tuple ->
-                val adjusted = adjustNewLines(blockToString(tuple), "\n  ")
+            return this
+        }
 
-                "(\n  $adjusted\n)"
+        fun append(text: CharSequence): Writer {
+            if (depth == 0) {
+                builder.append(text)
+            } else {
+                var start = 0
+
+                for (index in 0 until text.length) {
+                    if (text[index] == '\n') {
+                        builder.append(text, start, index)
+                        newLine()
+                        start = index + 1
+                    }
+                }
+
+                builder.append(text, start, text.length)
             }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L924-L935
-    private fun blockToString(term: OtpErlangObject): String =
-        ifArrowListBlockToString(term) ?:
-                ifBlockBlockToString(term) ?:
-                // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L935
-                toString(term)
+            return this
+        }
+
+        inline fun indented(block: () -> Unit) {
+            depth++
+            block()
+            depth--
+        }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L924-L929
-    private fun ifArrowListBlockToString(block: OtpErlangObject): String? =
-        (block as? OtpErlangList)?.let { list ->
-            if (list.arity() > 0) {
-                ifTagged3TupleTo(list.elementAt(0), "->") {
-                    list.joinToString("\n") { element ->
-                        val (function, _, arguments) = element as OtpErlangTuple
+        private fun newLine() {
+            builder.append('\n')
 
-                        assert(function is OtpErlangAtom && function.atomValue() == "->")
+            for (level in 0 until depth) {
+                builder.append("  ")
+            }
+        }
+    }
 
-                        val argumentList = arguments as OtpErlangList
+    private fun append(writer: Writer, macro: OtpErlangObject) {
+        when (macro) {
+            is OtpErlangTuple -> appendTuple(writer, macro)
+            is OtpErlangList -> appendList(writer, macro)
+            else -> writer.append(otherToString(macro))
+        }
+    }
 
-                        assert(argumentList.arity() == 2)
+    private fun appendTuple(writer: Writer, tuple: OtpErlangTuple) {
+        when (tuple.arity()) {
+            // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L695-L698
+            2 -> appendTupleContainer(writer, OtpErlangList(tuple.elements()))
+            3 -> append3Tuple(writer, tuple)
+            else -> writer.append(otherToString(tuple))
+        }
+    }
 
-                        val (left, right) = argumentList
-                        val leftString = commaJoinOrEmptyParentheses(left as OtpErlangList, false)
+    private fun append3Tuple(writer: Writer, tuple: OtpErlangTuple) {
+        val head = tuple.elementAt(0)
+        val arguments = tuple.elementAt(2)
 
-                        "$leftString->\n  ${adjustNewLines(blockToString(right), "\n  ")}"
-                    }
-                }
+        val appended = if (head is OtpErlangAtom) {
+            if (isVariableContext(arguments)) {
+                // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L538-L541
+                writer.append(head.atomValue())
+                true
             } else {
-                null
+                appendTagged(writer, head.atomValue(), tuple, arguments)
             }
+        } else {
+            appendDotTuple(writer, head, arguments)
         }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L931-L933
-    private fun ifBlockBlockToString(term: OtpErlangObject): String? =
-            ifTagged3TupleTo(term, "__block__") { tuple ->
-                (tuple.elementAt(2) as OtpErlangList).joinToString("\n") { toString(it) }
+        if (!appended) {
+            if (arguments is OtpErlangList) {
+                appendCall(writer, tuple, arguments)
+            } else {
+                writer.append(otherToString(tuple))
             }
+        }
+    }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L645-L651
-    private fun ifCaptureModuleNameArityToString(macro: OtpErlangObject): String? =
-            ifTagged3TupleTo(macro, "&") { tuple ->
-                (tuple.elementAt(2) as? OtpErlangList)?.let { arguments ->
-                    if (arguments.arity() == 1) {
-                        ifTagged3TupleTo(arguments.elementAt(0), "/") { slashTuple ->
-                            (slashTuple.elementAt(2) as? OtpErlangList)?.let { slashArguments ->
-                                if (slashArguments.arity() == 2) {
-                                    val (moduleDotName, arity) = slashArguments
-
-                                    ifTagged3TupleTo(moduleDotName, ".") { moduleDotNameTuple ->
-                                        (moduleDotNameTuple.elementAt(2) as? OtpErlangList)?.let { moduleName ->
-                                            if (moduleName.arity() == 2) {
-                                                val (module, name) = moduleName
-
-                                                if (name is OtpErlangAtom && arity is OtpErlangLong) {
-                                                    "&${toString(module)}.${atomToString(name)}/${toString(arity)}"
-                                                } else {
-                                                    null
-                                                }
-                                            } else {
-                                                null
-                                            }
-                                        }
-                                    }
-                                } else {
-                                    null
-                                }
-                            }
-                        }
+    private fun isVariableContext(context: OtpErlangObject): Boolean =
+            context is OtpErlangAtom || (context is OtpErlangList && context.arity() == 1 && context.elementAt(0) == NIL)
+
+    /**
+     * @return `false` if `tag` has no special form or `arguments` do not match the special form, so that `tuple` is
+     *   appended as a call.
+     */
+    private fun appendTagged(writer: Writer, tag: String, tuple: OtpErlangTuple, arguments: OtpErlangObject): Boolean =
+            when (tag) {
+                // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L543-L546
+                "__aliases__" -> {
+                    appendJoined(writer, arguments as OtpErlangList, ".") { appendCallTarget(writer, it) }
+                    true
+                }
+                "__block__" -> {
+                    if (arguments is OtpErlangList && arguments.arity() == 1) {
+                        // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L548-L551
+                        append(writer, arguments.elementAt(0))
                     } else {
-                        null
+                        // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L553-L556
+                        writer.append('(')
+                        writer.indented {
+                            writer.append('\n')
+                            appendBlock(writer, tuple)
+                        }
+                        writer.append("\n)")
                     }
+
+                    true
+                }
+                "<<>>" -> {
+                    appendBitContainer(writer, tuple)
+                    true
+                }
+                // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L578-L582
+                "{}" -> {
+                    appendTupleContainer(writer, arguments as OtpErlangList)
+                    true
+                }
+                // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L585-L588
+                "%{}" -> {
+                    writer.append("%{")
+                    appendMap(writer, arguments as OtpErlangList)
+                    writer.append('}')
+                    true
+                }
+                "%" -> appendStructContainer(writer, arguments)
+                "fn" -> {
+                    appendFn(writer, arguments)
+                    true
                 }
+                "when" -> {
+                    appendWhen(writer, arguments as OtpErlangList)
+                    true
+                }
+                "&" -> appendCapture(writer, arguments)
+                "not" -> appendNotIn(writer, arguments)
+                else -> false
             }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L653-L655
-    private fun ifCaptureNonInteger(macro: OtpErlangObject): String? =
-            ifTagged3TupleTo(macro, "&") { tuple ->
-                (tuple.elementAt(2) as? OtpErlangList)?.let { arguments ->
-                    if (arguments.arity() == 1) {
-                        val argument = arguments.elementAt(0)
+    private fun appendList(writer: Writer, list: OtpErlangList) {
+        when {
+            // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L611-L614
+            isArrowList(list) -> {
+                writer.append('(')
+                appendArrows(writer, list, true)
+                writer.append(')')
+            }
+            list.arity() == 0 ->
+                writer.append("[]")
+            IOLib.printableList(list) ->
+                writer.append('\'').append(IOLib.printableListToString(list)).append('\'')
+            org.elixir_lang.Inspect.List.isKeyword(list) -> {
+                writer.append('[')
+                appendKeywordList(writer, list)
+                writer.append(']')
+            }
+            else -> {
+                writer.append('[')
+                appendJoined(writer, list, ", ") { append(writer, it) }
+                writer.append(']')
+            }
+        }
+    }
 
-                        if (argument !is OtpErlangLong) {
-                            "&(${toString(argument)})"
-                        } else {
-                            null
-                        }
-                    } else {
-                        null
+    private inline fun appendJoined(
+            writer: Writer,
+            list: OtpErlangList,
+            separator: String,
+            appendElement: (OtpErlangObject) -> Unit
+    ) {
+        for (index in 0 until list.arity()) {
+            if (index > 0) {
+                writer.append(separator)
+            }
+
+            appendElement(list.elementAt(index))
+        }
+    }
+
+    private fun appendTupleContainer(writer: Writer, elements: OtpErlangList) {
+        writer.append('{')
+        appendJoined(writer, elements, ", ") { append(writer, it) }
+        writer.append('}')
+    }
+
+    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L948-L952
+    private fun appendKeywordList(writer: Writer, list: OtpErlangList) {
+        appendJoined(writer, list, ", ") { element ->
+            val tuple = element as OtpErlangTuple
+
+            assert(tuple.arity() == 2)
+
+            val (key, value) = tuple
+
+            writer.append(Identifier.inspectAsKey(key as OtpErlangAtom)).append(' ')
+            append(writer, value)
+        }
+    }
+
+    private fun isArrowList(term: OtpErlangObject): Boolean =
+            term is OtpErlangList && term.arity() > 0 && isTagged3Tuple(term.elementAt(0), "->")
+
+    private fun isTagged3Tuple(term: OtpErlangObject, tag: String): Boolean =
+            ifTagged3TupleTo(term, tag) { true } ?: false
+
+    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L924-L935
+    private fun appendBlock(writer: Writer, term: OtpErlangObject) {
+        when {
+            // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L924-L929
+            isArrowList(term) ->
+                appendJoined(writer, term as OtpErlangList, "\n") { element ->
+                    val (function, _, arguments) = element as OtpErlangTuple
+
+                    assert(function is OtpErlangAtom && function.atomValue() == "->")
+
+                    val argumentList = arguments as OtpErlangList
+
+                    assert(argumentList.arity() == 2)
+
+                    val (left, right) = argumentList
+
+                    appendCommaJoinOrEmptyParentheses(writer, left as OtpErlangList, false)
+                    writer.append("->")
+                    writer.indented {
+                        writer.append('\n')
+                        appendBlock(writer, right)
                     }
                 }
-            }
+            // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L931-L933
+            isTagged3Tuple(term, "__block__") ->
+                appendJoined(writer, (term as OtpErlangTuple).elementAt(2) as OtpErlangList, "\n") {
+                    append(writer, it)
+                }
+            // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L935
+            else ->
+                append(writer, term)
+        }
+    }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L894-L908
-    private fun argumentsToString(arguments: OtpErlangList): String {
-        val (init, last) = splitLast(arguments)
+    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L558-L576
+    private fun appendBitContainer(writer: Writer, tuple: OtpErlangTuple) {
+        if (isInterpolated(tuple)) {
+            writer.append(interpolate(tuple))
+        } else {
+            val builder = writer.builder
 
-        return if (last is OtpErlangList && last.arity() != 0 && Inspect.List.isKeyword(last)) {
-            val prefix = if (init.arity() == 0) {
-                ""
-            } else {
-                init.joinToString(", ") { toString(it) } + ", "
+            writer.append("<<")
+            appendJoined(writer, tuple.elementAt(2) as OtpErlangList, ", ") { part ->
+                val start = builder.length
+
+                appendBitPart(writer, part)
+
+                if (builder.length > start && (builder[start] == '<' || builder[builder.length - 1] == '>')) {
+                    builder.insert(start, '(')
+                    builder.append(')')
+                }
             }
+            writer.append(">>")
+        }
+    }
+
+    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L724-L733
+    private fun appendBitPart(writer: Writer, bitPart: OtpErlangObject) {
+        val arguments = ifTagged3TupleTo(bitPart, "::") { it.elementAt(2) as? OtpErlangList }
 
-            prefix + keywordListToString(last)
+        // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L724-L729
+        if (arguments != null && arguments.arity() == 2) {
+            val (left, right) = arguments
+
+            appendOperand(writer, left, "::", Identifier.Associativity.LEFT)
+            writer.append("::")
+            appendBitMods(writer, right, "::", Identifier.Associativity.RIGHT)
         } else {
-            arguments.joinToString(", ") { toString(it) }
+            append(writer, bitPart)
         }
     }
 
-    private fun atomToString(atom: OtpErlangAtom): String = inspect(atom)
-
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L662-L669
-    private fun ifAccessToString(macro: OtpErlangObject): String? =
-            ifTupleTo(macro, 3) { tuple: OtpErlangTuple ->
-                ifTagged3TupleTo(tuple.elementAt(0), ".") { dotTuple ->
-                    (dotTuple as? OtpErlangList)?.let { dotArguments ->
-                        if (dotArguments.arity() == 2 &&
-                                dotArguments.elementAt(0) == OtpErlangAtom("Elixir.Access") &&
-                                dotArguments.elementAt(1) == OtpErlangAtom("get")) {
-                            (tuple.elementAt(2) as? OtpErlangList)?.let { arguments ->
-                                if (arguments.arity() == 2) {
-                                    val (left, right) = arguments
-                                    val leftString = toString(left)
-                                    val rightString = toString(OtpErlangList(right))
-
-                                    if (isOperationExpression(left)) {
-                                        "($leftString)$rightString"
-                                    } else {
-                                        leftString + rightString
-                                    }
-                                } else {
-                                    null
-                                }
-                            }
+    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L735-L745
+    private fun appendBitMods(
+            writer: Writer,
+            other: OtpErlangObject,
+            parentOperator: String,
+            side: Identifier.Associativity
+    ) {
+        val operatorArguments = ifTupleTo(other, 3) { tuple ->
+            (tuple.elementAt(0) as? OtpErlangAtom)?.atomValue()?.let { operator ->
+                if (operator == "*" || operator == "-") {
+                    (tuple.elementAt(2) as? OtpErlangList)?.let { arguments ->
+                        if (arguments.arity() == 2) {
+                            Pair(operator, arguments)
                         } else {
                             null
                         }
                     }
+                } else {
+                    null
                 }
             }
+        }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L676-L693
-    private fun ifCallToString(macro: OtpErlangObject): String? =
-            ifTupleTo(macro, 3) { tuple: OtpErlangTuple ->
-                (tuple.elementAt(2) as? OtpErlangList)?.let {
-                    ifModuleAttributeDefinitionToString(tuple) ?:
-                    ifUnaryCallToString(tuple) ?:
-                    ifBinaryCallToString(tuple) ?:
-                    ifSigilCallToString(tuple) ?:
-                    ifDeinlineToString(tuple) ?:
-                    otherCallToString(tuple)
-                }
-            }
-
-    private fun ifDeinlineToString(term: OtpErlangTuple): String? =
-            ifErlangElementRewriteTo(term) { toString(it) } ?:
-                    ifErlangRewriteTo(term) { toString(it) } ?:
-                    ifMapsIsKeyRewriteTo(term) { toString(it) } ?:
-                    ifMapsMergeRewriteTo(term) { toString(it) }
-
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L681-L687
-    private fun otherCallToString(tuple: OtpErlangTuple): String? {
-        val arguments = tuple.elementAt(2) as OtpErlangList
-        val (list, last) = splitLast(arguments)
+        if (operatorArguments != null) {
+            // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L735-L741
+            val (operator, arguments) = operatorArguments
+            val (left, right) = arguments
 
-        return if (isKeywordBlocks(last)) {
-            callToStringWithArguments(tuple.elementAt(0), list) + keywordBlocksToString(last as OtpErlangList)
+            appendBitMods(writer, left, operator, Identifier.Associativity.LEFT)
+            writer.append(operator)
+            appendBitMods(writer, right, operator, Identifier.Associativity.RIGHT)
         } else {
-            callToStringWithArguments(tuple.elementAt(0), arguments)
+            // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L743-L745
+            appendOperand(writer, other, parentOperator, side)
         }
     }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L919-L922
-    private fun keywordBlockToString(keyword: String, block: OtpErlangObject): String =
-            "$keyword\n  ${adjustNewLines(blockToString(block), "\n  ")}\n"
+    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L590-L594
+    private fun appendStructContainer(writer: Writer, arguments: OtpErlangObject): Boolean =
+            if (arguments is OtpErlangList && arguments.arity() == 2) {
+                val (structName, map) = arguments
 
-    // in order they should be rendered in keywordBlocksToString
-    val KEYWORD_BLOCK_KEYWORDS = arrayOf("do", "catch", "rescue", "after", "else")
+                val mapTuple = map as OtpErlangTuple
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L910-L917
-    private fun keywordBlocksToString(keywordBlocks: OtpErlangList): String =
-        KEYWORD_BLOCK_KEYWORDS.mapNotNull { keywordBlockKeyword ->
-            Keyword.get(keywordBlocks, keywordBlockKeyword)?.let { keywordBlock ->
-                keywordBlockToString(keywordBlockKeyword, keywordBlock)
+                assert(mapTuple.arity() == 3 && mapTuple.elementAt(0) == OtpErlangAtom("%{}"))
+
+                val mapArguments = (mapTuple.elementAt(2) as OtpErlangList)
+
+                writer.append('%')
+                append(writer, structName)
+                writer.append('{')
+                appendMap(writer, mapArguments)
+                writer.append('}')
+
+                true
+            } else {
+                false
+            }
+
+    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L937-L946
+    private fun appendMap(writer: Writer, list: OtpErlangList) {
+        val updateArguments = if (list.arity() == 1) {
+            ifTagged3TupleTo(list.elementAt(0), "|") { tuple ->
+                (tuple.elementAt(2) as? OtpErlangList)?.takeIf { it.arity() == 2 }
+            }
+        } else {
+            null
+        }
+
+        when {
+            updateArguments != null -> {
+                val (updateMap, updateMapArguments) = updateArguments
+
+                append(writer, updateMap)
+                writer.append(" | ")
+                appendMap(writer, updateMapArguments as OtpErlangList)
             }
-        }.joinToString("", " ") + "end"
+            Inspect.List.isKeyword(list) ->
+                appendKeywordList(writer, list)
+            // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L954-L958
+            else ->
+                appendJoined(writer, list, ", ") { element ->
+                    val tuple = element as OtpErlangTuple
 
-    private fun callToStringWithArguments(target: OtpErlangObject, arguments: OtpErlangList): String {
-        return "${callToString(target)}(${argumentsToString(arguments)})"
+                    assert(tuple.arity() == 2)
+
+                    val (key, value) = tuple
+
+                    append(writer, key)
+                    writer.append(" => ")
+                    append(writer, value)
+                }
+        }
     }
 
-    private fun isKeywordBlock(term: OtpErlangObject): Boolean =
-            when (term) {
-                is OtpErlangTuple -> isKeywordBlock(term)
-                else -> false
+    private fun appendFn(writer: Writer, arguments: OtpErlangObject) {
+        val arrow = (arguments as? OtpErlangList)?.takeIf { it.arity() == 1 && isArrowList(it) }
+
+        when {
+            // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L596-L600
+            arrow != null && isFnArrow(arrow.elementAt(0) as OtpErlangTuple) -> {
+                writer.append("fn ")
+                appendArrows(writer, arrow, false)
+                writer.append(" end")
+            }
+            // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L602-L604
+            arrow != null -> {
+                writer.append("fn ")
+                appendBlock(writer, arrow)
+                writer.append("\nend")
+            }
+            // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L606-L609
+            else -> {
+                writer.append("fn\n ")
+                writer.indented {
+                    appendBlock(writer, arguments)
+                }
+                writer.append("\nend")
             }
+        }
+    }
 
-    private fun isKeywordBlock(tuple: OtpErlangTuple): Boolean =
-            tuple.arity() == 2 && (tuple.elementAt(0) as? OtpErlangAtom)?.atomValue() in KEYWORD_BLOCK_KEYWORDS
+    private fun isFnArrow(arrowElement: OtpErlangTuple): Boolean =
+            (arrowElement.elementAt(2) as? OtpErlangList)?.let { arrowElementArguments ->
+                if (arrowElementArguments.arity() == 2) {
+                    val arrowElementArgumentsTuple = arrowElementArguments.elementAt(1)
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L750-L754
-    private fun isKeywordBlocks(list: OtpErlangList): Boolean =
-        if (list.arity() > 0) {
-            (list.elementAt(0) as? OtpErlangTuple)?.let { firstTuple ->
-                if (firstTuple.arity() == 2 && firstTuple.elementAt(0) == OtpErlangAtom("do")) {
-                    list.all { isKeywordBlock(it) }
+                    arrowElementArgumentsTuple !is OtpErlangTuple ||
+                            arrowElementArgumentsTuple.elementAt(0) != OtpErlangAtom("__block__")
                 } else {
                     false
                 }
             } ?: false
+
+    private fun appendWhen(writer: Writer, arguments: OtpErlangList) {
+        if (arguments.arity() == 2) {
+            // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L616-L626
+            val (left, right) = arguments
+
+            appendOperand(writer, left, "when", Identifier.Associativity.LEFT)
+            writer.append(" when ")
+
+            if (right != OtpErlangList() && Keyword.isKeyword(right)) {
+                appendKeywordList(writer, right as OtpErlangList)
+            } else {
+                appendOperand(writer, rewriteGuard(right), "when", Identifier.Associativity.RIGHT)
+            }
         } else {
-            false
+            // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L628-L636
+            val (left, right) = splitLast(arguments)
+
+            writer.append('(')
+            appendJoined(writer, left, ", ") { append(writer, it) }
+            writer.append(") when ")
+            append(writer, right)
         }
+    }
 
-    private fun isKeywordBlocks(term: OtpErlangObject): Boolean =
-            when (term) {
-                is OtpErlangList -> isKeywordBlocks(term)
-                else -> false
-            }
+    private fun appendCapture(writer: Writer, arguments: OtpErlangObject): Boolean {
+        val argument = (arguments as? OtpErlangList)?.takeIf { it.arity() == 1 }?.elementAt(0) ?: return false
+        val slashArguments = ifTagged3TupleTo(argument, "/") { slashTuple ->
+            (slashTuple.elementAt(2) as? OtpErlangList)?.takeIf { it.arity() == 2 }
+        }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L842-L855
-    private fun ifSigilCallToString(macro: OtpErlangObject): String? =
-        ifTupleTo(macro, 3) { tuple ->
-            (tuple.elementAt(0) as? OtpErlangAtom)?.let { sigil ->
-                (tuple.elementAt(2) as? OtpErlangList)?.let { arguments ->
-                    if (arguments.arity() == 2) {
-                        ifTagged3TupleTo(arguments.elementAt(0), "<<>>") { binary ->
-                            (arguments.elementAt(1) as? OtpErlangList)?.let { sigilArguments ->
-                                val sigilAtomValue = sigil.atomValue()
+        if (slashArguments != null) {
+            val (nameOrModuleDotName, arity) = slashArguments
 
-                                if (sigilAtomValue.startsWith("sigil_")) {
-                                    val name = sigilAtomValue.removePrefix("sigil_")
+            if (arity is OtpErlangLong) {
+                // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L638-L643
+                val name = ifTupleTo(nameOrModuleDotName, 3) { nameContextTuple ->
+                    val (name, _, context) = nameContextTuple
 
-                                    "~$name${interpolate(binary)}${sigilArguments(sigilArguments)}"
-                                } else {
-                                    null
-                                }
-                            }
-                        }
+                    if (name is OtpErlangAtom && context is OtpErlangAtom) {
+                        name
                     } else {
                         null
                     }
                 }
-            }
-        }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L825-L840
-    private fun ifBinaryCallToString(macro: OtpErlangObject): String? =
-        ifTupleTo(macro, 3) { tuple ->
-            (tuple.elementAt(0) as? OtpErlangAtom)?.let { operator ->
-                (tuple.elementAt(2) as? OtpErlangList)?.let { arguments ->
-                    if (arguments.arity() == 2 && Identifier.binaryOperator(operator) != null) {
-                        val operatorAtomValue = operator.atomValue()
-                        val (left, right) = arguments
-
-                        if (operatorAtomValue == "==" && right is OtpErlangAtom && right.atomValue() == "nil") {
-                           toString(
-                                   OtpErlangTuple(arrayOf(
-                                           OtpErlangAtom("is_nil"),
-                                           OtpErlangList(),
-                                           OtpErlangList(left)
-                                   ))
-                           )
-                        } else {
-                            val operatorString = if (operatorAtomValue == "..") {
-                                operatorAtomValue
-                            } else {
-                                " $operatorAtomValue "
-                            }
+                if (name != null) {
+                    writer.append('&').append(atomToString(name)).append('/')
+                    append(writer, arity)
 
-                            val operationString = operandToString(left, operatorAtomValue, Identifier.Associativity.LEFT) +
-                                    operatorString +
-                                    operandToString(right, operatorAtomValue, Identifier.Associativity.RIGHT)
+                    return true
+                }
 
-                            if (operatorAtomValue == "->") {
-                                "($operationString)"
-                            } else {
-                                operationString
-                            }
-                        }
-                    } else {
-                        null
+                // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L645-L651
+                val moduleName = ifTagged3TupleTo(nameOrModuleDotName, ".") { moduleDotNameTuple ->
+                    (moduleDotNameTuple.elementAt(2) as? OtpErlangList)?.takeIf {
+                        it.arity() == 2 && it.elementAt(1) is OtpErlangAtom
                     }
                 }
+
+                if (moduleName != null) {
+                    val (module, moduleFunctionName) = moduleName
+
+                    writer.append('&')
+                    append(writer, module)
+                    writer.append('.').append(atomToString(moduleFunctionName as OtpErlangAtom)).append('/')
+                    append(writer, arity)
+
+                    return true
+                }
             }
         }
 
-    private fun ifModuleAttributeDefinitionToString(macro: OtpErlangObject): String? =
-            ifTupleTo(macro, 3) { tuple ->
-                (tuple.elementAt(0) as? OtpErlangAtom)?.let { operator ->
-                    if (operator.atomValue() == "@") {
-                        (tuple.elementAt(2) as? OtpErlangList)?.let { arguments ->
-                                if (arguments.arity() == 1) {
-                                    val argument = arguments.elementAt(0)
-
-                                    ifTupleTo(argument, 3) { definition ->
-                                        definition.elementAt(0).let { it as? OtpErlangAtom }?.let { name ->
-                                            definition.elementAt(2).let { it as? OtpErlangList }?.let { values ->
-                                                if (values.arity() == 1) {
-                                                    val value = values.elementAt(0)
-                                                    val valueString = toString(value)
-
-                                                    "@$name $valueString"
-                                                } else {
-                                                    null
-                                                }
-                                            }
-                                        }
-                                    }
-                                } else {
-                                    null
-                                }
-                        }
-                    } else {
-                        null
-                    }
+        // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L653-L655
+        return if (argument !is OtpErlangLong) {
+            writer.append("&(")
+            append(writer, argument)
+            writer.append(')')
+
+            true
+        } else {
+            false
+        }
+    }
+
+    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L657-L660
+    private fun appendNotIn(writer: Writer, arguments: OtpErlangObject): Boolean {
+        val inArguments = (arguments as? OtpErlangList)?.takeIf { it.arity() == 1 }?.let { notArguments ->
+            ifTagged3TupleTo(notArguments.elementAt(0), "in") { inTuple ->
+                (inTuple.elementAt(2) as? OtpErlangList)?.takeIf { it.arity() == 2 }
+            }
+        }
+
+        return if (inArguments != null) {
+            val (left, right) = inArguments
+
+            append(writer, left)
+            writer.append(" not in ")
+            append(writer, right)
+
+            true
+        } else {
+            false
+        }
+    }
+
+    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L671-L674
+    private fun appendDotTuple(writer: Writer, head: OtpErlangObject, arguments: OtpErlangObject): Boolean {
+        val left = ifTagged3TupleTo(head, ".") { dotTuple ->
+            (dotTuple.elementAt(2) as? OtpErlangList)?.let { dotArguments ->
+                if (dotArguments.arity() == 2 && dotArguments.elementAt(1) == OtpErlangAtom("{}")) {
+                    dotArguments.elementAt(0)
+                } else {
+                    null
                 }
             }
+        }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L807-L823
-    private fun ifUnaryCallToString(macro: OtpErlangObject): String? =
-            ifTupleTo(macro, 3) { tuple ->
-                (tuple.elementAt(0) as? OtpErlangAtom)?.let { operator ->
-                    (tuple.elementAt(2) as? OtpErlangList)?.let { arguments ->
-                        if (arguments.arity() == 1) {
-                            val operatorString = operator.atomValue()
+        return if (left != null) {
+            append(writer, left)
+            writer.append(".{")
+            appendArguments(writer, arguments as OtpErlangList)
+            writer.append('}')
+
+            true
+        } else {
+            false
+        }
+    }
+
+    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L676-L693
+    private fun appendCall(writer: Writer, tuple: OtpErlangTuple, arguments: OtpErlangList) {
+        val head = tuple.elementAt(0)
+
+        if (head is OtpErlangAtom) {
+            val operator = head.atomValue()
+
+            when (arguments.arity()) {
+                1 -> {
+                    val argument = arguments.elementAt(0)
 
-                            Identifier.unaryOperator(operatorString)?.let {
-                                val argument = arguments.elementAt(0)
-                                val argumentString = toString(argument)
+                    if (operator == "@" && appendModuleAttributeDefinition(writer, argument)) {
+                        return
+                    }
 
-                                if (operatorString == "not" || isOperationExpression(argument)) {
-                                    "$operatorString($argumentString)"
-                                } else {
-                                    operatorString + argumentString
-                                }
-                            }
+                    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L807-L823
+                    if (Identifier.unaryOperator(operator) != null) {
+                        writer.append(operator)
+
+                        if (operator == "not" || isOperationExpression(argument)) {
+                            writer.append('(')
+                            append(writer, argument)
+                            writer.append(')')
                         } else {
-                            null
+                            append(writer, argument)
                         }
+
+                        return
                     }
                 }
-            }
+                2 -> {
+                    if (Identifier.binaryOperator(head) != null) {
+                        appendBinaryCall(writer, operator, arguments)
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L638-L643
-    private fun ifCaptureNameArityToString(macro: OtpErlangObject): String? =
-            ifTagged3TupleTo(macro, "&") { tuple ->
-                (tuple.elementAt(2) as? OtpErlangList)?.let { arguments ->
-                    if (arguments.arity() == 1) {
-                        ifTagged3TupleTo(arguments.elementAt(0), "/") { slashTuple ->
-                            (slashTuple.elementAt(2) as? OtpErlangList)?.let { slashArguments ->
-                                if (slashArguments.arity() == 2) {
-                                    val (nameContext, arity) = slashArguments
-
-                                    (nameContext as? OtpErlangTuple)?.let { nameContextTuple ->
-                                        if (nameContextTuple.arity() == 3) {
-                                            val (name, _, context) = nameContextTuple
-
-                                            if (name is OtpErlangAtom && context is OtpErlangAtom && arity is OtpErlangLong) {
-                                                "&${atomToString(name)}/${toString(arity)}"
-                                            } else {
-                                                null
-                                            }
-                                        } else {
-                                            null
-                                        }
-                                    }
-                                } else {
-                                    null
-                                }
-                            }
-                        }
-                    } else {
-                        null
+                        return
                     }
-                }
-            }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L671-L674
-    private fun ifDotTupleToString(macro: OtpErlangObject): String? =
-            ifTupleTo(macro, 3) { tuple: OtpErlangTuple ->
-                ifTagged3TupleTo(tuple.elementAt(0), ".") { dotTuple ->
-                    (dotTuple.elementAt(2) as? OtpErlangList)?.let { dotArguments ->
-                        if (dotArguments.arity() == 2 && dotArguments.elementAt(1) == OtpErlangAtom("{}")) {
-                            val left = dotArguments.elementAt(0)
-                            val arguments = tuple.elementAt(2) as OtpErlangList
+                    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L842-L855
+                    val binary = arguments.elementAt(0)
 
-                            "${toString(left)}.{${argumentsToString(arguments)}}"
-                        } else {
-                            null
-                        }
-                    }
-                }
-            }
+                    if (isTagged3Tuple(binary, "<<>>") && arguments.elementAt(1) is OtpErlangList &&
+                            operator.startsWith("sigil_")) {
+                        val name = operator.removePrefix("sigil_")
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L606-L609
-    private fun ifFnAdjustedBlockToString(macro: OtpErlangObject): String? =
-            ifTagged3TupleTo(macro, "fn") { tuple ->
-                "fn\n ${adjustNewLines(blockToString(tuple.elementAt(2)), "\n  ")}\nend"
-            }
+                        writer
+                                .append('~')
+                                .append(name)
+                                .append(interpolate(binary as OtpErlangTuple))
+                                .append(sigilArguments(arguments.elementAt(1)))
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L596-L600
-    private fun ifFnArrowToString(macro: OtpErlangObject): String? =
-            ifTagged3TupleTo(macro, "fn") { tuple ->
-                (tuple.elementAt(2) as? OtpErlangList)?.let { arrow ->
-                    if (arrow.arity() == 1) {
-                        ifTagged3TupleTo(arrow.elementAt(0), "->") { arrowElement ->
-                            (arrowElement.elementAt(2) as? OtpErlangList)?.let { arrowElementArguments ->
-                                if (arrowElementArguments.arity() == 2) {
-                                    val arrowElementArgumentsTuple = arrowElementArguments.elementAt(1)
-
-                                    if (arrowElementArgumentsTuple !is OtpErlangTuple || arrowElementArgumentsTuple.elementAt(0) != OtpErlangAtom("__block__")) {
-                                        "fn ${arrowToString(arrow, false)} end"
-                                    } else {
-                                        null
-                                    }
-                                } else {
-                                    null
-                                }
-                            }
-                        }
-                    } else {
-                        null
+                        return
                     }
                 }
             }
+        }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L602-L604
-    private fun ifFnBlockToString(macro: OtpErlangObject): String? =
-            ifTagged3TupleTo(macro, "fn") { tuple ->
-                (tuple.elementAt(2) as? OtpErlangList)?.let { block ->
-                    if (block.arity() == 1) {
-                        ifTagged3TupleTo(block.elementAt(0), "->") {
-                            "fn ${blockToString(block)}\nend"
-                        }
+        if (appendDeinline(writer, tuple) == null) {
+            appendOtherCall(writer, head, arguments)
+        }
+    }
+
+    private fun appendModuleAttributeDefinition(writer: Writer, argument: OtpErlangObject): Boolean {
+        val nameValue = ifTupleTo(argument, 3) { definition ->
+            (definition.elementAt(0) as? OtpErlangAtom)?.let { name ->
+                (definition.elementAt(2) as? OtpErlangList)?.let { values ->
+                    if (values.arity() == 1) {
+                        Pair(name, values.elementAt(0))
                     } else {
                         null
                     }
                 }
             }
+        }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L585-L588
-    private fun ifMapContainerToString(macro: OtpErlangObject): String? =
-            ifTagged3TupleTo(macro, "%{}") { tuple ->
-                "%{${mapToString(tuple.elementAt(2) as OtpErlangList)}}"
-            }
+        return if (nameValue != null) {
+            val (name, value) = nameValue
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L657-L660
-    private fun ifNotInToString(macro: OtpErlangObject): String? =
-            ifTagged3TupleTo(macro, "not") { tuple ->
-                (tuple.elementAt(2) as? OtpErlangList)?.let { arguments ->
-                    if (arguments.arity() == 1) {
-                        ifTagged3TupleTo(arguments.elementAt(0), "in") { inTuple ->
-                            (inTuple.elementAt(2) as? OtpErlangList)?.let { inArguments ->
-                                if (inArguments.arity() == 2) {
-                                    val (left, right) = inArguments
-
-                                    "${toString(left)} not in ${toString(right)}"
-                                } else {
-                                    null
-                                }
-                            }
-                        }
-                    } else {
-                        null
-                    }
-                }
+            writer.append('@').append(name.toString()).append(' ')
+            append(writer, value)
+
+            true
+        } else {
+            false
+        }
+    }
+
+    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L825-L840
+    private fun appendBinaryCall(writer: Writer, operator: String, arguments: OtpErlangList) {
+        val (left, right) = arguments
+
+        if (operator == "==" && right is OtpErlangAtom && right.atomValue() == "nil") {
+            append(writer, OtpErlangTuple(arrayOf(OtpErlangAtom("is_nil"), OtpErlangList(), OtpErlangList(left))))
+        } else {
+            val wrap = operator == "->"
+
+            if (wrap) {
+                writer.append('(')
             }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L538-L541
-    private fun ifVariableToString(macro: OtpErlangObject): String? =
-            (macro as? OtpErlangTuple)?.let { tuple ->
-                if (tuple.arity() == 3) {
-                    tuple.elementAt(0).let { it as? OtpErlangAtom }?.let { variable ->
-                        val scope = tuple.elementAt(2)
+            appendOperand(writer, left, operator, Identifier.Associativity.LEFT)
 
-                        if (scope is OtpErlangAtom || (scope is OtpErlangList && scope.arity() == 1 && scope.elementAt(0) == NIL)) {
-                            variable.atomValue()
-                        } else {
-                            null
-                        }
-                    }
-                } else {
-                    null
-                }
+            if (operator == "..") {
+                writer.append(operator)
+            } else {
+                writer.append(' ').append(operator).append(' ')
             }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L548-L551
-    private fun ifSingleExpressionBlockToString(macro: OtpErlangObject): String? =
-            ifTagged3TupleTo(macro, "__block__") { tuple ->
-                val arguments = tuple.elementAt(2)
+            appendOperand(writer, right, operator, Identifier.Associativity.RIGHT)
 
-                if (arguments is OtpErlangList && arguments.arity() == 1) {
-                    toString(arguments.elementAt(0))
-                } else {
-                    null
-                }
+            if (wrap) {
+                writer.append(')')
             }
+        }
+    }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L590-L594
-    private fun ifStructContainerToString(macro: OtpErlangObject): String? =
-            ifTagged3TupleTo(macro, "%") { tuple ->
-                val arguments = tuple.elementAt(2)
+    private fun appendDeinline(writer: Writer, term: OtpErlangTuple): Unit? =
+            ifErlangElementRewriteTo(term) { append(writer, it) } ?:
+                    ifErlangRewriteTo(term) { append(writer, it) } ?:
+                    ifMapsIsKeyRewriteTo(term) { append(writer, it) } ?:
+                    ifMapsMergeRewriteTo(term) { append(writer, it) }
 
-                if (arguments is OtpErlangList && arguments.arity() == 2) {
-                    val (structName, map) = arguments
+    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L681-L687
+    private fun appendOtherCall(writer: Writer, target: OtpErlangObject, arguments: OtpErlangList) {
+        val (list, last) = splitLast(arguments)
 
-                    val mapTuple = map as OtpErlangTuple
+        appendCallTarget(writer, target)
+        writer.append('(')
 
-                    assert(mapTuple.arity() == 3 && mapTuple.elementAt(0) == OtpErlangAtom("%{}"))
+        if (isKeywordBlocks(last)) {
+            appendArguments(writer, list)
+            writer.append(')')
+            appendKeywordBlocks(writer, last as OtpErlangList)
+        } else {
+            appendArguments(writer, arguments)
+            writer.append(')')
+        }
+    }
 
-                    val mapArguments = (mapTuple.elementAt(2) as OtpErlangList)
+    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L894-L908
+    private fun appendArguments(writer: Writer, arguments: OtpErlangList) {
+        val (init, last) = splitLast(arguments)
 
-                    "%${toString(structName)}{${mapToString(mapArguments)}}"
-                } else {
-                    null
-                }
-            }
+        if (last is OtpErlangList && last.arity() != 0 && Inspect.List.isKeyword(last)) {
+            appendJoined(writer, init, ", ") { append(writer, it) }
 
-    inline fun <T> ifTagged3TupleTo(
-            macro: OtpErlangObject,
-            tag: String,
-            crossinline taggedTupleTo: (OtpErlangTuple) -> T?
-    ): T? =
-            ifTupleTo(macro, 3) { tuple: OtpErlangTuple ->
-                if (tuple.elementAt(0) == OtpErlangAtom(tag)) {
-                    taggedTupleTo(tuple)
-                } else {
-                    null
-                }
+            if (init.arity() != 0) {
+                writer.append(", ")
             }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L578-L582
-    private fun ifTupleContainerToString(macro: OtpErlangObject): String? =
-            ifTagged3TupleTo(macro, "{}") { tuple ->
-                "{${(tuple.elementAt(2) as OtpErlangList).joinToString(", ") { toString(it) }}}"
-            }
+            appendKeywordList(writer, last)
+        } else {
+            appendJoined(writer, arguments, ", ") { append(writer, it) }
+        }
+    }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L616-L626
-    private fun ifWhenBinaryToString(macro: OtpErlangObject): String? =
-            ifTagged3TupleTo(macro, "when") { tuple ->
-                (tuple.elementAt(2) as OtpErlangList)?.let { arguments ->
-                    if (arguments.arity() == 2) {
-                        val (left, right) = arguments
+    private fun atomToString(atom: OtpErlangAtom): String = inspect(atom)
 
-                        val rightString = if (right != OtpErlangList() && Keyword.isKeyword(right)) {
-                            keywordListToString(right as OtpErlangList)
-                        } else {
-                            operandToString(rewriteGuard(right), "when", Identifier.Associativity.RIGHT)
-                        }
+    // in order they should be rendered in keywordBlocksToString
+    val KEYWORD_BLOCK_KEYWORDS = arrayOf("do", "catch", "rescue", "after", "else")
 
-                        "${operandToString(left, "when", Identifier.Associativity.LEFT)} when $rightString"
-                    } else {
-                        null
-                    }
+    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L910-L917
+    private fun appendKeywordBlocks(writer: Writer, keywordBlocks: OtpErlangList) {
+        writer.append(' ')
+
+        for (keywordBlockKeyword in KEYWORD_BLOCK_KEYWORDS) {
+            Keyword.get(keywordBlocks, keywordBlockKeyword)?.let { keywordBlock ->
+                // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L919-L922
+                writer.append(keywordBlockKeyword)
+                writer.indented {
+                    writer.append('\n')
+                    appendBlock(writer, keywordBlock)
                 }
+                writer.append('\n')
             }
+        }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L628-L636
-    private fun ifWhenSplatToString(macro: OtpErlangObject): String? =
-            ifTagged3TupleTo(macro, "when") { tuple ->
-                val arguments = tuple.elementAt(2) as OtpErlangList
-                val (left, right) = splitLast(arguments)
+        writer.append("end")
+    }
 
-                "(${left.joinToString(", ") { toString(it) }}) when ${toString(right)}"
+    private fun isKeywordBlock(term: OtpErlangObject): Boolean =
+            when (term) {
+                is OtpErlangTuple -> isKeywordBlock(term)
+                else -> false
             }
 
-    fun toString(macro: OtpErlangObject): String =
-            ifVariableToString(macro) ?:
-                    ifAliasToString(macro) ?:
-                    ifSingleExpressionBlockToString(macro) ?:
-                    ifBlockToString(macro) ?:
-                    ifBitContainerToString(macro) ?:
-                    ifTupleContainerToString(macro) ?:
-                    ifMapContainerToString(macro) ?:
-                    ifStructContainerToString(macro) ?:
-                    ifFnArrowToString(macro) ?:
-                    ifFnBlockToString(macro) ?:
-                    ifFnAdjustedBlockToString(macro) ?:
-                    ifArrowToString(macro) ?:
-                    ifWhenBinaryToString(macro) ?:
-                    ifWhenSplatToString(macro) ?:
-                    ifCaptureNameArityToString(macro) ?:
-                    ifCaptureModuleNameArityToString(macro) ?:
-                    ifCaptureNonInteger(macro) ?:
-                    ifNotInToString(macro) ?:
-                    ifAccessToString(macro) ?:
-                    ifDotTupleToString(macro) ?:
-                    ifCallToString(macro) ?:
-                    if2TupleToString(macro) ?:
-                    ifListToString(macro) ?:
-                    otherToString(macro)
-
-    private fun ifListToString(macro: OtpErlangObject): String? =
-        (macro as? OtpErlangList)?.let { list ->
-            when {
-                list.arity() == 0 ->
-                    "[]"
-                IOLib.printableList(list) ->
-                    "'${IOLib.printableListToString(list)}'"
-                org.elixir_lang.Inspect.List.isKeyword(list) ->
-                    "[${keywordListToString(list)}]"
-                else ->
-                    "[${list.joinToString(", ") { toString(it) }}]"
-            }
-        }
+    private fun isKeywordBlock(tuple: OtpErlangTuple): Boolean =
+            tuple.arity() == 2 && (tuple.elementAt(0) as? OtpErlangAtom)?.atomValue() in KEYWORD_BLOCK_KEYWORDS
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L695-L698
-    private fun if2TupleToString(macro: OtpErlangObject): String? =
-        ifTupleTo(macro, 2) { tuple ->
-            toString(
-                    OtpErlangTuple(
-                            arrayOf(
-                                    OtpErlangAtom("{}"), OtpErlangList(), OtpErlangList(tuple.elements())
-                            )
-                    )
-            )
+    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L750-L754
+    private fun isKeywordBlocks(list: OtpErlangList): Boolean =
+        if (list.arity() > 0) {
+            (list.elementAt(0) as? OtpErlangTuple)?.let { firstTuple ->
+                if (firstTuple.arity() == 2 && firstTuple.elementAt(0) == OtpErlangAtom("do")) {
+                    list.all { isKeywordBlock(it) }
+                } else {
+                    false
+                }
+            } ?: false
+        } else {
+            false
         }
 
+    private fun isKeywordBlocks(term: OtpErlangObject): Boolean =
+            when (term) {
+                is OtpErlangList -> isKeywordBlocks(term)
+                else -> false
+            }
+
     // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L860-L871
     private fun isOperationExpression(term: OtpErlangObject): Boolean =
         ifTupleTo(term, 3) { tuple ->
@@ -903,44 +1021,49 @@ object Macro {
         }
 
     // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L964-L981
-    private fun operandToString(
+    private fun appendOperand(
+            writer: Writer,
             expression: OtpErlangObject,
             parentOperator: String,
             side: Identifier.Associativity
-    ): String =
-            ifTupleTo(expression, 3) { tuple ->
-                (tuple.elementAt(0) as? OtpErlangAtom)?.let { operator ->
-                    (tuple.elementAt(2) as? OtpErlangList)?.let { arguments ->
-                        if (arguments.arity() == 2) {
-                            Identifier.binaryOperator(operator)?.let { (_, precedence) ->
-                                val (parentAssociativity, parentPrecedence) = Identifier.binaryOperator(parentOperator)!!
-
-                                when {
-                                    parentPrecedence < precedence -> toString(expression)
-                                    parentPrecedence > precedence -> wrapInParenthesis(expression)
-                                    parentAssociativity == side -> toString(expression)
-                                    else -> wrapInParenthesis(expression)
-                                }
-                            }
-                        } else {
-                            null
-                        }
-                    }
+    ) {
+        val precedence = ifTupleTo(expression, 3) { tuple ->
+            (tuple.elementAt(2) as? OtpErlangList)?.let { arguments ->
+                if (arguments.arity() == 2) {
+                    Identifier.binaryOperator(tuple.elementAt(0))?.precedence
+                } else {
+                    null
                 }
-            } ?:
-            if (parentOperator == "->" && side == Identifier.Associativity.LEFT && expression is OtpErlangList && expression.arity() == 0) {
-                "()"
-            } else {
-                toString(expression)
+            }
+        }
+
+        if (precedence != null) {
+            val (parentAssociativity, parentPrecedence) = Identifier.binaryOperator(parentOperator)!!
+
+            val wrap = when {
+                parentPrecedence < precedence -> false
+                parentPrecedence > precedence -> true
+                else -> parentAssociativity != side
             }
 
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L960-L962
-    private fun wrapInParenthesis(expression: OtpErlangObject): String =
-            "(${toString(expression)})"
+            // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L960-L962
+            if (wrap) {
+                writer.append('(')
+                append(writer, expression)
+                writer.append(')')
+            } else {
+                append(writer, expression)
+            }
+        } else if (parentOperator == "->" && side == Identifier.Associativity.LEFT && expression is OtpErlangList && expression.arity() == 0) {
+            writer.append("()")
+        } else {
+            append(writer, expression)
+        }
+    }
 
     // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L983-L988
-    private fun arrowToString(pairs: OtpErlangList, emptyParentheses: Boolean): String =
-        pairs.joinToString("; ") { pair ->
+    private fun appendArrows(writer: Writer, pairs: OtpErlangList, emptyParentheses: Boolean) {
+        appendJoined(writer, pairs, "; ") { pair ->
             val (operator, _, arguments)  = pair as OtpErlangTuple
 
             assert(operator is OtpErlangAtom && operator.atomValue() == "->")
@@ -951,102 +1074,23 @@ object Macro {
 
             val (left, right) = argumentList
 
-            val leftString = commaJoinOrEmptyParentheses(left as OtpErlangList, emptyParentheses)
-
-            leftString + "-> " + toString(right)
+            appendCommaJoinOrEmptyParentheses(writer, left as OtpErlangList, emptyParentheses)
+            writer.append("-> ")
+            append(writer, right)
         }
+    }
 
     // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L990-L995
-    private fun commaJoinOrEmptyParentheses(left: OtpErlangList, emptyParentheses: Boolean): String =
+    private fun appendCommaJoinOrEmptyParentheses(writer: Writer, left: OtpErlangList, emptyParentheses: Boolean) {
         if (left.arity() == 0) {
             if (emptyParentheses) {
-                "() "
-            } else {
-                ""
+                writer.append("() ")
             }
         } else {
-            left.joinToString(", ", "", " ") { toString(it) }
+            appendJoined(writer, left, ", ") { append(writer, it) }
+            writer.append(' ')
         }
-
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L724-L733
-    private fun bitPartToString(bitPart: OtpErlangObject): String =
-            // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L724-L729
-            ifTagged3TupleTo(bitPart, "::") { tuple ->
-                (tuple.elementAt(2) as? OtpErlangList)?.let { arguments ->
-                    if (arguments.arity() == 2) {
-                        val (left, right) = arguments
-
-                        operandToString(left, "::", Identifier.Associativity.LEFT) + "::" + bitModsToString(right, "::", Identifier.Associativity.RIGHT)
-                    } else {
-                        null
-                    }
-                }
-            } ?:
-                    toString(bitPart)
-
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L735-L745
-    private fun bitModsToString(other: OtpErlangObject, parentOperator: String, side: Identifier.Associativity): String =
-            // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L735-L741
-            ifTupleTo(other, 3) { tuple ->
-                (tuple.elementAt(0) as? OtpErlangAtom)?.let { operator ->
-                    val operatorAtomValue = operator.atomValue()
-
-                    when (operatorAtomValue) {
-                        "*", "-" -> {
-                            (tuple.elementAt(2) as? OtpErlangList)?.let { arguments ->
-                                if (arguments.arity() == 2) {
-                                    val (left, right) = arguments
-
-                                    bitModsToString(left, operatorAtomValue, Identifier.Associativity.LEFT) +
-                                            operatorAtomValue +
-                                            bitModsToString(right, operatorAtomValue, Identifier.Associativity.RIGHT)
-                                } else {
-                                    null
-                                }
-                            }
-                        }
-                        else -> null
-                    }
-                }
-            } ?:
-                    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L743-L745
-                    operandToString(other, parentOperator, side)
-
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L937-L946
-    private fun mapToString(list: OtpErlangList): String =
-        if (list.arity() == 1) {
-            ifTagged3TupleTo(list.elementAt(0), "|") { tuple ->
-                (tuple.elementAt(2) as? OtpErlangList)?.let { arguments ->
-                    if (arguments.arity() == 2) {
-                        val (updateMap, updateArguments) = arguments
-
-                        "${toString(updateMap)} | ${mapToString(updateArguments as OtpErlangList)}"
-                    } else {
-                        null
-                    }
-                }
-            }
-        } else {
-            null
-        } ?:
-                if (Inspect.List.isKeyword(list)) {
-                    keywordListToString(list)
-                } else {
-                    mapListToString(list)
-                }
-
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L954-L958
-    private fun mapListToString(list: OtpErlangList): String =
-            list.joinToString(", ") { element ->
-                val tuple = element as OtpErlangTuple
-
-                assert(tuple.arity() == 2)
-
-                val (key, value) = tuple
-
-                "${toString(key)} => ${toString(value)}"
-            }
-
+    }
 
     private fun interpolate(macro: OtpErlangTuple): String {
         TODO("not implemented") //To change body of created functions use File | Settings | File Templates.
@@ -1274,100 +1318,67 @@ object Macro {
             }
 
     // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L873-L882
-    private fun callToString(call: OtpErlangObject): String =
+    private fun appendCallTarget(writer: Writer, call: OtpErlangObject) {
         // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L873
-        ifAtomToString(call) ?:
-                // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L874
-                ifTagged3TupleTo(call, ".") { tuple ->
-                    (tuple.elementAt(2) as? OtpErlangList)?.let { arguments ->
-                        if (arguments.arity() == 1) {
-                            moduleToString(arguments.elementAt(0))
-                        } else {
-                            null
-                        }
-                    }
-                } ?:
-                // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L876-L877
-                ifTagged3TupleTo(call, ".") { tuple ->
-                    (tuple.elementAt(2) as? OtpErlangList)?.let { arguments ->
-                        if (arguments.arity() == 2) {
-                            (arguments.elementAt(1) as? OtpErlangAtom)?.let { right ->
-                                val left = arguments.elementAt(0)
-
-                                moduleToString(left) + "." + callToStringForAtom(right)
-                            }
-                        } else {
-                            null
-                        }
-                    }
-                } ?:
-                // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L879-L880
-                ifTagged3TupleTo(call, ".") { tuple ->
-                    (tuple.elementAt(2) as? OtpErlangList)?.let { arguments ->
-                        if (arguments.arity() == 2) {
-                            val (left, right) = arguments
-
-                            moduleToString(left) + "." + callToString(right)
-                        } else {
-                            null
-                        }
-                    }
-                } ?:
-                kernelToString(call)
-
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L890-L892
-    private fun callToStringForAtom(atom: OtpErlangAtom): String = Identifier.inspectAsFunction(atom)
-
-    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L783-L805
-    private fun moduleToString(module: OtpErlangObject): String =
-            when (module) {
-                is OtpErlangAtom -> inspect(module)
-                is OtpErlangTuple -> moduleToString(module)
-                else -> toString(module)
-            }
+        if (call is OtpErlangAtom) {
+            writer.append(call.atomValue().removePrefix(MACRO_CALL_PREFIX))
+        } else {
+            val arguments = ifTagged3TupleTo(call, ".") { it.elementAt(2) as? OtpErlangList }
 
-    private fun moduleToString(module: OtpErlangTuple): String =
-            // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L787-L789
-            ifTagged3TupleTo(module, "&") { tuple ->
-                (tuple.elementAt(0) as? OtpErlangList)?.let { arguments ->
-                    if (arguments.arity() == 1 && arguments.elementAt(0) !is OtpErlangLong) {
-                        "(${toString(module)})"
+            when {
+                // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L874
+                arguments != null && arguments.arity() == 1 ->
+                    appendModule(writer, arguments.elementAt(0))
+                arguments != null && arguments.arity() == 2 -> {
+                    val (left, right) = arguments
+
+                    appendModule(writer, left)
+                    writer.append('.')
+
+                    if (right is OtpErlangAtom) {
+                        // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L876-L877
+                        // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L890-L892
+                        writer.append(Identifier.inspectAsFunction(right))
                     } else {
-                        null
+                        // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex#L879-L880
+                        appendCallTarget(writer, right)
                     }
                 }
-            } ?:
-                    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L791-L793
-                    ifTagged3TupleTo(module, "fn") {
-                        "(${toString(module)})"
-                    } ?:
-                    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L795-L801
-                    ifTupleTo(module, 3) { tuple ->
+                else ->
+                    writer.append(kernelToString(call))
+            }
+        }
+    }
+
+    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L783-L805
+    private fun appendModule(writer: Writer, module: OtpErlangObject) {
+        if (module is OtpErlangAtom) {
+            writer.append(inspect(module))
+        } else {
+            val wrap = ifTupleTo(module, 3) { tuple ->
+                // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L791-L793
+                tuple.elementAt(0) == OtpErlangAtom("fn") ||
+                        // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L795-L801
                         (tuple.elementAt(2) as? OtpErlangList)?.let { arguments ->
-                            if (arguments.arity() > 0) {
-                                if (isKeywordBlocks(arguments.elementAt(0))) {
-                                    "(${toString(module)})"
-                                } else {
-                                    null
-                                }
-                            } else {
-                                null
-                            }
-                        }
-                    } ?:
-                    // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L798-L805
-                    toString(module)
+                            arguments.arity() > 0 && isKeywordBlocks(arguments.elementAt(0))
+                        } ?: false
+            } ?: false
+
+            // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L798-L805
+            if (wrap) {
+                writer.append('(')
+                append(writer, module)
+                writer.append(')')
+            } else {
+                append(writer, module)
+            }
+        }
+    }
 
     private fun kernelToString(term: OtpErlangObject): String {
         TODO("not implemented") //To change body of created functions use File | Settings | File Templates.
     }
 
-    private fun ifAtomToString(term: OtpErlangObject): String? =
-        when (term) {
-            is OtpErlangAtom -> term.atomValue().removePrefix(MACRO_CALL_PREFIX)
-            else -> null
-        }
-
     val NIL = OtpErlangAtom("nil")
 
     // https://github.com/elixir-lang/elixir/blob/v1.6.0-rc.1/lib/elixir/lib/macro.ex?utf8=%E2%9C%93#L282-L288
@@ -5,9 +5,11 @@ import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.stubs.StubIndex;
+import com.intellij.psi.stubs.StubIndexKey;
 import com.intellij.util.Function;
 import org.elixir_lang.psi.NamedElement;
 import org.elixir_lang.psi.stub.index.AllName;
+import org.elixir_lang.psi.stub.index.ModularName;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Collection;
@@ -15,6 +17,10 @@ import java.util.Collections;
 import java.util.stream.Stream;
 
 public class Reference {
+    /**
+     * Every name in {@link AllName}, so that a pattern, such as that of an interpolated atom, can be matched against
+     * all names.
+     */
     @NotNull
     public static Collection<String> indexedNameCollection(@NotNull Project project) {
         return StubIndex.getInstance().getAllKeys(AllName.KEY, project);
@@ -26,7 +32,8 @@ public class Reference {
     }
 
     /**
-     * Iterates over each navigation element for the PsiElements with {@code name} in {@code project}.
+     * Iterates over each navigation element for the modules, protocols and implementations with {@code name} in
+     * {@code project}.
      *
      * @param project  Whose index to search for {@code name}
      * @param name     Name to search for in {@code project} StubIndex
@@ -36,7 +43,12 @@ public class Reference {
     public static boolean forEachNavigationElement(@NotNull Project project,
                                                    @NotNull String name,
                                                    @NotNull Function<PsiElement, Boolean> function) {
-        Collection<NamedElement> namedElementCollection = namedElementCollection(project, name);
+        Collection<NamedElement> namedElementCollection = namedElementCollection(
+                ModularName.KEY,
+                project,
+                GlobalSearchScope.allScope(project),
+                name
+        );
 
         return forEachNavigationElement(namedElementCollection, function);
     }
@@ -70,16 +82,27 @@ public class Reference {
         return namedElementCollection(project, GlobalSearchScope.allScope(project), name);
     }
 
+    /**
+     * The elements with {@code name} in {@link AllName}
+     */
     public static Collection<NamedElement> namedElementCollection(@NotNull Project project,
                                                                   @NotNull GlobalSearchScope scope,
                                                                   @NotNull String name) {
+        return namedElementCollection(AllName.KEY, project, scope, name);
+    }
+
+    @NotNull
+    private static Collection<NamedElement> namedElementCollection(@NotNull StubIndexKey<String, NamedElement> key,
+                                                                   @NotNull Project project,
+                                                                   @NotNull GlobalSearchScope scope,
+                                                                   @NotNull String name) {
         Collection<NamedElement> namedElementCollection;
 
         if (DumbService.isDumb(project)) {
             namedElementCollection = Collections.emptyList();
         } else {
             namedElementCollection = StubIndex.getElements(
-                    AllName.KEY,
+                    key,
                     name,
                     project,
                     scope,
@@ -0,0 +1,51 @@
+package org.elixir_lang.action
+
+import com.intellij.openapi.actionSystem.AnAction
+import com.intellij.openapi.actionSystem.AnActionEvent
+import com.intellij.openapi.ui.Messages
+import com.intellij.openapi.util.text.StringUtil
+import org.elixir_lang.beam.cache.Decompiled
+import org.elixir_lang.beam.cache.Memory
+import org.elixir_lang.beam.cache.Persistent
+
+/**
+ * Shows how full the in-memory and persistent BEAM caches are, and how often they and the decompiled text cache are
+ * hit, to diagnose memory use when browsing many decompiled modules.
+ */
+class BeamCacheStatisticsAction : AnAction() {
+    override fun actionPerformed(e: AnActionEvent) {
+        val memory = Memory.statistics()
+        val persistent = Persistent.statistics()
+        val decompiled = Decompiled.statistics()
+
+        val message = """
+            In Memory
+              Occupancy: ${size(memory.byteCount)} of ${size(memory.maxByteCount)}
+              Strongly held: ${memory.strongCount}
+              Softly held: ${memory.softCount}
+              Hits on strongly held: ${memory.hitCount}
+              Hits on softly held: ${memory.softHitCount}
+              Misses: ${memory.missCount}
+              Evictions to softly held: ${memory.evictionCount}
+              Reclaimed by GC: ${memory.reclaimedCount}
+
+            Persistent
+              Occupancy: ${size(persistent.byteCount)} of ${size(persistent.maxByteCount)}
+              Hits: ${persistent.hitCount}
+              Misses: ${persistent.missCount}
+              Evictions: ${persistent.evictionCount}
+
+            Decompiled
+              Texts: ${decompiled.textCount}
+              Hits: ${decompiled.hitCount}
+              Misses: ${decompiled.missCount}
+              Mirror builds: ${decompiled.mirrorBuildCount} (${decompiled.mirrorRebuildCount} rebuilds)
+            """.trimIndent()
+
+        Messages.showInfoMessage(e.project, message, "BEAM Cache Statistics")
+    }
+
+    override fun isDumbAware(): Boolean = true
+
+    private fun size(byteCount: Long): String = StringUtil.formatFileSize(byteCount)
+}
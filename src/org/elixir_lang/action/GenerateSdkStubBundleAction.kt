@@ -0,0 +1,56 @@
+package org.elixir_lang.action
+
+import com.intellij.notification.Notification
+import com.intellij.notification.NotificationType
+import com.intellij.notification.Notifications
+import com.intellij.openapi.actionSystem.AnAction
+import com.intellij.openapi.actionSystem.AnActionEvent
+import com.intellij.openapi.progress.ProgressIndicator
+import com.intellij.openapi.progress.ProgressManager
+import com.intellij.openapi.progress.Task
+import com.intellij.openapi.ui.Messages
+import org.elixir_lang.sdk.bundle.Generator
+import org.elixir_lang.sdk.elixir.Type
+import java.io.File
+
+/**
+ * Stubs the `.beam` and source files of the project's Elixir SDK into a bundle, so that projects using an SDK of the
+ * same Elixir and OTP releases reuse the stubs instead of decoding and parsing the SDK again when they are indexed.
+ */
+class GenerateSdkStubBundleAction : AnAction() {
+    override fun actionPerformed(e: AnActionEvent) {
+        val project = e.project ?: return
+        val sdk = Type.mostSpecificSdk(project)
+
+        if (sdk == null) {
+            Messages.showErrorDialog(project, "The project does not have an Elixir SDK", TITLE)
+        } else {
+            ProgressManager.getInstance().run(object : Task.Backgroundable(project, TITLE, true) {
+                private var file: File? = null
+
+                override fun run(indicator: ProgressIndicator) {
+                    file = Generator.generate(project, sdk, indicator)
+                }
+
+                override fun onSuccess() {
+                    val content = file?.let { "Stubs of ${sdk.name} written to ${it.path}" }
+                            ?: "The Elixir or Erlang release of ${sdk.name} is unknown"
+
+                    Notifications.Bus.notify(
+                            Notification(
+                                    TITLE,
+                                    TITLE,
+                                    content,
+                                    if (file != null) NotificationType.INFORMATION else NotificationType.WARNING
+                            ),
+                            project
+                    )
+                }
+            })
+        }
+    }
+
+    companion object {
+        private const val TITLE = "Elixir SDK Stub Bundle"
+    }
+}
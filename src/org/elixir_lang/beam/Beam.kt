@@ -4,6 +4,7 @@ import com.ericsson.otp.erlang.OtpErlangDecodeException
 import com.ericsson.otp.erlang.OtpErlangObject
 import com.ericsson.otp.erlang.OtpInputStream
 import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.util.io.FileUtil
 import com.intellij.openapi.vfs.VirtualFile
 import com.intellij.util.indexing.FileContent
 import org.elixir_lang.beam.chunk.*
@@ -29,31 +30,53 @@ fun binaryToTerm(byteArray: ByteArray, offset: Int): Pair<OtpErlangObject, ByteC
     return Pair(term, stream.pos - offset)
 }
 
-private fun decompressedInputStream(inputStream: InputStream): InputStream? {
-    assert(inputStream.markSupported())
+private fun isGzipped(content: ByteArray): Boolean =
+        content.size >= 2 &&
+                content[0].toInt().and(0xFF) == GZIP_FIRST_UNSIGNED_BYTE &&
+                content[1].toInt().and(0xFF) == GZIP_SECOND_UNSIGNED_BYTE
 
-    inputStream.mark(2)
-
-    return try {
-        if (inputStream.read() == GZIP_FIRST_UNSIGNED_BYTE && inputStream.read() == GZIP_SECOND_UNSIGNED_BYTE) {
-            inputStream.reset()
-            GZIPInputStream(inputStream)
+/**
+ * The bytes of the BEAM container: `content` itself if it is not gzipped, so that no copy is made.
+ */
+private fun decompressed(content: ByteArray): ByteArray? =
+        if (isGzipped(content)) {
+            try {
+                GZIPInputStream(ByteArrayInputStream(content)).use { FileUtil.loadBytes(it) }
+            } catch (e: IOException) {
+                null
+            }
         } else {
-            inputStream.reset()
-            inputStream
+            content
         }
-    } catch (e: IOException) {
-        null
-    }
-}
 
-private fun virtualFileToInputStream(virtualFile: VirtualFile): InputStream? =
+private fun virtualFileToByteArray(virtualFile: VirtualFile): ByteArray? =
         try {
-            virtualFile.inputStream
+            virtualFile.contentsToByteArray()
         } catch (e: IOException) {
             null
         }
 
+/**
+ * The chunks still to be read when only some chunks of a BEAM are needed.
+ */
+private class Selection(typeIDSet: Set<Chunk.TypeID>) {
+    private val acceptedTypeIDSet: Set<String> = typeIDSet.mapTo(HashSet()) { it.toString() }
+    private val remainingTypeIDSet: MutableSet<String> = HashSet(acceptedTypeIDSet)
+
+    fun accepts(typeID: String): Boolean = typeID in acceptedTypeIDSet
+    fun isComplete(): Boolean = remainingTypeIDSet.isEmpty()
+
+    fun read(typeID: String) {
+        remainingTypeIDSet.remove(typeID)
+
+        // A BEAM has either the Latin-1 `Atom` or the UTF-8 `AtU8` chunk, never both
+        when (typeID) {
+            ATOM.toString() -> remainingTypeIDSet.remove(ATU8.toString())
+            ATU8.toString() -> remainingTypeIDSet.remove(ATOM.toString())
+        }
+    }
+}
+
 /**
  * See http://beam-wisdoms.clau.se/en/latest/indepth-beam-file.html
  */
@@ -66,7 +89,7 @@ class Beam private constructor(chunkCollection: Collection<Chunk>) {
 
     fun attributes(): Keyword? = chunk(ATTR)?.let(::from)
     private fun chunk(typeID: String): Chunk? = chunkByTypeID[typeID]
-    private fun chunk(typeID: Chunk.TypeID): Chunk? = chunk(typeID.toString())
+    fun chunk(typeID: Chunk.TypeID): Chunk? = chunk(typeID.toString())
     fun chunkCollection(): Collection<Chunk> = chunkByTypeID.values
 
     private fun callDefinitions(typeID: Chunk.TypeID, atoms: Atoms?): CallDefinitions? =
@@ -83,6 +106,7 @@ class Beam private constructor(chunkCollection: Collection<Chunk>) {
     fun compileInfo(): Keyword? = chunk(CINF)?.let(::from)
     fun elixirDocumentation(): ElixirDocumentation? = chunk(EXDC)?.let { ElixirDocumentation.from(it) }
     fun debugInfo(): DebugInfo? = chunk(DBGI)?.let { org.elixir_lang.beam.chunk.debug_info.from(it) }
+    fun docs(): Docs? = chunk(DOCS)?.let { Docs.from(it) }
     fun exports(atoms: Atoms?): CallDefinitions? = callDefinitions(EXPT, atoms)
     fun functions(atoms: Atoms?): Functions? = chunk(FUNT)?.let { Functions.from(it, atoms) }
 
@@ -99,7 +123,22 @@ class Beam private constructor(chunkCollection: Collection<Chunk>) {
     companion object {
         private val LOGGER = Logger.getInstance(Beam::class.java)
 
-        fun from(dataInputStream: DataInputStream, path: String): Beam? {
+        /**
+         * The chunks needed for the module name and the exported and local call definitions, which is all that stub
+         * building and decompiling use.
+         */
+        @JvmField
+        val CALL_DEFINITIONS_TYPE_ID_SET: Set<Chunk.TypeID> = Collections.unmodifiableSet(EnumSet.of(ATOM, ATU8, EXPT, LOCT))
+
+        /**
+         * Reads every chunk from `dataInputStream` into its own `ByteArray`.  Prefer `from(ByteArray, String)`, which
+         * does not copy the chunks, when the whole content is already available.
+         *
+         * @param typeIDSet the chunks to read.  Other chunks are skipped without being allocated and reading stops
+         *   once all of `typeIDSet` is read.  `null` reads all chunks.
+         */
+        @JvmOverloads
+        fun from(dataInputStream: DataInputStream, path: String, typeIDSet: Set<Chunk.TypeID>? = null): Beam? {
             val header: String?
 
             try {
@@ -142,14 +181,20 @@ class Beam private constructor(chunkCollection: Collection<Chunk>) {
                 return null
             }
 
+            val selection = typeIDSet?.let(::Selection)
             val chunkList = ArrayList<Chunk>()
-            val i = 1
-
-            while (true) {
-                val chunk: Chunk?
+            var i = 1
 
+            while (selection?.isComplete() != true) {
                 try {
-                    chunk = Chunk.from(dataInputStream, path)
+                    val typeID = typeID(dataInputStream, path) ?: break
+
+                    if (selection == null || selection.accepts(typeID)) {
+                        chunkList.add(Chunk.from(typeID, dataInputStream))
+                        selection?.read(typeID)
+                    } else {
+                        Chunk.skip(dataInputStream)
+                    }
                 } catch (ioException: IOException) {
                     LOGGER.error(
                             "Could not read chunk number " + i + " from BEAM DataInputStream from " + path +
@@ -159,33 +204,101 @@ class Beam private constructor(chunkCollection: Collection<Chunk>) {
                     break
                 }
 
-                if (chunk != null) {
+                i++
+            }
+
+            return Beam(chunkList)
+        }
+
+        /**
+         * Reads the chunk directory of the BEAM container in `bytes` without copying any chunk's data: each [Chunk] is
+         * a view into `bytes`, so only the chunks that are decoded are ever read.
+         */
+        private fun fromContainer(bytes: ByteArray, path: String, typeIDSet: Set<Chunk.TypeID>?): Beam? {
+            val header = containerTypeID(bytes, 0)
+
+            if (HEADER != header) {
+                if (header != null && !testCase(header)) {
+                    LOGGER.error(
+                            "header typeID ($header) did not match expected ($HEADER) from $path. " +
+                                    "File size is ${bytes.size} bytes."
+                    )
+                }
+                return null
+            }
+
+            // skip FOR1 length
+            val section = containerTypeID(bytes, 8)
+
+            if ("BEAM" != section) {
+                LOGGER.error("Section header is not BEAM in " + path)
+                return null
+            }
+
+            val selection = typeIDSet?.let(::Selection)
+            val chunkList = ArrayList<Chunk>()
+            var offset = 12
+
+            while (offset < bytes.size && selection?.isComplete() != true) {
+                val typeID = containerTypeID(bytes, offset) ?: break
+
+                offset = if (selection == null || selection.accepts(typeID)) {
+                    val chunk = Chunk.from(bytes, offset, path) ?: break
+
                     chunkList.add(chunk)
+                    selection?.read(typeID)
+
+                    chunk.nextOffset()
                 } else {
-                    break
+                    Chunk.skip(bytes, offset)
                 }
             }
 
             return Beam(chunkList)
         }
 
+        /**
+         * Gzipped BEAMs are inflated as a stream when only some chunks are needed, so that the whole inflated BEAM is
+         * never allocated and inflating stops once the last needed chunk is read.
+         */
+        private fun fromGzipped(content: ByteArray, path: String, typeIDSet: Set<Chunk.TypeID>): Beam? =
+                try {
+                    DataInputStream(GZIPInputStream(ByteArrayInputStream(content))).use { from(it, path, typeIDSet) }
+                } catch (e: IOException) {
+                    null
+                }
+
+        /**
+         * @param typeIDSet the chunks to read.  [Beam] functions for other chunks return `null`.  `null` reads all
+         *   chunks.
+         */
+        @JvmOverloads
         @Throws(IOException::class, OtpErlangDecodeException::class)
-        fun from(content: ByteArray, path: String): Beam? =
-                decompressedInputStream(ByteArrayInputStream(content))
-                        ?.let { DataInputStream(it) }
-                        ?.let { Beam.from(it, path) }
+        fun from(content: ByteArray, path: String, typeIDSet: Set<Chunk.TypeID>? = null): Beam? =
+                if (typeIDSet != null && isGzipped(content)) {
+                    fromGzipped(content, path, typeIDSet)
+                } else {
+                    decompressed(content)?.let { fromContainer(it, path, typeIDSet) }
+                }
 
+        @JvmOverloads
         @Throws(IOException::class, OtpErlangDecodeException::class)
-        fun from(fileContent: FileContent): Beam? = from(fileContent.content, fileContent.file.path)
+        fun from(fileContent: FileContent, typeIDSet: Set<Chunk.TypeID>? = null): Beam? =
+                from(fileContent.content, fileContent.file.path, typeIDSet)
 
-        fun from(virtualFile: VirtualFile): Beam? =
-                virtualFileToInputStream(virtualFile)
-                        ?.let { decompressedInputStream(it) }
-                        ?.let { DataInputStream(it) }
-                        ?.let { Beam.from(it, virtualFile.path) }
+        @JvmOverloads
+        fun from(virtualFile: VirtualFile, typeIDSet: Set<Chunk.TypeID>? = null): Beam? =
+                virtualFileToByteArray(virtualFile)?.let { from(it, virtualFile.path, typeIDSet) }
 
         fun `is`(virtualFile: VirtualFile): Boolean = !virtualFile.isDirectory && "beam" == virtualFile.extension
 
         private fun testCase(header: String?): Boolean = header == "baz "
+
+        private fun containerTypeID(bytes: ByteArray, offset: Int): String? =
+                if (offset + 4 <= bytes.size) {
+                    String(bytes, offset, 4)
+                } else {
+                    null
+                }
     }
 }
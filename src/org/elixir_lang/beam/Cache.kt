@@ -1,45 +1,102 @@
 package org.elixir_lang.beam
 
-import com.intellij.openapi.util.Key
 import com.intellij.openapi.vfs.VirtualFile
 import com.intellij.util.indexing.FileContent
+import com.intellij.util.io.DataExternalizer
+import org.elixir_lang.beam.cache.Memory
+import org.elixir_lang.beam.cache.Persistent
 import org.elixir_lang.beam.chunk.*
+import org.elixir_lang.beam.chunk.Chunk.TypeID.*
+import java.io.IOException
+import java.util.concurrent.ConcurrentHashMap
 
-class Cache private constructor(private val beam: Beam) {
-    val atoms: Atoms? by lazy { beam.atoms() }
-    val attributes: Keyword? by lazy { beam.attributes() }
-    val code: Code? by lazy { beam.code() }
-    val compileInfo: Keyword? by lazy { beam.compileInfo() }
-    val debugInfo: DebugInfo? by lazy { beam.debugInfo() }
-    val elixirDocumentation: ElixirDocumentation? by lazy { beam.elixirDocumentation() }
-    val exports: CallDefinitions? by lazy { beam.exports(atoms) }
-    val functions: Functions? by lazy { beam.functions(atoms) }
-    val lines: Lines? by lazy { beam.lines(atoms) }
-    val literals: Literals? by lazy { beam.literals() }
-    val locals: CallDefinitions? by lazy { beam.locals(atoms) }
-    val imports: Imports? by lazy { beam.imports(atoms) }
-    val strings: Strings? by lazy { beam.strings() }
+/**
+ * @param contentHash [Persistent.hash] of the `.beam` file's content.  The models whose decoding is cached in
+ *   [Persistent] are only decoded from [beam] the first time that content is seen on this machine.
+ */
+class Cache private constructor(private val beam: Beam, val contentHash: String) {
+    /**
+     * Estimated bytes retained by this cache: the `.beam` content and the decoded chunks.  Guarded by [Memory].
+     */
+    internal var weight: Long = beam.chunkCollection().map { it.size.toLong() }.sum()
+    /**
+     * Whether [Memory] holds this cache strongly and so counts its [weight] against [Memory.maxByteCount].  Guarded by
+     * [Memory].
+     */
+    internal var isStronglyHeld: Boolean = false
+
+    // Not persisted, as reading the persisted table is slower than decoding it again; see `PersistentBenchmark`
+    val atoms: Atoms? by lazy { weighed(ATOM, ATU8) { beam.atoms() } }
+    val attributes: Keyword? by lazy { weighed(ATTR) { beam.attributes() } }
+    val code: Code? by lazy { weighed(CODE) { beam.code() } }
+    val compileInfo: Keyword? by lazy { weighed(CINF) { beam.compileInfo() } }
+    val debugInfo: DebugInfo? by lazy { weighed(DBGI) { beam.debugInfo() } }
+    val docs: Docs? by lazy { weighed(DOCS) { beam.docs() } }
+    val elixirDocumentation: ElixirDocumentation? by lazy { weighed(EXDC) { beam.elixirDocumentation() } }
+    val exports: CallDefinitions? by lazy { weighed(EXPT) { callDefinitions(EXPT) { beam.exports(it) } } }
+    val functions: Functions? by lazy { weighed(FUNT) { beam.functions(atoms) } }
+    val lines: Lines? by lazy {
+        weighed(LINE) {
+            persistent("lines", org.elixir_lang.beam.cache.persistent.Lines) { beam.lines(atoms) }
+        }
+    }
+    val literals: Literals? by lazy { weighed(LITT) { beam.literals() } }
+    val locals: CallDefinitions? by lazy { weighed(LOCT) { callDefinitions(LOCT) { beam.locals(it) } } }
+    val imports: Imports? by lazy { weighed(IMPT) { beam.imports(atoms) } }
+    val strings: Strings? by lazy { weighed(STRT) { beam.strings() } }
+
+    private val renderedByKey = ConcurrentHashMap<String, String>()
 
     fun chunkCollection(): Collection<Chunk> = beam.chunkCollection()
 
-    companion object {
-        private val KEY = Key.create<Pair<Long, Cache?>>("beam.cache")
+    /**
+     * Text rendered from the decoded chunks, such as the decompiled bodies of a definition, that is weighed with and
+     * so evicted with the chunks.
+     */
+    fun rendered(key: String, render: () -> String?): String? =
+            renderedByKey[key] ?: render()?.let { text ->
+                renderedByKey.putIfAbsent(key, text) ?: text.also {
+                    // `String` is UTF-16
+                    Memory.addWeight(this, 2L * it.length)
+                }
+            }
+
+    private fun callDefinitions(typeID: Chunk.TypeID, decode: (Atoms?) -> CallDefinitions?): CallDefinitions? {
+        val atoms = atoms
+
+        return persistent(typeID.toString(), org.elixir_lang.beam.cache.persistent.CallDefinitions(typeID, atoms)) {
+            decode(atoms)
+        }
+    }
 
+    private fun <T> persistent(name: String, externalizer: DataExternalizer<T>, decode: () -> T?): T? =
+            Persistent.getOrCompute(contentHash, name, externalizer, decode)
+
+    private fun <T> weighed(vararg typeIDs: Chunk.TypeID, decode: () -> T?): T? =
+            decode()?.also {
+                val weight = typeIDs.mapNotNull { beam.chunk(it) }.map { Memory.weight(it) }.sum()
+
+                Memory.addWeight(this, weight)
+            }
+
+    companion object {
         fun from(fileContent: FileContent) = from(fileContent.file)
         fun from(virtualFile: VirtualFile): Cache? {
-            val currentModificationCount = virtualFile.modificationCount
+            val modificationCount = virtualFile.modificationCount
 
-            val cache = virtualFile.getUserData(KEY)?.let { (cachedModificationCount, cachedCache) ->
-                if (cachedModificationCount == currentModificationCount) {
-                    cachedCache
-                } else {
+            return Memory.get(virtualFile, modificationCount) ?:
+                    contentsToByteArray(virtualFile)
+                            ?.let { content ->
+                                Beam.from(content, virtualFile.path)?.let { beam -> Cache(beam, Persistent.hash(content)) }
+                            }
+                            ?.also { Memory.put(virtualFile, modificationCount, it) }
+        }
+
+        private fun contentsToByteArray(virtualFile: VirtualFile): ByteArray? =
+                try {
+                    virtualFile.contentsToByteArray()
+                } catch (e: IOException) {
                     null
                 }
-            } ?: Beam.from(virtualFile)?.let(::Cache)
-
-            virtualFile.putUserData(KEY, Pair(currentModificationCount, cache))
-
-            return cache
-        }
     }
 }
@@ -5,14 +5,19 @@ import com.intellij.diagnostic.LogMessageEx;
 import com.intellij.openapi.diagnostic.Attachment;
 import com.intellij.openapi.fileTypes.BinaryFileDecompiler;
 import com.intellij.openapi.vfs.VirtualFile;
+import org.elixir_lang.beam.cache.Decompiled;
+import org.elixir_lang.beam.cache.Persistent;
 import org.elixir_lang.beam.chunk.Atoms;
 import org.elixir_lang.beam.chunk.CallDefinitions;
+import org.elixir_lang.beam.decompiler.Bodies;
 import org.elixir_lang.beam.decompiler.Default;
 import org.elixir_lang.beam.decompiler.InfixOperator;
 import org.elixir_lang.beam.decompiler.PrefixOperator;
 import org.elixir_lang.beam.decompiler.Unquoted;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.util.*;
 
 import static org.elixir_lang.beam.chunk.Chunk.TypeID.ATOM;
@@ -39,9 +44,14 @@ public class Decompiler implements BinaryFileDecompiler {
         MACRO_NAME_ARITY_DECOMPILER_LIST.add(Default.INSTANCE);
     }
 
+    /**
+     * @param bodies decompiles the bodies of the expanded definitions from the {@code Dbgi} chunk.  {@code null} to
+     *   only decompile {@code # body not decompiled} stubs.
+     */
     @NotNull
     private static CharSequence decompiled(
-            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") @NotNull Optional<Beam> beamOptional
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") @NotNull Optional<Beam> beamOptional,
+            @Nullable Bodies bodies
     ) {
         StringBuilder decompiled = new StringBuilder("# Decompilation Error: ");
 
@@ -62,7 +72,7 @@ public class Decompiler implements BinaryFileDecompiler {
                             .append(defmoduleArgument)
                             .append(" do\n");
 
-                    appendCallDefinitions(decompiled, beam, atoms);
+                    appendCallDefinitions(decompiled, beam, atoms, bodies);
 
                     decompiled.append("end\n");
                 } else {
@@ -80,9 +90,10 @@ public class Decompiler implements BinaryFileDecompiler {
 
     private static void appendCallDefinitions(@NotNull StringBuilder decompiled,
                                               @NotNull Beam beam,
-                                              @NotNull Atoms atoms) {
+                                              @NotNull Atoms atoms,
+                                              @Nullable Bodies bodies) {
         SortedSet<MacroNameArity> macroNameAritySortedSet = CallDefinitions.macroNameAritySortedSet(beam, atoms);
-        appendCallDefinitions(decompiled, macroNameAritySortedSet);
+        appendCallDefinitions(decompiled, macroNameAritySortedSet, bodies);
     }
 
     @NotNull
@@ -91,7 +102,8 @@ public class Decompiler implements BinaryFileDecompiler {
     }
 
     private static void appendCallDefinitions(@NotNull StringBuilder decompiled,
-                                              @NotNull SortedSet<MacroNameArity> macroNameAritySortedSet) {
+                                              @NotNull SortedSet<MacroNameArity> macroNameAritySortedSet,
+                                              @Nullable Bodies bodies) {
         MacroNameArity lastMacroNameArity = null;
 
         for (MacroNameArity macroNameArity : macroNameAritySortedSet) {
@@ -105,7 +117,9 @@ public class Decompiler implements BinaryFileDecompiler {
 
             decompiled.append("\n");
 
-            appendMacroNameArity(decompiled, macroNameArity);
+            if (bodies == null || !bodies.append(decompiled, macroNameArity)) {
+                appendMacroNameArity(decompiled, macroNameArity);
+            }
 
             lastMacroNameArity = macroNameArity;
         }
@@ -180,9 +194,45 @@ public class Decompiler implements BinaryFileDecompiler {
         return atom;
     }
 
+    /**
+     * @param expanded the {@code name/arity} of the definitions whose bodies are decompiled; see {@link Bodies}.
+     */
+    @NotNull
+    static CharSequence decompiled(@NotNull VirtualFile virtualFile, @NotNull Set<String> expanded) {
+        return decompiled(
+                Optional.ofNullable(Beam.Companion.from(virtualFile, Beam.CALL_DEFINITIONS_TYPE_ID_SET)),
+                Bodies.Companion.from(virtualFile, expanded)
+        );
+    }
+
+    /**
+     * The decompiled text is shared through {@link Decompiled} by all {@code .beam} files with the same content.  It is
+     * keyed by the hash of the raw content, so that a hit neither inflates nor decodes the {@code .beam} file.
+     */
     @NotNull
     @Override
     public CharSequence decompile(@NotNull VirtualFile virtualFile) {
-        return decompiled(Optional.ofNullable(Beam.Companion.from(virtualFile)));
+        Set<String> expanded = Bodies.Companion.expanded(virtualFile);
+        byte[] content;
+
+        try {
+            content = virtualFile.contentsToByteArray();
+        } catch (IOException e) {
+            content = null;
+        }
+
+        CharSequence decompiled;
+
+        if (content != null) {
+            decompiled = Decompiled.INSTANCE.getOrCompute(
+                    Persistent.INSTANCE.hash(content),
+                    expanded,
+                    () -> decompiled(virtualFile, expanded)
+            );
+        } else {
+            decompiled = decompiled(virtualFile, expanded);
+        }
+
+        return decompiled;
     }
 }
@@ -0,0 +1,133 @@
+package org.elixir_lang.beam
+
+import com.ericsson.otp.erlang.OtpErlangAtom
+import com.ericsson.otp.erlang.OtpErlangLong
+import com.ericsson.otp.erlang.OtpErlangMap
+import com.intellij.openapi.project.Project
+import com.intellij.psi.search.FilenameIndex
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.util.containers.ContainerUtil
+import org.elixir_lang.beam.chunk.Docs
+import org.elixir_lang.beam.chunk.ElixirDocumentation
+import org.elixir_lang.beam.chunk.docs.Entry
+import org.elixir_lang.beam.chunk.elixir_documentation.Doc
+import org.elixir_lang.psi.call.name.Module.ELIXIR_PREFIX
+
+/**
+ * Markdown documentation of modules and functions read from the documentation chunk of the module's `.beam` file, as
+ * `IEx.Helpers.h/1` would print it, but without starting a VM.  The EEP-48 `Docs` chunk is preferred over the
+ * `ExDc` chunk of Elixir < 1.7.
+ */
+object Documentation {
+    private const val MARKDOWN = "text/markdown"
+    private val CALL_KINDS = setOf("function", "macro")
+    private val DEFAULTS = OtpErlangAtom("defaults")
+
+    private data class Key(val moduleName: String, val name: String?, val arity: Int?, val contentHash: String)
+
+    /**
+     * Rendered markdown, or `""` when the `.beam` file has no documentation for the key.  Values are softly held, so
+     * the cache shrinks under memory pressure.
+     */
+    private val markdownByKey = ContainerUtil.createConcurrentSoftValueMap<Key, String>()
+
+    /**
+     * @param moduleName the module name as written in Elixir: `Kernel` or `:erlang`
+     * @param name `null` for the module's documentation
+     * @param arity `null` for all arities of `name`
+     * @return `null` if the module's `.beam` file is not in `scope` or has no documentation for `name`/`arity`.
+     */
+    fun markdown(project: Project, scope: GlobalSearchScope, moduleName: String, name: String?, arity: Int?): String? =
+            FilenameIndex
+                    .getVirtualFilesByName(project, "${atomName(moduleName)}.beam", scope)
+                    .asSequence()
+                    .mapNotNull { Cache.from(it) }
+                    .firstOrNull()
+                    ?.let { cache ->
+                        markdownByKey.getOrPut(Key(moduleName, name, arity, cache.contentHash)) {
+                            cache.docs?.let { markdown(it, moduleName, name, arity) } ?:
+                                    cache.elixirDocumentation?.let { markdown(it, moduleName, name, arity) } ?:
+                                    ""
+                        }
+                    }
+                    ?.takeUnless { it.isEmpty() }
+
+    private fun atomName(moduleName: String): String =
+            if (moduleName.startsWith(":")) {
+                moduleName.substring(1)
+            } else {
+                ELIXIR_PREFIX + moduleName
+            }
+
+    private fun markdown(docs: Docs, moduleName: String, name: String?, arity: Int?): String? =
+            if (docs.format != MARKDOWN) {
+                null
+            } else if (name == null) {
+                (docs.moduleDoc as? String)?.let { "# $moduleName\n\n$it" }
+            } else {
+                docs
+                        .keyList
+                        .withIndex()
+                        .filter { (_, key) -> key.name == name && key.kind in CALL_KINDS }
+                        .mapNotNull { (index, _) -> docs[index] }
+                        .filter { arity == null || arity in arityRange(it) }
+                        .takeUnless { it.isEmpty() }
+                        ?.joinToString("\n\n") { markdown(it) }
+            }
+
+    private fun markdown(entry: Entry): String {
+        val key = entry.key
+        val macro = if (key.kind == "macro") "defmacro" else "def"
+        val signatures = entry.signatures.takeUnless { it.isEmpty() } ?: listOf("${key.name}/${key.arity}")
+        val builder = StringBuilder()
+
+        signatures.forEachIndexed { index, signature ->
+            if (index > 0) {
+                builder.append('\n')
+            }
+
+            builder.append("# ").append(macro).append(' ').append(signature)
+        }
+
+        (entry.doc as? String)?.let { builder.append("\n\n").append(it) }
+
+        return builder.toString()
+    }
+
+    /**
+     * The `defaults` metadata counts the arguments with defaults (`\\`), which can be left out of a call.
+     */
+    private fun arityRange(entry: Entry): IntRange {
+        val arity = entry.key.arity
+        val defaultCount = ((entry.metadata as? OtpErlangMap)?.get(DEFAULTS) as? OtpErlangLong)?.intValue() ?: 0
+
+        return (arity - defaultCount)..arity
+    }
+
+    private fun markdown(elixirDocumentation: ElixirDocumentation, moduleName: String, name: String?, arity: Int?): String? =
+            if (name == null) {
+                (elixirDocumentation.moduledoc?.doc as? String)?.let { "# $moduleName\n\n$it" }
+            } else {
+                elixirDocumentation
+                        .docs
+                        ?.docList
+                        ?.filter { it.nameArity.name == name && (arity == null || arity in it.arityRange()) }
+                        ?.takeUnless { it.isEmpty() }
+                        ?.joinToString("\n\n") { markdown(it) }
+            }
+
+    private fun markdown(doc: Doc): String {
+        val builder = StringBuilder("# ")
+                .append(doc.kind.macro)
+                .append(' ')
+                .append(doc.nameArity.name)
+                .append('(')
+
+        doc.arguments.joinTo(builder, ", ")
+        builder.append(')')
+
+        (doc.doc as? String)?.let { builder.append("\n\n").append(it) }
+
+        return builder.toString()
+    }
+}
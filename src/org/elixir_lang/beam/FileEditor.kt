@@ -84,6 +84,8 @@ class FileEditor(
                 org.elixir_lang.beam.chunk.code.Component(cache, project, tabbedPane)
             Chunk.TypeID.DBGI.toString() ->
                 org.elixir_lang.beam.chunk.debug_info.term.component(cache.debugInfo, project, tabbedPane)
+            Chunk.TypeID.DOCS.toString() ->
+                org.elixir_lang.beam.chunk.docs.component(cache.docs, project, cache.atoms?.moduleName(), tabbedPane)
             Chunk.TypeID.EXDC.toString() ->
                 org.elixir_lang.beam.chunk.elixir_documentation.component(
                         cache.elixirDocumentation,
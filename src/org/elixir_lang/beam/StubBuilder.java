@@ -6,13 +6,15 @@ import com.intellij.psi.stubs.BinaryFileStubBuilder;
 import com.intellij.psi.stubs.Stub;
 import com.intellij.util.indexing.FileContent;
 import org.elixir_lang.beam.psi.BeamFileImpl;
+import org.elixir_lang.sdk.bundle.Bundles;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Optional;
 
 public class StubBuilder implements BinaryFileStubBuilder {
     private static final Logger LOGGER = Logger.getInstance(StubBuilder.class);
-    private static final int STUB_VERSION = 1;
+    // 2 - stores the arity of the defined function or macro for CallableName
+    public static final int STUB_VERSION = 2;
 
     /**
      * @param file a .beam file
@@ -28,7 +30,13 @@ public class StubBuilder implements BinaryFileStubBuilder {
     public Stub buildStubTree(FileContent fileContent) {
         byte[] content = fileContent.getContent();
 
-        Optional<Stub> stubOptional = BeamFileImpl.buildFileStub(content, fileContent.getFile().getPath());
+        // `.beam` files of an SDK with a bundle do not need to be decoded
+        Optional<Stub> stubOptional = Optional.ofNullable(Bundles.INSTANCE.beamStub(content));
+
+        if (!stubOptional.isPresent()) {
+            stubOptional = BeamFileImpl.buildFileStub(content, fileContent.getFile().getPath());
+        }
+
         Stub stub;
 
         if (stubOptional.isPresent()) {
@@ -1,6 +1,5 @@
 package org.elixir_lang.beam.assembly
 
-import com.intellij.openapi.application.ApplicationManager
 import com.intellij.openapi.editor.Document
 import com.intellij.openapi.project.Project
 import com.intellij.psi.PsiDocumentManager
@@ -30,10 +29,14 @@ class Controls(val cache: Cache, val project: Project): JBScrollPane() {
             ),
             showArgumentNames = true
     )
+    /**
+     * `null` if the Code chunk could not be disassembled
+     */
+    val renderer: Renderer? = cache.code?.let { code -> Renderer(cache, code, assemblyOptions) }
     val document: Document
 
     init {
-        val text = computeDocumentText()
+        val text = renderer?.placeholderText() ?: DEFAULT_TEXT
         val psiFile = PsiFileFactory.getInstance(project).createFileFromText(Language, text)
 
         document = PsiDocumentManager.getInstance(project).getDocument(psiFile)!!
@@ -50,7 +53,7 @@ class Controls(val cache: Cache, val project: Project): JBScrollPane() {
                     assemblyOptions = assemblyOptions.copy(inline = assemblyOptions.inline.copy(atoms = true))
             }
 
-            setDocumentText()
+            rerender()
         }
         scrollable.add(inlineAtomsCheckBox)
 
@@ -63,7 +66,7 @@ class Controls(val cache: Cache, val project: Project): JBScrollPane() {
                     assemblyOptions = assemblyOptions.copy(inline = assemblyOptions.inline.copy(functions = true))
             }
 
-            setDocumentText()
+            rerender()
         }
         scrollable.add(inlineFunctionsCheckBox)
 
@@ -76,7 +79,7 @@ class Controls(val cache: Cache, val project: Project): JBScrollPane() {
                     assemblyOptions = assemblyOptions.copy(inline = assemblyOptions.inline.copy(imports = true))
             }
 
-            setDocumentText()
+            rerender()
         }
         scrollable.add(inlineImportsCheckBox)
 
@@ -89,7 +92,7 @@ class Controls(val cache: Cache, val project: Project): JBScrollPane() {
                     assemblyOptions = assemblyOptions.copy(inline = assemblyOptions.inline.copy(integers = true))
             }
 
-            setDocumentText()
+            rerender()
         }
         scrollable.add(inlineIntegersCheckBox)
 
@@ -102,7 +105,7 @@ class Controls(val cache: Cache, val project: Project): JBScrollPane() {
                     assemblyOptions = assemblyOptions.copy(inline = assemblyOptions.inline.copy(labels = true))
             }
 
-            setDocumentText()
+            rerender()
         }
         scrollable.add(inlineLabelsCheckBox)
 
@@ -115,7 +118,7 @@ class Controls(val cache: Cache, val project: Project): JBScrollPane() {
                     assemblyOptions = assemblyOptions.copy(inline = assemblyOptions.inline.copy(lines = true))
             }
 
-            setDocumentText()
+            rerender()
         }
         scrollable.add(inlineLinesCheckBox)
 
@@ -128,7 +131,7 @@ class Controls(val cache: Cache, val project: Project): JBScrollPane() {
                     assemblyOptions = assemblyOptions.copy(inline = assemblyOptions.inline.copy(literals = true))
             }
 
-            setDocumentText()
+            rerender()
         }
         scrollable.add(inlineLiteralsCheckBox)
 
@@ -141,7 +144,7 @@ class Controls(val cache: Cache, val project: Project): JBScrollPane() {
                     assemblyOptions = assemblyOptions.copy(inline = assemblyOptions.inline.copy(localCalls = true))
             }
 
-            setDocumentText()
+            rerender()
         }
         scrollable.add(inlineLocalCallsCheckBox)
 
@@ -154,7 +157,7 @@ class Controls(val cache: Cache, val project: Project): JBScrollPane() {
                     assemblyOptions = assemblyOptions.copy(inline = assemblyOptions.inline.copy(strings = true))
             }
 
-            setDocumentText()
+            rerender()
         }
         scrollable.add(inlineStringsCheckBox)
 
@@ -168,18 +171,14 @@ class Controls(val cache: Cache, val project: Project): JBScrollPane() {
                     assemblyOptions = assemblyOptions.copy(showArgumentNames = true)
             }
 
-            setDocumentText()
+            rerender()
         }
         scrollable.add(showArgumentNamesCheckBox)
 
         setViewportView(scrollable)
     }
 
-    private fun computeDocumentText() = cache.code?.assembly(cache, assemblyOptions) ?: DEFAULT_TEXT
-
-    private fun setDocumentText() {
-        ApplicationManager.getApplication().runWriteAction {
-            document.setText(computeDocumentText())
-        }
+    private fun rerender() {
+        renderer?.options = assemblyOptions
     }
 }
@@ -0,0 +1,162 @@
+package org.elixir_lang.beam.assembly
+
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.editor.Document
+import com.intellij.openapi.editor.Editor
+import org.elixir_lang.beam.Cache
+import org.elixir_lang.beam.chunk.Code
+import java.awt.Point
+
+private const val PLACEHOLDER_LINE = "#"
+
+/**
+ * Renders the assembly of [code] one function at a time.  The document starts as [placeholderText], which has the
+ * right number of lines for each function, so that the whole module can be scrolled through, but a function's
+ * assembly is only rendered once it is visible in the [attach]ed editor.  Changing [options] only re-renders the
+ * visible functions; the others are re-rendered when they are scrolled to.
+ */
+class Renderer(private val cache: Cache, private val code: Code, options: Code.Options) {
+    private val functionCount = code.functionCount()
+    /**
+     * Offset of each function's text in the document
+     */
+    private val startOffsets = IntArray(functionCount)
+    private val lengths = IntArray(functionCount)
+    /**
+     * The options each function was last rendered with or `null` if it is still the placeholder
+     */
+    private val renderedOptions = arrayOfNulls<Code.Options>(functionCount)
+    private var editor: Editor? = null
+    private var isRenderScheduled = false
+
+    var options: Code.Options = options
+        set(value) {
+            field = value
+            scheduleRender()
+        }
+
+    /**
+     * The text the document must be created with
+     */
+    fun placeholderText(): String {
+        val builder = StringBuilder()
+
+        for (function in 0 until functionCount) {
+            if (function > 0) {
+                builder.append('\n')
+            }
+
+            val startOffset = builder.length
+            startOffsets[function] = startOffset
+
+            repeat(code.lineCount(function)) { line ->
+                if (line > 0) {
+                    builder.append('\n')
+                }
+
+                builder.append(PLACEHOLDER_LINE)
+            }
+
+            lengths[function] = builder.length - startOffset
+            renderedOptions[function] = null
+        }
+
+        return builder.toString()
+    }
+
+    /**
+     * Renders the functions visible in `editor`, whose document was created with [placeholderText], now and whenever
+     * it is scrolled.
+     */
+    fun attach(editor: Editor) {
+        this.editor = editor
+        editor.scrollingModel.addVisibleAreaListener { scheduleRender() }
+        scheduleRender()
+    }
+
+    /**
+     * Coalesces the visible area and option changes until the event queue is next idle, so that the document is not
+     * changed while the editor is still handling a scroll.
+     */
+    private fun scheduleRender() {
+        if (!isRenderScheduled && editor != null) {
+            isRenderScheduled = true
+
+            ApplicationManager.getApplication().invokeLater {
+                isRenderScheduled = false
+
+                editor?.takeUnless { it.isDisposed }?.let { editor ->
+                    ApplicationManager.getApplication().runWriteAction {
+                        renderVisible(editor)
+                    }
+                }
+            }
+        }
+    }
+
+    private fun renderVisible(editor: Editor) {
+        val document = editor.document
+        val documentLineCount = document.lineCount
+
+        if (functionCount == 0 || documentLineCount == 0) {
+            return
+        }
+
+        val visibleArea = editor.scrollingModel.visibleArea
+        val firstLine = editor.xyToLogicalPosition(Point(visibleArea.x, visibleArea.y)).line
+        val lastLine = editor.xyToLogicalPosition(Point(visibleArea.x, visibleArea.y + visibleArea.height)).line
+        val startOffset = document.getLineStartOffset(firstLine.coerceIn(0, documentLineCount - 1))
+        var endOffset = document.getLineEndOffset(lastLine.coerceIn(0, documentLineCount - 1))
+
+        var function = functionAt(startOffset)
+
+        while (function < functionCount && startOffsets[function] <= endOffset) {
+            if (renderedOptions[function] != options) {
+                endOffset += render(document, function)
+            }
+
+            function++
+        }
+    }
+
+    /**
+     * @return the change in the document's length
+     */
+    private fun render(document: Document, function: Int): Int {
+        val text = code.assembly(cache, options, function)
+        val startOffset = startOffsets[function]
+        val length = lengths[function]
+
+        document.replaceString(startOffset, startOffset + length, text)
+
+        val delta = text.length - length
+        lengths[function] = text.length
+        renderedOptions[function] = options
+
+        for (laterFunction in function + 1 until functionCount) {
+            startOffsets[laterFunction] += delta
+        }
+
+        return delta
+    }
+
+    /**
+     * The last function starting at or before `offset`
+     */
+    private fun functionAt(offset: Int): Int {
+        var low = 0
+        var high = functionCount - 1
+
+        while (low < high) {
+            val middle = (low + high + 1).ushr(1)
+
+            if (startOffsets[middle] <= offset) {
+                low = middle
+            } else {
+                high = middle - 1
+            }
+        }
+
+        return low
+    }
+}
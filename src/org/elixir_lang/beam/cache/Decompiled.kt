@@ -0,0 +1,86 @@
+package org.elixir_lang.beam.cache
+
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.util.containers.ContainerUtil
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * The text of decompiled `.beam` files, shared by every project, so that the mirror of a `.beam` that is in several
+ * projects, such as the same SDK's `Elixir.Enum.beam`, or whose mirror is built again after its PSI was collected, does
+ * not decompile it again.
+ *
+ * Texts are keyed by [Persistent.hash] of the `.beam` file's content and the definitions whose bodies were decompiled.  They are
+ * softly held, so the GC can reclaim them under memory pressure.
+ */
+object Decompiled {
+    private data class Key(val contentHash: String, val expanded: Set<String>)
+
+    private val textByKey = ContainerUtil.createConcurrentSoftValueMap<Key, String>()
+    private val lock = Any()
+    // Guarded by `lock`
+    private val mirrorBuildCountByVirtualFile: MutableMap<VirtualFile, Int> = ContainerUtil.createWeakMap()
+    private val hitCount = AtomicLong()
+    private val missCount = AtomicLong()
+    private val mirrorBuildCount = AtomicLong()
+    private val mirrorRebuildCount = AtomicLong()
+
+    /**
+     * @param contentHash [Persistent.hash] of the `.beam` file's content
+     * @param expanded the `name/arity`s of the definitions whose bodies `decompile` decompiles
+     * @param decompile decompiles the `.beam` file when its text is not cached
+     */
+    fun getOrCompute(contentHash: String, expanded: Set<String>, decompile: () -> CharSequence): CharSequence {
+        val key = Key(contentHash, expanded)
+        val cached = textByKey[key]
+
+        return if (cached != null) {
+            hitCount.incrementAndGet()
+
+            cached
+        } else {
+            missCount.incrementAndGet()
+
+            decompile().toString().also { textByKey[key] = it }
+        }
+    }
+
+    /**
+     * Drops every cached text, such as so that a benchmark measures decompiling instead of cache hits
+     */
+    fun clear() {
+        textByKey.clear()
+    }
+
+    /**
+     * Called by [org.elixir_lang.beam.psi.BeamFileImpl] each time it parses the decompiled text of `virtualFile` into
+     * its mirror.  A build of a file whose mirror was built before is counted as a rebuild.
+     */
+    fun mirrorBuilt(virtualFile: VirtualFile) {
+        mirrorBuildCount.incrementAndGet()
+
+        val previousCount = synchronized(lock) {
+            mirrorBuildCountByVirtualFile.put(virtualFile, (mirrorBuildCountByVirtualFile[virtualFile] ?: 0) + 1)
+        }
+
+        if (previousCount != null) {
+            mirrorRebuildCount.incrementAndGet()
+        }
+    }
+
+    fun statistics(): Statistics =
+            Statistics(
+                    textCount = textByKey.size,
+                    hitCount = hitCount.get(),
+                    missCount = missCount.get(),
+                    mirrorBuildCount = mirrorBuildCount.get(),
+                    mirrorRebuildCount = mirrorRebuildCount.get()
+            )
+
+    data class Statistics(
+            val textCount: Int,
+            val hitCount: Long,
+            val missCount: Long,
+            val mirrorBuildCount: Long,
+            val mirrorRebuildCount: Long
+    )
+}
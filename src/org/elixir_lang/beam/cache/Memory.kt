@@ -0,0 +1,193 @@
+package org.elixir_lang.beam.cache
+
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.util.containers.ContainerUtil
+import org.elixir_lang.beam.Cache
+import org.elixir_lang.beam.chunk.Chunk
+import org.elixir_lang.beam.chunk.Chunk.TypeID.*
+import org.elixir_lang.beam.chunk.Chunk.unsignedInt
+
+/**
+ * The [Cache]s of the `.beam` files that are open in the BEAM file editor, disassembled, etc.
+ *
+ * [Cache]s are strongly held in least-recently-used order until their estimated [Cache.weight]s exceed [maxByteCount].
+ * Past that, the least recently used are only softly held, so the GC can reclaim them under memory pressure, but they
+ * are promoted back if still reachable when their `.beam` is next used.
+ */
+object Memory {
+    /**
+     * System property to override [DEFAULT_MAX_BYTE_COUNT]
+     */
+    private const val MAX_BYTE_COUNT_PROPERTY = "elixir.beam.cache.memory.max.bytes"
+    private const val DEFAULT_MAX_BYTE_COUNT = 64L * 1024 * 1024
+
+    val maxByteCount: Long = java.lang.Long.getLong(MAX_BYTE_COUNT_PROPERTY, DEFAULT_MAX_BYTE_COUNT)
+
+    private val lock = Any()
+    // access-ordered, so iteration starts at the least recently used
+    private val strongEntryByVirtualFile = LinkedHashMap<VirtualFile, Entry>(16, 0.75f, true)
+    private val softEntryByVirtualFile: MutableMap<VirtualFile, Entry> = ContainerUtil.createWeakKeySoftValueMap()
+    private var byteCount = 0L
+    private var hitCount = 0L
+    private var softHitCount = 0L
+    private var missCount = 0L
+    private var evictionCount = 0L
+    // softly held entries dropped because their `.beam` changed
+    private var softDiscardCount = 0L
+
+    /**
+     * @return `null` if there is no [Cache] for `virtualFile`, it was reclaimed by the GC, or it was for an earlier
+     *   `modificationCount`.
+     */
+    fun get(virtualFile: VirtualFile, modificationCount: Long): Cache? =
+            synchronized(lock) {
+                val strongEntry = strongEntryByVirtualFile[virtualFile]
+
+                if (strongEntry != null && strongEntry.modificationCount == modificationCount) {
+                    hitCount++
+
+                    strongEntry.cache
+                } else {
+                    val softEntry = softEntryByVirtualFile.remove(virtualFile)
+
+                    if (softEntry != null && softEntry.modificationCount == modificationCount) {
+                        softHitCount++
+                        putStrongly(virtualFile, softEntry)
+
+                        softEntry.cache
+                    } else {
+                        if (softEntry != null) {
+                            softDiscardCount++
+                        }
+
+                        missCount++
+
+                        null
+                    }
+                }
+            }
+
+    fun put(virtualFile: VirtualFile, modificationCount: Long, cache: Cache) {
+        synchronized(lock) {
+            if (softEntryByVirtualFile.remove(virtualFile) != null) {
+                softDiscardCount++
+            }
+
+            putStrongly(virtualFile, Entry(modificationCount, cache))
+        }
+    }
+
+    /**
+     * Called by [Cache] when it decodes another chunk
+     */
+    fun addWeight(cache: Cache, weight: Long) {
+        synchronized(lock) {
+            cache.weight += weight
+
+            if (cache.isStronglyHeld) {
+                byteCount += weight
+                evict()
+            }
+        }
+    }
+
+    fun statistics(): Statistics =
+            synchronized(lock) {
+                // `size` first expunges the entries whose values the GC reclaimed
+                val softCount = softEntryByVirtualFile.size
+
+                Statistics(
+                        strongCount = strongEntryByVirtualFile.size,
+                        softCount = softCount,
+                        byteCount = byteCount,
+                        maxByteCount = maxByteCount,
+                        hitCount = hitCount,
+                        softHitCount = softHitCount,
+                        missCount = missCount,
+                        evictionCount = evictionCount,
+                        // every evicted entry is still softly held, promoted by a soft hit, discarded, or reclaimed
+                        reclaimedCount = evictionCount - softHitCount - softDiscardCount - softCount
+                )
+            }
+
+    /**
+     * Estimate of the bytes retained by decoding `chunk`, as the object graphs are several times larger than the
+     * encoded chunk.
+     */
+    fun weight(chunk: Chunk): Long {
+        val typeID = chunk.typeID
+        val factor = when (typeID) {
+            ATOM.toString(), ATU8.toString() -> 4
+            // a packed opcode or term kind and value for every 1-3 bytes of compact terms
+            CODE.toString() -> 8
+            // `OtpErlang*` object graphs
+            ATTR.toString(), CINF.toString(), DBGI.toString(), EXDC.toString() -> 8
+            EXPT.toString(), FUNT.toString(), IMPT.toString(), LOCT.toString() -> 6
+            LINE.toString() -> 16
+            // `String` is UTF-16
+            STRT.toString() -> 2
+            // the inflated table; literals are only decoded when used
+            LITT.toString() -> 1
+            // the `{kind, name, arity}` index; entries are only decoded when used
+            DOCS.toString() -> 1
+            else -> 1
+        }
+        // LitT is compressed, so use the inflated size from its header
+        val size = if (typeID == LITT.toString() && chunk.size >= 4) {
+            unsignedInt(chunk.bytes, chunk.offset).first
+        } else {
+            chunk.size.toLong()
+        }
+
+        return size * factor
+    }
+
+    // Holds `lock`
+    private fun evict() {
+        val iterator = strongEntryByVirtualFile.entries.iterator()
+
+        // Always keep the most recently used, even if it alone exceeds the budget
+        while (byteCount > maxByteCount && strongEntryByVirtualFile.size > 1) {
+            val (virtualFile, entry) = iterator.next()
+            iterator.remove()
+
+            entry.cache.isStronglyHeld = false
+            byteCount -= entry.cache.weight
+            softEntryByVirtualFile[virtualFile] = entry
+            evictionCount++
+        }
+    }
+
+    // Holds `lock`
+    private fun putStrongly(virtualFile: VirtualFile, entry: Entry) {
+        strongEntryByVirtualFile.put(virtualFile, entry)?.let { replaced ->
+            replaced.cache.isStronglyHeld = false
+            byteCount -= replaced.cache.weight
+        }
+
+        entry.cache.isStronglyHeld = true
+        byteCount += entry.cache.weight
+        evict()
+    }
+
+    private class Entry(val modificationCount: Long, val cache: Cache)
+
+    /**
+     * @param hitCount hits on strongly held [Cache]s
+     * @param softHitCount hits on softly held [Cache]s that the GC had not reclaimed yet, which promoted them back to
+     *   strongly held
+     * @param evictionCount [Cache]s demoted from strongly to softly held
+     * @param reclaimedCount softly held [Cache]s reclaimed by the GC
+     */
+    data class Statistics(
+            val strongCount: Int,
+            val softCount: Int,
+            val byteCount: Long,
+            val maxByteCount: Long,
+            val hitCount: Long,
+            val softHitCount: Long,
+            val missCount: Long,
+            val evictionCount: Long,
+            val reclaimedCount: Long
+    )
+}
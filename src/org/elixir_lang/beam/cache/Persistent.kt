@@ -0,0 +1,212 @@
+package org.elixir_lang.beam.cache
+
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.application.PathManager
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.util.io.FileUtil
+import com.intellij.util.concurrency.AppExecutorUtil
+import com.intellij.util.io.DataExternalizer
+import java.io.*
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.security.MessageDigest
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Decoded chunk models that outlive the IDE session.
+ *
+ * Models are keyed by the SHA-1 of the `.beam` file's content, so that identical `.beam`s, such as those from the same
+ * OTP release or the same hex package version used in several projects, are decoded only once per machine.  Each model
+ * is a file under `<system path>/elixir/beam/<DECODER_VERSION>`.  When the files exceed [maxByteCount], the least
+ * recently used are deleted.
+ *
+ * Disk access never happens on the event dispatch thread: models are only read on background threads, such as indexing
+ * and stub building, and are written, counted, and evicted on a single background [executor], so that opening a `.beam`
+ * in an editor tab or hovering for documentation only decodes.
+ */
+object Persistent {
+    /**
+     * Bump when a chunk decoder or a [DataExternalizer] in [org.elixir_lang.beam.cache.persistent] changes, so that
+     * models from earlier versions are ignored and deleted.
+     */
+    const val DECODER_VERSION = 3
+
+    /**
+     * System property to override [DEFAULT_MAX_BYTE_COUNT]
+     */
+    private const val MAX_BYTE_COUNT_PROPERTY = "elixir.beam.cache.persistent.max.bytes"
+    private const val DEFAULT_MAX_BYTE_COUNT = 256L * 1024 * 1024
+    private val LOGGER = Logger.getInstance(Persistent::class.java)
+
+    val maxByteCount: Long = java.lang.Long.getLong(MAX_BYTE_COUNT_PROPERTY, DEFAULT_MAX_BYTE_COUNT)
+
+    private val rootDirectory by lazy { File(PathManager.getSystemPath(), "elixir${File.separator}beam") }
+    private val directory by lazy { File(rootDirectory, DECODER_VERSION.toString()) }
+    private val executor = AppExecutorUtil.createBoundedApplicationPoolExecutor("Elixir BEAM Persistent Cache", 1)
+
+    private val hitCount = AtomicLong()
+    private val missCount = AtomicLong()
+    private val evictionCount = AtomicLong()
+    /**
+     * Bytes of the persisted models.  Only counts the files already on disk after the first write has walked
+     * [directory].
+     */
+    private val byteCount = AtomicLong()
+    // Confined to `executor`
+    private var isDirectoryWalked = false
+
+    fun hash(content: ByteArray): String {
+        val digest = MessageDigest.getInstance("SHA-1").digest(content)
+        val hash = StringBuilder(digest.size * 2)
+
+        for (byte in digest) {
+            hash.append(Character.forDigit(byte.toInt().ushr(4).and(0xF), 16))
+            hash.append(Character.forDigit(byte.toInt().and(0xF), 16))
+        }
+
+        return hash.toString()
+    }
+
+    /**
+     * @param hash [hash] of the `.beam` file's content
+     * @param name name of the model, unique within a `.beam`
+     * @param compute decodes the model when it is not persisted yet or when called on the event dispatch thread.
+     *   `null` is not persisted, so that absent chunks do not take up space.
+     */
+    fun <T> getOrCompute(hash: String, name: String, externalizer: DataExternalizer<T>, compute: () -> T?): T? {
+        val persisted = if (isDispatchThread()) {
+            missCount.incrementAndGet()
+
+            null
+        } else {
+            read(hash, name, externalizer)
+        }
+
+        return persisted ?: compute()?.also { model -> executor.execute { write(hash, name, externalizer, model) } }
+    }
+
+    fun statistics(): Statistics =
+            Statistics(hitCount.get(), missCount.get(), evictionCount.get(), byteCount.get(), maxByteCount)
+
+    private fun deleteOtherVersions() {
+        rootDirectory.listFiles()?.forEach { versionDirectory ->
+            if (versionDirectory.name != DECODER_VERSION.toString()) {
+                FileUtil.delete(versionDirectory)
+            }
+        }
+    }
+
+    // On `executor`
+    private fun walkDirectory() {
+        if (!isDirectoryWalked) {
+            deleteOtherVersions()
+            byteCount.addAndGet(files().map(File::length).sum())
+            isDirectoryWalked = true
+        }
+    }
+
+    // On `executor`
+    private fun evictIfNeeded() {
+        if (byteCount.get() > maxByteCount) {
+            val lruFiles = files().sortedBy(File::lastModified)
+            var remainingByteCount = lruFiles.map(File::length).sum()
+            // Evict down to 3/4 of the budget, so that each write past the budget doesn't walk the directory again
+            val targetByteCount = maxByteCount / 4 * 3
+
+            for (file in lruFiles) {
+                if (remainingByteCount <= targetByteCount) {
+                    break
+                }
+
+                val length = file.length()
+
+                if (file.delete()) {
+                    remainingByteCount -= length
+                    evictionCount.incrementAndGet()
+                }
+            }
+
+            byteCount.set(remainingByteCount)
+        }
+    }
+
+    private fun file(hash: String, name: String): File = File(File(directory, hash.substring(0, 2)), "$hash.$name")
+
+    private fun files(): List<File> = directory.walkTopDown().filter { it.isFile }.toList()
+
+    private fun isDispatchThread(): Boolean = ApplicationManager.getApplication()?.isDispatchThread ?: false
+
+    private fun <T> read(hash: String, name: String, externalizer: DataExternalizer<T>): T? {
+        val file = file(hash, name)
+
+        return if (file.isFile) {
+            try {
+                DataInputStream(BufferedInputStream(FileInputStream(file))).use { externalizer.read(it) }.also {
+                    hitCount.incrementAndGet()
+                    // LRU order for eviction
+                    file.setLastModified(System.currentTimeMillis())
+                }
+            } catch (exception: IOException) {
+                corrupt(file, exception)
+            } catch (exception: RuntimeException) {
+                corrupt(file, exception)
+            }
+        } else {
+            missCount.incrementAndGet()
+
+            null
+        }
+    }
+
+    private fun corrupt(file: File, exception: Exception): Nothing? {
+        LOGGER.warn("Deleting unreadable persisted BEAM model $file", exception)
+        file.delete()
+        missCount.incrementAndGet()
+
+        return null
+    }
+
+    // On `executor`
+    private fun <T> write(hash: String, name: String, externalizer: DataExternalizer<T>, model: T) {
+        val file = file(hash, name)
+
+        try {
+            walkDirectory()
+
+            if (file.isFile) {
+                // persisted by an earlier write of a model decoded on the event dispatch thread
+                return
+            }
+
+            val byteArrayOutputStream = ByteArrayOutputStream()
+            DataOutputStream(byteArrayOutputStream).use { externalizer.save(it, model) }
+            val bytes = byteArrayOutputStream.toByteArray()
+
+            val parent = file.parentFile
+            parent.mkdirs()
+
+            // Another IDE process writing the same model writes the same bytes, so the last atomic move wins harmlessly
+            val temporaryFile = File.createTempFile(file.name, ".tmp", parent)
+            temporaryFile.writeBytes(bytes)
+            Files.move(
+                    temporaryFile.toPath(),
+                    file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE
+            )
+
+            byteCount.addAndGet(bytes.size.toLong())
+            evictIfNeeded()
+        } catch (exception: IOException) {
+            LOGGER.warn("Could not persist BEAM model $file", exception)
+        }
+    }
+
+    data class Statistics(
+            val hitCount: Long,
+            val missCount: Long,
+            val evictionCount: Long,
+            val byteCount: Long,
+            val maxByteCount: Long
+    )
+}
@@ -0,0 +1,39 @@
+package org.elixir_lang.beam.cache.persistent
+
+import com.intellij.util.io.DataExternalizer
+import org.elixir_lang.beam.chunk.Atoms
+import org.elixir_lang.beam.chunk.Chunk
+import org.elixir_lang.beam.chunk.call_definitions.CallDefinition
+import java.io.DataInput
+import java.io.DataOutput
+
+/**
+ * Only the atom indices are persisted, so the names are looked up in the `atoms` of the same `.beam` when read.
+ */
+class CallDefinitions(private val typeID: Chunk.TypeID, private val atoms: Atoms?) :
+        DataExternalizer<org.elixir_lang.beam.chunk.CallDefinitions> {
+    override fun save(out: DataOutput, value: org.elixir_lang.beam.chunk.CallDefinitions) {
+        out.writeInt(value.size())
+
+        for (callDefinition in value.callDefinitionCollection) {
+            writeUnsignedInt(out, callDefinition.atomIndex)
+            writeUnsignedInt(out, callDefinition.arity)
+            writeUnsignedInt(out, callDefinition.label)
+        }
+    }
+
+    override fun read(`in`: DataInput): org.elixir_lang.beam.chunk.CallDefinitions {
+        val size = `in`.readInt()
+        val callDefinitionCollection = ArrayList<CallDefinition>(size)
+
+        repeat(size) {
+            val atomIndex = readUnsignedInt(`in`)
+            val arity = readUnsignedInt(`in`)
+            val label = readUnsignedInt(`in`)
+
+            callDefinitionCollection.add(CallDefinition(atomIndex, arity, label, atoms))
+        }
+
+        return org.elixir_lang.beam.chunk.CallDefinitions(typeID, callDefinitionCollection)
+    }
+}
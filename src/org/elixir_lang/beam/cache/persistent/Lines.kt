@@ -0,0 +1,44 @@
+package org.elixir_lang.beam.cache.persistent
+
+import com.intellij.util.io.DataExternalizer
+import org.elixir_lang.beam.chunk.lines.LineReference
+import java.io.DataInput
+import java.io.DataOutput
+
+object Lines : DataExternalizer<org.elixir_lang.beam.chunk.Lines> {
+    override fun save(out: DataOutput, value: org.elixir_lang.beam.chunk.Lines) {
+        out.writeInt(value.lineReferenceList.size)
+
+        for (lineReference in value.lineReferenceList) {
+            out.writeInt(lineReference.fileNameIndex)
+            out.writeLong(lineReference.line)
+        }
+
+        out.writeInt(value.fileNameList.size)
+
+        for (fileName in value.fileNameList) {
+            out.writeUTF(fileName)
+        }
+    }
+
+    override fun read(`in`: DataInput): org.elixir_lang.beam.chunk.Lines {
+        val lineReferenceCount = `in`.readInt()
+        val lineReferenceList = ArrayList<LineReference>(lineReferenceCount)
+
+        repeat(lineReferenceCount) {
+            val fileNameIndex = `in`.readInt()
+            val line = `in`.readLong()
+
+            lineReferenceList.add(LineReference(fileNameIndex, line))
+        }
+
+        val fileNameCount = `in`.readInt()
+        val fileNameList = ArrayList<String>(fileNameCount)
+
+        repeat(fileNameCount) {
+            fileNameList.add(`in`.readUTF())
+        }
+
+        return org.elixir_lang.beam.chunk.Lines(lineReferenceList, fileNameList)
+    }
+}
@@ -0,0 +1,11 @@
+package org.elixir_lang.beam.cache.persistent
+
+import java.io.DataInput
+import java.io.DataOutput
+
+/**
+ * Chunks store unsigned 32-bit ints, which are decoded as `Long`, but only need 4 bytes when persisted.
+ */
+internal fun writeUnsignedInt(out: DataOutput, unsignedInt: Long) = out.writeInt(unsignedInt.toInt())
+
+internal fun readUnsignedInt(`in`: DataInput): Long = `in`.readInt().toLong().and(0xFFFF_FFFFL)
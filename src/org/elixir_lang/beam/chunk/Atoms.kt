@@ -3,10 +3,11 @@ package org.elixir_lang.beam.chunk
 import org.elixir_lang.beam.chunk.Chunk.unsignedByte
 import org.elixir_lang.beam.chunk.Chunk.unsignedInt
 import org.elixir_lang.beam.chunk.atoms.Atom
+import org.elixir_lang.beam.chunk.atoms.Interner
 import java.nio.charset.Charset
 import java.util.*
 
-class Atoms private constructor(private val atomList: List<Atom>) {
+class Atoms internal constructor(private val atomList: List<Atom>) {
 
     /**
      * @param index 1-based index.  1 is reserved for {#link moduleName}
@@ -24,20 +25,21 @@ class Atoms private constructor(private val atomList: List<Atom>) {
         fun from(chunk: Chunk, typeID: Chunk.TypeID, charset: Charset): Atoms? {
             var atoms: Atoms? = null
 
-            if (chunk.typeID == typeID.toString() && chunk.data.size >= 4) {
-                var offset = 0
-                val atomCountByteCount = unsignedInt(chunk.data, offset)
+            if (chunk.typeID == typeID.toString() && chunk.size >= 4) {
+                val bytes = chunk.bytes
+                var offset = chunk.offset
+                val atomCountByteCount = unsignedInt(bytes, offset)
                 val atomCount = atomCountByteCount.first
                 offset += atomCountByteCount.second
 
                 val atomList = ArrayList<Atom>()
 
                 for (i in 1..atomCount) {
-                    val atomLengthByteCount = unsignedByte(chunk.data[offset])
+                    val atomLengthByteCount = unsignedByte(bytes[offset])
                     val atomLength = atomLengthByteCount.first
                     offset += atomLengthByteCount.second
 
-                    val string = String(chunk.data, offset, atomLength, charset)
+                    val string = Interner.intern(bytes, offset, atomLength, charset)
                     offset += atomLength
                     atomList.add(Atom(i.toInt(), atomLength, string))
                 }
@@ -7,28 +7,55 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 
 import static com.intellij.openapi.util.Pair.pair;
 
 /**
  * Chunk of a `.beam` file.  Same chunk format as base IFF
+ *
+ * A chunk is a view of {@link #size} bytes starting at {@link #offset} in the {@link #bytes} of the whole `.beam`
+ * file, so that chunks that are never decoded are never copied.
  */
 public class Chunk {
     private static final int ALIGNMENT = 4;
     private static final int BYTE_BIT_COUNT = 8;
     private static final Logger LOGGER = Logger.getInstance(Chunk.class);
+    private static final int TYPE_ID_BYTE_COUNT = 4;
     private static final int UNSIGNED_INT_BYTE_COUNT = 4;
     private static final int UNSIGNED_SHORT_BYTE_COUNT = 2;
 
     @NotNull
     public final String typeID;
+    /**
+     * The bytes of the whole (decompressed) BEAM container.  Shared by all {@link Chunk}s of the same BEAM, so that
+     * reading the chunk directory does not copy any chunk's data.
+     */
     @NotNull
-    public final byte[] data;
-
-    private Chunk(@NotNull String typeID, @NotNull byte[] data) {
+    public final byte[] bytes;
+    /**
+     * Offset of the first byte of this chunk's data in {@link #bytes}
+     */
+    public final int offset;
+    /**
+     * Number of bytes of data in this chunk, not including the padding to {@link #ALIGNMENT}.
+     */
+    public final int size;
+
+    private Chunk(@NotNull String typeID, @NotNull byte[] bytes, int offset, int size) {
         this.typeID = typeID;
-        this.data = data;
+        this.bytes = bytes;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    /**
+     * Offset in {@link #bytes} just after the last byte of this chunk's data.
+     */
+    @Contract(pure = true)
+    public int end() {
+        return offset + size;
     }
 
     @Nullable
@@ -37,20 +64,110 @@ public class Chunk {
         Chunk chunk = null;
 
         if (typeID != null) {
-            long length = length(dataInputStream);
+            chunk = from(typeID, dataInputStream);
+        }
+
+        return chunk;
+    }
 
-            byte[] data = new byte[(int) length];
-            dataInputStream.readFully(data);
+    /**
+     * @param typeID the already read type ID of the chunk
+     */
+    @NotNull
+    public static Chunk from(@NotNull String typeID, @NotNull DataInputStream dataInputStream) throws IOException {
+        long length = length(dataInputStream);
+
+        byte[] data = new byte[(int) length];
+        dataInputStream.readFully(data);
+
+        dataInputStream.skipBytes(padding(length));
+
+        return new Chunk(typeID, data, 0, data.length);
+    }
+
+    /**
+     * Skips the chunk whose type ID was just read without allocating its data.
+     */
+    public static void skip(@NotNull DataInputStream dataInputStream) throws IOException {
+        long length = length(dataInputStream);
+        long remaining = length;
 
-            int padding = (int) ((ALIGNMENT - (length % ALIGNMENT)) % ALIGNMENT);
-            dataInputStream.skipBytes(padding);
+        while (remaining > 0) {
+            int skipped = dataInputStream.skipBytes((int) Math.min(remaining, Integer.MAX_VALUE));
 
-            chunk = new Chunk(typeID, data);
+            if (skipped <= 0) {
+                throw new EOFException("Chunk data ended " + remaining + " bytes early");
+            }
+
+            remaining -= skipped;
+        }
+
+        dataInputStream.skipBytes(padding(length));
+    }
+
+    /**
+     * @param offset the offset of the chunk's type ID in {@code bytes}
+     * @return the offset of the type ID of the next chunk; {@code bytes.length} if there are not enough bytes left for
+     *   a chunk header or the chunk's data, so that a corrupt length can neither loop back nor go negative.
+     */
+    public static int skip(@NotNull byte[] bytes, int offset) {
+        long dataOffset = (long) offset + TYPE_ID_BYTE_COUNT + UNSIGNED_INT_BYTE_COUNT;
+        int nextOffset = bytes.length;
+
+        if (dataOffset <= bytes.length) {
+            long length = unsignedInt(bytes, offset + TYPE_ID_BYTE_COUNT).first;
+            long paddedEnd = dataOffset + length + padding(length);
+
+            if (offset < paddedEnd && paddedEnd <= bytes.length) {
+                nextOffset = (int) paddedEnd;
+            }
+        }
+
+        return nextOffset;
+    }
+
+    /**
+     * A view of the chunk whose header starts at {@code offset} in {@code bytes}.  The chunk's data is NOT copied.
+     *
+     * @param bytes the bytes of the whole BEAM container
+     * @param offset the offset of the chunk's type ID in {@code bytes}
+     * @return {@code null} if there are not enough bytes left for a chunk header or the chunk's data.
+     */
+    @Nullable
+    public static Chunk from(@NotNull byte[] bytes, int offset, @NotNull String path) {
+        Chunk chunk = null;
+        int dataOffset = offset + TYPE_ID_BYTE_COUNT + UNSIGNED_INT_BYTE_COUNT;
+
+        if (dataOffset <= bytes.length) {
+            String typeID = new String(bytes, offset, TYPE_ID_BYTE_COUNT);
+            long length = unsignedInt(bytes, offset + TYPE_ID_BYTE_COUNT).first;
+
+            if (dataOffset + length <= bytes.length) {
+                chunk = new Chunk(typeID, bytes, dataOffset, (int) length);
+            } else {
+                LOGGER.error(
+                        typeID + " chunk in " + path + " has length (" + length + ") that exceeds the " +
+                                (bytes.length - dataOffset) + " remaining bytes"
+                );
+            }
         }
 
         return chunk;
     }
 
+    /**
+     * Offset in the container's bytes of the header of the chunk after this one.
+     */
+    @Contract(pure = true)
+    public int nextOffset() {
+        return offset + size + padding(size);
+    }
+
+    @Contract(pure = true)
+    private static int padding(long length) {
+        return (int) ((ALIGNMENT - (length % ALIGNMENT)) % ALIGNMENT);
+    }
+
     public static long length(@NotNull DataInputStream dataInputStream) throws IOException {
         return readUnsignedInt(dataInputStream);
     }
@@ -125,6 +242,7 @@ public class Chunk {
         CINF("CInf"),
         CODE("Code"),
         DBGI("Dbgi"),
+        DOCS("Docs"),
         EXDC("ExDc"),
         EXPT("ExpT"),
         FUNT("FunT"),
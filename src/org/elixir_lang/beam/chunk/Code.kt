@@ -6,9 +6,29 @@ import com.intellij.openapi.util.component2
 import org.elixir_lang.beam.Cache
 import org.elixir_lang.beam.chunk.Chunk.unsignedInt
 import org.elixir_lang.beam.chunk.code.Operation
-import org.elixir_lang.beam.term.Literal
-
-class Code(private val operationList: List<Operation>) {
+import org.elixir_lang.beam.chunk.code.operation.codeByNumber
+import org.elixir_lang.beam.term.*
+import org.elixir_lang.beam.term.Float
+
+/**
+ * The operations of the `Code` chunk, packed into primitive arrays: the opcode of each operation, and the kind and
+ * value of each of its compact terms.  Compound terms (lists and allocation lists) are packed as their offset in
+ * [data] and only decoded when viewed.  [Operation]s are created as views by [get] for rendering and are not retained.
+ *
+ * @param opcodes opcode number of each operation
+ * @param termStarts index in [termKinds] and [termValues] of the first term of each operation, followed by the total
+ *   term count
+ * @param labelOperationIndices operation index of the `label` operation for each label number or `-1`
+ */
+class Code private constructor(
+        private val data: ByteArray,
+        private val literalFloat: Boolean,
+        private val opcodes: IntArray,
+        private val termStarts: IntArray,
+        private val termKinds: ByteArray,
+        private val termValues: LongArray,
+        private val labelOperationIndices: IntArray
+) {
     data class Options(val inline: Inline = Inline(), val showArgumentNames: Boolean = true) {
         data class Inline(
                 val atoms: Boolean = true,
@@ -40,137 +60,304 @@ class Code(private val operationList: List<Operation>) {
         }
     }
 
-    private val labelIndexToOperationIndex by lazy {
-        operationList
-                .withIndex()
-                .filter { indexedOperation ->
-                    indexedOperation.value.code == org.elixir_lang.beam.chunk.code.operation.Code.LABEL
-                }.associate { indexedOperation ->
-                    val labelIndex = (indexedOperation.value.termList[0] as Literal).index
-                    val operationIndex = indexedOperation.index
+    /**
+     * Operation index where each function starts: its `label`, `line` and `func_info` header, or, for operations before
+     * the first header, index `0`.  Empty if there are no functions.
+     */
+    private val functionStartIndices: IntArray by lazy {
+        val startIndexList = mutableListOf<Int>()
 
-                    Pair(labelIndex, operationIndex)
-                }
+        for (funcInfoIndex in opcodes.indices) {
+            if (opcodes[funcInfoIndex] == FUNC_INFO) {
+                startIndexList.add(headerStartIndex(funcInfoIndex))
+            }
+        }
+
+        if (startIndexList.isNotEmpty() && startIndexList[0] > 0) {
+            startIndexList.add(0, 0)
+        }
+
+        startIndexList.toIntArray()
     }
-    private val labelIndexToFuncInfoIndex by lazy { mutableMapOf<Int, Int?>() }
 
     fun assembly(cache: Cache, options: Options): String =
-        indentOperationList().joinToString("\n") { (indent, operation) ->
-            val operationAssembly = operation.assembly(cache, options)
-
-            val suffix = when (operation.code) {
-                org.elixir_lang.beam.chunk.code.operation.Code.APPLY_LAST,
-                org.elixir_lang.beam.chunk.code.operation.Code.BADMATCH,
-                org.elixir_lang.beam.chunk.code.operation.Code.CALL_EXT_LAST,
-                org.elixir_lang.beam.chunk.code.operation.Code.CALL_EXT_ONLY,
-                org.elixir_lang.beam.chunk.code.operation.Code.CALL_ONLY,
-                org.elixir_lang.beam.chunk.code.operation.Code.CALL_LAST,
-                org.elixir_lang.beam.chunk.code.operation.Code.JUMP,
-                org.elixir_lang.beam.chunk.code.operation.Code.RETURN ->
-                    "\n"
-                else ->
-                    ""
-            }
-
-            "${" ".repeat(indent)}$operationAssembly$suffix"
+            (0 until functionCount()).joinToString("\n") { function -> assembly(cache, options, function) }
+
+    /**
+     * The assembly of only the `function`-th function, as it appears in [assembly].
+     */
+    fun assembly(cache: Cache, options: Options, function: Int): String =
+            (functionStartIndex(function) until functionEndIndex(function)).joinToString("\n") { index ->
+                val operation = get(index)
+                val operationAssembly = operation.assembly(cache, options)
+                val suffix = if (isFollowedByBlankLine(opcodes[index])) "\n" else ""
+
+                "${" ".repeat(indent(index))}$operationAssembly$suffix"
+            }
+
+    fun functionCount(): Int = functionStartIndices.size
+
+    /**
+     * The number of lines of the [assembly] of the `function`-th function, without rendering it.  Only differs from
+     * the rendered line count if an inlined string or literal contains a newline.
+     */
+    fun lineCount(function: Int): Int {
+        val startIndex = functionStartIndex(function)
+        val endIndex = functionEndIndex(function)
+        var lineCount = endIndex - startIndex
+
+        for (index in startIndex until endIndex) {
+            if (isFollowedByBlankLine(opcodes[index])) {
+                lineCount++
+            }
         }
 
-    operator fun get(index: Int): Operation = operationList[index]
+        return lineCount
+    }
+
+    /**
+     * A view of the operation at `index`.  The view's terms are decoded from the packed arrays as they are accessed.
+     */
+    operator fun get(index: Int): Operation = Operation(operationCode(index), TermList(index))
 
     fun labelIndexToFuncInfoIndex(labelIndex: Int): Int? =
-        labelIndexToFuncInfoIndex.computeIfAbsent(labelIndex) { key ->
-            labelIndexToOperationIndex[key]?.let { operationIndex ->
+            labelOperationIndices.getOrNull(labelIndex)?.takeIf { it >= 0 }?.let { operationIndex ->
                 val funcInfoIndex = operationIndex - 1
 
-                if (operationList.getOrNull(funcInfoIndex)?.code ==
-                        org.elixir_lang.beam.chunk.code.operation.Code.FUNC_INFO) {
+                if (opcodes.getOrNull(funcInfoIndex) == FUNC_INFO) {
                     funcInfoIndex
                 } else {
                     null
                 }
             }
-        }
 
-    fun size(): Int = operationList.size
+    fun size(): Int = opcodes.size
+
+    private fun functionStartIndex(function: Int): Int = functionStartIndices[function]
 
-    private fun functionHeadBodyPairList(): List<Pair<List<Operation>, List<Operation>>> {
-        val headerIndexLengthPairs = headerIndexLengthPairs()
+    private fun functionEndIndex(function: Int): Int = functionStartIndices.getOrNull(function + 1) ?: size()
 
-        return headerIndexLengthPairs.mapIndexed { index, (headerIndex, headerLength) ->
-            val bodyIndex = headerIndex + headerLength
-            val nextHeaderIndex = headerIndexLengthPairs.getOrNull(index + 1)?.first ?: operationList.size
+    private fun headerStartIndex(funcInfoIndex: Int): Int {
+        val lineIndex = funcInfoIndex - 1
 
-            val functionHead = operationList.subList(headerIndex, bodyIndex)
-            val functionBody = operationList.subList(bodyIndex, nextHeaderIndex)
+        return if (opcodes.getOrNull(lineIndex) == LINE) {
+            val labelIndex = lineIndex - 1
 
-            Pair(functionHead, functionBody)
+            if (opcodes.getOrNull(labelIndex) == LABEL) {
+                labelIndex
+            } else {
+                lineIndex
+            }
+        } else {
+            funcInfoIndex
         }
     }
 
-    private fun headerIndexLengthPairs(): List<Pair<Int, Int>> {
-        val headerIndexLengthPairs = operationList
-                .mapIndexedNotNull { index, operation ->
-                    if (operation.code == org.elixir_lang.beam.chunk.code.operation.Code.FUNC_INFO) {
-                        index
-                    } else {
-                        null
-                    }
-                }.map { funcInfoIndex ->
-                    val lineIndex = funcInfoIndex - 1
-                    val hasLine = operationList.getOrNull(lineIndex)?.code == org.elixir_lang.beam.chunk.code.operation.Code.LINE
-
-                    if (hasLine) {
-                        val labelIndex = lineIndex - 1
-                        val hasLabel = operationList.getOrNull(labelIndex)?.code == org.elixir_lang.beam.chunk.code.operation.Code.LABEL
-
-                        if (hasLabel) {
-                            Pair(labelIndex, 3)
-                        } else {
-                            Pair(lineIndex, 2)
-                        }
-                    } else {
-                        Pair(funcInfoIndex, 1)
-                    }
-                }
+    /**
+     * The function headers (`label`, `line`, `func_info`) are not indented and the body is indented by operation.
+     */
+    private fun indent(index: Int): Int {
+        val opcode = opcodes[index]
+        val isHeader = when (opcode) {
+            FUNC_INFO -> true
+            LINE -> opcodes.getOrNull(index + 1) == FUNC_INFO
+            LABEL -> opcodes.getOrNull(index + 1) == LINE && opcodes.getOrNull(index + 2) == FUNC_INFO
+            else -> false
+        }
+
+        return if (isHeader) {
+            0
+        } else {
+            when (opcode) {
+                LABEL -> 2
+                LINE -> 4
+                else -> 6
+            }
+        }
+    }
+
+    private fun operationCode(index: Int): org.elixir_lang.beam.chunk.code.operation.Code = codeByNumber[opcodes[index]]!!
 
-        val firstHeaderIndex = headerIndexLengthPairs.firstOrNull()?.first ?: 0
+    /**
+     * The terms of the operation at `operationIndex`, decoded from the packed arrays on each access.
+     */
+    private inner class TermList(operationIndex: Int) : AbstractList<Term>() {
+        private val start = termStarts[operationIndex]
+        override val size: Int = termStarts[operationIndex + 1] - start
 
-        return if (firstHeaderIndex > 0) {
-            headerIndexLengthPairs.toMutableList().apply {
-                add(0, Pair(0, 0))
+        override fun get(index: Int): Term {
+            if (index !in 0 until size) {
+                throw IndexOutOfBoundsException("Term $index out of bounds (size = $size)")
+            }
+
+            val termIndex = start + index
+            val value = termValues[termIndex]
+
+            return when (termKinds[termIndex]) {
+                LITERAL_KIND -> Literal(value.toInt())
+                INTEGER_KIND -> Integer(value)
+                ATOM_KIND -> Atom(value.toInt())
+                X_REGISTER_KIND -> XRegister(value.toInt())
+                Y_REGISTER_KIND -> YRegister(value.toInt())
+                LABEL_KIND -> Label(value.toInt())
+                CHARACTER_KIND -> Character(value.toInt())
+                FLOATING_POINT_REGISTER_KIND -> FloatingPointRegister(value.toInt())
+                FLOAT_KIND -> Float()
+                else -> Term.from(data, value.toInt(), literalFloat).first
             }
-        } else {
-            headerIndexLengthPairs
         }
     }
 
-    private fun indentOperationList() =
-            functionHeadBodyPairList().flatMap { (functionHead, functionBody) ->
-                val indentOperationList = mutableListOf<Pair<Int, Operation>>()
+    /**
+     * Growable arrays that [Code.from] packs the operations into.
+     */
+    private class Packer(operationCapacity: Int) {
+        var operationCount = 0
+        var opcodes = IntArray(operationCapacity)
+        var termStarts = IntArray(operationCapacity + 1)
+        var termCount = 0
+        var termKinds = ByteArray(operationCapacity * 2)
+        var termValues = LongArray(operationCapacity * 2)
+
+        fun addOperation(opcode: Int) {
+            if (operationCount == opcodes.size) {
+                opcodes = opcodes.copyOf(opcodes.size * 2)
+                termStarts = termStarts.copyOf(opcodes.size + 1)
+            }
+
+            opcodes[operationCount] = opcode
+            termStarts[operationCount] = termCount
+            operationCount++
+        }
+
+        fun addTerm(kind: Byte, value: Long) {
+            if (termCount == termKinds.size) {
+                termKinds = termKinds.copyOf(termKinds.size * 2)
+                termValues = termValues.copyOf(termValues.size * 2)
+            }
+
+            termKinds[termCount] = kind
+            termValues[termCount] = value
+            termCount++
+        }
 
-                functionHead.forEach {
-                    indentOperationList.add(Pair(0, it))
+        /**
+         * Packs the compact term at `offset`.  Small values are decoded here; large values and extended terms go
+         * through [Term.from].
+         *
+         * @return offset after the term
+         */
+        fun addTerm(data: ByteArray, offset: Int, literalFloat: Boolean): Int {
+            val fullTag = data[offset].toInt().and(0xFF)
+            val tag = fullTag.and(0b111)
+
+            if (tag != 0b111) {
+                val bit3 = fullTag.ushr(3).and(0b1)
+                val bit4 = fullTag.ushr(4).and(0b1)
+
+                if (bit3 == 0) {
+                    addTerm(SIMPLE_KINDS[tag], fullTag.ushr(4).toLong())
+
+                    return offset + 1
+                } else if (bit4 == 0) {
+                    val value = fullTag.and(0b1110_0000).shl(3).or(data[offset + 1].toInt().and(0xFF))
+                    addTerm(SIMPLE_KINDS[tag], value.toLong())
+
+                    return offset + 2
                 }
+            }
+
+            val (term, termByteCount) = Term.from(data, offset, literalFloat)
+
+            when (term) {
+                is Literal -> addTerm(LITERAL_KIND, term.index.toLong())
+                is Integer -> addTerm(INTEGER_KIND, term.long)
+                is Atom -> addTerm(ATOM_KIND, term.index.toLong())
+                is XRegister -> addTerm(X_REGISTER_KIND, term.index.toLong())
+                is YRegister -> addTerm(Y_REGISTER_KIND, term.index.toLong())
+                is Label -> addTerm(LABEL_KIND, term.index.toLong())
+                is Character -> addTerm(CHARACTER_KIND, term.codePoint.toLong())
+                is FloatingPointRegister -> addTerm(FLOATING_POINT_REGISTER_KIND, term.index.toLong())
+                is Float -> addTerm(FLOAT_KIND, 0)
+                else -> addTerm(COMPOUND_KIND, offset.toLong())
+            }
+
+            return offset + termByteCount
+        }
+
+        fun labelOperationIndices(labelCount: Int): IntArray {
+            var labelOperationIndices = IntArray(labelCount) { -1 }
 
-                functionBody.forEach {
-                    val indent = when (it.code) {
-                        org.elixir_lang.beam.chunk.code.operation.Code.LABEL -> 2
-                        org.elixir_lang.beam.chunk.code.operation.Code.LINE -> 4
-                        else -> 6
+            for (operationIndex in 0 until operationCount) {
+                if (opcodes[operationIndex] == LABEL && termKinds[termStarts[operationIndex]] == LITERAL_KIND) {
+                    val label = termValues[termStarts[operationIndex]].toInt()
+
+                    if (label >= labelOperationIndices.size) {
+                        val grown = IntArray(label + 1) { -1 }
+                        System.arraycopy(labelOperationIndices, 0, grown, 0, labelOperationIndices.size)
+                        labelOperationIndices = grown
                     }
 
-                    indentOperationList.add(Pair(indent, it))
+                    labelOperationIndices[label] = operationIndex
                 }
-
-                indentOperationList
             }
 
+            return labelOperationIndices
+        }
+    }
+
     companion object {
         private val LOGGER = Logger.getInstance(Code::class.java)
 
+        private val LABEL = org.elixir_lang.beam.chunk.code.operation.Code.LABEL.number
+        private val FUNC_INFO = org.elixir_lang.beam.chunk.code.operation.Code.FUNC_INFO.number
+        private val LINE = org.elixir_lang.beam.chunk.code.operation.Code.LINE.number
+
+        /**
+         * Opcodes that end a block, so are followed by a blank line in the assembly
+         */
+        private val IS_BLOCK_END_BY_OPCODE = BooleanArray(256).apply {
+            arrayOf(
+                    org.elixir_lang.beam.chunk.code.operation.Code.APPLY_LAST,
+                    org.elixir_lang.beam.chunk.code.operation.Code.BADMATCH,
+                    org.elixir_lang.beam.chunk.code.operation.Code.CALL_EXT_LAST,
+                    org.elixir_lang.beam.chunk.code.operation.Code.CALL_EXT_ONLY,
+                    org.elixir_lang.beam.chunk.code.operation.Code.CALL_ONLY,
+                    org.elixir_lang.beam.chunk.code.operation.Code.CALL_LAST,
+                    org.elixir_lang.beam.chunk.code.operation.Code.JUMP,
+                    org.elixir_lang.beam.chunk.code.operation.Code.RETURN
+            ).forEach { this[it.number] = true }
+        }
+
+        private fun isFollowedByBlankLine(opcode: Int): Boolean = IS_BLOCK_END_BY_OPCODE[opcode]
+
+        private const val LITERAL_KIND: Byte = 0
+        private const val INTEGER_KIND: Byte = 1
+        private const val ATOM_KIND: Byte = 2
+        private const val X_REGISTER_KIND: Byte = 3
+        private const val Y_REGISTER_KIND: Byte = 4
+        private const val LABEL_KIND: Byte = 5
+        private const val CHARACTER_KIND: Byte = 6
+        private const val FLOATING_POINT_REGISTER_KIND: Byte = 7
+        private const val FLOAT_KIND: Byte = 8
+        private const val COMPOUND_KIND: Byte = 9
+
+        /**
+         * Kind of the non-extended compact terms by their tag
+         */
+        private val SIMPLE_KINDS = byteArrayOf(
+                LITERAL_KIND,
+                INTEGER_KIND,
+                ATOM_KIND,
+                X_REGISTER_KIND,
+                Y_REGISTER_KIND,
+                LABEL_KIND,
+                CHARACTER_KIND
+        )
+
         fun from(chunk: Chunk, literalFloat: Boolean = true): Code {
-            val data = chunk.data
-            var offset = 0
+            val data = chunk.bytes
+            var offset = chunk.offset
 
             val (_unknown, unknownByteCount) = unsignedInt(data, offset)
             offset += unknownByteCount
@@ -203,16 +390,38 @@ class Code(private val operationList: List<Operation>) {
             val (functionCount, functionCountByteCount) = unsignedInt(data, offset)
             offset += functionCountByteCount
 
-            val operationList = mutableListOf<Operation>()
+            // operations average 3-4 bytes
+            val packer = Packer(maxOf(16, chunk.size / 4))
+
+            val lastIndex = chunk.end() - 1
 
-            while (offset < data.lastIndex) {
-                val (operation, operationByteCount) = Operation.from(data, offset, literalFloat)
+            while (offset < lastIndex) {
+                val opcode = data[offset].toInt().and(0xFF)
+                offset++
 
-                operationList.add(operation)
-                offset += operationByteCount
+                val code = codeByNumber[opcode] ?: throw IllegalArgumentException("Unknown opcode ($opcode)")
+
+                packer.addOperation(opcode)
+
+                repeat(code.arguments.size) {
+                    offset = packer.addTerm(data, offset, literalFloat)
+                }
             }
 
-            return Code(operationList)
+            val operationCount = packer.operationCount
+            val termCount = packer.termCount
+            val termStarts = packer.termStarts.copyOf(operationCount + 1)
+            termStarts[operationCount] = termCount
+
+            return Code(
+                    data,
+                    literalFloat,
+                    packer.opcodes.copyOf(operationCount),
+                    termStarts,
+                    packer.termKinds.copyOf(termCount),
+                    packer.termValues.copyOf(termCount),
+                    packer.labelOperationIndices(unsignedIntToInt(labelCount))
+            )
         }
     }
 }
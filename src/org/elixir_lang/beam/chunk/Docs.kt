@@ -0,0 +1,167 @@
+package org.elixir_lang.beam.chunk
+
+import com.ericsson.otp.erlang.OtpErlangObject
+import com.intellij.openapi.diagnostic.Logger
+import org.elixir_lang.beam.chunk.docs.Entry
+import org.elixir_lang.beam.chunk.docs.Key
+import org.elixir_lang.beam.etf.Cursor
+import org.elixir_lang.beam.etf.Tag
+import org.elixir_lang.beam.term.inspect
+
+/**
+ * The EEP-48 `Docs` chunk: `{:docs_v1, anno, beam_language, format, module_doc, metadata, docs}`.
+ *
+ * Reading the chunk only builds an index of the [Key] of each entry in `docs` and the position of the entry in the
+ * chunk.  An [Entry]'s signatures, documentation and metadata are only decoded when it is [get], so that looking up one
+ * function's documentation does not decode the documentation of the whole module.
+ *
+ * [moduleDoc], [metadata] and [get] may decode at the same time on different threads, such as in the documentation
+ * provider in the background while the Docs tab is on the EDT.  Their cursors share the [Cursor]'s atom table, which
+ * is thread-safe.
+ */
+class Docs private constructor(
+        private val cursor: Cursor,
+        val beamLanguage: String,
+        /**
+         * Mime type of the documentation, such as `text/markdown`
+         */
+        val format: String,
+        private val moduleDocPosition: Int,
+        private val metadataPosition: Int,
+        val keyList: List<Key>,
+        private val entryPositions: IntArray
+) {
+    private val indexByKey: Map<Key, Int> = keyList.withIndex().associate { (index, key) -> key to index }
+    private val entries = arrayOfNulls<Entry>(keyList.size)
+
+    /**
+     * `String` - the module documentation in [format]; `false` - hidden (`@moduledoc false`); `null` - none
+     */
+    val moduleDoc: Any? by lazy { doc(cursor.at(moduleDocPosition))?.value }
+    val metadata: OtpErlangObject by lazy { cursor.at(metadataPosition).term() }
+
+    operator fun get(key: Key): Entry? = indexByKey[key]?.let { get(it) }
+
+    operator fun get(index: Int): Entry? =
+            synchronized(entries) {
+                entries[index] ?: Entry.from(keyList[index], cursor.at(entryPositions[index]))?.also { entries[index] = it }
+            }
+
+    fun size(): Int = keyList.size
+
+    /**
+     * Wraps the decoded documentation, so that `null` can mean that there is no documentation.
+     */
+    class Doc(val value: Any?)
+
+    companion object {
+        private val LOGGER = Logger.getInstance(Docs::class.java)
+        private const val LANGUAGE = "en"
+
+        fun from(chunk: Chunk): Docs? = from(chunk.bytes, chunk.offset, chunk.end())
+
+        fun from(bytes: ByteArray, offset: Int, end: Int): Docs? {
+            val cursor = Cursor.from(bytes, offset, end)
+
+            return from(cursor.copy()) ?: null.also {
+                LOGGER.error("""
+                             Docs chunk is not `{:docs_v1, anno, beam_language, format, module_doc, metadata, docs}`
+
+                             ```elixir
+                             ${inspect(cursor.term())}
+                             ```
+                             """.trimIndent())
+            }
+        }
+
+        /**
+         * @param cursor at `module_doc` or the `doc` of an entry: `%{language => doc}`, `:none` or `:hidden`
+         * @return `null` if the term is none of those.  The `doc` in [LANGUAGE] if it has one, otherwise the first.
+         */
+        internal fun doc(cursor: Cursor): Doc? =
+                when (cursor.tag()) {
+                    Tag.MAP -> {
+                        val arity = cursor.mapArity()
+                        var first: String? = null
+                        var preferred: String? = null
+
+                        repeat(arity) {
+                            val language = cursor.binaryString() ?: return null
+                            val doc = cursor.binaryString() ?: return null
+
+                            if (first == null) {
+                                first = doc
+                            }
+
+                            if (language == LANGUAGE) {
+                                preferred = doc
+                            }
+                        }
+
+                        Doc(preferred ?: first)
+                    }
+                    else ->
+                        when (cursor.atomName()) {
+                            "hidden" -> Doc(false)
+                            "none" -> Doc(null)
+                            else -> null
+                        }
+                }
+
+        private fun from(cursor: Cursor): Docs? {
+            if (cursor.tupleArity() != 7 || cursor.atomName() != "docs_v1") {
+                return null
+            }
+
+            // anno
+            cursor.skip()
+
+            val beamLanguage = cursor.atomName() ?: return null
+            val format = cursor.binaryString() ?: return null
+
+            val moduleDocPosition = cursor.position
+            cursor.skip()
+
+            val metadataPosition = cursor.position
+            cursor.skip()
+
+            val entryCount = cursor.listLength()
+
+            if (entryCount < 0) {
+                return null
+            }
+
+            val keyList = ArrayList<Key>(entryCount)
+            val entryPositions = IntArray(entryCount)
+
+            for (index in 0 until entryCount) {
+                entryPositions[index] = cursor.position
+
+                // {{kind, name, arity}, anno, signature, doc, metadata}
+                if (cursor.tupleArity() != 5) {
+                    return null
+                }
+
+                // {kind, name, arity}
+                if (cursor.tupleArity() != 3) {
+                    return null
+                }
+
+                val kind = cursor.atomName() ?: return null
+                val name = cursor.atomName() ?: return null
+                val arity = cursor.integer() ?: return null
+
+                keyList.add(Key(kind, name, arity.toInt()))
+
+                // anno, signature, doc and metadata
+                repeat(4) { cursor.skip() }
+            }
+
+            return if (cursor.listTail()) {
+                Docs(cursor, beamLanguage, format, moduleDocPosition, metadataPosition, keyList, entryPositions)
+            } else {
+                null
+            }
+        }
+    }
+}
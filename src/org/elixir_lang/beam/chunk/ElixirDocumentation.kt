@@ -3,24 +3,29 @@ package org.elixir_lang.beam.chunk
 import com.ericsson.otp.erlang.*
 import com.intellij.openapi.diagnostic.Logger
 import org.elixir_lang.Keyword
-import org.elixir_lang.beam.binaryToTerm
 import org.elixir_lang.beam.chunk.elixir_documentation.CallbackDocs
 import org.elixir_lang.beam.chunk.elixir_documentation.Docs
 import org.elixir_lang.beam.chunk.elixir_documentation.ModuleDoc
 import org.elixir_lang.beam.chunk.elixir_documentation.TypeDocs
+import org.elixir_lang.beam.etf.Cursor
 import org.elixir_lang.beam.term.inspect
 import org.elixir_lang.debugger.stack_frame.value.Presentation.toUtf8String
 
-class ElixirDocumentation(keyword: OtpErlangList) {
-    val callbackDocs: CallbackDocs? by lazy { CallbackDocs.from(Keyword.get(keyword, "callback_docs")) }
-    val docs: Docs? by lazy { Docs.from(Keyword.get(keyword, "docs")) }
+/**
+ * @param get the value of a key in the `elixir_docs_v1` keyword list
+ */
+class ElixirDocumentation private constructor(private val get: (String) -> OtpErlangObject?) {
+    constructor(keyword: OtpErlangList) : this({ key -> Keyword.get(keyword, key) })
+
+    val callbackDocs: CallbackDocs? by lazy { CallbackDocs.from(get("callback_docs")) }
+    val docs: Docs? by lazy { Docs.from(get("docs")) }
     /**
      * `null` - no `@moduledoc`
      * `ModuleDoc(line, null)` - `@moduledoc false`
      * `ModuleDoc(lin, String)` - `@moduledoc String.t`
      */
-    val moduledoc: ModuleDoc? by lazy { ModuleDoc.from(Keyword.get(keyword, "moduledoc")) }
-    val typeDocs: TypeDocs? by lazy { TypeDocs.from(Keyword.get(keyword, "type_docs")) }
+    val moduledoc: ModuleDoc? by lazy { ModuleDoc.from(get("moduledoc")) }
+    val typeDocs: TypeDocs? by lazy { TypeDocs.from(get("type_docs")) }
 
     companion object {
         val logger = Logger.getInstance(ElixirDocumentation::class.java)
@@ -43,20 +48,53 @@ class ElixirDocumentation(keyword: OtpErlangList) {
                     }
                 }
 
+        /**
+         * Only the positions of the `elixir_docs_v1` values are read from the chunk, so that, for example, looking up
+         * the `moduledoc` does not decode the `docs` of every function.  If the chunk does not have the expected shape,
+         * it is decoded whole, so that the error can show the term.
+         */
         fun from(chunk: Chunk): ElixirDocumentation? {
-            val data = chunk.data
-            var offset = 0
-
-            val (term, termByteCount) = binaryToTerm(data, offset)
-            offset += termByteCount
-
-            assert(offset == data.size)
+            val cursor = Cursor.from(chunk.bytes, chunk.offset, chunk.end())
 
-            return from(term)
+            return elixirDocsV1ValueCursorByKey(cursor.copy())
+                    ?.let { valueCursorByKey -> ElixirDocumentation { key -> valueCursorByKey[key]?.copy()?.term() } }
+                    ?: from(cursor.term())
         }
 
         // Private Functions
 
+        private fun elixirDocsV1ValueCursorByKey(cursor: Cursor): Map<String, Cursor>? {
+            if (cursor.tupleArity() != 2 || cursor.atomName() != "elixir_docs_v1") {
+                return null
+            }
+
+            val length = cursor.listLength()
+
+            if (length < 0) {
+                return null
+            }
+
+            val valueCursorByKey = HashMap<String, Cursor>(length)
+
+            repeat(length) {
+                if (cursor.tupleArity() != 2) {
+                    return null
+                }
+
+                val key = cursor.atomName() ?: return null
+
+                // `Keyword.get` uses the first entry for a key
+                valueCursorByKey.putIfAbsent(key, cursor.copy())
+                cursor.skip()
+            }
+
+            return if (cursor.listTail() && !cursor.hasRemaining()) {
+                valueCursorByKey
+            } else {
+                null
+            }
+        }
+
         private fun elixir_docs_v1(versionedData: OtpErlangList): ElixirDocumentation? =
             if (Keyword.isKeyword(versionedData)) {
                 ElixirDocumentation(versionedData)
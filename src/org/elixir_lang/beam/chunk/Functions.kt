@@ -12,8 +12,8 @@ class Functions(private val functionList: List<Function>) {
 
     companion object {
         fun from(chunk: Chunk, atoms: Atoms?): Functions? {
-            val data = chunk.data
-            var offset = 0
+            val data = chunk.bytes
+            var offset = chunk.offset
 
             val (size, sizeByteCount) = unsignedInt(data, offset)
             offset += sizeByteCount
@@ -12,9 +12,9 @@ class Imports(private val importList: List<Import>) {
 
     companion object {
         fun from(chunk: Chunk, atoms: Atoms?): Imports? =
-                if (chunk.typeID == Chunk.TypeID.IMPT.toString() && chunk.data.size >= 4) {
-                    var offset = 0
-                    val (importCount, importCountByteCount) = unsignedInt(chunk.data, offset)
+                if (chunk.typeID == Chunk.TypeID.IMPT.toString() && chunk.size >= 4) {
+                    var offset = chunk.offset
+                    val (importCount, importCountByteCount) = unsignedInt(chunk.bytes, offset)
                     offset += importCountByteCount
 
                     val importList: MutableList<Import> = arrayListOf()
@@ -4,8 +4,8 @@ import com.ericsson.otp.erlang.OtpErlangAtom
 import com.ericsson.otp.erlang.OtpErlangList
 import com.ericsson.otp.erlang.OtpErlangObject
 import com.ericsson.otp.erlang.OtpErlangTuple
-import org.elixir_lang.beam.binaryToTerm
 import org.elixir_lang.beam.chunk.keyword.Entry
+import org.elixir_lang.beam.etf.Cursor
 
 typealias Keyword = MutableList<Entry>
 
@@ -44,9 +44,38 @@ fun keyword(): Keyword = mutableListOf()
  */
 fun from(chunk: Chunk): Keyword? {
     // Reverse `CompileBinary = term_to_binary([{version,?COMPILER_VSN}|Compile]),`
-    val (compileTerm, _) = binaryToTerm(chunk.data, offset = 0)
+    val cursor = Cursor.from(chunk.bytes, chunk.offset, chunk.end())
+    val length = cursor.listLength()
 
-    return from(compileTerm)
+    return if (length >= 0) {
+        from(cursor, length)
+    } else {
+        null
+    }
+}
+
+/**
+ * Only the values are decoded into `OtpErlangObject`s: the list, the entry tuples and the key atoms are read in place
+ * by the `cursor`.
+ */
+private fun from(cursor: Cursor, length: Int): Keyword? {
+    val keyword = keyword()
+
+    repeat(length) {
+        if (cursor.tupleArity() != 2) {
+            return null
+        }
+
+        val key = cursor.atom() ?: return null
+
+        keyword.add(Entry(key, cursor.term()))
+    }
+
+    return if (cursor.listTail()) {
+        keyword
+    } else {
+        null
+    }
 }
 
 fun from(list: OtpErlangList): Keyword? {
@@ -39,8 +39,8 @@ class Lines(val lineReferenceList: List<LineReference>, val fileNameList: List<S
          * One interpretation: http://beam-wisdoms.clau.se/en/latest/indepth-beam-file.html#line-line-numbers-table
          */
         fun from(chunk: Chunk, literalFloat: Boolean = true): Lines {
-            val data = chunk.data
-            var offset = 0
+            val data = chunk.bytes
+            var offset = chunk.offset
 
             val (version, versionByteCount) = unsignedInt(data, offset)
             offset += versionByteCount
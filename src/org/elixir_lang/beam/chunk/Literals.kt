@@ -1,43 +1,164 @@
 package org.elixir_lang.beam.chunk
 
+import com.ericsson.otp.erlang.OtpErlangDecodeException
 import com.ericsson.otp.erlang.OtpErlangObject
+import com.google.common.annotations.VisibleForTesting
 import com.intellij.openapi.diagnostic.Logger
 import com.intellij.openapi.util.component1
 import com.intellij.openapi.util.component2
 import org.elixir_lang.beam.chunk.Chunk.unsignedInt
 import org.elixir_lang.beam.chunk.literals.literal
+import org.elixir_lang.beam.etf.Cursor
 import org.elixir_lang.beam.term.unsignedIntToInt
+import java.io.ByteArrayInputStream
+import java.io.DataInputStream
+import java.io.EOFException
+import java.io.IOException
 import java.util.zip.Inflater
+import java.util.zip.InflaterInputStream
 
-class Literals(private val termList: List<OtpErlangObject>) {
-    operator fun get(index: Int): OtpErlangObject = termList[index]
-    fun getOrNull(index: Int): OtpErlangObject? = termList.getOrNull(index)
-    fun size(): Int = termList.size
+/**
+ * The `LitT` literal table.  Reading the table only records the offset of each literal in the inflated table; a
+ * literal is decoded with [Cursor.term] the first time it is [get], so that showing one operand of `Code` does not
+ * decode every literal of the module.
+ */
+class Literals private constructor(private val source: Source, private val offsets: IntArray) {
+    private val terms = arrayOfNulls<OtpErlangObject>(offsets.size)
+
+    /**
+     * @throws IndexOutOfBoundsException if `index` is not in `0 until size()`
+     * @throws OtpErlangDecodeException if the literal at `index` could not be inflated or decoded
+     */
+    @Throws(OtpErlangDecodeException::class)
+    operator fun get(index: Int): OtpErlangObject =
+            if (index in 0 until offsets.size) {
+                getOrNull(index) ?: throw OtpErlangDecodeException("Literal $index could not be inflated")
+            } else {
+                throw IndexOutOfBoundsException("Literal $index out of bounds (size = ${size()})")
+            }
+
+    fun getOrNull(index: Int): OtpErlangObject? =
+            if (index in 0 until offsets.size) {
+                synchronized(terms) {
+                    terms[index] ?: source.decode(offsets[index]).also { terms[index] = it }
+                }
+            } else {
+                null
+            }
+
+    fun size(): Int = offsets.size
+
+    private interface Source {
+        /**
+         * @param offset offset of the literal's size prefix in the inflated table
+         * @return `null` if the literal could not be inflated
+         */
+        fun decode(offset: Int): OtpErlangObject?
+    }
+
+    /**
+     * The inflated table is kept in memory.
+     */
+    private class Resident(private val inflated: ByteArray) : Source {
+        override fun decode(offset: Int): OtpErlangObject = literal(inflated, offset).first
+    }
+
+    /**
+     * Only the compressed chunk is kept in memory and it is re-inflated up to a literal when the literal is decoded.
+     * The inflater is kept open between decodes, so reading the literals in order, as
+     * [org.elixir_lang.beam.chunk.literals.Model] does, inflates the table once.  The inflater is closed, releasing its
+     * native memory, once the last literal is read or when an earlier literal is decoded and the table must be inflated
+     * again from the start.
+     *
+     * @param endOffset the size of the inflated table
+     */
+    private class Streaming(private val chunk: Chunk, private val endOffset: Int) : Source {
+        private var stream: DataInputStream? = null
+        /**
+         * Offset in the inflated table of the next byte read from [stream]
+         */
+        private var position = 0
+
+        @Synchronized
+        override fun decode(offset: Int): OtpErlangObject? =
+                try {
+                    val stream = stream.takeIf { position <= offset } ?: reopen()
+
+                    skipFully(stream, offset - position)
+                    val termByteCount = stream.readInt()
+                    val termBytes = ByteArray(termByteCount)
+                    stream.readFully(termBytes)
+                    position = offset + Integer.BYTES + termByteCount
+
+                    if (position >= endOffset) {
+                        close()
+                    }
+
+                    Cursor.from(termBytes, 0, termByteCount).term()
+                } catch (e: IOException) {
+                    LOGGER.error("Could not inflate LitT literal at $offset", e)
+                    close()
+
+                    null
+                }
+
+        private fun close() {
+            stream?.close()
+            stream = null
+        }
+
+        private fun reopen(): DataInputStream {
+            close()
+            position = 0
+
+            return inflatedStream(chunk).also { stream = it }
+        }
+    }
 
     companion object {
         val LOGGER = Logger.getInstance(Literals::class.java)
 
+        /**
+         * Inflated tables larger than this are not kept in memory, but re-inflated from the chunk when a literal is
+         * decoded.
+         */
+        private const val RESIDENT_MAX_BYTE_COUNT_PROPERTY = "elixir.beam.literals.resident.max.bytes"
+        private val RESIDENT_MAX_BYTE_COUNT: Long = java.lang.Long.getLong(RESIDENT_MAX_BYTE_COUNT_PROPERTY, 1L shl 20)
+
         fun from(chunk: Chunk): Literals? {
-            val data = chunk.data
-            var offset = 0
+            val (inflatedSize, _) = unsignedInt(chunk.bytes, chunk.offset)
+
+            return if (inflatedSize <= RESIDENT_MAX_BYTE_COUNT) {
+                fromResident(chunk, inflatedSize)
+            } else {
+                fromStreaming(chunk)
+            }
+        }
 
-            val (inflatedSize, inflatedSizeByteCount) = unsignedInt(data, offset)
-            offset += inflatedSizeByteCount
+        /**
+         * Keeps the inflated table in memory whatever its size.
+         */
+        @VisibleForTesting
+        fun fromResident(chunk: Chunk): Literals? = fromResident(chunk, unsignedInt(chunk.bytes, chunk.offset).first)
+
+        private fun fromResident(chunk: Chunk, inflatedSize: Long): Literals? {
+            val data = chunk.bytes
+            val offset = chunk.offset + Integer.BYTES
 
             val inflater = Inflater()
-            inflater.setInput(data, offset, data.size - offset)
+            inflater.setInput(data, offset, chunk.end() - offset)
             val inflated = ByteArray(unsignedIntToInt(inflatedSize))
             val actualInflatedSize = inflater.inflate(inflated)
 
             return if (actualInflatedSize != 0) {
                 inflater.end()
 
-                fromInflated(inflated, 0)
+                fromInflated(inflated)
             } else {
                 LOGGER.error(
                         "Could not inflate LitT into $inflatedSize bytes.\n" +
                                 "needsDictionary = ${inflater.needsDictionary()}\n" +
-                                "needsInput is ${inflater.needsDictionary()}"
+                                "needsInput is ${inflater.needsInput()}"
                 )
                 inflater.end()
 
@@ -45,22 +166,68 @@ class Literals(private val termList: List<OtpErlangObject>) {
             }
         }
 
-        private fun fromInflated(inflated: ByteArray, offset: Int): Literals? {
-            var internalOffset = offset
+        private fun fromInflated(inflated: ByteArray): Literals {
+            var offset = 0
+
+            val (count, countByteCount) = unsignedInt(inflated, offset)
+            offset += countByteCount
 
-            val (count, countByteCount) = unsignedInt(inflated, internalOffset)
-            internalOffset += countByteCount
+            val offsets = IntArray(unsignedIntToInt(count))
 
-            val termList = mutableListOf<OtpErlangObject>()
+            for (index in offsets.indices) {
+                offsets[index] = offset
 
-            repeat(unsignedIntToInt(count)) {
-                val (literal, literalByteCount) = literal(inflated, internalOffset)
-                termList.add(literal)
-                internalOffset += literalByteCount
+                val (termByteCount, termByteCountByteCount) = unsignedInt(inflated, offset)
+                offset += termByteCountByteCount + unsignedIntToInt(termByteCount)
             }
 
-            return Literals(termList)
+            return Literals(Resident(inflated), offsets)
         }
-    }
 
+        /**
+         * Re-inflates the table from the chunk whatever its size.
+         */
+        @VisibleForTesting
+        fun fromStreaming(chunk: Chunk): Literals? =
+                try {
+                    inflatedStream(chunk).use { stream ->
+                        val offsets = IntArray(stream.readInt())
+                        var offset = Integer.BYTES
+
+                        for (index in offsets.indices) {
+                            offsets[index] = offset
+
+                            val termByteCount = stream.readInt()
+                            skipFully(stream, termByteCount)
+                            offset += Integer.BYTES + termByteCount
+                        }
+
+                        Literals(Streaming(chunk, offset), offsets)
+                    }
+                } catch (e: IOException) {
+                    LOGGER.error("Could not inflate LitT", e)
+
+                    null
+                }
+
+        private fun inflatedStream(chunk: Chunk): DataInputStream {
+            val offset = chunk.offset + Integer.BYTES
+
+            return DataInputStream(InflaterInputStream(ByteArrayInputStream(chunk.bytes, offset, chunk.end() - offset)))
+        }
+
+        private fun skipFully(stream: DataInputStream, byteCount: Int) {
+            var remaining = byteCount
+
+            while (remaining > 0) {
+                val skipped = stream.skipBytes(remaining)
+
+                if (skipped <= 0) {
+                    throw EOFException("LitT ended with $remaining bytes left to skip")
+                }
+
+                remaining -= skipped
+            }
+        }
+    }
 }
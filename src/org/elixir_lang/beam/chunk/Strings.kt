@@ -6,6 +6,6 @@ import java.nio.charset.Charset
    so that that substring can be used of larger sections of the pool. */
 class Strings(val pool: String) {
     companion object {
-        fun from(chunk: Chunk): Strings = Strings(chunk.data.toString(Charset.forName("UTF-8")))
+        fun from(chunk: Chunk): Strings = Strings(String(chunk.bytes, chunk.offset, chunk.size, Charset.forName("UTF-8")))
     }
 }
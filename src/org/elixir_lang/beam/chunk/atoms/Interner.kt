@@ -0,0 +1,185 @@
+package org.elixir_lang.beam.chunk.atoms
+
+import java.lang.ref.ReferenceQueue
+import java.lang.ref.WeakReference
+import java.nio.charset.Charset
+
+/**
+ * Atom names shared by every decoded `.beam` file, so that the atoms that recur across the SDK and dependencies, such as
+ * `erlang`, `module_info` and `Elixir.Kernel`, are only held once.  Names are weakly held: a name is dropped once no
+ * decoded file uses it.
+ *
+ * ASCII names, nearly all atoms, are looked up from their bytes, so a name that is already interned does not decode
+ * a new `String`.  This is why it is not a `String` interner, such as Guava's `Interners.newWeakInterner`, which would
+ * need the `String` decoded first; see `LookupBenchmark`.
+ *
+ * Set the `elixir.beam.atoms.intern` system property to `false` to decode a new `String` for every atom.
+ */
+object Interner {
+    private const val ENABLED_PROPERTY = "elixir.beam.atoms.intern"
+    private const val INITIAL_CAPACITY = 1 shl 12
+    private const val LOAD_FACTOR = 0.75
+
+    private val isEnabled: Boolean = System.getProperty(ENABLED_PROPERTY, "true")!!.toBoolean()
+
+    private class Entry(string: String, queue: ReferenceQueue<String>, val hash: Int, var next: Entry?) :
+            WeakReference<String>(string, queue)
+
+    private val lock = Any()
+    private val queue = ReferenceQueue<String>()
+    // Guarded by `lock`
+    private var table = arrayOfNulls<Entry>(INITIAL_CAPACITY)
+    // Guarded by `lock`
+    private var size = 0
+
+    fun intern(bytes: ByteArray, offset: Int, length: Int, charset: Charset): String =
+            if (isEnabled && isAscii(bytes, offset, length)) {
+                // `String.hashCode` of an ASCII string is the same when computed over its bytes
+                var hash = 0
+
+                for (index in offset until offset + length) {
+                    hash = 31 * hash + bytes[index]
+                }
+
+                synchronized(lock) {
+                    expungeStaleEntries()
+
+                    var entry = table[index(hash, table.size)]
+
+                    while (entry != null) {
+                        if (entry.hash == hash) {
+                            val string = entry.get()
+
+                            if (string != null && asciiEquals(string, bytes, offset, length)) {
+                                return string
+                            }
+                        }
+
+                        entry = entry.next
+                    }
+
+                    add(String(bytes, offset, length, charset), hash)
+                }
+            } else {
+                intern(String(bytes, offset, length, charset))
+            }
+
+    fun intern(string: String): String =
+            if (isEnabled) {
+                val hash = string.hashCode()
+
+                synchronized(lock) {
+                    expungeStaleEntries()
+
+                    var entry = table[index(hash, table.size)]
+
+                    while (entry != null) {
+                        if (entry.hash == hash) {
+                            val interned = entry.get()
+
+                            if (interned == string) {
+                                return interned
+                            }
+                        }
+
+                        entry = entry.next
+                    }
+
+                    add(string, hash)
+                }
+            } else {
+                string
+            }
+
+    /**
+     * Number of interned names, including names that have been collected, but whose entries have not been expunged yet
+     */
+    fun size(): Int = synchronized(lock) { size }
+
+    // Holds `lock`
+    private fun add(string: String, hash: Int): String {
+        if (size + 1 > table.size * LOAD_FACTOR) {
+            resize()
+        }
+
+        val index = index(hash, table.size)
+        table[index] = Entry(string, queue, hash, table[index])
+        size++
+
+        return string
+    }
+
+    // Holds `lock`
+    private fun resize() {
+        val resized = arrayOfNulls<Entry>(table.size * 2)
+
+        for (head in table) {
+            var entry = head
+
+            while (entry != null) {
+                val next = entry.next
+                val index = index(entry.hash, resized.size)
+
+                entry.next = resized[index]
+                resized[index] = entry
+                entry = next
+            }
+        }
+
+        table = resized
+    }
+
+    // Holds `lock`
+    private fun expungeStaleEntries() {
+        while (true) {
+            val stale = queue.poll() as Entry? ?: break
+            val index = index(stale.hash, table.size)
+            var previous: Entry? = null
+            var entry = table[index]
+
+            while (entry != null) {
+                val next = entry.next
+
+                if (entry === stale) {
+                    if (previous == null) {
+                        table[index] = next
+                    } else {
+                        previous.next = next
+                    }
+
+                    size--
+                    break
+                }
+
+                previous = entry
+                entry = next
+            }
+        }
+    }
+
+    private fun index(hash: Int, capacity: Int): Int = (hash xor hash.ushr(16)) and (capacity - 1)
+
+    private fun isAscii(bytes: ByteArray, offset: Int, length: Int): Boolean {
+        for (index in offset until offset + length) {
+            if (bytes[index] < 0) {
+                return false
+            }
+        }
+
+        return true
+    }
+
+    private fun asciiEquals(string: String, bytes: ByteArray, offset: Int, length: Int): Boolean {
+        if (string.length != length) {
+            return false
+        }
+
+        for (index in 0 until length) {
+            if (string[index].toInt() != bytes[offset + index].toInt()) {
+                return false
+            }
+        }
+
+        return true
+    }
+}
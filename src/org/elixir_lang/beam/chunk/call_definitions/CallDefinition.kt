@@ -29,13 +29,13 @@ class CallDefinition(val atomIndex: Long, val arity: Long, val label: Long, atom
         fun from(chunk: Chunk, offset: Int, atoms: Atoms?): Pair<CallDefinition, Int> {
             var internalOffset = offset
 
-            val (atomIndex, atomIndexByteCount) = unsignedInt(chunk.data, internalOffset)
+            val (atomIndex, atomIndexByteCount) = unsignedInt(chunk.bytes, internalOffset)
             internalOffset += atomIndexByteCount
 
-            val (arity, arityByteCount) = unsignedInt(chunk.data, internalOffset)
+            val (arity, arityByteCount) = unsignedInt(chunk.bytes, internalOffset)
             internalOffset += arityByteCount
 
-            val (label, labelByteCount) = unsignedInt(chunk.data, internalOffset)
+            val (label, labelByteCount) = unsignedInt(chunk.bytes, internalOffset)
             internalOffset += labelByteCount
 
             return Pair(CallDefinition(atomIndex, arity, label, atoms), internalOffset - offset)
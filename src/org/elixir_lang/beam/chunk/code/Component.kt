@@ -1,6 +1,7 @@
 package org.elixir_lang.beam.chunk.code
 
 import com.intellij.openapi.editor.Document
+import com.intellij.openapi.editor.Editor
 import com.intellij.openapi.editor.EditorFactory
 import com.intellij.openapi.project.Project
 import com.intellij.ui.components.JBTabbedPane
@@ -8,7 +9,6 @@ import com.intellij.util.ui.components.BorderLayoutPanel
 import org.elixir_lang.beam.Cache
 import org.elixir_lang.beam.assembly.Controls
 import org.elixir_lang.beam.assembly.file.Type
-import javax.swing.JComponent
 import javax.swing.event.ChangeEvent
 import javax.swing.event.ChangeListener
 
@@ -31,8 +31,9 @@ class Component(private val cache: Cache, private val project: Project, tabbedPa
         addToTop(controls)
 
         val document = controls.document
-        val editorComponent = editorComponent(document, project)
-        addToCenter(editorComponent)
+        val editor = editor(document, project)
+        controls.renderer?.attach(editor)
+        addToCenter(editor.component)
     }
 
     private fun ensureChildrenAdded() {
@@ -43,5 +44,5 @@ class Component(private val cache: Cache, private val project: Project, tabbedPa
     }
 }
 
-private fun editorComponent(document: Document, project: Project): JComponent =
-        EditorFactory.getInstance().createEditor(document, project, Type, true).component
+private fun editor(document: Document, project: Project): Editor =
+        EditorFactory.getInstance().createEditor(document, project, Type, true)
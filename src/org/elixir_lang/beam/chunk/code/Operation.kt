@@ -1,13 +1,9 @@
 package org.elixir_lang.beam.chunk.code
 
-import com.intellij.openapi.util.component1
-import com.intellij.openapi.util.component2
 import org.elixir_lang.beam.Cache
-import org.elixir_lang.beam.chunk.Chunk.unsignedByte
 import org.elixir_lang.beam.chunk.code.operation.Code
 import org.elixir_lang.beam.chunk.code.operation.code.Argument
 import org.elixir_lang.beam.chunk.code.operation.code.reference
-import org.elixir_lang.beam.chunk.code.operation.codeByNumber
 import org.elixir_lang.beam.term.Atom
 import org.elixir_lang.beam.term.Label
 import org.elixir_lang.beam.term.Literal
@@ -18,6 +14,8 @@ const val BITS_PER_BYTE = 8
 
 /**
  * https://github.com/erlang/otp/blob/OTP-20.2.2/lib/compiler/src/genop.tab
+ *
+ * Created as a view of the packed operations of [org.elixir_lang.beam.chunk.Code] when rendered.
  */
 data class Operation(val code: Code, val termList: List<Term>) {
     fun assembly(cache: Cache, options: org.elixir_lang.beam.chunk.Code.Options): String {
@@ -205,29 +203,4 @@ data class Operation(val code: Code, val termList: List<Term>) {
                 }
             }
         }
-
-    companion object {
-        fun from(data: ByteArray, offset: Int, literalFloat: Boolean): Pair<Operation, Int> {
-            var internalOffset = offset
-
-            val (opcode, opcodeByteCount) = unsignedByte(data[internalOffset])
-            internalOffset += opcodeByteCount
-
-            val code = codeByNumber[opcode]
-
-            return if (code != null) {
-                val termList = mutableListOf<Term>()
-
-                repeat(code.arguments.size) {
-                    val (term, byteCount) = Term.from(data, internalOffset, literalFloat)
-                    termList.add(term)
-                    internalOffset += byteCount
-                }
-
-                Pair(Operation(code, termList), internalOffset - offset)
-            } else {
-                throw IllegalArgumentException("Unknown opcode ($opcode)")
-            }
-        }
-    }
 }
@@ -4,23 +4,28 @@ import com.ericsson.otp.erlang.OtpErlangAtom
 import com.ericsson.otp.erlang.OtpErlangObject
 import com.ericsson.otp.erlang.OtpErlangTuple
 import com.intellij.openapi.diagnostic.Logger
-import org.elixir_lang.beam.binaryToTerm
 import org.elixir_lang.beam.chunk.Chunk
 import org.elixir_lang.beam.chunk.DebugInfo
+import org.elixir_lang.beam.etf.Cursor
 import org.elixir_lang.beam.term.inspect
 
 val logger = Logger.getInstance(Term::class.java)
 
+/**
+ * The Dbgi of Elixir modules, `{:debug_info_v1, :elixir_erl, {:elixir_v1, map, specs}}`, is only indexed, so that the
+ * definitions' clauses are decoded when they are first used.  Any other Dbgi is decoded whole.
+ */
 fun from(chunk: Chunk): DebugInfo {
-    val data = chunk.data
-    var offset = 0
+    val cursor = Cursor.from(chunk.bytes, chunk.offset, chunk.end())
 
-    val (term, termByteCount) = binaryToTerm(data, offset)
-    offset += termByteCount
+    return org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.V1.from(cursor) ?: from(cursor, chunk)
+}
+
+private fun from(cursor: Cursor, chunk: Chunk): DebugInfo {
+    val term = cursor.term()
 
-    val dataSize = data.size
-    assert(termByteCount == dataSize) {
-        "Expected Dbgi binary_to_term binary (size $termByteCount) to fill the whole chunk (size $dataSize)"
+    assert(!cursor.hasRemaining()) {
+        "Expected Dbgi binary_to_term binary to fill the whole chunk (size ${chunk.size})"
     }
 
     val debugInfo = Term(term)
@@ -90,6 +95,9 @@ private fun fromTupleTag(tag: OtpErlangObject, term: Term): DebugInfo =
             }
         }
 
-class Term(val term: OtpErlangObject): DebugInfo {
-    val tuple: OtpErlangTuple? = term as? OtpErlangTuple
+class Term(term: Lazy<OtpErlangObject>): DebugInfo {
+    constructor(term: OtpErlangObject) : this(lazyOf(term))
+
+    val term: OtpErlangObject by term
+    val tuple: OtpErlangTuple? by lazy { this.term as? OtpErlangTuple }
 }
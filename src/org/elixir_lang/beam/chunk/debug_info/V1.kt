@@ -77,10 +77,12 @@ private fun v1FromBackend(backend: OtpErlangAtom, v1: V1): DebugInfo {
 }
 
 
-open class V1(val term: Term, val backend: OtpErlangObject, val metadata: OtpErlangObject): DebugInfo {
-    init {
+open class V1(val term: Term, val backend: OtpErlangObject, metadata: Lazy<OtpErlangObject>): DebugInfo {
+    constructor(term: Term, backend: OtpErlangObject, metadata: OtpErlangObject) : this(term, backend, lazyOf(metadata)) {
         term.tuple!!
     }
+
+    val metadata: OtpErlangObject by metadata
 }
 
 private operator fun OtpErlangTuple.component1(): OtpErlangObject = this.elementAt(0)
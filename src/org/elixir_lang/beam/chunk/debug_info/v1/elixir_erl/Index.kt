@@ -0,0 +1,80 @@
+package org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl
+
+import com.ericsson.otp.erlang.OtpErlangDecodeException
+import com.ericsson.otp.erlang.OtpErlangObject
+import org.elixir_lang.beam.etf.Cursor
+
+/**
+ * Positions in the Dbgi chunk of the root term, the `{:elixir_v1, map, specs}` metadata, the values of `map` by their
+ * atom keys, and `specs`, so that each is only decoded when it is used.
+ */
+class Index private constructor(
+        private val cursor: Cursor,
+        private val termPosition: Int,
+        private val metadataPosition: Int,
+        private val valuePositionByKey: Map<String, Int>,
+        private val typeSpecificationsPosition: Int
+) {
+    fun term(): OtpErlangObject = cursor.at(termPosition).term()
+    fun metadata(): OtpErlangObject = cursor.at(metadataPosition).term()
+
+    /**
+     * A cursor at the value of `key` in `map`
+     */
+    fun cursor(key: String): Cursor? = valuePositionByKey[key]?.let { cursor.at(it) }
+
+    operator fun get(key: String): OtpErlangObject? = cursor(key)?.term()
+
+    fun typeSpecifications(): OtpErlangObject = cursor.at(typeSpecificationsPosition).term()
+
+    companion object {
+        /**
+         * @return `null` if the term at `cursor` is not `{:debug_info_v1, :elixir_erl, {:elixir_v1, map, specs}}` with
+         *   only atom keys in `map`, so that the caller can decode the whole term instead.
+         */
+        fun from(cursor: Cursor): Index? {
+            val scan = cursor.copy()
+
+            return try {
+                index(scan)?.takeUnless { scan.hasRemaining() }
+            } catch (e: OtpErlangDecodeException) {
+                null
+            }
+        }
+
+        private fun index(cursor: Cursor): Index? {
+            val termPosition = cursor.position
+
+            if (cursor.tupleArity() != 3 ||
+                    cursor.atomName() != "debug_info_v1" ||
+                    cursor.atomName() != "elixir_erl") {
+                return null
+            }
+
+            val metadataPosition = cursor.position
+
+            if (cursor.tupleArity() != 3 || cursor.atomName() != "elixir_v1") {
+                return null
+            }
+
+            val mapArity = cursor.mapArity()
+
+            if (mapArity < 0) {
+                return null
+            }
+
+            val valuePositionByKey = HashMap<String, Int>(mapArity * 2)
+
+            repeat(mapArity) {
+                val key = cursor.atomName() ?: return null
+                valuePositionByKey[key] = cursor.position
+                cursor.skip()
+            }
+
+            val typeSpecificationsPosition = cursor.position
+            cursor.skip()
+
+            return Index(cursor, termPosition, metadataPosition, valuePositionByKey, typeSpecificationsPosition)
+        }
+    }
+}
@@ -4,11 +4,12 @@ import com.ericsson.otp.erlang.*
 import org.elixir_lang.Macro.adjustNewLines
 import org.elixir_lang.beam.chunk.DebugInfo
 import org.elixir_lang.beam.chunk.Keyword
+import org.elixir_lang.beam.chunk.debug_info.Term
 import org.elixir_lang.beam.chunk.debug_info.logger
 import org.elixir_lang.beam.chunk.debug_info.v1.ElixirErl
 import org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.v1.Definitions
 import org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.v1.TypeSpecifications
-import org.elixir_lang.beam.chunk.from
+import org.elixir_lang.beam.etf.Cursor
 import org.elixir_lang.beam.term.inspect
 import org.elixir_lang.debugger.stack_frame.value.Presentation.toUtf8String
 
@@ -51,17 +52,36 @@ private fun v1(metadata: OtpErlangTuple, elixirErl: ElixirErl): DebugInfo {
 }
 
 
-class V1(val elixirErl: ElixirErl, val metadata: OtpErlangTuple): DebugInfo {
-    val map by lazy { metadata.elementAt(1) as? OtpErlangMap }
+/**
+ * @param index when the Dbgi was only indexed, the values of the metadata `map` and the `specs` are decoded from the
+ *   chunk when first used, and [definitions] only decodes each definition's header until its clauses are used.
+ */
+class V1 private constructor(
+        val elixirErl: ElixirErl,
+        metadata: Lazy<OtpErlangTuple>,
+        private val index: Index?
+): DebugInfo {
+    constructor(elixirErl: ElixirErl, metadata: OtpErlangTuple) : this(elixirErl, lazyOf(metadata), null)
+
+    val metadata: OtpErlangTuple by metadata
+    val map by lazy { this.metadata.elementAt(1) as? OtpErlangMap }
     val attributes by lazy { keyword("attributes") }
     val compileOpts by lazy { keyword("compile_opts") }
-    val definitions by lazy { Definitions.from(get("definitions"), this) }
+    val definitions by lazy {
+        if (index != null) {
+            index.cursor("definitions")?.let { Definitions.from(it, this) }
+        } else {
+            Definitions.from(get("definitions"), this)
+        }
+    }
     val file by lazy { (get("file") as? OtpErlangBinary)?.let(::toUtf8String) }
     val line by lazy { (get("line") as? OtpErlangLong)?.intValue() }
     val module by lazy { get("module") as? OtpErlangAtom }
     val inspectedModule by lazy { module?.let { inspect(it) }  }
     val unreachable by lazy { get("unreachable") as OtpErlangList? }
-    val typeSpecifications by lazy { TypeSpecifications.from(metadata.elementAt(2)) }
+    val typeSpecifications by lazy {
+        TypeSpecifications.from(index?.typeSpecifications() ?: this.metadata.elementAt(2))
+    }
 
     fun moduleContext(inner: () -> String): String =
             "defmodule ${inspectedModule!!} do\n" +
@@ -70,10 +90,34 @@ class V1(val elixirErl: ElixirErl, val metadata: OtpErlangTuple): DebugInfo {
                     "  # ...\n" +
                     "end"
 
-    private fun get(key: String): OtpErlangObject? = map?.get(OtpErlangAtom(key))
+    private fun get(key: String): OtpErlangObject? =
+            if (index != null) {
+                index[key]
+            } else {
+                map?.get(OtpErlangAtom(key))
+            }
 
     private fun keyword(key: String): Keyword? =
         get(key)?.let { attributes ->
-            (attributes as? OtpErlangList)?.let(::from)
+            (attributes as? OtpErlangList)?.let { org.elixir_lang.beam.chunk.from(it) }
         }
+
+    companion object {
+        /**
+         * Indexes the Dbgi at `cursor` without decoding it.
+         *
+         * @return `null` if the Dbgi is not `{:debug_info_v1, :elixir_erl, {:elixir_v1, map, specs}}`
+         */
+        fun from(cursor: Cursor): V1? =
+                Index.from(cursor)?.let { index ->
+                    val term = Term(lazy { index.term() })
+                    val v1 = org.elixir_lang.beam.chunk.debug_info.V1(
+                            term,
+                            OtpErlangAtom("elixir_erl"),
+                            lazy { index.metadata() }
+                    )
+
+                    V1(ElixirErl(v1), lazy { index.metadata() as OtpErlangTuple }, index)
+                }
+    }
 }
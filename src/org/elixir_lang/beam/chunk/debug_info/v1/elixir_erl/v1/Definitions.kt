@@ -4,6 +4,7 @@ import com.ericsson.otp.erlang.OtpErlangList
 import com.ericsson.otp.erlang.OtpErlangObject
 import org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.V1
 import org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.v1.definitions.Definition
+import org.elixir_lang.beam.etf.Cursor
 
 class Definitions(private val definitionList: List<Definition>) {
     operator fun get(index: Int) = definitionList.get(index)
@@ -18,6 +19,30 @@ class Definitions(private val definitionList: List<Definition>) {
                 null
             }
 
+        /**
+         * Only reads the header of each definition, so that its clauses are decoded when first used.
+         *
+         * @param cursor at the `definitions` list
+         */
+        fun from(cursor: Cursor, debugInfo: V1): Definitions? {
+            val length = cursor.listLength()
+
+            return if (length >= 0) {
+                val definitionList = ArrayList<Definition>(length)
+
+                repeat(length) {
+                    val definitionCursor = cursor.copy()
+                    cursor.skip()
+
+                    Definition.from(definitionCursor, debugInfo)?.let { definitionList.add(it) }
+                }
+
+                Definitions(definitionList)
+            } else {
+                Definitions.from(cursor.term(), debugInfo)
+            }
+        }
+
         private fun from(list: OtpErlangList, debugInfo: V1): Definitions =
             Definitions(list.mapNotNull { Definition.from(it, debugInfo) })
     }
@@ -5,34 +5,87 @@ import org.elixir_lang.beam.chunk.Keyword
 import org.elixir_lang.beam.chunk.debug_info.logger
 import org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.V1
 import org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.v1.definitions.definition.Clause
+import org.elixir_lang.beam.etf.Cursor
 import org.elixir_lang.beam.term.inspect
 
+/**
+ * `{{name, arity}, macro, metadata, clauses}`
+ *
+ * The [metdata] and [clauses] are decoded when first used, so that a definition read from an indexed Dbgi only decodes
+ * its header until it is rendered.
+ */
 class Definition(
         val debugInfo: V1,
-        nameArity: OtpErlangObject,
-        macro: OtpErlangObject,
-        metadata: OtpErlangObject,
-        clauses: OtpErlangObject
+        val name: String?,
+        val arity: Int?,
+        val macro: String?,
+        metadata: Lazy<OtpErlangObject>,
+        clauses: Lazy<OtpErlangObject>
 ) {
-    private val nameArityTuple: OtpErlangTuple? = nameArityTuple(nameArity)
-
-    val clauses: List<Clause>? by lazy { clauses(clauses, this) }
-    val macro: String? = macro(macro)
-    val metdata: Keyword? = org.elixir_lang.beam.chunk.from(metadata)
+    constructor(
+            debugInfo: V1,
+            nameArity: OtpErlangObject,
+            macro: OtpErlangObject,
+            metadata: OtpErlangObject,
+            clauses: OtpErlangObject
+    ) : this(debugInfo, nameArityTuple(nameArity), macro(macro), lazyOf(metadata), lazyOf(clauses))
+
+    private constructor(
+            debugInfo: V1,
+            nameArityTuple: OtpErlangTuple?,
+            macro: String?,
+            metadata: Lazy<OtpErlangObject>,
+            clauses: Lazy<OtpErlangObject>
+    ) : this(
+            debugInfo,
+            nameArityTuple?.let { nameArityToName(it) },
+            nameArityTuple?.let { nameArityToArity(it) },
+            macro,
+            metadata,
+            clauses
+    )
+
+    private val clausesTerm = clauses
+    private val metadataTerm = metadata
+
+    val clauses: List<Clause>? by lazy { clauses(clausesTerm.value, this) }
+    val metdata: Keyword? by lazy { org.elixir_lang.beam.chunk.from(metadataTerm.value) }
+    val line: Int? by lazy {
+        (metdata?.firstOrNull { it.key.atomValue() == "line" }?.value as? OtpErlangLong)?.intValue()
+    }
 
-    val name: String? by lazy {
-        nameArityTuple?.let {
-            nameArityToName(it)
+    companion object {
+        /**
+         * Reads the header of the definition at `cursor`: the name, arity and macro.  The metadata and clauses are
+         * decoded when first used.  Any other shape is decoded whole, so that it is logged as it would be by [from].
+         */
+        fun from(cursor: Cursor, debugInfo: V1): Definition? {
+            val start = cursor.position
+
+            return header(cursor, debugInfo) ?: from(cursor.at(start).term(), debugInfo)
         }
-    }
 
-    val arity: Int? by lazy {
-        nameArityTuple?.let {
-            nameArityToArity(it)
+        private fun header(cursor: Cursor, debugInfo: V1): Definition? {
+            // {{name, arity}, macro, metadata, clauses}
+            if (cursor.tupleArity() != 4) {
+                return null
+            }
+
+            // {name, arity}
+            if (cursor.tupleArity() != 2) {
+                return null
+            }
+
+            val name = cursor.atomName() ?: return null
+            val arity = cursor.integer()?.toInt() ?: return null
+            val macro = cursor.atomName() ?: return null
+            val metadata = cursor.copy()
+            cursor.skip()
+            val clauses = cursor.copy()
+
+            return Definition(debugInfo, name, arity, macro, lazy { metadata.term() }, lazy { clauses.term() })
         }
-    }
 
-    companion object {
         fun from(term: OtpErlangObject, debugInfo: V1): Definition? =
             if (term is OtpErlangTuple) {
                 from(term, debugInfo)
@@ -40,7 +40,8 @@ class Model(private val debugInfo: V1): TreeModel {
     override fun isLeaf(node: Any?): Boolean =
         when (node) {
             is V1 -> node.definitions == null
-            is Definition -> node.clauses == null
+            // `clauses` are only decoded when the definition is expanded
+            is Definition -> false
             else -> true
         }
 
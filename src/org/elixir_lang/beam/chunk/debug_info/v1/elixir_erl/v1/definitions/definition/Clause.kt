@@ -44,7 +44,19 @@ class Clause(
                 }
 
         private fun argumentsToString(arguments: OtpErlangList?): String =
-                arguments?.joinToString(", ") { argument -> Macro.toString(argument) } ?: ""
+                arguments?.let { list ->
+                    val builder = StringBuilder()
+
+                    list.forEachIndexed { index, argument ->
+                        if (index > 0) {
+                            builder.append(", ")
+                        }
+
+                        Macro.toString(argument, builder)
+                    }
+
+                    builder.toString()
+                } ?: ""
 
         const val expectedArity = 4
 
@@ -2,6 +2,6 @@ package org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.v1.type_specificatio
 
 class Opaques(private val opaqueList: List<Opaque>) {
     operator fun get(index: Int): Opaque = opaqueList.get(index)
-    fun indexOf(opaque: Opaque): Int = opaqueList.indexOf(opaque)
+    fun indexOf(opaque: Opaque): Int = opaqueList.indexOfFirst { it === opaque }
     fun size(): Int = opaqueList.size
 }
@@ -0,0 +1,113 @@
+package org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.v1.type_specifications
+
+import com.intellij.openapi.progress.ProgressManager
+import org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.V1
+import java.util.*
+
+/**
+ * Renders the nodes of a [Tree] of the type specifications of `debugInfo` as code.
+ *
+ * Each type specification is only rendered once: the text of each [TypeSpecification] and of each node is memoized by
+ * identity, so looking up a decoded term does not hash or compare it deeply.  Rendering can be run off the EDT, where
+ * a section reports its partial text after each batch of [BATCH_SIZE] type specifications and can be canceled
+ * through the current progress indicator before each type specification.  The type specifications rendered before
+ * the cancellation are still memoized.
+ */
+class Renderer(private val debugInfo: V1) {
+    private val stringByTypeSpecification =
+            Collections.synchronizedMap(IdentityHashMap<TypeSpecification, String>())
+    private val textByNode = Collections.synchronizedMap(IdentityHashMap<Any, String>())
+
+    /**
+     * @return `null` if `node` has not been rendered yet.
+     */
+    fun cachedText(node: Any): String? = textByNode[node]
+
+    /**
+     * @param progress called with the partial text of `node` after each batch
+     */
+    fun text(node: Any, progress: ((String) -> Unit)? = null): String =
+            textByNode[node] ?: render(node, progress).also { textByNode[node] = it }
+
+    private fun render(node: Any, progress: ((String) -> Unit)?): String {
+        val typeSpecifications = debugInfo.typeSpecifications!!
+        val moduleProgress = progress?.let { { partial: String -> it(debugInfo.moduleContext { partial }) } }
+
+        return debugInfo.moduleContext {
+            when (node) {
+                is V1 ->
+                    sectionsString(
+                            listOf(
+                                    typeSpecifications.types,
+                                    typeSpecifications.opaques,
+                                    typeSpecifications.callbacks,
+                                    typeSpecifications.optionalCallbacks,
+                                    typeSpecifications.specifications
+                            ),
+                            moduleProgress
+                    )
+                is OptionalCallback -> "@optional_callbacks ${string(node)}"
+                is TypeSpecification -> string(node)
+                else -> sectionsString(listOf(node), moduleProgress)
+            }
+        }
+    }
+
+    private fun sectionsString(sections: List<Any>, progress: ((String) -> Unit)?): String {
+        val sectionStrings = mutableListOf<String>()
+
+        for (section in sections) {
+            val typeSpecificationList = typeSpecificationList(section)
+            val strings = ArrayList<String>(typeSpecificationList.size)
+
+            typeSpecificationList.forEachIndexed { index, typeSpecification ->
+                ProgressManager.checkCanceled()
+                strings.add(string(typeSpecification))
+
+                if (progress != null && (index + 1) % BATCH_SIZE == 0 && index + 1 < typeSpecificationList.size) {
+                    progress(join(sectionStrings + sectionString(section, strings)))
+                }
+            }
+
+            sectionStrings.add(sectionString(section, strings))
+        }
+
+        return join(sectionStrings)
+    }
+
+    private fun join(sectionStrings: List<String>): String =
+            sectionStrings.filter { it.isNotBlank() }.joinToString("\n\n")
+
+    private fun sectionString(section: Any, strings: List<String>): String =
+            if (section is OptionalCallbacks) {
+                if (strings.isNotEmpty()) {
+                    strings.joinToString(",\n                    ").let { "@optional_callbacks $it" }
+                } else {
+                    ""
+                }
+            } else {
+                strings.joinToString("\n\n")
+            }
+
+    private fun typeSpecificationList(section: Any): List<TypeSpecification> =
+            when (section) {
+                is Types -> (0 until section.size()).map { section[it] }
+                is Opaques -> (0 until section.size()).map { section[it] }
+                is Callbacks -> (0 until section.size()).map { section[it] }
+                is OptionalCallbacks -> (0 until section.size()).map { section[it] }
+                is Specifications -> (0 until section.size()).map { section[it] }
+                else -> emptyList()
+            }
+
+    private fun string(typeSpecification: TypeSpecification): String =
+            stringByTypeSpecification[typeSpecification] ?:
+            when (typeSpecification) {
+                is Type -> typeSpecification.toString(debugInfo.typeSpecifications!!)
+                is OptionalCallback -> "${typeSpecification.name}: ${typeSpecification.arity}"
+                else -> typeSpecification.toString()
+            }.also { stringByTypeSpecification[typeSpecification] = it }
+
+    companion object {
+        const val BATCH_SIZE = 50
+    }
+}
@@ -2,6 +2,6 @@ package org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.v1.type_specificatio
 
 class Types(private val typeList: List<Type>) {
     operator fun get(index: Int) = typeList.get(index)
-    fun indexOf(type: Type): Int = typeList.indexOf(type)
+    fun indexOf(type: Type): Int = typeList.indexOfFirst { it === type }
     fun size() = typeList.size
 }
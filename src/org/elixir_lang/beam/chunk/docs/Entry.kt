@@ -0,0 +1,50 @@
+package org.elixir_lang.beam.chunk.docs
+
+import com.ericsson.otp.erlang.OtpErlangObject
+import org.elixir_lang.beam.chunk.Docs
+import org.elixir_lang.beam.etf.Cursor
+
+/**
+ * `{{kind, name, arity}, anno, signature, doc, metadata}` in the EEP-48 `Docs` chunk
+ *
+ * @param doc `String` - the documentation in the chunk's format; `false` - hidden (`@doc false`); `null` - none
+ * @param metadata map of metadata, such as `defaults` and `deprecated`
+ */
+data class Entry(val key: Key, val signatures: List<String>, val doc: Any?, val metadata: OtpErlangObject) {
+    companion object {
+        /**
+         * @param cursor at the entry tuple
+         * @return `null` if the entry does not have the EEP-48 shape
+         */
+        fun from(key: Key, cursor: Cursor): Entry? {
+            if (cursor.tupleArity() != 5) {
+                return null
+            }
+
+            // key, which is already decoded in the index, and anno
+            cursor.skip()
+            cursor.skip()
+
+            val signatureCount = cursor.listLength()
+
+            if (signatureCount < 0) {
+                return null
+            }
+
+            val signatures = ArrayList<String>(signatureCount)
+
+            repeat(signatureCount) {
+                signatures.add(cursor.binaryString() ?: return null)
+            }
+
+            if (!cursor.listTail()) {
+                return null
+            }
+
+            val doc = Docs.doc(cursor) ?: return null
+            val metadata = cursor.term()
+
+            return Entry(key, signatures, doc.value, metadata)
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package org.elixir_lang.beam.chunk.docs
+
+/**
+ * `{kind, name, arity}` of an entry in the EEP-48 `Docs` chunk.
+ *
+ * @param kind `function`, `macro`, `type`, `callback` or `macrocallback`
+ */
+data class Key(val kind: String, val name: String, val arity: Int)
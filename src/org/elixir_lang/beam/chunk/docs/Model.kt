@@ -0,0 +1,43 @@
+package org.elixir_lang.beam.chunk.docs
+
+import org.elixir_lang.beam.chunk.Docs
+import javax.swing.table.AbstractTableModel
+
+/**
+ * The [Key]s of the entries of [docs].  Only the index is shown, so that building the table does not decode any entry.
+ */
+class Model(private val docs: Docs): AbstractTableModel() {
+    override fun getColumnClass(columnIndex: Int): Class<*> =
+            when (columnIndex) {
+                0, 1 -> String::class.java
+                2 -> Integer::class.java
+                else -> throw IllegalArgumentException("Column $columnIndex out of bounds")
+            }
+
+    override fun getColumnCount(): Int = 3
+
+    override fun getColumnName(column: Int): String =
+            when (column) {
+                0 -> "Kind"
+                1 -> "Name"
+                2 -> "Arity"
+                else -> throw IllegalArgumentException("Column $column out of bounds")
+            }
+
+    override fun getRowCount(): Int = docs.size()
+
+    override fun getValueAt(rowIndex: Int, columnIndex: Int): Any? {
+        if (rowIndex !in 0 until rowCount) {
+            throw IllegalArgumentException("Row $rowIndex out of bounds")
+        }
+
+        val key = docs.keyList[rowIndex]
+
+        return when (columnIndex) {
+            0 -> key.kind
+            1 -> key.name
+            2 -> key.arity
+            else -> throw IllegalArgumentException("Column $columnIndex out of bounds")
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.elixir_lang.beam.chunk.docs
+
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.editor.EditorFactory
+import com.intellij.openapi.project.Project
+import com.intellij.psi.PsiDocumentManager
+import com.intellij.psi.PsiFileFactory
+import org.elixir_lang.ElixirFileType
+import org.elixir_lang.ElixirLanguage
+import org.elixir_lang.beam.chunk.Docs
+import java.awt.GridLayout
+import javax.swing.JPanel
+import javax.swing.JTable
+import javax.swing.event.ListSelectionEvent
+import javax.swing.event.ListSelectionListener
+
+const val DEFAULT_TEXT = "# Select a definition to view its documentation"
+
+/**
+ * Shows the documentation of the entry selected in `table` as the attributes and heads that would define it.  The entry
+ * is only decoded when it is selected.
+ */
+class Panel(private val table: JTable, private val docs: Docs, project: Project, private val moduleName: String?) :
+        JPanel(GridLayout(1, 1)), ListSelectionListener {
+    private val psiFile = PsiFileFactory.getInstance(project).createFileFromText(ElixirLanguage, DEFAULT_TEXT)
+    private val document = PsiDocumentManager.getInstance(project).getDocument(psiFile)!!
+    private val editor = EditorFactory.getInstance().createEditor(document, project, ElixirFileType.INSTANCE, true)
+
+    init {
+        table.selectionModel.addListSelectionListener(this)
+        add(editor.component)
+    }
+
+    override fun valueChanged(event: ListSelectionEvent) {
+        if (event.valueIsAdjusting) {
+            return
+        }
+
+        val row = table.selectedRow
+        val text = if (row >= 0) {
+            docs[table.convertRowIndexToModel(row)]?.let { text(it) } ?: DEFAULT_TEXT
+        } else {
+            moduleText()
+        }
+
+        ApplicationManager.getApplication().runWriteAction {
+            document.setText(text)
+        }
+    }
+
+    private fun moduleText(): String =
+            "defmodule $moduleName do\n" +
+                    docAttributeDefinition("@moduledoc", docs.moduleDoc).prependIndent("  ") +
+                    "end"
+
+    private fun text(entry: Entry): String {
+        val key = entry.key
+        val (attribute, definition) = when (key.kind) {
+            "function" -> "@doc" to "def"
+            "macro" -> "@doc" to "defmacro"
+            "type" -> "@typedoc" to "@type"
+            "callback" -> "@doc" to "@callback"
+            "macrocallback" -> "@doc" to "@macrocallback"
+            else -> "@doc" to "# ${key.kind}"
+        }
+        val signatures = entry.signatures.takeUnless { it.isEmpty() } ?: listOf("${key.name}/${key.arity}")
+
+        return docAttributeDefinition(attribute, entry.doc) +
+                signatures.joinToString("\n") { "$definition $it" }
+    }
+
+    private fun docAttributeDefinition(attribute: String, doc: Any?): String =
+            when (doc) {
+                is String ->
+                    "$attribute \"\"\"\n" +
+                            doc +
+                            "\"\"\"\n"
+                false ->
+                    "$attribute false\n"
+                else ->
+                    ""
+            }
+}
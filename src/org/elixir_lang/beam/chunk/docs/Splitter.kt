@@ -0,0 +1,45 @@
+package org.elixir_lang.beam.chunk.docs
+
+import com.intellij.openapi.project.Project
+import com.intellij.ui.OnePixelSplitter
+import com.intellij.ui.components.JBScrollPane
+import com.intellij.ui.components.JBTabbedPane
+import org.elixir_lang.beam.chunk.Docs
+import org.elixir_lang.beam.chunk.Table
+import javax.swing.ListSelectionModel
+import javax.swing.event.ChangeEvent
+import javax.swing.event.ChangeListener
+
+class Splitter(
+        private val docs: Docs,
+        private val project: Project,
+        private val moduleName: String?,
+        tabbedPane: JBTabbedPane
+): OnePixelSplitter(false), ChangeListener {
+    init {
+        tabbedPane.addChangeListener(this)
+    }
+
+    override fun stateChanged(changeEvent: ChangeEvent) {
+        if (changeEvent.source.let { it as JBTabbedPane }.selectedComponent == this) {
+            ensureChildrenAdded()
+        }
+    }
+
+    private var childrenAdded = false
+
+    private fun addChildren() {
+        val table = Table(Model(docs))
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION)
+
+        firstComponent = JBScrollPane(table)
+        secondComponent = Panel(table, docs, project, moduleName)
+    }
+
+    private fun ensureChildrenAdded() {
+        if (!childrenAdded) {
+            addChildren()
+            childrenAdded = true
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.elixir_lang.beam.chunk.docs
+
+import com.intellij.openapi.project.Project
+import com.intellij.ui.components.JBScrollPane
+import com.intellij.ui.components.JBTabbedPane
+import org.elixir_lang.beam.chunk.Docs
+import javax.swing.JComponent
+import javax.swing.JPanel
+
+fun component(docs: Docs?, project: Project, moduleName: String?, tabbedPane: JBTabbedPane): JComponent =
+        if (docs != null) {
+            Splitter(docs, project, moduleName, tabbedPane)
+        } else {
+            JBScrollPane(JPanel())
+        }
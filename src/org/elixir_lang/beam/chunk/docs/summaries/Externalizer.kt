@@ -0,0 +1,31 @@
+package org.elixir_lang.beam.chunk.docs.summaries
+
+import com.intellij.util.io.DataExternalizer
+import java.io.DataInput
+import java.io.DataOutput
+
+object Externalizer : DataExternalizer<Summary> {
+    override fun save(out: DataOutput, value: Summary) {
+        writeNullableUTF(out, value.doc)
+        writeNullableUTF(out, value.deprecated)
+        writeNullableUTF(out, value.since)
+    }
+
+    override fun read(`in`: DataInput): Summary =
+            Summary(readNullableUTF(`in`), readNullableUTF(`in`), readNullableUTF(`in`))
+
+    private fun readNullableUTF(`in`: DataInput): String? =
+            if (`in`.readBoolean()) {
+                `in`.readUTF()
+            } else {
+                null
+            }
+
+    private fun writeNullableUTF(out: DataOutput, string: String?) {
+        out.writeBoolean(string != null)
+
+        if (string != null) {
+            out.writeUTF(string)
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.elixir_lang.beam.chunk.docs.summaries
+
+import com.intellij.openapi.project.Project
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.util.indexing.DefaultFileTypeSpecificInputFilter
+import com.intellij.util.indexing.FileBasedIndex
+import com.intellij.util.indexing.FileBasedIndexExtension
+import com.intellij.util.indexing.ID
+import com.intellij.util.io.DataExternalizer
+import com.intellij.util.io.EnumeratorStringDescriptor
+import com.intellij.util.io.KeyDescriptor
+import org.elixir_lang.beam.FileType
+
+/**
+ * Maps `Module.name/arity`, or `Module` for the module itself, to a [Summary] of its documentation for every `.beam`
+ * file, so that completion and parameter info can show documentation without resolving or decoding anything.  Module
+ * names are as written in Elixir: `Enum` or `:lists`.
+ */
+class Index: FileBasedIndexExtension<String, Summary>() {
+    override fun dependsOnFileContent() = true
+    override fun getIndexer() = INDEXER
+    override fun getInputFilter() = DefaultFileTypeSpecificInputFilter(FileType.INSTANCE)
+    override fun getKeyDescriptor(): KeyDescriptor<String> = EnumeratorStringDescriptor.INSTANCE
+    override fun getName() = NAME
+    override fun getValueExternalizer(): DataExternalizer<Summary> = Externalizer
+    override fun getVersion() = VERSION
+
+    companion object {
+        const val VERSION = 1
+
+        val INDEXER = Indexer()
+        val NAME = ID.create<String, Summary>("beam.chunk.docs.summaries")
+
+        fun key(moduleName: String, name: String, arity: Int): String = "$moduleName.$name/$arity"
+
+        fun summary(project: Project, moduleName: String, name: String, arity: Int): Summary? =
+                summary(key(moduleName, name, arity), GlobalSearchScope.allScope(project))
+
+        fun summary(key: String, scope: GlobalSearchScope): Summary? =
+                FileBasedIndex.getInstance().getValues(NAME, key, scope).firstOrNull()
+    }
+}
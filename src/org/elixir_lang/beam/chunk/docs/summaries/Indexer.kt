@@ -0,0 +1,95 @@
+package org.elixir_lang.beam.chunk.docs.summaries
+
+import com.ericsson.otp.erlang.OtpErlangAtom
+import com.ericsson.otp.erlang.OtpErlangBinary
+import com.ericsson.otp.erlang.OtpErlangLong
+import com.ericsson.otp.erlang.OtpErlangMap
+import com.ericsson.otp.erlang.OtpErlangObject
+import com.intellij.util.indexing.DataIndexer
+import com.intellij.util.indexing.FileContent
+import org.elixir_lang.beam.Beam
+import org.elixir_lang.beam.chunk.Chunk
+import org.elixir_lang.beam.chunk.Docs
+import org.elixir_lang.beam.chunk.ElixirDocumentation
+import org.elixir_lang.debugger.stack_frame.value.Presentation.toUtf8String
+import org.elixir_lang.psi.call.name.Module.ELIXIR_PREFIX
+import java.util.*
+
+private val TYPE_ID_SET = EnumSet.of(Chunk.TypeID.ATOM, Chunk.TypeID.ATU8, Chunk.TypeID.DOCS, Chunk.TypeID.EXDC)
+private const val MARKDOWN = "text/markdown"
+private val CALL_KINDS = setOf("function", "macro")
+private val DEFAULTS = OtpErlangAtom("defaults")
+private val DEPRECATED = OtpErlangAtom("deprecated")
+private val SINCE = OtpErlangAtom("since")
+
+/**
+ * Indexes the module documentation under the module name and the documentation of each function and macro under
+ * [Index.key] for every arity it can be called with.  The EEP-48 `Docs` chunk is preferred over `ExDc`.
+ */
+class Indexer: DataIndexer<String, Summary, FileContent> {
+    override fun map(inputData: FileContent): Map<String, Summary> =
+            Beam.from(inputData, TYPE_ID_SET)?.let { beam ->
+                beam.atoms()?.moduleName()?.let { atomName ->
+                    val moduleName = moduleName(atomName)
+                    val summaryByKey = HashMap<String, Summary>()
+
+                    beam.docs()?.takeIf { it.format == MARKDOWN }?.let { map(it, moduleName, summaryByKey) } ?:
+                            beam.elixirDocumentation()?.let { map(it, moduleName, summaryByKey) }
+
+                    summaryByKey
+                }
+            } ?: emptyMap()
+
+    private fun map(docs: Docs, moduleName: String, summaryByKey: MutableMap<String, Summary>) {
+        val moduleMetadata = docs.metadata
+        val moduleSummary =
+                Summary.from(docs.moduleDoc, metadata(moduleMetadata, DEPRECATED), metadata(moduleMetadata, SINCE))
+        put(summaryByKey, moduleName, moduleSummary)
+
+        for ((index, key) in docs.keyList.withIndex()) {
+            if (key.kind in CALL_KINDS) {
+                docs[index]?.let { entry ->
+                    val metadata = entry.metadata
+                    val summary = Summary.from(entry.doc, metadata(metadata, DEPRECATED), metadata(metadata, SINCE))
+                    val defaultCount = ((metadata as? OtpErlangMap)?.get(DEFAULTS) as? OtpErlangLong)?.intValue() ?: 0
+
+                    for (arity in key.arity - defaultCount..key.arity) {
+                        put(summaryByKey, Index.key(moduleName, key.name, arity), summary)
+                    }
+                }
+            }
+        }
+    }
+
+    private fun map(
+            elixirDocumentation: ElixirDocumentation,
+            moduleName: String,
+            summaryByKey: MutableMap<String, Summary>
+    ) {
+        elixirDocumentation.moduledoc?.let { put(summaryByKey, moduleName, Summary.from(it.doc, null, null)) }
+
+        elixirDocumentation.docs?.docList?.forEach { doc ->
+            val summary = Summary.from(doc.doc, null, null)
+
+            for (arity in doc.arityRange()) {
+                put(summaryByKey, Index.key(moduleName, doc.nameArity.name, arity), summary)
+            }
+        }
+    }
+
+    private fun metadata(metadata: OtpErlangObject, key: OtpErlangAtom): String? =
+            ((metadata as? OtpErlangMap)?.get(key) as? OtpErlangBinary)?.let { toUtf8String(it) }
+
+    private fun moduleName(atomName: String): String =
+            if (atomName.startsWith(ELIXIR_PREFIX)) {
+                atomName.substring(ELIXIR_PREFIX.length)
+            } else {
+                ":$atomName"
+            }
+
+    private fun put(summaryByKey: MutableMap<String, Summary>, key: String, summary: Summary) {
+        if (!summary.isEmpty()) {
+            summaryByKey.putIfAbsent(key, summary)
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.elixir_lang.beam.chunk.docs.summaries
+
+/**
+ * What completion and parameter info show of a definition's documentation.
+ *
+ * @param doc the first paragraph of the documentation with its lines joined, shortened to [MAX_DOC_LENGTH]
+ * @param deprecated the `deprecated` metadata: why and what to use instead
+ * @param since the `since` metadata: the version that added the definition
+ */
+data class Summary(val doc: String?, val deprecated: String?, val since: String?) {
+    /**
+     * A single line: the deprecation, if any, then the documentation
+     */
+    fun text(): String? =
+            listOfNotNull(deprecated?.let { "Deprecated: $it" }, doc).takeUnless { it.isEmpty() }?.joinToString(" ")
+
+    fun isEmpty(): Boolean = doc == null && deprecated == null && since == null
+
+    companion object {
+        const val MAX_DOC_LENGTH = 200
+
+        private val PARAGRAPH_SEPARATOR = Regex("\n\\s*\n")
+        private val WHITESPACE = Regex("\\s+")
+
+        fun from(doc: Any?, deprecated: String?, since: String?): Summary =
+                Summary((doc as? String)?.let { firstParagraph(it) }, deprecated, since)
+
+        private fun firstParagraph(doc: String): String? =
+                doc
+                        .trim()
+                        .split(PARAGRAPH_SEPARATOR, 2)
+                        .first()
+                        .replace(WHITESPACE, " ")
+                        .takeUnless { it.isEmpty() }
+                        ?.let {
+                            if (it.length > MAX_DOC_LENGTH) {
+                                it.substring(0, MAX_DOC_LENGTH - 1) + "\u2026"
+                            } else {
+                                it
+                            }
+                        }
+    }
+}
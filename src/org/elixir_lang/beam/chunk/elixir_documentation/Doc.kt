@@ -11,7 +11,22 @@ import org.elixir_lang.beam.chunk.ElixirDocumentation.Companion.doc
 import org.elixir_lang.beam.term.inspect
 import org.elixir_lang.beam.term.line
 
-data class Doc(val nameArity: NameArity, val line: Int, val kind: Kind, val arguments: List<String>, val doc: Any?) {
+/**
+ * @param defaultCount the number of [arguments] with defaults (`\\`)
+ */
+data class Doc(
+        val nameArity: NameArity,
+        val line: Int,
+        val kind: Kind,
+        val arguments: List<String>,
+        val defaultCount: Int,
+        val doc: Any?
+) {
+    /**
+     * Arguments with defaults can be left out of a call.
+     */
+    fun arityRange(): IntRange = (nameArity.arity - defaultCount)..nameArity.arity
+
     enum class Kind {
         DEF,
         DEFMACRO;
@@ -47,6 +62,7 @@ data class Doc(val nameArity: NameArity, val line: Int, val kind: Kind, val argu
     }
 
     companion object {
+        private const val DEFAULT_OPERATOR = "\\\\"
         private val logger = Logger.getInstance(Doc::class.java)
 
         fun from(term: OtpErlangObject): Doc? =
@@ -73,6 +89,14 @@ data class Doc(val nameArity: NameArity, val line: Int, val kind: Kind, val argu
 
         private fun arguments(list: OtpErlangList): List<String> = list.map { argument(it) }
 
+        /**
+         * Whether the quoted `argument` is `argument \\ default`, `{:\\, meta, [argument, default]}`
+         */
+        private fun isDefault(argument: OtpErlangObject): Boolean =
+                argument is OtpErlangTuple &&
+                        argument.arity() == 3 &&
+                        (argument.elementAt(0) as? OtpErlangAtom)?.atomValue() == DEFAULT_OPERATOR
+
         private fun arguments(term: OtpErlangObject): List<String>? =
             when (term) {
                 is OtpErlangList -> arguments(term)
@@ -98,11 +122,14 @@ data class Doc(val nameArity: NameArity, val line: Int, val kind: Kind, val argu
                 val nameArity = NameArity.from(tuple.elementAt(0))
                 val line = line(tuple.elementAt(1))
                 val kind = Kind.from(tuple.elementAt(2))
-                val arguments = arguments(tuple.elementAt(3))
+                val argumentsTerm = tuple.elementAt(3)
+                val arguments = arguments(argumentsTerm)
                 val doc = doc(tuple.elementAt(4))
 
                 if (nameArity != null && line != null && kind != null && arguments != null) {
-                    Doc(nameArity, line, kind, arguments, doc)
+                    val defaultCount = (argumentsTerm as OtpErlangList).count { isDefault(it) }
+
+                    Doc(nameArity, line, kind, arguments, defaultCount, doc)
                 } else {
                     null
                 }
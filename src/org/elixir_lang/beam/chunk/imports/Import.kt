@@ -18,13 +18,13 @@ data class Import(val moduleAtomIndex: Long, val functionAtomIndex: Long, val ar
         fun from(chunk: Chunk, offset: Int, atoms: Atoms?): Pair<Import, Int> {
             var internalOffset = offset
 
-            val (moduleAtomIndex, moduleAtomIndexByteCount) = unsignedInt(chunk.data, internalOffset)
+            val (moduleAtomIndex, moduleAtomIndexByteCount) = unsignedInt(chunk.bytes, internalOffset)
             internalOffset += moduleAtomIndexByteCount
 
-            val (functionAtomIndex, functionAtomIndexByteCount) = unsignedInt(chunk.data, internalOffset)
+            val (functionAtomIndex, functionAtomIndexByteCount) = unsignedInt(chunk.bytes, internalOffset)
             internalOffset += functionAtomIndexByteCount
 
-            val (arity, arityByteCount) = unsignedInt(chunk.data, internalOffset)
+            val (arity, arityByteCount) = unsignedInt(chunk.bytes, internalOffset)
             internalOffset += arityByteCount
 
             return Pair(Import(moduleAtomIndex, functionAtomIndex, arity, atoms), internalOffset - offset)
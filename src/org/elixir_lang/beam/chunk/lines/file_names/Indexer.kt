@@ -2,12 +2,16 @@ package org.elixir_lang.beam.chunk.lines.file_names
 
 import com.intellij.util.indexing.DataIndexer
 import com.intellij.util.indexing.FileContent
-import org.elixir_lang.beam.Cache
+import org.elixir_lang.beam.Beam
+import org.elixir_lang.beam.chunk.Chunk
+import java.util.*
+
+private val TYPE_ID_SET = EnumSet.of(Chunk.TypeID.LINE)
 
 class Indexer: DataIndexer<String, Void, FileContent> {
     override fun map(inputData: FileContent): Map<String, Void?> =
-        Cache.Companion.from(inputData)?.let { cache ->
-            cache.lines?.let { lines ->
+        Beam.from(inputData, TYPE_ID_SET)?.let { beam ->
+            beam.lines(null)?.let { lines ->
                 // Drop "invalid"
                 lines
                         .fileNameList
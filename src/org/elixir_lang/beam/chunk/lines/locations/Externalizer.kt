@@ -0,0 +1,61 @@
+package org.elixir_lang.beam.chunk.lines.locations
+
+import com.intellij.util.io.DataExternalizer
+import com.intellij.util.io.DataInputOutputUtil
+import java.io.DataInput
+import java.io.DataOutput
+
+object Externalizer : DataExternalizer<Locations> {
+    override fun save(out: DataOutput, value: Locations) {
+        out.writeUTF(value.module)
+
+        val functionCount = value.functionNames.size
+        DataInputOutputUtil.writeINT(out, functionCount)
+
+        for (functionIndex in 0 until functionCount) {
+            out.writeUTF(value.functionNames[functionIndex])
+            DataInputOutputUtil.writeINT(out, value.functionArities[functionIndex])
+            DataInputOutputUtil.writeINT(out, value.functionLabels[functionIndex])
+        }
+
+        val size = value.size()
+        DataInputOutputUtil.writeINT(out, size)
+        var previousLine = 0
+
+        // lines are sorted, so their deltas are small
+        for (index in 0 until size) {
+            val line = value.lines[index]
+            DataInputOutputUtil.writeINT(out, line - previousLine)
+            DataInputOutputUtil.writeINT(out, value.functionIndices[index])
+            previousLine = line
+        }
+    }
+
+    override fun read(`in`: DataInput): Locations {
+        val module = `in`.readUTF()
+
+        val functionCount = DataInputOutputUtil.readINT(`in`)
+        val functionNames = ArrayList<String>(functionCount)
+        val functionArities = IntArray(functionCount)
+        val functionLabels = IntArray(functionCount)
+
+        for (functionIndex in 0 until functionCount) {
+            functionNames.add(`in`.readUTF())
+            functionArities[functionIndex] = DataInputOutputUtil.readINT(`in`)
+            functionLabels[functionIndex] = DataInputOutputUtil.readINT(`in`)
+        }
+
+        val size = DataInputOutputUtil.readINT(`in`)
+        val lines = IntArray(size)
+        val functionIndices = IntArray(size)
+        var previousLine = 0
+
+        for (index in 0 until size) {
+            previousLine += DataInputOutputUtil.readINT(`in`)
+            lines[index] = previousLine
+            functionIndices[index] = DataInputOutputUtil.readINT(`in`)
+        }
+
+        return Locations(module, lines, functionIndices, functionNames, functionArities, functionLabels)
+    }
+}
@@ -0,0 +1,48 @@
+package org.elixir_lang.beam.chunk.lines.locations
+
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.util.indexing.DefaultFileTypeSpecificInputFilter
+import com.intellij.util.indexing.FileBasedIndex
+import com.intellij.util.indexing.FileBasedIndexExtension
+import com.intellij.util.indexing.ID
+import com.intellij.util.io.DataExternalizer
+import com.intellij.util.io.EnumeratorStringDescriptor
+import com.intellij.util.io.KeyDescriptor
+import org.elixir_lang.beam.FileType
+
+/**
+ * Maps the path of each source file to the [Locations] of its lines in every `.beam` file compiled from it, so that
+ * the debugger can check whether a line is executable, and find the modules and functions to break in, without
+ * parsing the source file or decoding the `.beam` files.
+ */
+class Index: FileBasedIndexExtension<String, Locations>() {
+    override fun dependsOnFileContent() = true
+    override fun getIndexer() = INDEXER
+    override fun getInputFilter() = DefaultFileTypeSpecificInputFilter(FileType.INSTANCE)
+    override fun getKeyDescriptor(): KeyDescriptor<String> = EnumeratorStringDescriptor.INSTANCE
+    override fun getName() = NAME
+    override fun getValueExternalizer(): DataExternalizer<Locations> = Externalizer
+    override fun getVersion() = VERSION
+
+    companion object {
+        const val VERSION = 2
+
+        val INDEXER = Indexer()
+        val NAME = ID.create<String, Locations>("beam.chunk.lines.locations")
+
+        /**
+         * @param path the absolute path of a module's source file or a path as given to the compiler, such as that of
+         *   an EEx template relative to the project's root directory
+         * @return the [Locations] of `path` in each `.beam` file in `scope`
+         */
+        fun locationsList(path: String, scope: GlobalSearchScope): List<Locations> =
+                FileBasedIndex.getInstance().getValues(NAME, path, scope)
+
+        /**
+         * @param line 1-based line in `path`
+         * @return the functions with code on `line` in each `.beam` file in `scope`
+         */
+        fun locations(path: String, line: Int, scope: GlobalSearchScope): List<Location> =
+                locationsList(path, scope).flatMap { it[line] }
+    }
+}
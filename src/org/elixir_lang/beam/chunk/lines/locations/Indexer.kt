@@ -0,0 +1,128 @@
+package org.elixir_lang.beam.chunk.lines.locations
+
+import com.ericsson.otp.erlang.OtpErlangString
+import com.intellij.util.indexing.DataIndexer
+import com.intellij.util.indexing.FileContent
+import org.elixir_lang.beam.Beam
+import org.elixir_lang.beam.chunk.Atoms
+import org.elixir_lang.beam.chunk.Chunk
+import org.elixir_lang.beam.chunk.Code
+import org.elixir_lang.beam.chunk.Lines
+import org.elixir_lang.beam.term.Atom
+import org.elixir_lang.beam.term.Literal
+import java.util.*
+import org.elixir_lang.beam.chunk.code.operation.Code as OperationCode
+
+private val TYPE_ID_SET =
+        EnumSet.of(Chunk.TypeID.ATOM, Chunk.TypeID.ATU8, Chunk.TypeID.CINF, Chunk.TypeID.CODE, Chunk.TypeID.LINE)
+
+/**
+ * Indexes the [Locations] of each source file named in the `Line` chunk under its file name by walking the `Code`
+ * chunk once: `func_info` names the function whose entry `label` follows it, and every `line` after that entry is in
+ * that function.  The `line` in a function's header, before its `func_info`, is the line of its first clause.
+ *
+ * File name index 0 is the module's own source file, whose name is not in the `Line` chunk, so its lines are indexed
+ * under the `source` in the `CInf` chunk, which is an absolute path.  Other file names, such as those of EEx templates,
+ * are as the compiler was given them: usually relative to the project's root directory.
+ */
+class Indexer: DataIndexer<String, Locations, FileContent> {
+    override fun map(inputData: FileContent): Map<String, Locations> =
+            Beam.from(inputData, TYPE_ID_SET)?.let { map(it) } ?: emptyMap()
+
+    fun map(beam: Beam): Map<String, Locations> =
+            beam.atoms()?.let { atoms ->
+                atoms.moduleName()?.let { module ->
+                    beam.lines(atoms)?.let { lines ->
+                        beam.code()?.let { code ->
+                            map(module, atoms, lines, source(beam), code)
+                        }
+                    }
+                }
+            } ?: emptyMap()
+
+    private fun map(module: String, atoms: Atoms, lines: Lines, source: String?, code: Code): Map<String, Locations> {
+        val functionNames = mutableListOf<String>()
+        val functionArities = mutableListOf<Int>()
+        val functionLabels = mutableListOf<Int>()
+        val builderByFileName = HashMap<String, Locations.Builder>()
+
+        var pendingName: String? = null
+        var pendingArity = 0
+        // lines of the function header, which are only known to be in the function at its entry label
+        val pendingFileNameLines = mutableListOf<Pair<String, Int>>()
+        var functionIndex = -1
+
+        for (index in 0 until code.size()) {
+            val operation = code[index]
+            val termList = operation.termList
+
+            when (operation.code) {
+                OperationCode.FUNC_INFO -> {
+                    pendingName = (termList.getOrNull(1) as? Atom)?.let { atoms.getOrNull(it.index)?.string }
+                    pendingArity = (termList.getOrNull(2) as? Literal)?.index ?: 0
+                }
+                OperationCode.LABEL -> {
+                    val name = pendingName
+
+                    if (name != null) {
+                        functionNames.add(name)
+                        functionArities.add(pendingArity)
+                        functionLabels.add((termList.getOrNull(0) as? Literal)?.index ?: 0)
+                        functionIndex = functionNames.size - 1
+                        pendingName = null
+
+                        for ((fileName, line) in pendingFileNameLines) {
+                            builder(builderByFileName, module, fileName).add(line, functionIndex)
+                        }
+
+                        pendingFileNameLines.clear()
+                    }
+                }
+                OperationCode.LINE -> {
+                    fileNameLine(lines, source, termList.getOrNull(0))?.let { fileNameLine ->
+                        val isHeader = index + 1 < code.size() && code[index + 1].code == OperationCode.FUNC_INFO
+
+                        if (isHeader || functionIndex < 0) {
+                            pendingFileNameLines.add(fileNameLine)
+                        } else {
+                            builder(builderByFileName, module, fileNameLine.first).add(fileNameLine.second, functionIndex)
+                        }
+                    }
+                }
+                else -> Unit
+            }
+        }
+
+        val arities = functionArities.toIntArray()
+        val labels = functionLabels.toIntArray()
+
+        return builderByFileName.mapValues { (_, builder) -> builder.build(functionNames, arities, labels) }
+    }
+
+    private fun builder(
+            builderByFileName: MutableMap<String, Locations.Builder>,
+            module: String,
+            fileName: String
+    ): Locations.Builder = builderByFileName.getOrPut(fileName) { Locations.Builder(module) }
+
+    /**
+     * The operand of `line` is 1-based into the line references of the `Line` chunk: `0` is code with no location.
+     */
+    private fun fileNameLine(lines: Lines, source: String?, term: Any?): Pair<String, Int>? =
+            (term as? Literal)?.index?.takeIf { it > 0 }?.let { index ->
+                lines.lineReferenceList.getOrNull(index - 1)?.let { lineReference ->
+                    val fileNameIndex = lineReference.fileNameIndex
+                    val fileName = if (fileNameIndex == 0) source else lines.fileNameList.getOrNull(fileNameIndex)
+
+                    fileName?.let {
+                        lineReference.line.toInt().takeIf { it > 0 }?.let { line -> Pair(fileName, line) }
+                    }
+                }
+            }
+
+    private fun source(beam: Beam): String? =
+            beam
+                    .compileInfo()
+                    ?.find { it.key.atomValue() == "source" }
+                    ?.let { (it.value as? OtpErlangString)?.stringValue() }
+}
@@ -0,0 +1,8 @@
+package org.elixir_lang.beam.chunk.lines.locations
+
+/**
+ * A `line` in a source file that has code in `function`/`arity` of `module`, whose entry point is `label`.
+ *
+ * @param module the module's atom name: `Elixir.Enum` or `lists`
+ */
+data class Location(val line: Int, val module: String, val function: String, val arity: Int, val label: Int)
@@ -0,0 +1,127 @@
+package org.elixir_lang.beam.chunk.lines.locations
+
+/**
+ * The lines of one source file that have code in one `.beam` file, sorted by line, with the function of each line, so
+ * that whether a line is executable and in which functions is a binary search.
+ *
+ * A line that is in more than one function, such as a line of a macro that was expanded into several functions, has an
+ * entry per function.
+ *
+ * @param module the module's atom name: `Elixir.Enum` or `lists`
+ * @param lines the line of each entry, sorted
+ * @param functionIndices the index of each entry's function in [functionNames], [functionArities] and
+ *   [functionLabels]
+ */
+class Locations(
+        val module: String,
+        internal val lines: IntArray,
+        internal val functionIndices: IntArray,
+        internal val functionNames: List<String>,
+        internal val functionArities: IntArray,
+        internal val functionLabels: IntArray
+) {
+    /**
+     * @return the functions with code on `line`; empty if `line` is not executable.
+     */
+    operator fun get(line: Int): List<Location> {
+        var index = lowerBound(line)
+        val locations = mutableListOf<Location>()
+
+        while (index < lines.size && lines[index] == line) {
+            val functionIndex = functionIndices[index]
+
+            locations.add(
+                    Location(
+                            line,
+                            module,
+                            functionNames[functionIndex],
+                            functionArities[functionIndex],
+                            functionLabels[functionIndex]
+                    )
+            )
+
+            index++
+        }
+
+        return locations
+    }
+
+    fun isExecutable(line: Int): Boolean {
+        val index = lowerBound(line)
+
+        return index < lines.size && lines[index] == line
+    }
+
+    /**
+     * The first executable line at or after `line`, where a breakpoint on `line` would be placed.
+     */
+    fun ceilingLine(line: Int): Int? = lines.getOrNull(lowerBound(line))
+
+    fun size(): Int = lines.size
+
+    private fun lowerBound(line: Int): Int {
+        var low = 0
+        var high = lines.size
+
+        while (low < high) {
+            val middle = (low + high).ushr(1)
+
+            if (lines[middle] < line) {
+                low = middle + 1
+            } else {
+                high = middle
+            }
+        }
+
+        return low
+    }
+
+    /**
+     * Collects the lines of one source file as they are found in the `Code` chunk.
+     */
+    class Builder(private val module: String) {
+        private val lineFunctionIndexSet = sortedSetOf<Long>()
+
+        /**
+         * @param functionIndex index of the function in the `functionNames`, `functionArities` and `functionLabels`
+         *   passed to [build]
+         */
+        fun add(line: Int, functionIndex: Int) {
+            lineFunctionIndexSet.add(line.toLong().shl(32).or(functionIndex.toLong()))
+        }
+
+        /**
+         * Only the functions with lines in this source file are kept.
+         */
+        fun build(functionNames: List<String>, functionArities: IntArray, functionLabels: IntArray): Locations {
+            val size = lineFunctionIndexSet.size
+            val lines = IntArray(size)
+            val functionIndices = IntArray(size)
+            val keptFunctionIndexByFunctionIndex = HashMap<Int, Int>()
+
+            lineFunctionIndexSet.forEachIndexed { index, lineFunctionIndex ->
+                val functionIndex = lineFunctionIndex.toInt()
+
+                lines[index] = lineFunctionIndex.ushr(32).toInt()
+                functionIndices[index] = keptFunctionIndexByFunctionIndex.getOrPut(functionIndex) {
+                    keptFunctionIndexByFunctionIndex.size
+                }
+            }
+
+            val keptFunctionIndices = IntArray(keptFunctionIndexByFunctionIndex.size)
+
+            for ((functionIndex, keptFunctionIndex) in keptFunctionIndexByFunctionIndex) {
+                keptFunctionIndices[keptFunctionIndex] = functionIndex
+            }
+
+            return Locations(
+                    module,
+                    lines,
+                    functionIndices,
+                    keptFunctionIndices.map { functionNames[it] },
+                    IntArray(keptFunctionIndices.size) { functionArities[keptFunctionIndices[it]] },
+                    IntArray(keptFunctionIndices.size) { functionLabels[keptFunctionIndices[it]] }
+            )
+        }
+    }
+}
@@ -3,25 +3,22 @@ package org.elixir_lang.beam.chunk.literals
 import com.ericsson.otp.erlang.OtpErlangObject
 import com.intellij.openapi.util.component1
 import com.intellij.openapi.util.component2
-import org.elixir_lang.beam.binaryToTerm
 import org.elixir_lang.beam.chunk.Chunk.unsignedInt
+import org.elixir_lang.beam.etf.Cursor
 import org.elixir_lang.beam.term.ByteCount
 import org.elixir_lang.beam.term.unsignedIntToInt
 
 fun literal(data: ByteArray, offset: Int): Pair<OtpErlangObject, ByteCount> {
-    var internalOffset = offset
+    val (termByteCount, termByteCountByteCount) = unsignedInt(data, offset)
+    val termOffset = offset + termByteCountByteCount
+    val termEnd = termOffset + unsignedIntToInt(termByteCount)
 
-    val (expectedTermByteCount, expectedTermByteCountByteCount) = unsignedInt(data, internalOffset)
-    internalOffset += expectedTermByteCountByteCount
+    val cursor = Cursor.from(data, termOffset, termEnd)
+    val term = cursor.term()
 
-    val (term, termByteCount) = binaryToTerm(data, internalOffset)
-
-    assert(termByteCount == unsignedIntToInt(expectedTermByteCount)) {
-        "The term byte count ($termByteCount) did not match the expected term byte count ($expectedTermByteCount) " +
-                "in the LitT Literal"
+    assert(!cursor.hasRemaining()) {
+        "The term did not use all of the expected term byte count ($termByteCount) in the LitT Literal"
     }
 
-    internalOffset += termByteCount
-
-    return Pair(term, internalOffset - offset)
+    return Pair(term, termEnd - offset)
 }
@@ -0,0 +1,178 @@
+package org.elixir_lang.beam.decompiler
+
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.fileEditor.FileDocumentManager
+import com.intellij.openapi.util.Key
+import com.intellij.openapi.vfs.VirtualFile
+import org.elixir_lang.Macro
+import org.elixir_lang.Macro.adjustNewLines
+import org.elixir_lang.beam.Cache
+import org.elixir_lang.beam.MacroNameArity
+import org.elixir_lang.beam.chunk.DebugInfo
+import org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.V1
+import org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.v1.definitions.Definition
+import org.elixir_lang.beam.chunk.debug_info.v1.erl_abstract_code.AbstractCodeCompileOptions
+import org.elixir_lang.beam.chunk.debug_info.v1.erl_abstract_code.abstract_code_compiler_options.abstract_code.Function
+import org.elixir_lang.beam.psi.BeamFileImpl
+
+/**
+ * Decompiles the bodies of the definitions of a `.beam` file from its `Dbgi` chunk: the `elixir_erl` definitions of
+ * Elixir modules or the `erl_abstract_code` functions of Erlang modules.
+ *
+ * Only the definitions that were navigated to, and so [expand]ed, are rendered; the others stay
+ * `# body not decompiled` stubs, so that decompiling a `.beam` file does not decode its `Dbgi` chunk until a body is
+ * needed.  The rendered text is kept on the file's [Cache], so it is weighed and evicted with the decoded chunks.
+ *
+ * Set the `elixir.beam.decompiler.bodies` system property to `true` to decompile bodies instead of
+ * `# body not decompiled` stubs.
+ */
+class Bodies private constructor(
+        private val cache: Cache,
+        private val debugInfo: DebugInfo,
+        private val expanded: Set<String>
+) {
+    /**
+     * Appends the definition of `macroNameArity` with its bodies to `decompiled`.
+     *
+     * @return `false` if `macroNameArity` is not [expand]ed, the `Dbgi` chunk has no definition for it, or it could
+     *   not be rendered, so that the caller should append a stub instead.
+     */
+    fun append(decompiled: StringBuilder, macroNameArity: MacroNameArity): Boolean {
+        val arity = macroNameArity.arity ?: return false
+        val name = macroNameArity.name
+        val nameArity = nameArity(name, arity)
+
+        val text = if (expanded.contains(nameArity)) {
+            cache.rendered("${macroNameArity.macro} $nameArity") { render(macroNameArity.macro, name, arity) }
+        } else {
+            null
+        }
+
+        return if (text != null) {
+            decompiled.append("  ").append(adjustNewLines(text, "\n  ")).append('\n')
+
+            true
+        } else {
+            false
+        }
+    }
+
+    private fun render(macro: String, name: String, arity: Int): String? =
+            try {
+                when (debugInfo) {
+                    is V1 ->
+                        debugInfo.definitions?.let { definitions ->
+                            (0 until definitions.size())
+                                    .firstOrNull { index ->
+                                        definitions[index].let { it.name == name && it.arity == arity }
+                                    }
+                                    ?.let { definitions[it] }
+                        }?.let { render(macro, it) }
+                    is AbstractCodeCompileOptions ->
+                        debugInfo.functions
+                                ?.functions
+                                ?.find { it.name?.atomValue() == name && it.arity?.toInt() == arity }
+                                ?.let { render(macro, it) }
+                    else -> null
+                }
+            } catch (e: Exception) {
+                LOGGER.warn("Could not decompile body of $macro $name/$arity", e)
+
+                null
+            }
+
+    private fun render(macro: String, definition: Definition): String? =
+            definition
+                    .clauses
+                    ?.takeUnless { it.isEmpty() }
+                    ?.joinToString("\n\n") { clause ->
+                        "$macro ${clause.head} do\n" +
+                                "  ${adjustNewLines(Macro.toString(clause.block), "\n  ")}\n" +
+                                "end"
+                    }
+
+    private fun render(macro: String, function: Function): String? =
+            function
+                    .clauses
+                    .takeUnless { it.isEmpty() }
+                    ?.joinToString("\n\n") { clause ->
+                        // Erlang clauses are always rendered as `def`, but may be for a local function
+                        macro + clause.toMacroString().removePrefix("def")
+                    }
+
+    companion object {
+        private val LOGGER = Logger.getInstance(Bodies::class.java)
+        private const val ENABLED_PROPERTY = "elixir.beam.decompiler.bodies"
+        private val EXPANDED_KEY = Key.create<Set<String>>("elixir.beam.decompiler.bodies.expanded")
+
+        val isEnabled: Boolean = System.getProperty(ENABLED_PROPERTY, "false")!!.toBoolean()
+
+        private val lock = Any()
+
+        /**
+         * The `name/arity`s of the definitions of `virtualFile` whose bodies are decompiled
+         */
+        fun expanded(virtualFile: VirtualFile): Set<String> =
+                if (isEnabled) {
+                    virtualFile.getUserData(EXPANDED_KEY) ?: emptySet()
+                } else {
+                    emptySet()
+                }
+
+        /**
+         * Decompiles the bodies of the definition `name/arity` of `beamFile` from now on.  When it was not already
+         * expanded, the decompiled document and the mirror of `beamFile` are rebuilt later on the EDT, so that
+         * navigation, which is already underway, still lands on the definition's head.
+         *
+         * Only call this from an explicit navigation, such as
+         * [org.elixir_lang.beam.psi.impl.CallDefinitionImpl.navigate], as each new expansion reloads the document.
+         */
+        fun expand(beamFile: BeamFileImpl, name: String, arity: Int) {
+            val virtualFile = beamFile.virtualFile
+
+            if (isEnabled && virtualFile != null) {
+                val nameArity = nameArity(name, arity)
+                val isNewlyExpanded = synchronized(lock) {
+                    val expanded = expanded(virtualFile)
+
+                    if (expanded.contains(nameArity)) {
+                        false
+                    } else {
+                        virtualFile.putUserData(EXPANDED_KEY, expanded + nameArity)
+
+                        true
+                    }
+                }
+
+                if (isNewlyExpanded) {
+                    ApplicationManager.getApplication().invokeLater(Runnable {
+                        val fileDocumentManager = FileDocumentManager.getInstance()
+
+                        // decompiles again with the new expanded definitions
+                        fileDocumentManager.getCachedDocument(virtualFile)?.let { fileDocumentManager.reloadFromDisk(it) }
+
+                        // background read actions must not see the module mirrors half relinked
+                        ApplicationManager.getApplication().runWriteAction(Runnable { beamFile.rebuildMirror() })
+                    }, beamFile.project.disposed)
+                }
+            }
+        }
+
+        /**
+         * @param expanded [expanded] of `virtualFile`
+         * @return `null` if no definitions are [expanded] or `virtualFile` has no `Dbgi` chunk, so that the `Dbgi`
+         *   chunk is not decoded for stubs.
+         */
+        fun from(virtualFile: VirtualFile, expanded: Set<String>): Bodies? =
+                if (expanded.isNotEmpty()) {
+                    Cache.from(virtualFile)?.let { cache ->
+                        cache.debugInfo?.let { Bodies(cache, it, expanded) }
+                    }
+                } else {
+                    null
+                }
+
+        private fun nameArity(name: String, arity: Int) = "$name/$arity"
+    }
+}
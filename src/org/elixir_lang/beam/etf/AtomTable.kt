@@ -0,0 +1,169 @@
+package org.elixir_lang.beam.etf
+
+import com.ericsson.otp.erlang.OtpErlangAtom
+import java.nio.charset.StandardCharsets
+
+/**
+ * The distinct atoms read by the [Cursor]s over `bytes`, numbered in the order they were first read.  An atom is
+ * looked up by hashing its bytes where they are in `bytes`, so reading an atom that is already in the table allocates
+ * nothing, and its [name] and [atom] are only created once.
+ *
+ * A table is shared by a [Cursor] and its [Cursor.copy]s, which may decode on different threads, such as the lazily
+ * decoded `Docs` read by the documentation provider in the background while the Docs tab reads them on the EDT, so
+ * every access holds `lock`.
+ */
+class AtomTable(private val bytes: ByteArray) {
+    private val lock = Any()
+    // Guarded by `lock`
+    private var offsets = IntArray(INITIAL_CAPACITY)
+    private var lengths = IntArray(INITIAL_CAPACITY)
+    private var utf8s = BooleanArray(INITIAL_CAPACITY)
+    private var names = arrayOfNulls<String>(INITIAL_CAPACITY)
+    private var atoms = arrayOfNulls<OtpErlangAtom>(INITIAL_CAPACITY)
+    /**
+     * Open addressing from the hash of an atom's bytes to its index + 1, so that 0 is an empty slot.
+     */
+    private var slots = IntArray(INITIAL_CAPACITY * 2)
+
+    // Guarded by `lock`
+    private var count = 0
+
+    val size: Int
+        get() = synchronized(lock) { count }
+
+    fun index(offset: Int, length: Int, utf8: Boolean): Int = synchronized(lock) { indexLocked(offset, length, utf8) }
+
+    fun name(index: Int): String = synchronized(lock) { nameLocked(index) }
+
+    fun atom(index: Int): OtpErlangAtom =
+            synchronized(lock) { atoms[index] ?: OtpErlangAtom(nameLocked(index)).also { atoms[index] = it } }
+
+    /**
+     * Whether the atom at `index` is the ASCII `name`, without creating the atom's [name].
+     */
+    fun nameEquals(index: Int, name: String): Boolean = synchronized(lock) {
+        val length = lengths[index]
+
+        if (length != name.length) {
+            return false
+        }
+
+        val offset = offsets[index]
+
+        for (i in 0 until length) {
+            if (bytes[offset + i].toInt().and(0xFF) != name[i].toInt()) {
+                return false
+            }
+        }
+
+        true
+    }
+
+    // Holds `lock`
+    private fun indexLocked(offset: Int, length: Int, utf8: Boolean): Int {
+        val hash = hash(offset, length)
+        val mask = slots.size - 1
+        var slot = hash and mask
+
+        while (true) {
+            val entry = slots[slot]
+
+            if (entry == 0) {
+                break
+            }
+
+            val index = entry - 1
+
+            if (equals(index, offset, length, utf8)) {
+                return index
+            }
+
+            slot = (slot + 1) and mask
+        }
+
+        return add(offset, length, utf8, slot)
+    }
+
+    // Holds `lock`
+    private fun nameLocked(index: Int): String =
+            names[index] ?: String(
+                    bytes,
+                    offsets[index],
+                    lengths[index],
+                    if (utf8s[index]) StandardCharsets.UTF_8 else StandardCharsets.ISO_8859_1
+            ).also { names[index] = it }
+
+    // Holds `lock`
+    private fun add(offset: Int, length: Int, utf8: Boolean, slot: Int): Int {
+        val index = count
+
+        if (index == offsets.size) {
+            grow()
+
+            return indexLocked(offset, length, utf8)
+        }
+
+        offsets[index] = offset
+        lengths[index] = length
+        utf8s[index] = utf8
+        slots[slot] = index + 1
+        count++
+
+        return index
+    }
+
+    // Holds `lock`
+    private fun equals(index: Int, offset: Int, length: Int, utf8: Boolean): Boolean {
+        if (lengths[index] != length || utf8s[index] != utf8) {
+            return false
+        }
+
+        val otherOffset = offsets[index]
+
+        for (i in 0 until length) {
+            if (bytes[offset + i] != bytes[otherOffset + i]) {
+                return false
+            }
+        }
+
+        return true
+    }
+
+    // Holds `lock`
+    private fun grow() {
+        val capacity = offsets.size * 2
+
+        offsets = offsets.copyOf(capacity)
+        lengths = lengths.copyOf(capacity)
+        utf8s = utf8s.copyOf(capacity)
+        names = names.copyOf(capacity)
+        atoms = atoms.copyOf(capacity)
+        slots = IntArray(capacity * 2)
+
+        for (index in 0 until count) {
+            val mask = slots.size - 1
+            var slot = hash(offsets[index], lengths[index]) and mask
+
+            while (slots[slot] != 0) {
+                slot = (slot + 1) and mask
+            }
+
+            slots[slot] = index + 1
+        }
+    }
+
+    private fun hash(offset: Int, length: Int): Int {
+        var hash = length
+
+        for (i in offset until offset + length) {
+            hash = 31 * hash + bytes[i]
+        }
+
+        // spread the low bits used by the mask
+        return hash xor (hash ushr 16)
+    }
+
+    companion object {
+        private const val INITIAL_CAPACITY = 32
+    }
+}
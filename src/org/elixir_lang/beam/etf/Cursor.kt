@@ -0,0 +1,331 @@
+package org.elixir_lang.beam.etf
+
+import com.ericsson.otp.erlang.OtpErlangAtom
+import com.ericsson.otp.erlang.OtpErlangDecodeException
+import com.ericsson.otp.erlang.OtpErlangObject
+import com.ericsson.otp.erlang.OtpInputStream
+import java.nio.charset.StandardCharsets
+import java.util.zip.DataFormatException
+import java.util.zip.Inflater
+
+/**
+ * Reads External Term Format directly from `bytes` between [position] and `end`, one term at a time, without building
+ * `OtpErlangObject`s unless asked to with [term].
+ *
+ * Compound terms are read header-first: [tupleArity], [listLength] and [mapArity] consume only the header, after which
+ * the elements are read with further calls, or jumped over with [skip].  Readers return `null` (or `-1`) and leave
+ * [position] unchanged when the next term is not of the expected type, so a caller can try another reader or fall back
+ * to [term].
+ */
+class Cursor private constructor(
+        private val bytes: ByteArray,
+        position: Int,
+        private val end: Int,
+        val atomTable: AtomTable
+) {
+    var position: Int = position
+        private set
+
+    fun hasRemaining(): Boolean = position < end
+
+    /**
+     * The tag of the next term, without consuming it
+     */
+    fun tag(): Int {
+        ensure(1)
+
+        return unsignedByte(position)
+    }
+
+    /**
+     * Index of the next term in [atomTable] if it is an atom
+     */
+    fun atomIndex(): Int {
+        val tag = tag()
+        val lengthByteCount = when (tag) {
+            Tag.ATOM, Tag.ATOM_UTF8 -> 2
+            Tag.SMALL_ATOM, Tag.SMALL_ATOM_UTF8 -> 1
+            else -> return -1
+        }
+        val utf8 = tag == Tag.ATOM_UTF8 || tag == Tag.SMALL_ATOM_UTF8
+
+        ensure(1 + lengthByteCount)
+        val length = if (lengthByteCount == 2) unsignedShort(position + 1) else unsignedByte(position + 1)
+        ensure(1 + lengthByteCount + length)
+        position += 1 + lengthByteCount
+
+        val index = atomTable.index(position, length, utf8)
+        position += length
+
+        return index
+    }
+
+    fun atom(): OtpErlangAtom? = atomIndex().takeIf { it >= 0 }?.let { atomTable.atom(it) }
+
+    fun atomName(): String? = atomIndex().takeIf { it >= 0 }?.let { atomTable.name(it) }
+
+    /**
+     * Arity of the next term if it is a tuple, after which the cursor is at the tuple's first element
+     */
+    fun tupleArity(): Int =
+            when (tag()) {
+                Tag.SMALL_TUPLE -> { ensure(2); unsignedByte(position + 1).also { position += 2 } }
+                Tag.LARGE_TUPLE -> { ensure(5); int(position + 1).also { position += 5 } }
+                else -> -1
+            }
+
+    /**
+     * Length of the next term if it is a proper list, after which the cursor is at the list's first element.  The `[]`
+     * tail of a non-empty list is left after the elements and is consumed with [listTail].  Strings (lists of bytes)
+     * are not lists to this reader: read them with [term].
+     */
+    fun listLength(): Int =
+            when (tag()) {
+                Tag.NIL -> 0.also { position += 1 }
+                Tag.LIST -> { ensure(5); int(position + 1).also { position += 5 } }
+                else -> -1
+            }
+
+    /**
+     * Consumes the tail of a list whose elements have been read and returns whether the list was proper.
+     */
+    fun listTail(): Boolean =
+            if (tag() == Tag.NIL) {
+                position += 1
+                true
+            } else {
+                skip()
+                false
+            }
+
+    /**
+     * Arity of the next term if it is a map, after which the cursor is at the first key, followed by its value.
+     */
+    fun mapArity(): Int =
+            when (tag()) {
+                Tag.MAP -> { ensure(5); int(position + 1).also { position += 5 } }
+                else -> -1
+            }
+
+    /**
+     * The next term if it is an integer that fits in a `Long`
+     */
+    fun integer(): Long? =
+            when (tag()) {
+                Tag.SMALL_INTEGER -> { ensure(2); unsignedByte(position + 1).toLong().also { position += 2 } }
+                Tag.INTEGER -> { ensure(5); int(position + 1).toLong().also { position += 5 } }
+                Tag.SMALL_BIG -> { ensure(3); big(unsignedByte(position + 1), position + 2, position + 3) }
+                Tag.LARGE_BIG -> { ensure(6); big(int(position + 1), position + 5, position + 6) }
+                else -> null
+            }
+
+    /**
+     * The next term decoded as UTF-8 if it is a binary.  Unlike `OtpErlangBinary`, the binary's bytes are not copied
+     * first.
+     */
+    fun binaryString(): String? =
+            if (tag() == Tag.BINARY) {
+                ensure(5)
+                val length = int(position + 1)
+                val start = position + 5
+                ensure(5 + length)
+                position = start + length
+
+                String(bytes, start, length, StandardCharsets.UTF_8)
+            } else {
+                null
+            }
+
+    /**
+     * Moves past the next term without decoding it.
+     */
+    fun skip() {
+        var pending = 1
+
+        while (pending > 0) {
+            pending--
+
+            val tag = tag()
+            position += 1
+
+            when (tag) {
+                Tag.ATOM_CACHE_REF, Tag.SMALL_INTEGER -> advance(1)
+                Tag.INTEGER -> advance(4)
+                Tag.NEW_FLOAT -> advance(8)
+                Tag.FLOAT -> advance(31)
+                Tag.ATOM, Tag.ATOM_UTF8 -> advance(unsignedShortAt(0) + 2)
+                Tag.SMALL_ATOM, Tag.SMALL_ATOM_UTF8 -> advance(unsignedByteAt(0) + 1)
+                Tag.STRING -> advance(unsignedShortAt(0) + 2)
+                Tag.BINARY -> advance(intAt(0) + 4)
+                Tag.BIT_BINARY -> advance(intAt(0) + 5)
+                Tag.SMALL_BIG -> advance(unsignedByteAt(0) + 2)
+                Tag.LARGE_BIG -> advance(intAt(0) + 5)
+                Tag.NIL -> Unit
+                Tag.SMALL_TUPLE -> pending += unsignedByteAt(0).also { advance(1) }
+                Tag.LARGE_TUPLE -> pending += intAt(0).also { advance(4) }
+                // elements and tail
+                Tag.LIST -> pending += intAt(0).also { advance(4) } + 1
+                Tag.MAP -> pending += 2 * intAt(0).also { advance(4) }
+                // size includes the size field itself
+                Tag.NEW_FUN -> advance(intAt(0))
+                // module, function, arity
+                Tag.EXPORT -> pending += 3
+                // pid, module, index, uniq, free variables
+                Tag.FUN -> pending += 4 + intAt(0).also { advance(4) }
+                Tag.PID -> { skipNode(); advance(9) }
+                Tag.NEW_PID -> { skipNode(); advance(12) }
+                Tag.PORT -> { skipNode(); advance(5) }
+                Tag.NEW_PORT -> { skipNode(); advance(8) }
+                Tag.REFERENCE -> { skipNode(); advance(5) }
+                Tag.NEW_REFERENCE -> {
+                    val idCount = unsignedShortAt(0)
+                    advance(2)
+                    skipNode()
+                    advance(1 + 4 * idCount)
+                }
+                Tag.NEWER_REFERENCE -> {
+                    val idCount = unsignedShortAt(0)
+                    advance(2)
+                    skipNode()
+                    advance(4 + 4 * idCount)
+                }
+                else -> {
+                    position -= 1
+                    throw OtpErlangDecodeException("Unknown External Term Format tag ($tag) at $position")
+                }
+            }
+        }
+    }
+
+    /**
+     * Decodes the next term into `OtpErlangObject`s.
+     */
+    fun term(): OtpErlangObject {
+        val stream = OtpInputStream(bytes, position, end - position, 0)
+        val term = stream.read_any()
+        position = stream.pos
+
+        return term
+    }
+
+    /**
+     * A cursor at the same [position] that can be moved independently of this one.  It shares [atomTable].
+     */
+    fun copy(): Cursor = Cursor(bytes, position, end, atomTable)
+
+    /**
+     * A cursor at `position`, which must be a [position] this cursor or one of its copies was at, so that an index of
+     * positions can be kept instead of a cursor per term.  It shares [atomTable].
+     */
+    fun at(position: Int): Cursor = Cursor(bytes, position, end, atomTable)
+
+    private fun big(byteCount: Int, signOffset: Int, digitsOffset: Int): Long? =
+            if (byteCount <= 7) {
+                ensure(digitsOffset - position + byteCount)
+                var value = 0L
+
+                // little-endian
+                for (i in byteCount - 1 downTo 0) {
+                    value = value.shl(8).or(unsignedByte(digitsOffset + i).toLong())
+                }
+
+                position = digitsOffset + byteCount
+
+                if (unsignedByte(signOffset) == 0) value else -value
+            } else {
+                null
+            }
+
+    private fun skipNode() {
+        if (atomIndex() < 0) {
+            throw OtpErlangDecodeException("Node is not an atom at $position")
+        }
+    }
+
+    private fun advance(byteCount: Int) {
+        if (byteCount < 0 || position + byteCount > end) {
+            throw OtpErlangDecodeException("Term overruns its ${end - position} remaining bytes at $position")
+        }
+
+        position += byteCount
+    }
+
+    private fun ensure(byteCount: Int) {
+        if (position + byteCount > end) {
+            throw OtpErlangDecodeException("Term overruns its ${end - position} remaining bytes at $position")
+        }
+    }
+
+    private fun unsignedByteAt(relativeOffset: Int): Int {
+        ensure(relativeOffset + 1)
+
+        return unsignedByte(position + relativeOffset)
+    }
+
+    private fun unsignedShortAt(relativeOffset: Int): Int {
+        ensure(relativeOffset + 2)
+
+        return unsignedShort(position + relativeOffset)
+    }
+
+    private fun intAt(relativeOffset: Int): Int {
+        ensure(relativeOffset + 4)
+
+        return int(position + relativeOffset)
+    }
+
+    private fun unsignedByte(offset: Int): Int = bytes[offset].toInt().and(0xFF)
+    private fun unsignedShort(offset: Int): Int = unsignedByte(offset).shl(8).or(unsignedByte(offset + 1))
+    private fun int(offset: Int): Int =
+            unsignedByte(offset).shl(24)
+                    .or(unsignedByte(offset + 1).shl(16))
+                    .or(unsignedByte(offset + 2).shl(8))
+                    .or(unsignedByte(offset + 3))
+
+    companion object {
+        /**
+         * A cursor at the term that was written by `term_to_binary` to `bytes` between `offset` and `end`.  The version
+         * tag is consumed and a compressed term is inflated first.
+         */
+        fun from(bytes: ByteArray, offset: Int, end: Int): Cursor {
+            var position = offset
+
+            if (position < end && bytes[position].toInt().and(0xFF) == Tag.VERSION) {
+                position++
+            }
+
+            return if (position < end && bytes[position].toInt().and(0xFF) == Tag.COMPRESSED) {
+                inflated(bytes, position + 1, end)
+            } else {
+                Cursor(bytes, position, end, AtomTable(bytes))
+            }
+        }
+
+        private fun inflated(bytes: ByteArray, offset: Int, end: Int): Cursor {
+            if (offset + 4 > end) {
+                throw OtpErlangDecodeException("Compressed term is missing its uncompressed size")
+            }
+
+            val size = (bytes[offset].toInt().and(0xFF) shl 24) or
+                    (bytes[offset + 1].toInt().and(0xFF) shl 16) or
+                    (bytes[offset + 2].toInt().and(0xFF) shl 8) or
+                    bytes[offset + 3].toInt().and(0xFF)
+            val inflated = ByteArray(size)
+            val inflater = Inflater()
+
+            try {
+                inflater.setInput(bytes, offset + 4, end - offset - 4)
+
+                if (inflater.inflate(inflated) != size) {
+                    throw OtpErlangDecodeException("Compressed term did not inflate to $size bytes")
+                }
+            } catch (e: DataFormatException) {
+                throw OtpErlangDecodeException("Compressed term could not be inflated: ${e.message}")
+            } finally {
+                inflater.end()
+            }
+
+            return Cursor(inflated, 0, size, AtomTable(inflated))
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.elixir_lang.beam.etf
+
+/**
+ * Tags of the External Term Format.
+ *
+ * http://erlang.org/doc/apps/erts/erl_ext_dist.html
+ */
+object Tag {
+    const val VERSION = 131
+    const val COMPRESSED = 80
+
+    const val NEW_FLOAT = 70
+    const val BIT_BINARY = 77
+    const val ATOM_CACHE_REF = 82
+    const val NEW_PID = 88
+    const val NEW_PORT = 89
+    const val NEWER_REFERENCE = 90
+    const val SMALL_INTEGER = 97
+    const val INTEGER = 98
+    const val FLOAT = 99
+    const val ATOM = 100
+    const val REFERENCE = 101
+    const val PORT = 102
+    const val PID = 103
+    const val SMALL_TUPLE = 104
+    const val LARGE_TUPLE = 105
+    const val NIL = 106
+    const val STRING = 107
+    const val LIST = 108
+    const val BINARY = 109
+    const val SMALL_BIG = 110
+    const val LARGE_BIG = 111
+    const val NEW_FUN = 112
+    const val EXPORT = 113
+    const val NEW_REFERENCE = 114
+    const val SMALL_ATOM = 115
+    const val MAP = 116
+    const val FUN = 117
+    const val ATOM_UTF8 = 118
+    const val SMALL_ATOM_UTF8 = 119
+}
@@ -10,6 +10,8 @@ import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.fileTypes.FileType;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.SimpleModificationTracker;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.*;
 import com.intellij.psi.impl.source.PsiFileImpl;
@@ -28,6 +30,7 @@ import com.intellij.util.IncorrectOperationException;
 import org.elixir_lang.ElixirLanguage;
 import org.elixir_lang.beam.Beam;
 import org.elixir_lang.beam.MacroNameArity;
+import org.elixir_lang.beam.cache.Decompiled;
 import org.elixir_lang.beam.chunk.Atoms;
 import org.elixir_lang.beam.chunk.CallDefinitions;
 import org.elixir_lang.beam.psi.impl.CallDefinitionStubImpl;
@@ -72,6 +75,7 @@ public class BeamFileImpl extends ModuleElementImpl implements ModuleOwner, PsiC
     private final Object mirrorLock = new Object();
     private final Object stubLock = new Object();
     private volatile TreeElement mirrorFileElement;
+    private final SimpleModificationTracker mirrorModificationTracker = new SimpleModificationTracker();
     private SoftReference<StubTree> stub;
 
     public BeamFileImpl(@NotNull FileViewProvider fileViewProvider) {
@@ -87,7 +91,7 @@ public class BeamFileImpl extends ModuleElementImpl implements ModuleOwner, PsiC
         Optional<Beam> beamOptional;
 
         try {
-            beamOptional = Optional.ofNullable(Beam.Companion.from(bytes, path));
+            beamOptional = Optional.ofNullable(Beam.Companion.from(bytes, path, Beam.CALL_DEFINITIONS_TYPE_ID_SET));
         } catch (IOException e) {
             LOGGER.error("IOException during BeamFileImpl.buildFileStub(bytes, " + path + ")",  e);
             beamOptional = Optional.empty();
@@ -614,6 +618,7 @@ public class BeamFileImpl extends ModuleElementImpl implements ModuleOwner, PsiC
 
                     ((PsiFileImpl) mirror).setOriginalFile(this);
                     mirrorFileElement = mirrorTreeElement;
+                    Decompiled.INSTANCE.mirrorBuilt(file);
                 }
             }
         }
@@ -621,6 +626,31 @@ public class BeamFileImpl extends ModuleElementImpl implements ModuleOwner, PsiC
         return mirrorTreeElement.getPsi();
     }
 
+    /**
+     * Incremented each time the mirror is rebuilt, so that caches of mirror elements can depend on it.
+     */
+    @NotNull
+    public ModificationTracker getMirrorModificationTracker() {
+        return mirrorModificationTracker;
+    }
+
+    /**
+     * Parses the mirror again from the decompiled document, such as after the bodies of a definition were expanded,
+     * and links the mirrors of the module elements to the new tree.  Must be called in a write action, so that read
+     * actions never see the module elements linked to a mix of the old and new trees.
+     */
+    public void rebuildMirror() {
+        ApplicationManager.getApplication().assertWriteAccessAllowed();
+
+        synchronized (mirrorLock) {
+            mirrorFileElement = null;
+        }
+
+        mirrorModificationTracker.incModificationCount();
+
+        getMirror();
+    }
+
     @Override
     public void setMirror(@NotNull TreeElement element) throws InvalidMirrorException {
         PsiElement mirrorElement = SourceTreeToPsiMap.treeToPsiNotNull(element);
@@ -5,6 +5,8 @@ import com.intellij.psi.StubBasedPsiElement;
 import com.intellij.psi.impl.source.tree.TreeElement;
 import com.intellij.psi.stubs.IStubElementType;
 import com.intellij.util.IncorrectOperationException;
+import org.elixir_lang.beam.decompiler.Bodies;
+import org.elixir_lang.beam.psi.BeamFileImpl;
 import org.elixir_lang.beam.psi.CallDefinition;
 import org.elixir_lang.beam.psi.stubs.CallDefinitionStub;
 import org.jetbrains.annotations.Contract;
@@ -110,6 +112,18 @@ public class CallDefinitionImpl<T extends CallDefinitionStub> extends ModuleElem
         return getMirror();
     }
 
+    /**
+     * Explicitly navigating to a definition, such as with Go To Declaration, expands its decompiled bodies; see
+     * {@link Bodies}.  {@link #getNavigationElement()} does not, as hovers, the structure view and other lookups call it
+     * without navigating.
+     */
+    @Override
+    public void navigate(boolean requestFocus) {
+        Bodies.Companion.expand((BeamFileImpl) getContainingFile(), exportedName(), exportedArity());
+
+        super.navigate(requestFocus);
+    }
+
     /**
      * @return {@code true}
      */
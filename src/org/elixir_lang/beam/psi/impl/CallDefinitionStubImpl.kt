@@ -1,5 +1,6 @@
 package org.elixir_lang.beam.psi.impl
 
+import org.elixir_lang.ArityRange
 import org.elixir_lang.beam.psi.CallDefinition
 import org.elixir_lang.beam.psi.stubs.CallDefinitionStub
 import org.elixir_lang.beam.psi.stubs.ModuleStub
@@ -65,6 +66,11 @@ class CallDefinitionStubImpl<T : CallDefinition> : StubbicBase<T>, CallDefinitio
 
     override fun callDefinitionClauseHeadArity(): Int = callDefinitionClauseHeadArity
 
+    /**
+     * @return [callDefinitionClauseHeadArity] as each arity is exported separately from a `.beam` file
+     */
+    override fun definedArityRange(): ArityRange = ArityRange(callDefinitionClauseHeadArity, callDefinitionClauseHeadArity)
+
     /**
      * Arity of `def ... do` or `defmacro ... do`.
      *
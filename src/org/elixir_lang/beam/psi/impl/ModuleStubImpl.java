@@ -2,6 +2,7 @@ package org.elixir_lang.beam.psi.impl;
 
 import com.intellij.psi.stubs.StubElement;
 import com.intellij.util.io.StringRef;
+import kotlin.ranges.IntRange;
 import org.elixir_lang.beam.psi.Module;
 import org.elixir_lang.beam.psi.stubs.ModuleStub;
 import org.elixir_lang.beam.psi.stubs.ModuleStubElementTypes;
@@ -50,6 +51,15 @@ public class ModuleStubImpl<T extends Module> extends StubbicBase<T> implements
         assert canonicalNameSet.iterator().next().toString().equals(this.getName());
     }
 
+    /**
+     * @return {@code null} because a module does not define a function or macro
+     */
+    @Nullable
+    @Override
+    public IntRange definedArityRange() {
+        return null;
+    }
+
     /**
      * Arity of {@code defmodule .. do}.
      *
@@ -4,11 +4,14 @@ import com.intellij.codeInsight.lookup.LookupElement
 import com.intellij.lang.parameterInfo.*
 import com.intellij.psi.PsiPolyVariantReference
 import com.intellij.psi.util.PsiTreeUtil
+import org.elixir_lang.beam.chunk.docs.summaries.Index
 import org.elixir_lang.psi.Arguments
 import org.elixir_lang.psi.CallDefinitionClause
 import org.elixir_lang.psi.ElixirTypes
 import org.elixir_lang.psi.call.Call
+import org.elixir_lang.psi.call.CanonicallyNamed
 import org.elixir_lang.psi.impl.call.finalArguments
+import org.elixir_lang.structure_view.element.CallDefinitionClause.Companion.enclosingModularMacroCall
 import org.elixir_lang.structure_view.element.CallDefinitionHead
 import java.util.Collections.singletonList
 
@@ -66,6 +69,7 @@ class ParameterInfo : ParameterInfoHandler<Arguments, Any> {
             var disabled = false
             var start = 0
             var end = 0
+            var summary: String? = null
 
             if (p is Call) {
                 if (CallDefinitionClause.`is`(p)) {
@@ -91,6 +95,7 @@ class ParameterInfo : ParameterInfoHandler<Arguments, Any> {
                                 }
 
                                 disabled = finalArguments.size <= currentParameterIndex
+                                summary = summary(p, finalArguments.size)
                             }
                         } else {
                             TODO()
@@ -105,6 +110,8 @@ class ParameterInfo : ParameterInfoHandler<Arguments, Any> {
                 stringBuilder.append("<no parameters>")
             }
 
+            summary?.let { stringBuilder.append(" - ").append(it) }
+
             context.setupUIComponentPresentation(stringBuilder.toString(), start, end, disabled, false, true,
                     context.defaultParameterColor)
         }
@@ -115,6 +122,16 @@ class ParameterInfo : ParameterInfoHandler<Arguments, Any> {
         TODO("not implemented") //To change body of created functions use File | Settings | File Templates.
     }
 
+    /**
+     * Summary of the documentation of `callDefinitionClause` from the compiled module, without resolving or decoding
+     */
+    private fun summary(callDefinitionClause: Call, arity: Int): String? =
+            (enclosingModularMacroCall(callDefinitionClause) as? CanonicallyNamed)?.canonicalName()?.let { moduleName ->
+                CallDefinitionClause.nameArityRange(callDefinitionClause)?.let { (name, _) ->
+                    Index.summary(callDefinitionClause.project, moduleName, name, arity)?.text()
+                }
+            }
+
     private fun findArguments(context: ParameterInfoContext): Arguments? {
         val elementAtOffset = context.file.findElementAt(context.offset)
 
@@ -7,25 +7,39 @@ import com.intellij.codeInsight.lookup.LookupElement
 import com.intellij.psi.PsiElement
 import com.intellij.psi.PsiWhiteSpace
 import com.intellij.util.ProcessingContext
+import org.elixir_lang.beam.chunk.docs.summaries.Index
 import org.elixir_lang.psi.CallDefinitionClause.nameArityRange
 import org.elixir_lang.psi.ElixirTypes
 import org.elixir_lang.psi.call.Call
+import org.elixir_lang.psi.call.CanonicallyNamed
 import org.elixir_lang.psi.impl.call.macroChildCalls
 import org.elixir_lang.psi.impl.maybeModularNameToModular
 
 class CallDefinitionClause : CompletionProvider<CompletionParameters>() {
-    private fun callDefinitionClauseLookupElements(scope: Call): Iterable<LookupElement> =
-            scope
-                    .macroChildCalls()
-                    .filter { org.elixir_lang.psi.CallDefinitionClause.`is`(it) }
-                    .mapNotNull {
-                        nameArityRange(it)?.let { (name, _) ->
-                            org.elixir_lang.code_insight.lookup.element.CallDefinitionClause.createWithSmartPointer(
-                                    name,
-                                    it
-                            )
+    private fun callDefinitionClauseLookupElements(scope: Call): Iterable<LookupElement> {
+        val moduleName = (scope as? CanonicallyNamed)?.canonicalName()
+        val project = scope.project
+
+        return scope
+                .macroChildCalls()
+                .filter { org.elixir_lang.psi.CallDefinitionClause.`is`(it) }
+                .mapNotNull {
+                    nameArityRange(it)?.let { (name, arityRange) ->
+                        // The index lookup is cheap enough to do for every candidate, unlike decoding the `.beam`
+                        val summary = if (moduleName != null) {
+                            Index.summary(project, moduleName, name, arityRange.last)?.text()
+                        } else {
+                            null
                         }
+
+                        org.elixir_lang.code_insight.lookup.element.CallDefinitionClause.createWithSmartPointer(
+                                name,
+                                it,
+                                summary
+                        )
                     }
+                }
+    }
 
     private fun maybeModularName(parameters: CompletionParameters): PsiElement? =
         parameters.originalPosition?.let { originalPosition ->
@@ -4,10 +4,21 @@ import com.intellij.codeInsight.lookup.LookupElement;
 import com.intellij.codeInsight.lookup.LookupElementBuilder;
 import com.intellij.psi.PsiElement;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class CallDefinitionClause {
     @NotNull
     public static LookupElement createWithSmartPointer(@NotNull String name, @NotNull PsiElement element) {
+        return createWithSmartPointer(name, element, null);
+    }
+
+    /**
+     * @param summary documentation summary shown at the end of the lookup element
+     */
+    @NotNull
+    public static LookupElement createWithSmartPointer(@NotNull String name,
+                                                       @NotNull PsiElement element,
+                                                       @Nullable String summary) {
         return LookupElementBuilder.createWithSmartPointer(
                 name,
                 element
@@ -15,7 +26,8 @@ public class CallDefinitionClause {
                 org.elixir_lang.code_insight.completion.insert_handler.CallDefinitionClause.INSTANCE
         ).withRenderer(
                 new org.elixir_lang.code_insight.lookup.element_renderer.CallDefinitionClause(
-                        name
+                        name,
+                        summary
                 )
         );
     }
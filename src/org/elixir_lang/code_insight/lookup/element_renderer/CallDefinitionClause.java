@@ -10,6 +10,7 @@ import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.psi.PsiElement;
 import org.elixir_lang.psi.call.Call;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class CallDefinitionClause extends com.intellij.codeInsight.lookup.LookupElementRenderer<LookupElement> {
     /*
@@ -18,13 +19,23 @@ public class CallDefinitionClause extends com.intellij.codeInsight.lookup.Lookup
 
     @NotNull
     private final String name;
+    /**
+     * Documentation summary from {@link org.elixir_lang.beam.chunk.docs.summaries.Index}
+     */
+    @Nullable
+    private final String summary;
 
     /*
      * Constructors
      */
 
     public CallDefinitionClause(@NotNull String name) {
+        this(name, null);
+    }
+
+    public CallDefinitionClause(@NotNull String name, @Nullable String summary) {
         this.name = name;
+        this.summary = summary;
     }
 
     /*
@@ -43,6 +54,10 @@ public class CallDefinitionClause extends com.intellij.codeInsight.lookup.Lookup
         } else {
             renderPsiElement(psiElement, presentation);
         }
+
+        if (summary != null) {
+            presentation.setTypeText(summary);
+        }
     }
 
     /*
@@ -48,6 +48,8 @@ import com.intellij.xdebugger.evaluation.XDebuggerEditorsProvider
 import com.intellij.xdebugger.evaluation.XDebuggerEvaluator
 import org.elixir_lang.ElixirFileType
 import org.elixir_lang.beam.chunk.lines.file_names.Index
+import org.elixir_lang.beam.chunk.lines.locations.Location
+import org.elixir_lang.beam.chunk.lines.locations.Index as LocationsIndex
 import org.elixir_lang.beam.term.inspect
 import org.elixir_lang.debugger.configuration.Debuggable
 import org.elixir_lang.debugger.configuration.doNotInterpretPatterns
@@ -172,6 +174,8 @@ class Process(session: XDebugSession, private val executionEnvironment: Executio
     override fun breakpointIsSet(module: String, file: String, line: Int) {}
 
     override fun breakpointReached(pid: OtpErlangPid, snapshots: List<ProcessSnapshot>) {
+        removeRunToPositionBreakpoints()
+
         val processInBreakpoint = ContainerUtil.find(snapshots) { elixirProcessSnapshot -> elixirProcessSnapshot.pid == pid }!!
         val breakPosition = SourcePosition.create(processInBreakpoint)
         val breakpoint = getLineBreakpoint(breakPosition)
@@ -275,26 +279,13 @@ class Process(session: XDebugSession, private val executionEnvironment: Executio
                 is ElixirFile -> // TODO allow multiple module names for `defimpl`
                     element?.getModuleName()?.let { setOf(it) } ?: emptySet()
                 is org.elixir_lang.eex.File -> {
-                    val module = ModuleUtilCore.findModuleForPsiElement(psiFile)
-                    val rootDirectory = ensureWorkingDirectory(project, module)
-
-                    val path = virtualFile.path
-                    try {
-                        java.io.File(path).relativeTo(
-                                java.io.File(rootDirectory)
-                        )
-                    } catch (illegalArgumentException: IllegalArgumentException) {
-                        null
-                    }?.let { relativeFile ->
-                        val filename = relativeFile.path
+                    eexFilename(project, psiFile, virtualFile.path)?.let { filename ->
+                        val scope = GlobalSearchScope.allScope(project)
 
+                        locationsModuleNameSet(filename, breakpointPosition.line, scope) ?:
                         FileBasedIndex
                                 .getInstance()
-                                .getContainingFiles(
-                                        Index.NAME,
-                                        filename,
-                                        GlobalSearchScope.allScope(project)
-                                )
+                                .getContainingFiles(Index.NAME, filename, scope)
                                 .map { fileNameVirtualFile ->
                                     fileNameVirtualFile.name.removePrefix("Elixir.").removeSuffix(".beam")
                                 }
@@ -308,6 +299,43 @@ class Process(session: XDebugSession, private val executionEnvironment: Executio
         emptySet()
     }
 
+    /**
+     * The `path` of an EEx template as given to the compiler: relative to the working directory
+     */
+    private fun eexFilename(project: Project, psiFile: org.elixir_lang.eex.File, path: String): String? {
+        val module = ModuleUtilCore.findModuleForPsiElement(psiFile)
+        val rootDirectory = ensureWorkingDirectory(project, module)
+
+        return try {
+            java.io.File(path).relativeTo(
+                    java.io.File(rootDirectory)
+            )
+        } catch (illegalArgumentException: IllegalArgumentException) {
+            null
+        }?.path
+    }
+
+    /**
+     * The modules compiled from `filename` with code on `sourcePositionLine`, or all modules compiled from `filename` if
+     * none are, so that `:int` can report the line as not executable.
+     *
+     * @return `null` if no `.beam` files compiled from `filename` have been indexed.
+     */
+    private fun locationsModuleNameSet(
+            filename: String,
+            sourcePositionLine: Int,
+            scope: GlobalSearchScope
+    ): Set<String>? {
+        val locationsList = LocationsIndex.locationsList(filename, scope)
+        val line = sourcePositionLineToModuleLine(sourcePositionLine)
+
+        return locationsList
+                .takeUnless { it.isEmpty() }
+                ?.let { all -> all.filter { it.isExecutable(line) }.takeUnless { it.isEmpty() } ?: all }
+                ?.map { it.module.removePrefix("Elixir.") }
+                ?.toSet()
+    }
+
     fun removeBreakpoint(breakpoint: XLineBreakpoint<Properties>) {
        sourcePosition(breakpoint)?.let { breakpointPosition ->
            sourcePositionToBreakpoint.remove(breakpointPosition)
@@ -325,8 +353,84 @@ class Process(session: XDebugSession, private val executionEnvironment: Executio
         node.resume()
     }
 
+    /**
+     * `:int` breakpoints set by [runToPosition], which are removed when any breakpoint is reached
+     */
+    private val runToPositionBreakpoints = ConcurrentHashMap.newKeySet<Pair<OtpErlangAtom, Int>>()
+
+    /**
+     * Sets temporary breakpoints in the functions with code on the first executable line at or after `position`, such
+     * as the next line if `position` is on a comment or `end`, and resumes until one, or any other breakpoint, is
+     * reached.
+     */
     override fun runToPosition(position: XSourcePosition) {
-        //TODO implement me
+        val locations = runToPositionLocations(SourcePosition.create(position))
+
+        if (locations.isNotEmpty()) {
+            for (location in locations) {
+                val sourcePositionLine = location.line - 1
+
+                // a line breakpoint must outlive the run, so it is not set again or removed when reached
+                val hasLineBreakpoint = sourcePositionToBreakpoint.keys.any { sourcePosition ->
+                    sourcePosition.file == position.file && sourcePosition.line == sourcePositionLine
+                }
+
+                if (!hasLineBreakpoint) {
+                    val module = OtpErlangAtom(location.module)
+
+                    if (runToPositionBreakpoints.add(module to location.line)) {
+                        node.setBreakpoint(module, location.line)
+                    }
+                }
+            }
+
+            resume()
+        } else {
+            session.reportMessage(
+                    "No compiled code found at or after ${position.file.presentableUrl} line ${position.line + 1}",
+                    MessageType.WARNING
+            )
+        }
+    }
+
+    /**
+     * @return the functions with code on the first line at or after `sourcePosition` with code in any `.beam` file
+     *   compiled from its file.
+     */
+    private fun runToPositionLocations(sourcePosition: SourcePosition): List<Location> {
+        val project = debuggableConfiguration.getProject()
+        val scope = GlobalSearchScope.allScope(project)
+        val virtualFile = sourcePosition.file
+        // The module's own source is indexed by its absolute path, but EEx templates by the path given to the compiler
+        val path = virtualFile.path.takeIf { LocationsIndex.locationsList(it, scope).isNotEmpty() } ?:
+                (PsiManager.getInstance(project).findFile(virtualFile) as? org.elixir_lang.eex.File)
+                        ?.let { eexFilename(project, it, virtualFile.path) }
+
+        return path?.let { indexedPath ->
+            val line = sourcePositionLineToModuleLine(sourcePosition.line)
+
+            LocationsIndex
+                    .locationsList(indexedPath, scope)
+                    .mapNotNull { it.ceilingLine(line) }
+                    .min()
+                    ?.let { ceilingLine -> LocationsIndex.locations(indexedPath, ceilingLine, scope) }
+        } ?: emptyList()
+    }
+
+    private fun removeRunToPositionBreakpoints() {
+        if (runToPositionBreakpoints.isNotEmpty()) {
+            // off the thread delivering the event, as that thread also receives the replies to `node` calls
+            ApplicationManager.getApplication().executeOnPooledThread {
+                val iterator = runToPositionBreakpoints.iterator()
+
+                while (iterator.hasNext()) {
+                    val (module, line) = iterator.next()
+                    iterator.remove()
+
+                    node.removeBreakpoint(module, line)
+                }
+            }
+        }
     }
 
     private val initialized = AtomicBoolean(false)
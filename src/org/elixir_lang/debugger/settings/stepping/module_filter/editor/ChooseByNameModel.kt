@@ -3,11 +3,11 @@ package org.elixir_lang.debugger.settings.stepping.module_filter.editor
 import com.intellij.ide.util.gotoByName.ChooseByNameModel
 import com.intellij.openapi.project.Project
 import com.intellij.psi.stubs.StubIndex
-import org.elixir_lang.psi.stub.index.AllName
+import org.elixir_lang.psi.stub.index.ModularName
 import javax.swing.DefaultListCellRenderer
 
 class ChooseByNameModel(project: Project): ChooseByNameModel {
-    private val names by lazy { StubIndex.getInstance().getAllKeys(AllName.KEY, project).toTypedArray()  }
+    private val names by lazy { StubIndex.getInstance().getAllKeys(ModularName.KEY, project).toTypedArray()  }
 
     override fun getCheckBoxMnemonic() = 'd'
     override fun getCheckBoxName(): String? = null
@@ -16,7 +16,7 @@ import org.elixir_lang.psi.NamedElement
 import org.elixir_lang.psi.call.Call
 import org.elixir_lang.psi.call.StubBased
 import org.elixir_lang.psi.definition
-import org.elixir_lang.psi.stub.index.AllName
+import org.elixir_lang.psi.stub.index.ModularName
 
 /**
  * Go To Related from source to decompiled version of the same function
@@ -112,7 +112,7 @@ class Provider : GotoRelatedProvider() {
 
     private fun decompiledSet(project: Project, scope: GlobalSearchScope, canonicalName: String): Set<Call> =
         StubIndex.getElements(
-                AllName.KEY,
+                ModularName.KEY,
                 canonicalName,
                 project,
                 scope,
@@ -11,7 +11,7 @@ import org.elixir_lang.psi.NamedElement;
 import org.elixir_lang.psi.QuoteMacro;
 import org.elixir_lang.psi.call.Call;
 import org.elixir_lang.psi.call.StubBased;
-import org.elixir_lang.psi.stub.index.AllName;
+import org.elixir_lang.psi.stub.index.ModularName;
 import org.elixir_lang.structure_view.element.modular.Implementation;
 import org.elixir_lang.structure_view.element.modular.Module;
 import org.elixir_lang.structure_view.element.modular.Protocol;
@@ -46,7 +46,7 @@ public class TestFinder implements com.intellij.testIntegration.TestFinder {
 
                     if (correspondingCanonicalName != null) {
                         Collection<NamedElement> correspondingElements = StubIndex.getElements(
-                                AllName.KEY,
+                                ModularName.KEY,
                                 correspondingCanonicalName,
                                 project,
                                 scope,
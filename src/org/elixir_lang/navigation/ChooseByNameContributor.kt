@@ -13,6 +13,7 @@ import org.elixir_lang.errorreport.Logger
 import org.elixir_lang.psi.AtUnqualifiedNoParenthesesCall
 import org.elixir_lang.psi.NamedElement
 import org.elixir_lang.psi.call.Call
+import org.elixir_lang.psi.stub.index.CallableName
 import org.elixir_lang.structure_view.element.*
 import org.elixir_lang.structure_view.element.modular.Implementation
 import org.elixir_lang.structure_view.element.modular.Module
@@ -22,7 +23,9 @@ import java.util.*
 /**
  * @see [org.intellij.erlang.go.ErlangSymbolContributor](https://github.com/ignatov/intellij-erlang/blob/2f59e59a31ecbb2fbdf9b7a3547fb4f206b0807e/src/org/intellij/erlang/go/ErlangSymbolContributor.java)
  */
-open class ChooseByNameContributor(private val stubIndexKey: StubIndexKey<String, NamedElement>) : ChooseByNameContributor {
+open class ChooseByNameContributor(
+        private vararg val stubIndexKeys: StubIndexKey<String, NamedElement>
+) : ChooseByNameContributor {
     private fun globalSearchScope(project: Project, includeNonProjectItems: Boolean): GlobalSearchScope =
         if (includeNonProjectItems) {
             GlobalSearchScope.allScope(project)
@@ -50,7 +53,11 @@ open class ChooseByNameContributor(private val stubIndexKey: StubIndexKey<String
                                 includeNonProjectItems: Boolean): Array<NavigationItem> {
         val scope = globalSearchScope(project, includeNonProjectItems)
 
-        val result = StubIndex.getElements(stubIndexKey, name, project, scope, NamedElement::class.java)
+        val result = stubIndexKeys.flatMap { stubIndexKey ->
+            StubIndex.getElements(stubIndexKey, name, project, scope, NamedElement::class.java)
+        }
+        // `name/arity` keys of [CallableName] only pick that arity of clauses with default arguments
+        val keyArity = CallableName.arity(name)
         val items = SourcePreferredItems()
         val enclosingModularByCall = EnclosingModularByCall()
         val callDefinitionByTuple = HashMap<CallDefinition.Tuple, CallDefinition>()
@@ -62,6 +69,7 @@ open class ChooseByNameContributor(private val stubIndexKey: StubIndexKey<String
             if (sourceElement is Call) {
                 getItemsByNameFromCall(
                         name,
+                        keyArity,
                         items,
                         enclosingModularByCall,
                         callDefinitionByTuple,
@@ -74,12 +82,13 @@ open class ChooseByNameContributor(private val stubIndexKey: StubIndexKey<String
     }
 
     private fun getItemsByNameFromCall(name: String,
+                                       keyArity: Int?,
                                        items: SourcePreferredItems,
                                        enclosingModularByCall: EnclosingModularByCall,
                                        callDefinitionByTuple: MutableMap<CallDefinition.Tuple, CallDefinition>,
                                        call: Call) {
         when {
-            org.elixir_lang.psi.CallDefinitionClause.`is`(call) -> getItemsFromCallDefinitionClause(items, enclosingModularByCall, callDefinitionByTuple, call)
+            org.elixir_lang.psi.CallDefinitionClause.`is`(call) -> getItemsFromCallDefinitionClause(items, enclosingModularByCall, callDefinitionByTuple, call, keyArity)
             CallDefinitionSpecification.`is`(call) -> getItemsFromCallDefinitionSpecification(items, enclosingModularByCall, call)
             Callback.`is`(call) -> getItemsFromCallback(items, enclosingModularByCall, call)
             Implementation.`is`(call) -> getItemsFromImplementation(name, items, enclosingModularByCall, call)
@@ -103,9 +112,11 @@ open class ChooseByNameContributor(private val stubIndexKey: StubIndexKey<String
             items: SourcePreferredItems,
             enclosingModularByCall: EnclosingModularByCall,
             callDefinitionByTuple: MutableMap<CallDefinition.Tuple, CallDefinition>,
-            call: Call
+            call: Call,
+            keyArity: Int?
     ) {
-        org.elixir_lang.psi.CallDefinitionClause.nameArityRange(call)?.let { (name, arityRange) ->
+        org.elixir_lang.psi.CallDefinitionClause.nameArityRange(call)?.let { (name, definedArityRange) ->
+            val arityRange = definedArityRange.filter { keyArity == null || it == keyArity }
             val time = CallDefinitionClause.time(call)
             val modular = enclosingModularByCall.putNew(call)
 
@@ -241,7 +252,10 @@ open class ChooseByNameContributor(private val stubIndexKey: StubIndexKey<String
      * @return the array of names.
      */
     override fun getNames(project: Project, includeNonProjectItems: Boolean): Array<String> {
-        return ArrayUtil.toStringArray(StubIndex.getInstance().getAllKeys(stubIndexKey, project))
+        val stubIndex = StubIndex.getInstance()
+        val names = stubIndexKeys.flatMapTo(mutableSetOf()) { stubIndex.getAllKeys(it, project) }
+
+        return ArrayUtil.toStringArray(names)
     }
 
     private fun error(userMessage: String, element: PsiElement) =
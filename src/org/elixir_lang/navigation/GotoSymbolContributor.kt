@@ -1,5 +1,11 @@
 package org.elixir_lang.navigation
 
-import org.elixir_lang.psi.stub.index.AllName
+import org.elixir_lang.psi.stub.index.CallableName
+import org.elixir_lang.psi.stub.index.ModularName
+import org.elixir_lang.psi.stub.index.TypespecName
 
-class GotoSymbolContributor : ChooseByNameContributor(AllName.KEY)
+/**
+ * Modules, protocols and implementations by name, and functions, macros, and their `@spec`, `@callback`, and
+ * `@macrocallback` by `name/arity`, so that only the elements of the picked kind and arity are loaded.
+ */
+class GotoSymbolContributor : ChooseByNameContributor(ModularName.KEY, CallableName.KEY, TypespecName.KEY)
@@ -1,5 +1,6 @@
 package org.elixir_lang.psi.scope
 
+import com.intellij.openapi.project.Project
 import com.intellij.openapi.util.Key
 import com.intellij.psi.PsiElement
 import com.intellij.psi.ResolveState
@@ -8,7 +9,6 @@ import com.intellij.psi.util.PsiTreeUtil
 import org.elixir_lang.errorreport.Logger
 import org.elixir_lang.psi.ElixirFile
 import org.elixir_lang.psi.Import
-import org.elixir_lang.psi.Modular
 import org.elixir_lang.psi.Use
 import org.elixir_lang.psi.call.Call
 import org.elixir_lang.psi.call.name.Module.KERNEL
@@ -56,6 +56,14 @@ abstract class CallDefinitionClause : PsiScopeProcessor {
      */
     protected abstract fun keepProcessing(): Boolean
 
+    /**
+     * Only the clauses of the implicit imports whose name starts with the prefix are passed to
+     * [executeOnCallDefinitionClause].
+     *
+     * @return `null` to pass all clauses
+     */
+    protected open fun namePrefix(): String? = null
+
     /*
      * Private Instance Methods
      */
@@ -110,51 +118,37 @@ abstract class CallDefinitionClause : PsiScopeProcessor {
     private fun implicitImports(element: PsiElement, state: ResolveState): Boolean {
         val project = element.project
 
-        var keepProcessing = org.elixir_lang.Reference.forEachNavigationElement(
-                project,
-                KERNEL
-        ) { navigationElement ->
-            var keepProcessingNavigationElements = true
+        return implicitImport(project, KERNEL, state) &&
+                // the implicit `import Kernel.SpecialForms`
+                implicitImport(project, KERNEL_SPECIAL_FORMS, state.put(MODULAR_CANONICAL_NAME, KERNEL_SPECIAL_FORMS))
+    }
 
-            if (navigationElement is Call) {
-                val navigationElementResolveState = state.putVisitedElement(navigationElement)
+    private fun implicitImport(project: Project, modularName: String, state: ResolveState): Boolean {
+        val clausesByName = ImplicitImports.clausesByName(project, modularName)
+        val namePrefix = namePrefix()
+        val candidateClausesByName = if (namePrefix != null) {
+            clausesByName.subMap(namePrefix, true, namePrefix + Character.MAX_VALUE, true)
+        } else {
+            clausesByName
+        }
 
-                keepProcessingNavigationElements = Modular.callDefinitionClauseCallWhile(
-                        navigationElement, navigationElementResolveState
-                ) { callDefinitionClause, accResolveState -> executeOnCallDefinitionClause(callDefinitionClause, accResolveState) }
-            }
+        for (clauses in candidateClausesByName.values) {
+            for (clause in clauses) {
+                val modular = clause.modular ?: continue
+                val callDefinitionClauseCall = clause.call ?: continue
 
-            keepProcessingNavigationElements
-        }
+                if (!state.hasBeenVisited(callDefinitionClauseCall)) {
+                    // as when walking the modular with `Modular.callDefinitionClauseCallWhile`
+                    val clauseState = state.putVisitedElement(modular).putVisitedElement(callDefinitionClauseCall)
 
-        // the implicit `import Kernel.SpecialForms`
-        if (keepProcessing) {
-            val modularCanonicalNameState = state.put(MODULAR_CANONICAL_NAME, KERNEL_SPECIAL_FORMS)
-            keepProcessing = org.elixir_lang.Reference.forEachNavigationElement(
-                    project,
-                    KERNEL_SPECIAL_FORMS
-            ) { navigationElement ->
-                var keepProcessingNavigationElements = true
-
-                if (navigationElement is Call) {
-                    val navigationElementResolveState = modularCanonicalNameState.putVisitedElement(navigationElement)
-
-                    keepProcessingNavigationElements = Modular.callDefinitionClauseCallWhile(
-                            navigationElement,
-                            navigationElementResolveState
-                    ) { callDefinitionClause, accResolveState ->
-                        executeOnCallDefinitionClause(
-                                callDefinitionClause,
-                                accResolveState
-                        )
+                    if (!executeOnCallDefinitionClause(callDefinitionClauseCall, clauseState)) {
+                        return false
                     }
                 }
-
-                keepProcessingNavigationElements
             }
         }
 
-        return keepProcessing
+        return true
     }
 
     companion object {
@@ -166,7 +160,7 @@ abstract class CallDefinitionClause : PsiScopeProcessor {
     }
 }
 
-private val VISITED_ELEMENT_SET = Key<Set<PsiElement>>("VISITED_ELEMENTS")
+private val VISITED_ELEMENT_SET = Key<VisitedElementSet<PsiElement>>("VISITED_ELEMENTS")
 
 fun ResolveState.hasBeenVisited(element: PsiElement): Boolean {
     return this.get(VISITED_ELEMENT_SET).contains(element)
@@ -177,12 +171,11 @@ fun ResolveState.putInitialVisitedElement(visitedElement: PsiElement): ResolveSt
         "VISITED_ELEMENT_SET already populated"
     }
 
-    return this.put(VISITED_ELEMENT_SET, setOf(visitedElement))
+    return this.put(VISITED_ELEMENT_SET, VisitedElementSet.of(visitedElement))
 }
 
 fun ResolveState.putVisitedElement(visitedElement: PsiElement): ResolveState {
     val visitedElementSet = this.get(VISITED_ELEMENT_SET)
 
-    return this.put(VISITED_ELEMENT_SET, visitedElementSet + setOf(visitedElement))
+    return this.put(VISITED_ELEMENT_SET, visitedElementSet + visitedElement)
 }
-
@@ -0,0 +1,119 @@
+package org.elixir_lang.psi.scope
+
+import com.intellij.openapi.project.DumbService
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.roots.ProjectRootManager
+import com.intellij.openapi.util.Key
+import com.intellij.psi.SmartPointerManager
+import com.intellij.psi.SmartPsiElementPointer
+import com.intellij.psi.util.CachedValue
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
+import org.elixir_lang.Name
+import org.elixir_lang.beam.psi.BeamFileImpl
+import org.elixir_lang.psi.CallDefinitionClause
+import org.elixir_lang.psi.Modular
+import org.elixir_lang.psi.call.Call
+import org.elixir_lang.psi.call.name.Module.KERNEL
+import org.elixir_lang.psi.call.name.Module.KERNEL_SPECIAL_FORMS
+import java.util.*
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * The call definition clauses of the implicit `import Kernel` and `import Kernel.SpecialForms` by name, so that
+ * resolving an unqualified call looks up the name instead of walking all the clauses of `Kernel` and
+ * `Kernel.SpecialForms`.
+ *
+ * `Kernel` and `Kernel.SpecialForms` come from the SDK, so the table of each is built lazily on first use and kept
+ * until the project roots, which include the SDK roots, change, or the mirror of their `.beam` file is rebuilt.
+ *
+ * The clauses are held by [SmartPsiElementPointer]s, so the table does not keep the PSI of a physical source file, such
+ * as the `Kernel` source in Elixir itself, alive.  The mirror of a `.beam` file is not physical, so its pointers hold
+ * the mirror's elements directly and the table keeps the mirror alive until the table is dropped; the mirror is also
+ * held by its [BeamFileImpl] for as long as the `.beam` file's PSI is alive, which it is while `Kernel` is used.
+ */
+object ImplicitImports {
+    /**
+     * A call definition clause of a modular named [KERNEL] or [KERNEL_SPECIAL_FORMS] and that modular
+     */
+    class Clause(
+            private val modularPointer: SmartPsiElementPointer<Call>,
+            private val callPointer: SmartPsiElementPointer<Call>
+    ) {
+        /**
+         * `null` if it is no longer valid
+         */
+        val modular: Call?
+            get() = modularPointer.element?.takeIf { it.isValid }
+
+        /**
+         * `null` if it is no longer valid
+         */
+        val call: Call?
+            get() = callPointer.element?.takeIf { it.isValid }
+    }
+
+    /**
+     * @param modularName [KERNEL] or [KERNEL_SPECIAL_FORMS]
+     * @return the clauses of all modulars named `modularName` by name, sorted by name so that a prefix can be looked up
+     *   with [NavigableMap.subMap].
+     */
+    fun clausesByName(project: Project, modularName: Name): NavigableMap<Name, List<Clause>> =
+            CachedValuesManager
+                    .getManager(project)
+                    .getCachedValue(
+                            project,
+                            keyByModularName.computeIfAbsent(modularName) { Key.create("IMPLICIT_IMPORT $it") },
+                            { provide(project, modularName) },
+                            false
+                    )
+
+    private fun provide(project: Project, modularName: Name): CachedValueProvider.Result<NavigableMap<Name, List<Clause>>> {
+        val smartPointerManager = SmartPointerManager.getInstance(project)
+        val clausesByName = TreeMap<Name, MutableList<Clause>>()
+        val dependencies = mutableListOf<Any>(
+                ProjectRootManager.getInstance(project),
+                // `Kernel` can't be found in the index while indexing
+                DumbService.getInstance(project).modificationTracker
+        )
+
+        org.elixir_lang.Reference.forEachNavigationElement(project, modularName) { navigationElement ->
+            if (navigationElement is Call) {
+                // A project that has the source of `Kernel`, such as Elixir itself, can change it without changing roots
+                navigationElement.containingFile?.let { file ->
+                    dependencies.add(file)
+
+                    // The clauses of a `.beam` file are in its mirror, which is replaced when it is rebuilt
+                    (file.originalFile as? BeamFileImpl)?.let { beamFile ->
+                        dependencies.add(beamFile)
+                        dependencies.add(beamFile.mirrorModificationTracker)
+                    }
+                }
+
+                val modularPointer = smartPointerManager.createSmartPsiElementPointer(navigationElement)
+
+                Modular.callDefinitionClauseCallSequence(navigationElement).forEach { callDefinitionClauseCall ->
+                    CallDefinitionClause.nameArityRange(callDefinitionClauseCall)?.let { (name, _) ->
+                        clausesByName
+                                .getOrPut(name) { mutableListOf() }
+                                .add(
+                                        Clause(
+                                                modularPointer,
+                                                smartPointerManager.createSmartPsiElementPointer(callDefinitionClauseCall)
+                                        )
+                                )
+                    }
+                }
+            }
+
+            true
+        }
+
+        return CachedValueProvider.Result.create(
+                Collections.unmodifiableNavigableMap<Name, List<Clause>>(clausesByName),
+                dependencies
+        )
+    }
+
+    private val keyByModularName = ConcurrentHashMap<Name, Key<CachedValue<NavigableMap<Name, List<Clause>>>>>()
+}
@@ -0,0 +1,82 @@
+package org.elixir_lang.psi.scope
+
+/**
+ * An immutable set of the elements visited while walking imports, uses, and modulars during resolution.
+ *
+ * Adding an element allocates one node that shares all the elements added before it, instead of copying them into a
+ * new set, so each step down the walk is constant space.  The nodes are grouped into segments of up to
+ * [SEGMENT_SIZE] elements, each with a bloom filter of its elements, so [contains] only compares elements in the
+ * segments whose filter matches.
+ */
+class VisitedElementSet<E : Any> private constructor(
+        private val element: E,
+        private val previous: VisitedElementSet<E>?,
+        /**
+         * Bloom filter of the elements from this node back to the first node of its segment.
+         */
+        private val segmentBloom: Long,
+        /**
+         * The number of elements from this node back to the first node of its segment.
+         */
+        private val segmentSize: Int,
+        /**
+         * The last node of the previous segment.
+         */
+        private val previousSegment: VisitedElementSet<E>?,
+        val size: Int
+) {
+    operator fun contains(element: E): Boolean {
+        val bloom = bloom(element)
+        var segment: VisitedElementSet<E>? = this
+
+        while (segment != null) {
+            if (segment.segmentBloom and bloom == bloom) {
+                var node: VisitedElementSet<E>? = segment
+
+                for (i in 0 until segment.segmentSize) {
+                    if (node!!.element == element) {
+                        return true
+                    }
+
+                    node = node.previous
+                }
+            }
+
+            segment = segment.previousSegment
+        }
+
+        return false
+    }
+
+    operator fun plus(element: E): VisitedElementSet<E> =
+            when {
+                contains(element) -> this
+                segmentSize < SEGMENT_SIZE ->
+                    VisitedElementSet(
+                            element,
+                            this,
+                            segmentBloom or bloom(element),
+                            segmentSize + 1,
+                            previousSegment,
+                            size + 1
+                    )
+                else -> VisitedElementSet(element, this, bloom(element), 1, this, size + 1)
+            }
+
+    companion object {
+        const val SEGMENT_SIZE = 16
+
+        @JvmStatic
+        fun <E : Any> of(element: E): VisitedElementSet<E> =
+                VisitedElementSet(element, null, bloom(element), 1, null, 1)
+
+        /**
+         * Two bits of the 64-bit filter picked from the spread hash code of `element`
+         */
+        private fun bloom(element: Any): Long {
+            val hash = element.hashCode() * -0x61c88647
+
+            return (1L shl (hash ushr 26)) or (1L shl ((hash ushr 20) and 63))
+        }
+    }
+}
@@ -9,14 +9,17 @@ import com.intellij.psi.stubs.StubIndex;
 import com.intellij.util.containers.ContainerUtil;
 import org.elixir_lang.psi.NamedElement;
 import org.elixir_lang.psi.scope.Atom;
-import org.elixir_lang.psi.stub.index.AllName;
+import org.elixir_lang.psi.stub.index.ModularName;
+import org.elixir_lang.psi.stub.index.NamePrefix;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Variants extends Atom {
     @NotNull
@@ -26,26 +29,21 @@ public class Variants extends Atom {
 
     private List<LookupElement> projectLookupElementStream(@NotNull PsiElement entrance) {
         Project project = entrance.getProject();
-        /* getAllKeys is not the actual keys in the actual project.  They need to be checked.
-           See https://intellij-support.jetbrains.com/hc/en-us/community/posts/207930789-StubIndex-persisting-between-test-runs-leading-to-incorrect-completions */
-        Collection<String> indexedNameCollection = StubIndex.getInstance().getAllKeys(AllName.KEY, project);
         GlobalSearchScope scope = GlobalSearchScope.allScope(project);
-
-        Collection<String> atomNameCollection = atomNameCollection(indexedNameCollection);
         String prefix = prefix(entrance);
-        Collection<String> prefixedNameCollection = prefixedNameCollection(atomNameCollection, prefix);
+        Map<String, ? extends Collection<NamedElement>> atomNamedElementsByName =
+                NamePrefix.namedElementsByName(project, scope, prefix, Variants::isAtomName);
+
+        if (atomNamedElementsByName == null) {
+            atomNamedElementsByName = allAtomNamedElementsByName(project, scope, prefix);
+        }
+
         List<LookupElement> lookupElementList = new ArrayList<>();
 
-        for (String atomName : prefixedNameCollection) {
-            Collection<NamedElement> atomNamedElementCollection = StubIndex.getElements(
-                    AllName.KEY,
-                    atomName,
-                    project,
-                    scope,
-                    NamedElement.class
-            );
+        for (Map.Entry<String, ? extends Collection<NamedElement>> entry : atomNamedElementsByName.entrySet()) {
+            String atomName = entry.getKey();
 
-            for (NamedElement atomNamedElement : atomNamedElementCollection) {
+            for (NamedElement atomNamedElement : entry.getValue()) {
                 PsiElement navigationElement = atomNamedElement.getNavigationElement();
                 lookupElementList.add(
                         LookupElementBuilder.createWithSmartPointer(atomName, navigationElement)
@@ -56,6 +54,30 @@ public class Variants extends Atom {
         return lookupElementList;
     }
 
+    /**
+     * All atoms in {@link ModularName}, for when there is no prefix to look up in {@link NamePrefix}.
+     */
+    @NotNull
+    private Map<String, Collection<NamedElement>> allAtomNamedElementsByName(@NotNull Project project,
+                                                                             @NotNull GlobalSearchScope scope,
+                                                                             @NotNull String prefix) {
+        /* getAllKeys is not the actual keys in the actual project.  They need to be checked.
+           See https://intellij-support.jetbrains.com/hc/en-us/community/posts/207930789-StubIndex-persisting-between-test-runs-leading-to-incorrect-completions */
+        Collection<String> indexedNameCollection = StubIndex.getInstance().getAllKeys(ModularName.KEY, project);
+        Collection<String> atomNameCollection = atomNameCollection(indexedNameCollection);
+        Collection<String> prefixedNameCollection = prefixedNameCollection(atomNameCollection, prefix);
+        Map<String, Collection<NamedElement>> atomNamedElementsByName = new HashMap<>();
+
+        for (String atomName : prefixedNameCollection) {
+            atomNamedElementsByName.put(
+                    atomName,
+                    StubIndex.getElements(ModularName.KEY, atomName, project, scope, NamedElement.class)
+            );
+        }
+
+        return atomNamedElementsByName;
+    }
+
     @Contract(pure = true)
     @NotNull
     private Collection<String> prefixedNameCollection(Collection<String> atomNameCollection, String prefix) {
@@ -31,6 +31,11 @@ private constructor(private val name: String,
         } ?: true
 
     override fun keepProcessing(): Boolean = resolveResultOrderedSet.keepProcessing(incompleteCode)
+
+    /**
+     * Names that only start with [name] are still resolved, as invalid results, for incomplete code.
+     */
+    override fun namePrefix(): String? = name
     fun resolveResults(): Array<PsiElementResolveResult> = resolveResultOrderedSet.toTypedArray()
 
     private val resolveResultOrderedSet = ResolveResultOrderedSet()
@@ -17,7 +17,7 @@ import org.elixir_lang.psi.impl.call.finalArguments
 import org.elixir_lang.psi.impl.stripAccessExpression
 import org.elixir_lang.psi.scope.Module
 import org.elixir_lang.psi.scope.ResolveResultOrderedSet
-import org.elixir_lang.psi.stub.index.AllName
+import org.elixir_lang.psi.stub.index.ModularName
 import org.elixir_lang.reference.module.UnaliasedName
 import java.util.*
 
@@ -112,7 +112,7 @@ class MultiResolve internal constructor(private val name: String, private val in
                 emptyList()
             } else {
                 StubIndex.getElements(
-                        AllName.KEY,
+                        ModularName.KEY,
                         unaliasedName,
                         project,
                         GlobalSearchScope.allScope(project),
@@ -2,22 +2,22 @@ package org.elixir_lang.psi.scope.module
 
 import com.intellij.codeInsight.lookup.LookupElement
 import com.intellij.codeInsight.lookup.LookupElementBuilder
+import com.intellij.openapi.project.Project
 import com.intellij.psi.PsiElement
 import com.intellij.psi.PsiNamedElement
 import com.intellij.psi.ResolveState
 import com.intellij.psi.search.GlobalSearchScope
 import com.intellij.psi.stubs.StubIndex
 import com.intellij.psi.util.PsiTreeUtil.treeWalkUp
-import com.intellij.util.containers.ContainerUtil
 import org.elixir_lang.Module.concat
 import org.elixir_lang.Module.split
-import org.elixir_lang.Reference.indexedNameCollection
 import org.elixir_lang.psi.*
 import org.elixir_lang.psi.call.Named
 import org.elixir_lang.psi.impl.ElixirPsiImplUtil.ENTRANCE
 import org.elixir_lang.psi.operation.Normalized
 import org.elixir_lang.psi.scope.Module
-import org.elixir_lang.psi.stub.index.AllName
+import org.elixir_lang.psi.stub.index.ModularName
+import org.elixir_lang.psi.stub.index.NamePrefix
 import org.elixir_lang.reference.module.UnaliasedName
 
 class Variants : Module() {
@@ -47,47 +47,32 @@ class Variants : Module() {
 
         UnaliasedName.unaliasedName(match)?.let { unaliasedName ->
             val project = match.project
+            val scope = GlobalSearchScope.allScope(project)
+            val unaliasedNestedNamedElementsByName = NamePrefix.nestedNamedElementsByName(project, scope, unaliasedName)
 
-            val indexedNameCollection = indexedNameCollection(project)
-            val unaliasedNestedNames = ContainerUtil.findAll(
-                    indexedNameCollection,
-                    org.elixir_lang.Module.IsNestedUnder(unaliasedName)
-            )
+            if (unaliasedNestedNamedElementsByName.isNotEmpty()) {
+                val unaliasedNamePartList = split(unaliasedName)
+                val aliasedNamePartList = split(aliasedName)
+
+                for ((unaliasedNestedName, unaliasedNestedNamedElementCollection) in unaliasedNestedNamedElementsByName) {
+                    val unaliasedNestedNamePartList = split(unaliasedNestedName)
+                    val aliasedNestedNamePartList = mutableListOf<String>()
 
-            if (unaliasedNestedNames.isNotEmpty()) {
-                val scope = GlobalSearchScope.allScope(project)
-
-                for (unaliasedNestedName in unaliasedNestedNames) {
-                    val unaliasedNestedNamedElementCollection = StubIndex.getElements(
-                            AllName.KEY,
-                            unaliasedNestedName,
-                            project,
-                            scope,
-                            NamedElement::class.java
-                    )
-
-                    if (unaliasedNestedNamedElementCollection.isNotEmpty()) {
-                        val unaliasedNestedNamePartList = split(unaliasedNestedName)
-                        val unaliasedNamePartList = split(unaliasedName)
-                        val aliasedNamePartList = split(aliasedName)
-                        val aliasedNestedNamePartList = mutableListOf<String>()
-
-                        aliasedNestedNamePartList.addAll(aliasedNamePartList)
-
-                        for (i in unaliasedNamePartList.size until unaliasedNestedNamePartList.size) {
-                            aliasedNestedNamePartList.add(unaliasedNestedNamePartList[i])
-                        }
-
-                        val aliasedNestedName = concat(aliasedNestedNamePartList)
-
-                        for (unaliasedNestedNamedElement in unaliasedNestedNamedElementCollection) {
-                            lookupElementList.add(
-                                    LookupElementBuilder.createWithSmartPointer(
-                                            aliasedNestedName,
-                                            unaliasedNestedNamedElement
-                                    )
-                            )
-                        }
+                    aliasedNestedNamePartList.addAll(aliasedNamePartList)
+
+                    for (i in unaliasedNamePartList.size until unaliasedNestedNamePartList.size) {
+                        aliasedNestedNamePartList.add(unaliasedNestedNamePartList[i])
+                    }
+
+                    val aliasedNestedName = concat(aliasedNestedNamePartList)
+
+                    for (unaliasedNestedNamedElement in unaliasedNestedNamedElementCollection) {
+                        lookupElementList.add(
+                                LookupElementBuilder.createWithSmartPointer(
+                                        aliasedNestedName,
+                                        unaliasedNestedNamedElement
+                                )
+                        )
                     }
                 }
             }
@@ -102,25 +87,15 @@ class Variants : Module() {
     private fun projectNameElements(entrance: PsiElement): List<LookupElement> {
         val project = entrance.project
         val prefix = multipleAliases.indexedNamePrefix()
-        /* getAllKeys is not the actual keys in the actual project.  They need to be checked.
-           See https://intellij-support.jetbrains.com/hc/en-us/community/posts/207930789-StubIndex-persisting-between-test-runs-leading-to-incorrect-completions */
-        val prefixedNameCollection = StubIndex.getInstance()
-                .getAllKeys(AllName.KEY, project)
-                .filter(String::isAlias)
-                .filterStartsWithMaybe(prefix)
-
         val scope = GlobalSearchScope.allScope(project)
+        val prefixedNamedElementsByName = prefix?.let {
+            NamePrefix.namedElementsByName(project, scope, it, String::isAlias)
+        } ?: allNamedElementsByName(project, scope)
 
-        return prefixedNameCollection.flatMap { prefixedName ->
+        return prefixedNamedElementsByName.flatMap { (prefixedName, prefixedNameNamedElements) ->
             val lookupName = prefixedName.removeMaybePrefix(prefix)
 
-            StubIndex.getElements(
-                    AllName.KEY,
-                    prefixedName,
-                    project,
-                    scope,
-                    NamedElement::class.java
-            ).map { prefixedNameNamedElement ->
+            prefixedNameNamedElements.map { prefixedNameNamedElement ->
                 /* Generalizes over whether the prefixedNameNamedElement is a source element or a compiled element as
                    the navigation element is defined to be always be a source element */
                 val navigationElement = prefixedNameNamedElement.navigationElement
@@ -133,6 +108,20 @@ class Variants : Module() {
         }
     }
 
+    /**
+     * All aliases in [ModularName], for when there is no prefix to look up in [NamePrefix].
+     */
+    private fun allNamedElementsByName(project: Project,
+                                       scope: GlobalSearchScope): Map<String, Collection<NamedElement>> =
+            /* getAllKeys is not the actual keys in the actual project.  They need to be checked.
+               See https://intellij-support.jetbrains.com/hc/en-us/community/posts/207930789-StubIndex-persisting-between-test-runs-leading-to-incorrect-completions */
+            StubIndex.getInstance()
+                    .getAllKeys(ModularName.KEY, project)
+                    .filter(String::isAlias)
+                    .associate { name ->
+                        name to StubIndex.getElements(ModularName.KEY, name, project, scope, NamedElement::class.java)
+                    }
+
     private fun execute(match: ElixirMultipleAliases): Boolean {
         multipleAliases = match
 
@@ -167,12 +156,6 @@ private fun ElixirMultipleAliases?.indexedNamePrefix(): String? =
             )!!.indexNamePrefix()
         }
 
-private fun List<String>.filterStartsWithMaybe(maybePrefix: String?): List<String> =
-        maybePrefix?.let { prefix ->
-            filter { element -> element.startsWith(prefix) }
-        } ?:
-        this
-
 private fun ElixirAccessExpression.indexNamePrefix(): String? =
         children.singleOrNull()?.indexNamePrefix()
 
@@ -5,6 +5,7 @@ import com.intellij.psi.stubs.StubInputStream;
 import com.intellij.psi.stubs.StubOutputStream;
 import com.intellij.util.io.StringRef;
 import gnu.trove.THashSet;
+import kotlin.ranges.IntRange;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -41,6 +42,8 @@ public class Deserialized {
 
     @NotNull
     public final Set<StringRef> canonicalNameSet;
+    @Nullable
+    public final IntRange definedArityRange;
     public final boolean hasDoBlockOrKeyword;
     @NotNull
     public final StringRef name;
@@ -55,13 +58,15 @@ public class Deserialized {
                         int resolvedFinalArity,
                         boolean hasDoBlockOrKeyword,
                         @NotNull StringRef name,
-                        @NotNull Set<StringRef> canonicalNameSet) {
+                        @NotNull Set<StringRef> canonicalNameSet,
+                        @Nullable IntRange definedArityRange) {
         this.resolvedModuleName = resolvedModuleName;
         this.resolvedFunctionName = resolvedFunctionName;
         this.resolvedFinalArity = resolvedFinalArity;
         this.hasDoBlockOrKeyword = hasDoBlockOrKeyword;
         this.name = name;
         this.canonicalNameSet = canonicalNameSet;
+        this.definedArityRange = definedArityRange;
     }
 
     public <T extends Stubbic> Deserialized(@NotNull T stubbic) {
@@ -71,7 +76,8 @@ public class Deserialized {
                 stubbic.resolvedFinalArity(),
                 stubbic.hasDoBlockOrKeyword(),
                 StringRef.fromNullableString(stubbic.getName()),
-                stringRefSet(stubbic.canonicalNameSet())
+                stringRefSet(stubbic.canonicalNameSet()),
+                stubbic.definedArityRange()
         );
     }
 
@@ -98,6 +104,7 @@ public class Deserialized {
         boolean hasDoBlockOrKeyword = deserializeHasDoBlockOrKeyword(stubInputStream);
         StringRef name = deserializeName(stubInputStream);
         Set<StringRef> canonicalNameSet = deserializeCanonicalNameSet(stubInputStream);
+        IntRange definedArityRange = deserializeDefinedArityRange(stubInputStream);
 
         assertGuard(stubInputStream, END);
 
@@ -107,7 +114,8 @@ public class Deserialized {
                 resolvedFinalArity,
                 hasDoBlockOrKeyword,
                 name,
-                canonicalNameSet
+                canonicalNameSet,
+                definedArityRange
         );
     }
 
@@ -116,6 +124,12 @@ public class Deserialized {
         return readGuarded(stubInputStream, Deserialized::readNameSet);
     }
 
+    @Nullable
+    private static IntRange deserializeDefinedArityRange(@NotNull StubInputStream stubInputStream)
+            throws IOException {
+        return readGuarded(stubInputStream, Deserialized::readArityRange);
+    }
+
     private static boolean deserializeHasDoBlockOrKeyword(@NotNull StubInputStream stubInputStream) throws IOException {
         return readGuarded(stubInputStream, StubInputStream::readBoolean);
     }
@@ -157,6 +171,21 @@ public class Deserialized {
         return read;
     }
 
+    @Nullable
+    private static IntRange readArityRange(@NotNull StubInputStream dataStream) throws IOException {
+        IntRange arityRange;
+
+        if (dataStream.readBoolean()) {
+            int start = dataStream.readVarInt();
+            int endInclusive = dataStream.readVarInt();
+            arityRange = new IntRange(start, endInclusive);
+        } else {
+            arityRange = null;
+        }
+
+        return arityRange;
+    }
+
     private static StringRef readGuardedName(@NotNull StubInputStream stubInputStream) throws IOException {
         return readGuarded(stubInputStream, StubInputStream::readName);
     }
@@ -272,6 +301,7 @@ public class Deserialized {
                     serializeHasDoBlockOrKeyword(guardedStubOutputStream);
                     serializeName(guardedStubOutputStream);
                     serializeCanonicalNameSet(guardedStubOutputStream);
+                    serializeDefinedArityRange(guardedStubOutputStream);
                 }
         );
     }
@@ -283,6 +313,20 @@ public class Deserialized {
         );
     }
 
+    private void serializeDefinedArityRange(@NotNull StubOutputStream stubOutputStream) throws IOException {
+        writeGuarded(
+                stubOutputStream,
+                guardedStubOutputStream -> {
+                    guardedStubOutputStream.writeBoolean(definedArityRange != null);
+
+                    if (definedArityRange != null) {
+                        guardedStubOutputStream.writeVarInt(definedArityRange.getFirst());
+                        guardedStubOutputStream.writeVarInt(definedArityRange.getLast());
+                    }
+                }
+        );
+    }
+
     private void serializeHasDoBlockOrKeyword(@NotNull StubOutputStream stubOutputStream) throws IOException {
         writeGuarded(
                 stubOutputStream,
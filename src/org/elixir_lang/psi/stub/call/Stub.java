@@ -6,6 +6,7 @@ import com.intellij.psi.stubs.NamedStubBase;
 import com.intellij.psi.stubs.StubElement;
 import com.intellij.util.containers.SmartHashSet;
 import com.intellij.util.io.StringRef;
+import kotlin.ranges.IntRange;
 import org.elixir_lang.psi.Definition;
 import org.elixir_lang.psi.call.Call;
 import org.jetbrains.annotations.NotNull;
@@ -42,6 +43,8 @@ public class Stub<T extends org.elixir_lang.psi.call.StubBased> extends NamedStu
      */
 
     private final Set<StringRef> canonicalNameSet;
+    @Nullable
+    private final IntRange definedArityRange;
     private final boolean hasDoBlockOrKeyword;
     private final int resolvedFinalArity;
     private final StringRef resolvedFunctionName;
@@ -61,7 +64,8 @@ public class Stub<T extends org.elixir_lang.psi.call.StubBased> extends NamedStu
                 int resolvedFinalArity,
                 boolean hasDoBlockOrKeyword,
                 @NotNull String name,
-                @NotNull Set<String> canonicalNameSet) {
+                @NotNull Set<String> canonicalNameSet,
+                @Nullable IntRange definedArityRange) {
         this(
                 parent,
                 elementType,
@@ -70,7 +74,8 @@ public class Stub<T extends org.elixir_lang.psi.call.StubBased> extends NamedStu
                 resolvedFinalArity,
                 hasDoBlockOrKeyword,
                 StringRef.fromString(name),
-                setStringToSetStringRef(canonicalNameSet)
+                setStringToSetStringRef(canonicalNameSet),
+                definedArityRange
         );
     }
 
@@ -85,7 +90,8 @@ public class Stub<T extends org.elixir_lang.psi.call.StubBased> extends NamedStu
                 deserialized.resolvedFinalArity,
                 deserialized.hasDoBlockOrKeyword,
                 deserialized.name,
-                deserialized.canonicalNameSet
+                deserialized.canonicalNameSet,
+                deserialized.definedArityRange
         );
     }
 
@@ -96,9 +102,11 @@ public class Stub<T extends org.elixir_lang.psi.call.StubBased> extends NamedStu
                 int resolvedFinalArity,
                 boolean hasDoBlockOrKeyword,
                 @NotNull StringRef name,
-                @NotNull Set<StringRef> canonicalNameSet) {
+                @NotNull Set<StringRef> canonicalNameSet,
+                @Nullable IntRange definedArityRange) {
         super(parent, elementType, name);
         this.canonicalNameSet = canonicalNameSet;
+        this.definedArityRange = definedArityRange;
         this.hasDoBlockOrKeyword = hasDoBlockOrKeyword;
         this.resolvedFinalArity = resolvedFinalArity;
         this.resolvedFunctionName = resolvedFunctionName;
@@ -121,6 +129,18 @@ public class Stub<T extends org.elixir_lang.psi.call.StubBased> extends NamedStu
         return setStringRefToSetString(canonicalNameSet);
     }
 
+    /**
+     * The arities of the function or macro that this call defines, delegates, specifies, or declares as a callback.
+     *
+     * @return {@code null} if this call does not define, delegate, specify, or declare a callback for a function or
+     *   macro.
+     */
+    @Nullable
+    @Override
+    public IntRange definedArityRange() {
+        return definedArityRange;
+    }
+
     /**
      * Whether this call has a {@code do} block or a {@code :do} keyword, so it is a macro
      *
@@ -1,6 +1,7 @@
 package org.elixir_lang.psi.stub.call
 
 import com.intellij.psi.PsiReference
+import org.elixir_lang.ArityRange
 import org.elixir_lang.psi.Definition
 import org.elixir_lang.psi.call.Call
 
@@ -16,6 +17,13 @@ interface Stubbic {
      */
     fun canonicalNameSet(): Set<String>
 
+    /**
+     * The arities of the function or macro that this call defines, delegates, specifies, or declares as a callback.
+     *
+     * @return `null` if this call does not define, delegate, specify, or declare a callback for a function or macro.
+     */
+    fun definedArityRange(): ArityRange?
+
     /**
      * Whether this call has a `do` block or a `:do` keyword, so it is a macro
      *
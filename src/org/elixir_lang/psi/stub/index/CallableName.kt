@@ -0,0 +1,52 @@
+package org.elixir_lang.psi.stub.index
+
+import com.intellij.openapi.project.Project
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.stubs.StringStubIndexExtension
+import com.intellij.psi.stubs.StubIndex
+import com.intellij.psi.stubs.StubIndexKey
+import org.elixir_lang.Arity
+import org.elixir_lang.ArityRange
+import org.elixir_lang.Name
+import org.elixir_lang.psi.NamedElement
+
+/**
+ * Indexes the functions and macros defined by `def`, `defp`, `defmacro`, `defmacrop`, and `defdelegate`, and those
+ * decompiled from `.beam` files, by `name/arity`.  A clause with default arguments is indexed under each of its arities.
+ */
+class CallableName : StringStubIndexExtension<NamedElement>() {
+    override fun getVersion(): Int = super.getVersion() + VERSION
+
+    override fun getKey(): StubIndexKey<String, NamedElement> = KEY
+
+    companion object {
+        @JvmField
+        val KEY = StubIndexKey.createIndexKey<String, NamedElement>("elixir.callable.name")
+
+        @JvmStatic
+        fun key(name: Name, arity: Arity): String = "$name/$arity"
+
+        @JvmStatic
+        fun keySet(name: Name, arityRange: ArityRange): Set<String> = arityRange.mapTo(mutableSetOf()) { key(name, it) }
+
+        /**
+         * @return the arity of a [key]; `null` if `key` is not a `name/arity` key, such as a module name.
+         */
+        @JvmStatic
+        fun arity(key: String): Arity? =
+                key.lastIndexOf('/').takeIf { it > 0 }?.let { key.substring(it + 1).toIntOrNull() }
+
+        /**
+         * @return the clauses, delegation heads, and decompiled definitions of the `name/arity` function or macro in any
+         *   module.
+         */
+        @JvmStatic
+        fun namedElements(project: Project,
+                          scope: GlobalSearchScope,
+                          name: Name,
+                          arity: Arity): Collection<NamedElement> =
+                StubIndex.getElements(KEY, key(name, arity), project, scope, NamedElement::class.java)
+    }
+}
+
+private const val VERSION = 0
@@ -0,0 +1,133 @@
+package org.elixir_lang.psi.stub.index
+
+import com.intellij.openapi.project.Project
+import com.intellij.psi.StubBasedPsiElement
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.stubs.NamedStubBase
+import com.intellij.psi.stubs.StringStubIndexExtension
+import com.intellij.psi.stubs.StubIndex
+import com.intellij.psi.stubs.StubIndexKey
+import org.elixir_lang.psi.NamedElement
+import org.elixir_lang.psi.call.CanonicallyNamed
+import org.elixir_lang.psi.stub.call.Stubbic
+import org.elixir_lang.psi.stub.type.Named
+
+/**
+ * Indexes the names in [AllName] by their prefixes, so that completion only looks at the names that can match what
+ * was typed instead of filtering all the keys of [AllName].
+ *
+ * Each name is indexed under its first 1 to [MAX_PREFIX_LENGTH] characters and under each namespace that encloses it,
+ * with the trailing `.`, so `Foo.Bar.Baz` is indexed under `F`, `Fo`, `Foo`, `Foo.`, and `Foo.Bar.`.  An element is
+ * indexed under the keys of all its names, so the names of the elements found under a key are filtered again.
+ */
+class NamePrefix : StringStubIndexExtension<NamedElement>() {
+    override fun getVersion(): Int = super.getVersion() + VERSION
+
+    override fun getKey(): StubIndexKey<String, NamedElement> = KEY
+
+    companion object {
+        @JvmField
+        val KEY = StubIndexKey.createIndexKey<String, NamedElement>("elixir.name.prefix")
+
+        const val MAX_PREFIX_LENGTH = 3
+        private const val NAMESPACE_SEPARATOR = '.'
+
+        @JvmStatic
+        fun keySet(name: String): Set<String> {
+            val keySet = mutableSetOf<String>()
+
+            for (length in 1..minOf(name.length, MAX_PREFIX_LENGTH)) {
+                keySet.add(name.substring(0, length))
+            }
+
+            for (index in 1 until name.length) {
+                if (name[index] == NAMESPACE_SEPARATOR) {
+                    keySet.add(name.substring(0, index + 1))
+                }
+            }
+
+            return keySet
+        }
+
+        /**
+         * @param prefix the names must start with `prefix`
+         * @param filter further filter on the names that start with `prefix`
+         * @return the elements with each name that starts with `prefix` and passes `filter`; `null` if `prefix` is
+         *   empty, as all names match and [AllName] should be used instead.
+         */
+        @JvmStatic
+        fun namedElementsByName(project: Project,
+                                scope: GlobalSearchScope,
+                                prefix: String,
+                                filter: (String) -> Boolean): Map<String, List<NamedElement>>? =
+                key(prefix)?.let { key ->
+                    keyNamedElementsByName(project, scope, key) { name -> name.startsWith(prefix) && filter(name) }
+                }
+
+        /**
+         * @return the elements with each name nested under the `namespace` module, such as `Foo.Bar` and `Foo.Bar.Baz`
+         *   for `Foo`.
+         */
+        @JvmStatic
+        fun nestedNamedElementsByName(project: Project,
+                                      scope: GlobalSearchScope,
+                                      namespace: String): Map<String, List<NamedElement>> {
+            val prefix = "$namespace$NAMESPACE_SEPARATOR"
+
+            return namedElementsByName(project, scope, prefix) { name -> name.length > prefix.length } ?: emptyMap()
+        }
+
+        /**
+         * The key with the fewest elements that still has all names starting with `prefix`
+         */
+        private fun key(prefix: String): String? {
+            val namespaceSeparatorIndex = prefix.lastIndexOf(NAMESPACE_SEPARATOR)
+
+            return when {
+                prefix.isEmpty() -> null
+                namespaceSeparatorIndex > 0 -> prefix.substring(0, namespaceSeparatorIndex + 1)
+                else -> prefix.take(MAX_PREFIX_LENGTH)
+            }
+        }
+
+        private fun keyNamedElementsByName(project: Project,
+                                           scope: GlobalSearchScope,
+                                           key: String,
+                                           filter: (String) -> Boolean): Map<String, List<NamedElement>> {
+            val namedElementsByName = mutableMapOf<String, MutableList<NamedElement>>()
+
+            StubIndex.getElements(KEY, key, project, scope, NamedElement::class.java).forEach { namedElement ->
+                nameSet(namedElement).filter(filter).forEach { name ->
+                    namedElementsByName.getOrPut(name) { mutableListOf() }.add(namedElement)
+                }
+            }
+
+            return namedElementsByName
+        }
+
+        /**
+         * The names the element is indexed under in [AllName], read from its stub when it has one.
+         */
+        private fun nameSet(namedElement: NamedElement): Set<String> {
+            val stub = (namedElement as? StubBasedPsiElement<*>)?.stub
+
+            return when (stub) {
+                is Stubbic -> Named.nameSet(stub)
+                is NamedStubBase<*> -> stub.name?.let { setOf(it) } ?: emptySet()
+                else -> {
+                    val nameSet = mutableSetOf<String>()
+
+                    namedElement.name?.let { nameSet.add(it) }
+
+                    if (namedElement is CanonicallyNamed) {
+                        nameSet.addAll(namedElement.canonicalNameSet())
+                    }
+
+                    nameSet
+                }
+            }
+        }
+    }
+}
+
+private const val VERSION = 0
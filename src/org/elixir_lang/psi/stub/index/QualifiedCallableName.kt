@@ -0,0 +1,60 @@
+package org.elixir_lang.psi.stub.index
+
+import com.intellij.psi.PsiFile
+import com.intellij.psi.StubBasedPsiElement
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.stubs.StringStubIndexExtension
+import com.intellij.psi.stubs.StubIndex
+import com.intellij.psi.stubs.StubIndexKey
+import org.elixir_lang.ArityRange
+import org.elixir_lang.Name
+import org.elixir_lang.psi.CallDefinitionClause
+import org.elixir_lang.psi.NamedElement
+import org.elixir_lang.psi.call.Call
+import org.elixir_lang.psi.stub.call.Stubbic
+
+/**
+ * Indexes the `def`, `defp`, `defmacro`, and `defmacrop` clauses directly in the body of a module, protocol, or
+ * implementation, and the definitions decompiled from `.beam` files, by `Module.name`, so that a qualified call can
+ * resolve to the clauses without walking the module's body.  The arities of each clause are read from its stub with
+ * [definedArityRange].
+ */
+class QualifiedCallableName : StringStubIndexExtension<NamedElement>() {
+    override fun getVersion(): Int = super.getVersion() + VERSION
+
+    override fun getKey(): StubIndexKey<String, NamedElement> = KEY
+
+    companion object {
+        @JvmField
+        val KEY = StubIndexKey.createIndexKey<String, NamedElement>("elixir.qualified.callable.name")
+
+        @JvmStatic
+        fun key(modularName: Name, name: Name): String = "$modularName.$name"
+
+        /**
+         * @return the arities of the `callDefinitionClause` from its stub if the AST is not loaded, so that the file
+         *   is not parsed.
+         */
+        @JvmStatic
+        fun definedArityRange(callDefinitionClause: Call): ArityRange? =
+                ((callDefinitionClause as? StubBasedPsiElement<*>)?.stub as? Stubbic)?.definedArityRange()
+                        ?: CallDefinitionClause.nameArityRange(callDefinitionClause)?.arityRange
+
+        /**
+         * @param modularNameSet the canonical names of a modular in `file`
+         * @return the clauses of the `name` function or macro of the modular in `file`
+         */
+        @JvmStatic
+        fun callDefinitionClauseCalls(file: PsiFile, modularNameSet: Set<Name>, name: Name): Collection<Call> {
+            val project = file.project
+            val scope = GlobalSearchScope.fileScope(file)
+
+            return modularNameSet.flatMapTo(LinkedHashSet()) { modularName ->
+                StubIndex.getElements(KEY, key(modularName, name), project, scope, NamedElement::class.java)
+                        .filterIsInstance<Call>()
+            }
+        }
+    }
+}
+
+private const val VERSION = 0
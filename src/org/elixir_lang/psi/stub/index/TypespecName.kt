@@ -0,0 +1,37 @@
+package org.elixir_lang.psi.stub.index
+
+import com.intellij.openapi.project.Project
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.stubs.StringStubIndexExtension
+import com.intellij.psi.stubs.StubIndex
+import com.intellij.psi.stubs.StubIndexKey
+import org.elixir_lang.Arity
+import org.elixir_lang.Name
+import org.elixir_lang.psi.NamedElement
+
+/**
+ * Indexes the `@spec`, `@callback`, and `@macrocallback` module attributes by the `name/arity` of the function or macro
+ * they specify, in the same format as [CallableName].
+ */
+class TypespecName : StringStubIndexExtension<NamedElement>() {
+    override fun getVersion(): Int = super.getVersion() + VERSION
+
+    override fun getKey(): StubIndexKey<String, NamedElement> = KEY
+
+    companion object {
+        @JvmField
+        val KEY = StubIndexKey.createIndexKey<String, NamedElement>("elixir.typespec.name")
+
+        /**
+         * @return the `@spec`, `@callback`, and `@macrocallback` of the `name/arity` function or macro in any module.
+         */
+        @JvmStatic
+        fun namedElements(project: Project,
+                          scope: GlobalSearchScope,
+                          name: Name,
+                          arity: Arity): Collection<NamedElement> =
+                StubIndex.getElements(KEY, CallableName.key(name, arity), project, scope, NamedElement::class.java)
+    }
+}
+
+private const val VERSION = 0
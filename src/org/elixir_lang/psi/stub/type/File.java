@@ -12,6 +12,7 @@ import com.intellij.psi.stubs.StubOutputStream;
 import com.intellij.psi.tree.IStubFileElementType;
 import org.elixir_lang.ElixirLanguage;
 import org.elixir_lang.psi.ElixirFile;
+import org.elixir_lang.sdk.bundle.Bundles;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -20,24 +21,59 @@ import java.io.IOException;
 import static org.elixir_lang.file.LevelPropertyPusher.VIRTUAL_FILE;
 
 public class File extends IStubFileElementType<org.elixir_lang.psi.stub.File> {
-    public static final int VERSION = 3;
+    // 4 - stores the arity range of the defined function or macro for CallableName and TypespecName
+    public static final int VERSION = 4;
     public static final IStubFileElementType INSTANCE = new File();
 
     public File() {
         super("ELIXIR_FILE", ElixirLanguage.INSTANCE);
     }
 
+    /**
+     * Builds the stub tree of `file` from its PSI, ignoring the SDK stub {@link Bundles}, so that the bundles can be
+     * generated.
+     */
+    @NotNull
+    public static StubElement buildStubTree(@NotNull ElixirFile file) {
+        return new Builder(false).buildStubTree(file);
+    }
+
     @Override
     public StubBuilder getBuilder() {
-        return new DefaultStubBuilder() {
-            @Override
-            protected StubElement createStubForFile(@NotNull PsiFile file) {
-                if (file instanceof ElixirFile) {
-                    return new org.elixir_lang.psi.stub.File((ElixirFile) file);
-                }
-                return super.createStubForFile(file);
+        return new Builder(true);
+    }
+
+    private static class Builder extends DefaultStubBuilder {
+        private final boolean useBundles;
+
+        private Builder(boolean useBundles) {
+            this.useBundles = useBundles;
+        }
+
+        @NotNull
+        @Override
+        public StubElement buildStubTree(@NotNull PsiFile file) {
+            StubElement stubTree = null;
+
+            // files of an SDK with a bundle do not need to be parsed
+            if (useBundles && file instanceof ElixirFile) {
+                stubTree = Bundles.INSTANCE.fileStub((ElixirFile) file);
+            }
+
+            if (stubTree == null) {
+                stubTree = super.buildStubTree(file);
+            }
+
+            return stubTree;
+        }
+
+        @Override
+        protected StubElement createStubForFile(@NotNull PsiFile file) {
+            if (file instanceof ElixirFile) {
+                return new org.elixir_lang.psi.stub.File((ElixirFile) file);
             }
-        };
+            return super.createStubForFile(file);
+        }
     }
 
     @Override
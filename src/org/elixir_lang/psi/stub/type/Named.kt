@@ -3,13 +3,19 @@ package org.elixir_lang.psi.stub.type
 import com.intellij.psi.PsiNameIdentifierOwner
 import com.intellij.psi.stubs.IndexSink
 import com.intellij.psi.stubs.NamedStubBase
+import com.intellij.psi.stubs.StubElement
+import com.intellij.psi.stubs.StubIndexKey
 import org.elixir_lang.psi.Definition
 import org.elixir_lang.psi.NamedElement
 import org.elixir_lang.psi.call.Call
 import org.elixir_lang.psi.definition
 import org.elixir_lang.psi.stub.call.Stubbic
 import org.elixir_lang.psi.stub.index.AllName
+import org.elixir_lang.psi.stub.index.CallableName
 import org.elixir_lang.psi.stub.index.ModularName
+import org.elixir_lang.psi.stub.index.NamePrefix
+import org.elixir_lang.psi.stub.index.QualifiedCallableName
+import org.elixir_lang.psi.stub.index.TypespecName
 import org.jetbrains.annotations.NonNls
 
 abstract class Named<S : NamedStubBase<T>, T : PsiNameIdentifierOwner>(@NonNls debugName: String) : Element<S, T>(debugName) {
@@ -21,6 +27,7 @@ abstract class Named<S : NamedStubBase<T>, T : PsiNameIdentifierOwner>(@NonNls d
 
             if (name != null) {
                 sink.occurrence<NamedElement, String>(AllName.KEY, name)
+                indexNamePrefixes(name, sink)
 
                 if (stub is Call && definition(stub)?.type == Definition.Type.MODULAR) {
                     sink.occurrence<NamedElement, String>(ModularName.KEY, name)
@@ -34,6 +41,45 @@ abstract class Named<S : NamedStubBase<T>, T : PsiNameIdentifierOwner>(@NonNls d
     companion object {
         @JvmStatic
         fun <T : Stubbic> indexStubbic(stubbic: T, sink: IndexSink) {
+            val nameSet = nameSet(stubbic)
+
+            nameSet.forEach { name ->
+                sink.occurrence<NamedElement, String>(AllName.KEY, name)
+                indexNamePrefixes(name, sink)
+            }
+
+            if (stubbic.definition?.type == Definition.Type.MODULAR) {
+                nameSet.forEach { name ->
+                    sink.occurrence<NamedElement, String>(ModularName.KEY, name)
+                }
+            }
+
+            val name = stubbic.name
+            val definedArityRange = stubbic.definedArityRange()
+
+            if (name != null && definedArityRange != null) {
+                val key = definedArityIndexKey(stubbic)
+
+                CallableName.keySet(name, definedArityRange).forEach { nameArity ->
+                    sink.occurrence<NamedElement, String>(key, nameArity)
+                }
+
+                if (stubbic.definition?.type == Definition.Type.CALLABLE) {
+                    enclosingModular(stubbic)?.canonicalNameSet()?.forEach { modularName ->
+                        sink.occurrence<NamedElement, String>(
+                                QualifiedCallableName.KEY,
+                                QualifiedCallableName.key(modularName, name)
+                        )
+                    }
+                }
+            }
+        }
+
+        /**
+         * The names `stubbic` is indexed under in [AllName]
+         */
+        @JvmStatic
+        fun nameSet(stubbic: Stubbic): Set<String> {
             val nameSet = mutableSetOf<String>()
 
             stubbic.name?.let {
@@ -42,14 +88,31 @@ abstract class Named<S : NamedStubBase<T>, T : PsiNameIdentifierOwner>(@NonNls d
 
             stubbic.canonicalNameSet().let { nameSet.addAll(it) }
 
-            nameSet.forEach { name ->
-                sink.occurrence<NamedElement, String>(AllName.KEY, name)
-            }
+            return nameSet
+        }
 
-            if (stubbic.definition?.type == Definition.Type.MODULAR) {
-                nameSet.forEach { name ->
-                    sink.occurrence<NamedElement, String>(ModularName.KEY, name)
+        /**
+         * `@spec`, `@callback`, and `@macrocallback` are the only stubs with a defined arity range that neither have a
+         * [Definition] nor a function name, as the module attribute name is not a function name.
+         */
+        private fun definedArityIndexKey(stubbic: Stubbic): StubIndexKey<String, NamedElement> =
+                if (stubbic.definition == null && stubbic.resolvedFunctionName() == null) {
+                    TypespecName.KEY
+                } else {
+                    CallableName.KEY
                 }
+
+        /**
+         * Only the modular directly enclosing `stubbic` counts, so that the clauses in a `quote` in a `defmacro` are not
+         * counted as clauses of the module defining the macro.
+         */
+        private fun enclosingModular(stubbic: Stubbic): Stubbic? =
+                ((stubbic as? StubElement<*>)?.parentStub as? Stubbic)
+                        ?.takeIf { it.definition?.type == Definition.Type.MODULAR }
+
+        private fun indexNamePrefixes(name: String, sink: IndexSink) {
+            NamePrefix.keySet(name).forEach { key ->
+                sink.occurrence<NamedElement, String>(NamePrefix.KEY, key)
             }
         }
     }
@@ -2,6 +2,10 @@ package org.elixir_lang.psi.stub.type.call;
 
 import com.intellij.lang.ASTNode;
 import com.intellij.psi.stubs.StubOutputStream;
+import kotlin.ranges.IntRange;
+import org.elixir_lang.NameArity;
+import org.elixir_lang.NameArityRange;
+import org.elixir_lang.psi.AtUnqualifiedNoParenthesesCall;
 import org.elixir_lang.psi.CallDefinitionClause;
 import org.elixir_lang.psi.call.Call;
 import org.elixir_lang.psi.call.StubBased;
@@ -13,6 +17,7 @@ import org.elixir_lang.structure_view.element.modular.Implementation;
 import org.elixir_lang.structure_view.element.modular.Module;
 import org.elixir_lang.structure_view.element.modular.Protocol;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 
@@ -26,6 +31,50 @@ public abstract class Stub<Stub extends org.elixir_lang.psi.stub.call.Stub<Psi>,
         super(debugName);
     }
 
+    /**
+     * The arities of the function or macro that {@code call} defines, delegates, specifies, or declares as a callback,
+     * so that the stub can be indexed by name and arity without the PSI.
+     *
+     * @return {@code null} if {@code call} does not define, delegate, specify, or declare a callback for a function or
+     *   macro.
+     */
+    @Nullable
+    public static IntRange definedArityRange(@NotNull Call call) {
+        IntRange definedArityRange = null;
+
+        if (CallDefinitionClause.is(call)) {
+            NameArityRange nameArityRange = CallDefinitionClause.nameArityRange(call);
+
+            if (nameArityRange != null) {
+                definedArityRange = nameArityRange.getArityRange();
+            }
+        } else if (CallDefinitionSpecification.Companion.is(call)) {
+            NameArity nameArity = CallDefinitionSpecification.Companion.moduleAttributeNameArity(call);
+
+            if (nameArity != null) {
+                definedArityRange = new IntRange(nameArity.getArity(), nameArity.getArity());
+            }
+        } else if (Callback.Companion.is(call)) {
+            Call headCall = Callback.Companion.headCall((AtUnqualifiedNoParenthesesCall<?>) call);
+
+            if (headCall != null) {
+                NameArityRange nameArityRange = CallDefinitionHead.Companion.nameArityRange(headCall);
+
+                if (nameArityRange != null) {
+                    definedArityRange = nameArityRange.getArityRange();
+                }
+            }
+        } else if (isDelegationCallDefinitionHead(call)) {
+            NameArityRange nameArityRange = CallDefinitionHead.Companion.nameArityRange(call);
+
+            if (nameArityRange != null) {
+                definedArityRange = nameArityRange.getArityRange();
+            }
+        }
+
+        return definedArityRange;
+    }
+
     public static boolean isModular(Call call) {
         return Implementation.is(call) || Module.Companion.is(call) || Protocol.is(call);
     }
@@ -50,7 +99,7 @@ public abstract class Stub<Stub extends org.elixir_lang.psi.stub.call.Stub<Psi>,
         return hasName(call) || hasCanonicalNames(call);
     }
 
-    private boolean isDelegationCallDefinitionHead(Call call) {
+    private static boolean isDelegationCallDefinitionHead(Call call) {
         return CallDefinitionHead.Companion.is(call) && CallDefinitionHead.Companion.enclosingDelegationCall(call) != null;
     }
 
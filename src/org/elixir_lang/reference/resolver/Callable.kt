@@ -1,5 +1,6 @@
 package org.elixir_lang.reference.resolver
 
+import com.intellij.openapi.project.DumbService
 import com.intellij.psi.PsiElementResolveResult
 import com.intellij.psi.ResolveResult
 import com.intellij.psi.impl.source.resolve.ResolveCache
@@ -8,8 +9,10 @@ import org.elixir_lang.psi.AccumulatorContinue
 import org.elixir_lang.psi.Modular
 import org.elixir_lang.psi.UnqualifiedNoArgumentsCall
 import org.elixir_lang.psi.call.Call
+import org.elixir_lang.psi.call.StubBased
 import org.elixir_lang.psi.call.qualification.Qualified
 import org.elixir_lang.psi.impl.call.qualification.qualifiedToModular
+import org.elixir_lang.psi.stub.index.QualifiedCallableName
 
 object Callable : ResolveCache.PolyVariantResolver<org.elixir_lang.reference.Callable> {
     override fun resolve(callable: org.elixir_lang.reference.Callable, incompleteCode: Boolean): Array<ResolveResult> {
@@ -67,6 +70,7 @@ object Callable : ResolveCache.PolyVariantResolver<org.elixir_lang.reference.Cal
             element.functionName()?.let { name ->
                 val resolvedFinalArity = element.resolvedFinalArity()
 
+                indexedResolveResults(modular, name, resolvedFinalArity) ?:
                 Modular.callDefinitionClauseCallFoldWhile(
                         modular,
                         name,
@@ -78,4 +82,28 @@ object Callable : ResolveCache.PolyVariantResolver<org.elixir_lang.reference.Cal
             }
         } ?:
         emptyList()
+
+    /**
+     * Resolves to the clauses of `modular` in [QualifiedCallableName], so that the file of `modular` is not parsed.
+     *
+     * @return `null` if the file of `modular` is not indexed, such as a decompiled `.beam` file, or indices are being
+     *   updated, so the body of `modular` has to be walked instead.
+     */
+    private fun indexedResolveResults(modular: Call, name: String, resolvedFinalArity: Int): List<ResolveResult>? =
+            modular
+                    .takeIf { it is StubBased<*> && !DumbService.isDumb(it.project) }
+                    ?.containingFile
+                    ?.takeIf { it.virtualFile != null }
+                    ?.let { file ->
+                        QualifiedCallableName
+                                .callDefinitionClauseCalls(file, (modular as StubBased<*>).canonicalNameSet(), name)
+                                .map { callDefinitionClauseCall ->
+                                    val validResult = QualifiedCallableName
+                                            .definedArityRange(callDefinitionClauseCall)
+                                            ?.contains(resolvedFinalArity)
+                                            ?: false
+
+                                    PsiElementResolveResult(callDefinitionClauseCall, validResult)
+                                }
+                    }
 }
@@ -0,0 +1,112 @@
+package org.elixir_lang.sdk.bundle
+
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.util.io.FileUtil
+import java.io.*
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.util.zip.GZIPInputStream
+import java.util.zip.GZIPOutputStream
+
+/**
+ * The stub trees of the `.beam` and source files of an SDK, as written by [StubTrees], keyed by the SHA-1 of the
+ * file's content, so that projects using an SDK with the same [Key] can reuse the stubs instead of building them.
+ *
+ * The file is gzipped: [MAGIC], [FORMAT_VERSION], the [Key], and then the count and the hash and bytes of each tree.
+ */
+class Bundle(val key: Key, private val stubTreeByHash: Map<String, ByteArray>) {
+    val size: Int
+        get() = stubTreeByHash.size
+
+    fun stubTree(hash: String): ByteArray? = stubTreeByHash[hash]
+
+    /**
+     * Writes to a temporary file first and moves it into place, so that an IDE loading bundles never reads a partial
+     * bundle.
+     */
+    fun write(file: File) {
+        FileUtil.createParentDirs(file)
+        val temporaryFile = File.createTempFile(file.name, ".tmp", file.parentFile)
+
+        try {
+            DataOutputStream(BufferedOutputStream(GZIPOutputStream(FileOutputStream(temporaryFile)))).use { output ->
+                output.writeInt(MAGIC)
+                output.writeInt(FORMAT_VERSION)
+                writeKey(output, key)
+                output.writeInt(stubTreeByHash.size)
+
+                for ((hash, stubTree) in stubTreeByHash) {
+                    output.writeUTF(hash)
+                    output.writeInt(stubTree.size)
+                    output.write(stubTree)
+                }
+            }
+
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE)
+        } finally {
+            FileUtil.delete(temporaryFile)
+        }
+    }
+
+    companion object {
+        private const val MAGIC = 0x45584253 // "EXBS"
+        /**
+         * Bump when the layout of the file or of [StubTrees] changes
+         */
+        private const val FORMAT_VERSION = 1
+        private val LOGGER = Logger.getInstance(Bundle::class.java)
+
+        /**
+         * @param accept whether to read the trees of a bundle with the given key, so that bundles for SDKs that are
+         *   not configured are not loaded into memory.
+         * @return `null` if `file` is not a bundle of the current [FORMAT_VERSION] or its key is not accepted.
+         */
+        fun read(file: File, accept: (Key) -> Boolean): Bundle? =
+                try {
+                    DataInputStream(BufferedInputStream(GZIPInputStream(FileInputStream(file)))).use { input ->
+                        if (input.readInt() == MAGIC && input.readInt() == FORMAT_VERSION) {
+                            val key = readKey(input)
+
+                            if (accept(key)) {
+                                val count = input.readInt()
+                                val stubTreeByHash = HashMap<String, ByteArray>(count)
+
+                                repeat(count) {
+                                    val hash = input.readUTF()
+                                    val stubTree = ByteArray(input.readInt())
+                                    input.readFully(stubTree)
+                                    stubTreeByHash[hash] = stubTree
+                                }
+
+                                Bundle(key, stubTreeByHash)
+                            } else {
+                                null
+                            }
+                        } else {
+                            null
+                        }
+                    }
+                } catch (e: IOException) {
+                    LOGGER.warn("Could not read SDK stub bundle $file", e)
+
+                    null
+                }
+
+        private fun readKey(input: DataInput): Key =
+                Key(
+                        elixirRelease = input.readUTF(),
+                        erlangRelease = input.readUTF(),
+                        allNameVersion = input.readInt(),
+                        beamStubVersion = input.readInt(),
+                        fileStubVersion = input.readInt()
+                )
+
+        private fun writeKey(output: DataOutput, key: Key) {
+            output.writeUTF(key.elixirRelease)
+            output.writeUTF(key.erlangRelease)
+            output.writeInt(key.allNameVersion)
+            output.writeInt(key.beamStubVersion)
+            output.writeInt(key.fileStubVersion)
+        }
+    }
+}
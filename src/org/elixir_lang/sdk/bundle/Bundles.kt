@@ -0,0 +1,96 @@
+package org.elixir_lang.sdk.bundle
+
+import com.intellij.openapi.application.PathManager
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.projectRoots.ProjectJdkTable
+import com.intellij.openapi.projectRoots.Sdk
+import com.intellij.psi.stubs.Stub
+import org.elixir_lang.beam.cache.Persistent
+import org.elixir_lang.psi.ElixirFile
+import org.elixir_lang.psi.stub.impl.ElixirFileStubImpl
+import java.io.File
+
+/**
+ * The [Bundle]s for the configured Elixir SDKs, so that the `.beam` and source files of an SDK are stubbed once per
+ * release instead of once per project.
+ *
+ * Bundles are read from `<system path>/elixir/sdk/bundles`, where [Generator] writes them, and from the directory in
+ * the [DIRECTORY_PROPERTY] system property, so that a team or CI can share pre-built bundles.  Only bundles whose
+ * [Key] matches a configured SDK with the current stub versions are loaded.  They are reloaded when SDKs are added or
+ * removed.
+ */
+object Bundles {
+    /**
+     * System property for an additional directory of bundles
+     */
+    private const val DIRECTORY_PROPERTY = "elixir.sdk.bundles.path"
+    private val LOGGER = Logger.getInstance(Bundles::class.java)
+
+    val directory by lazy { File(PathManager.getSystemPath(), "elixir${File.separator}sdk${File.separator}bundles") }
+
+    @Volatile
+    private var loaded: List<Bundle>? = null
+
+    /**
+     * @param content content of a `.beam` file
+     */
+    fun beamStub(content: ByteArray): Stub? =
+            bundles().takeIf { it.isNotEmpty() }?.let { bundles ->
+                stubTree(bundles, Persistent.hash(content))?.let { StubTrees.read(it, ElixirFileStubImpl()) }
+            }
+
+    fun fileStub(file: ElixirFile): org.elixir_lang.psi.stub.File? =
+            bundles().takeIf { it.isNotEmpty() }?.let { bundles ->
+                stubTree(bundles, Persistent.hash(file.text.toByteArray(Charsets.UTF_8)))?.let {
+                    StubTrees.read(it, org.elixir_lang.psi.stub.File(file))
+                }
+            }
+
+    fun file(key: Key): File = File(directory, key.fileName)
+
+    fun invalidate() {
+        loaded = null
+    }
+
+    private fun bundles(): List<Bundle> = loaded ?: load().also { loaded = it }
+
+    private fun directories(): List<File> =
+            listOfNotNull(directory, System.getProperty(DIRECTORY_PROPERTY)?.let(::File))
+
+    private fun load(): List<Bundle> {
+        val keys = ProjectJdkTable.getInstance().allJdks.mapNotNull { Key.from(it) }.toSet()
+
+        return if (keys.isNotEmpty()) {
+            directories()
+                    .flatMap { directory ->
+                        directory.listFiles { _, name -> name.endsWith(Key.EXTENSION) }?.asList() ?: emptyList()
+                    }
+                    .mapNotNull { file -> Bundle.read(file) { key -> key.isCurrent && key in keys } }
+                    .distinctBy { it.key }
+                    .onEach { LOGGER.info("Loaded ${it.size} stub trees for ${it.key}") }
+        } else {
+            emptyList()
+        }
+    }
+
+    private fun stubTree(bundles: List<Bundle>, hash: String): ByteArray? {
+        for (bundle in bundles) {
+            val stubTree = bundle.stubTree(hash)
+
+            if (stubTree != null) {
+                return stubTree
+            }
+        }
+
+        return null
+    }
+
+    /**
+     * Reloads the bundles when the configured SDKs change.
+     */
+    class Listener : ProjectJdkTable.Listener {
+        override fun jdkAdded(jdk: Sdk) = invalidate()
+        override fun jdkRemoved(jdk: Sdk) = invalidate()
+        override fun jdkNameChanged(jdk: Sdk, previousName: String) {}
+    }
+}
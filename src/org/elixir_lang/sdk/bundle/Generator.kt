@@ -0,0 +1,75 @@
+package org.elixir_lang.sdk.bundle
+
+import com.intellij.openapi.application.ReadAction
+import com.intellij.openapi.progress.ProgressIndicator
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.projectRoots.Sdk
+import com.intellij.openapi.roots.OrderRootType
+import com.intellij.openapi.vfs.VfsUtilCore
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.psi.PsiManager
+import org.elixir_lang.beam.cache.Persistent
+import org.elixir_lang.beam.psi.BeamFileImpl
+import org.elixir_lang.psi.ElixirFile
+import org.elixir_lang.psi.stub.type.File as FileType
+import java.io.File
+
+/**
+ * Builds the [Bundle] of an Elixir SDK: the stubs of the `.beam` files in its class roots, which include the `ebin`
+ * directories of its Erlang SDK, and of the `.ex` files in its source roots.
+ */
+object Generator {
+    /**
+     * @return the bundle file; `null` if the [Key] of `sdk` is unknown.
+     */
+    fun generate(project: Project, sdk: Sdk, indicator: ProgressIndicator): File? =
+            Key.from(sdk)?.let { key ->
+                val stubTreeByHash = LinkedHashMap<String, ByteArray>()
+
+                indicator.text = "Stubbing .beam files of ${sdk.name}"
+                sdk.rootProvider.getFiles(OrderRootType.CLASSES).forEach { root ->
+                    forEachFile(root, "beam", indicator) { virtualFile ->
+                        val content = virtualFile.contentsToByteArray()
+
+                        BeamFileImpl.buildFileStub(content, virtualFile.path).ifPresent { stub ->
+                            stubTreeByHash[Persistent.hash(content)] = StubTrees.write(stub)
+                        }
+                    }
+                }
+
+                indicator.text = "Stubbing source files of ${sdk.name}"
+                val psiManager = PsiManager.getInstance(project)
+                sdk.rootProvider.getFiles(OrderRootType.SOURCES).forEach { root ->
+                    forEachFile(root, "ex", indicator) { virtualFile ->
+                        ReadAction.run<RuntimeException> {
+                            (psiManager.findFile(virtualFile) as? ElixirFile)?.let { elixirFile ->
+                                val hash = Persistent.hash(elixirFile.text.toByteArray(Charsets.UTF_8))
+                                stubTreeByHash[hash] = StubTrees.write(FileType.buildStubTree(elixirFile))
+                            }
+                        }
+                    }
+                }
+
+                val file = Bundles.file(key)
+                Bundle(key, stubTreeByHash).write(file)
+                Bundles.invalidate()
+
+                file
+            }
+
+    private fun forEachFile(root: VirtualFile,
+                            extension: String,
+                            indicator: ProgressIndicator,
+                            consumer: (VirtualFile) -> Unit) {
+        VfsUtilCore.iterateChildrenRecursively(root, null) { virtualFile ->
+            indicator.checkCanceled()
+
+            if (!virtualFile.isDirectory && virtualFile.extension == extension) {
+                indicator.text2 = virtualFile.path
+                consumer(virtualFile)
+            }
+
+            true
+        }
+    }
+}
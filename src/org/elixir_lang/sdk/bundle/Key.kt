@@ -0,0 +1,47 @@
+package org.elixir_lang.sdk.bundle
+
+import com.intellij.openapi.projectRoots.Sdk
+import org.elixir_lang.beam.StubBuilder
+import org.elixir_lang.psi.stub.index.AllName
+import org.elixir_lang.psi.stub.type.File
+import org.elixir_lang.sdk.erlang_dependent.SdkAdditionalData
+import org.elixir_lang.sdk.elixir.Type as ElixirType
+import org.elixir_lang.sdk.erlang.Release as ErlangRelease
+
+/**
+ * Identifies the stubs in a [Bundle]: the Elixir and OTP releases whose files were stubbed and the versions of the
+ * stubs and index, so that a bundle is only used by SDKs of the same releases and by plugin versions that would build
+ * the same stubs.
+ */
+data class Key(
+        val elixirRelease: String,
+        val erlangRelease: String,
+        val allNameVersion: Int = AllName.VERSION,
+        val beamStubVersion: Int = StubBuilder.STUB_VERSION,
+        val fileStubVersion: Int = File.VERSION
+) {
+    val isCurrent: Boolean
+        get() = allNameVersion == AllName.VERSION &&
+                beamStubVersion == StubBuilder.STUB_VERSION &&
+                fileStubVersion == File.VERSION
+
+    val fileName: String
+        get() = "${sanitize(elixirRelease)}-${sanitize(erlangRelease)}-$allNameVersion.$beamStubVersion.$fileStubVersion$EXTENSION"
+
+    companion object {
+        const val EXTENSION = ".stubs.gz"
+
+        /**
+         * @return `null` if `sdk` is not an Elixir SDK or the release of it or its Erlang SDK is unknown.
+         */
+        fun from(sdk: Sdk): Key? =
+                ElixirType.getRelease(sdk)?.let { elixirRelease ->
+                    (sdk.sdkAdditionalData as? SdkAdditionalData)
+                            ?.erlangSdk
+                            ?.let { ErlangRelease.fromString(it.versionString) }
+                            ?.let { erlangRelease -> Key(elixirRelease.toString(), erlangRelease.toString()) }
+                }
+
+        private fun sanitize(release: String): String = release.replace(Regex("[^A-Za-z0-9.]+"), "_")
+    }
+}
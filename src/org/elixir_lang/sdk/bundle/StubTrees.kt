@@ -0,0 +1,145 @@
+package org.elixir_lang.sdk.bundle
+
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.psi.stubs.*
+import com.intellij.psi.tree.IElementType
+import com.intellij.util.io.AbstractStringEnumerator
+import org.elixir_lang.beam.psi.stubs.ModuleStubElementTypes
+import org.elixir_lang.psi.ElixirTypes
+import java.io.*
+
+/**
+ * Serializes the children of a file's stub tree so that they can be read on another machine.
+ *
+ * The platform serializes stubs with ids of serializers and names that are only valid in the IDE instance that
+ * enumerated them, so each stub is written with the external id of its [ObjectStubSerializer] instead, and the names
+ * written by the serializers are enumerated per tree and written ahead of the stubs.  The root is not written: the
+ * caller supplies it when reading, so that BEAM and source files get the same root class as when they are stubbed.
+ */
+object StubTrees {
+    private val LOGGER = Logger.getInstance(StubTrees::class.java)
+
+    private val serializerByExternalId: Map<String, ObjectStubSerializer<*, *>> by lazy {
+        // element types are only registered once their holders are initialized
+        ModuleStubElementTypes.MODULE
+        ElixirTypes.UNMATCHED_UNQUALIFIED_NO_ARGUMENTS_CALL
+
+        IElementType
+                .enumerate { it is ObjectStubSerializer<*, *> }
+                .map { it as ObjectStubSerializer<*, *> }
+                .associateBy { it.externalId }
+    }
+
+    fun write(root: Stub): ByteArray {
+        val names = Names()
+        val stubsOutputStream = ByteArrayOutputStream()
+        val stubOutputStream = StubOutputStream(stubsOutputStream, names)
+        writeChildren(root, stubOutputStream)
+        stubOutputStream.flush()
+
+        val outputStream = ByteArrayOutputStream()
+        val dataOutputStream = DataOutputStream(outputStream)
+        names.write(dataOutputStream)
+        stubsOutputStream.writeTo(dataOutputStream)
+        dataOutputStream.flush()
+
+        return outputStream.toByteArray()
+    }
+
+    /**
+     * @return `root` with the children read from `bytes`; `null` if a serializer is not registered, such as when the
+     *   bundle was written by a plugin version with different stub element types, or a serializer could not read its
+     *   stub, so that the caller builds the stub tree instead.
+     */
+    fun <T : StubElement<*>> read(bytes: ByteArray, root: T): T? =
+            try {
+                val dataInputStream = DataInputStream(ByteArrayInputStream(bytes))
+                val stubInputStream = StubInputStream(dataInputStream, Names.read(dataInputStream))
+                readChildren(stubInputStream, root)
+
+                root
+            } catch (e: IOException) {
+                LOGGER.warn("Could not read bundled stub tree", e)
+
+                null
+            } catch (e: RuntimeException) {
+                // serializers of a different layout can fail with any exception, such as `IndexOutOfBoundsException`
+                LOGGER.warn("Could not read bundled stub tree", e)
+
+                null
+            }
+
+    private fun writeChildren(parent: Stub, stubOutputStream: StubOutputStream) {
+        val children = parent.childrenStubs
+        stubOutputStream.writeVarInt(children.size)
+
+        for (child in children) {
+            @Suppress("UNCHECKED_CAST")
+            val serializer = child.stubType as ObjectStubSerializer<Stub, *>
+            stubOutputStream.writeName(serializer.externalId)
+            serializer.serialize(child, stubOutputStream)
+            writeChildren(child, stubOutputStream)
+        }
+    }
+
+    private fun readChildren(stubInputStream: StubInputStream, parent: Stub) {
+        val childCount = stubInputStream.readVarInt()
+
+        for (i in 0 until childCount) {
+            val externalId = stubInputStream.readNameString()
+
+            @Suppress("UNCHECKED_CAST")
+            val serializer = serializerByExternalId[externalId] as? ObjectStubSerializer<Stub, Stub>
+                    ?: throw IOException("No stub serializer with external id $externalId")
+            // Stubs add themselves to the children of their parent when constructed
+            val child = serializer.deserialize(stubInputStream, parent)
+            readChildren(stubInputStream, child)
+        }
+    }
+
+    /**
+     * Names enumerated by the [StubOutputStream.writeName] calls of a single tree.  `0` is `null`, as in the platform's
+     * enumerators.
+     */
+    private class Names(private val nameList: MutableList<String> = mutableListOf()) : AbstractStringEnumerator {
+        private val indexByName = nameList.withIndex().associateTo(mutableMapOf()) { (index, name) -> name to index + 1 }
+
+        override fun enumerate(value: String?): Int =
+                if (value == null) {
+                    0
+                } else {
+                    indexByName.getOrPut(value) {
+                        nameList.add(value)
+                        nameList.size
+                    }
+                }
+
+        override fun valueOf(idx: Int): String? =
+                if (idx == 0) {
+                    null
+                } else {
+                    nameList.getOrNull(idx - 1) ?: throw IOException("No name enumerated as $idx")
+                }
+
+        override fun markCorrupted() {}
+        override fun close() {}
+        override fun isDirty(): Boolean = false
+        override fun force() {}
+
+        fun write(dataOutputStream: DataOutputStream) {
+            dataOutputStream.writeInt(nameList.size)
+
+            for (name in nameList) {
+                dataOutputStream.writeUTF(name)
+            }
+        }
+
+        companion object {
+            fun read(dataInputStream: DataInputStream): Names {
+                val count = dataInputStream.readInt()
+
+                return Names(MutableList(count) { dataInputStream.readUTF() })
+            }
+        }
+    }
+}
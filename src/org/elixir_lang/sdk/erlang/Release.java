@@ -20,7 +20,7 @@ public class Release {
     }
 
     @Nullable
-    static Release fromString(@Nullable String versionString) {
+    public static Release fromString(@Nullable String versionString) {
         Release release = null;
 
         if (versionString != null) {
@@ -0,0 +1,6 @@
+defmodule NameArity do
+  @callback handle(term) :: term
+
+  @spec default(integer) :: integer
+  def default(first, second \\ 1), do: first + second
+end
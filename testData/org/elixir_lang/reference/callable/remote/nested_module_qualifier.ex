@@ -0,0 +1,5 @@
+defmodule NestedModuleQualifier do
+  def call do
+    Remote.Nested.<caret>defaulted(1)
+  end
+end
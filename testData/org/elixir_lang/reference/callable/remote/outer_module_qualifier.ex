@@ -0,0 +1,5 @@
+defmodule OuterModuleQualifier do
+  def call do
+    Remote.<caret>defaulted(1, 2)
+  end
+end
@@ -0,0 +1,15 @@
+defmodule Remote do
+  def defaulted(a, b \\ 2, c \\ 3) do
+    {a, b, c}
+  end
+
+  defmodule Nested do
+    def defaulted(a, b \\ 2) do
+      {a, b}
+    end
+
+    def defaulted(a, b, c, d) do
+      {a, b, c, d}
+    end
+  end
+end
@@ -0,0 +1,340 @@
+package org.elixir_lang;
+
+import com.ericsson.otp.erlang.*;
+import org.elixir_lang.beam.Beam;
+import org.elixir_lang.beam.chunk.DebugInfo;
+import org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.V1;
+import org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.v1.TypeSpecifications;
+import org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.v1.definitions.definition.Clause;
+import org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.v1.type_specifications.Type;
+import org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.v1.type_specifications.TypeSpecification;
+import org.elixir_lang.beam.chunk.debug_info.v1.erl_abstract_code.AbstractCodeCompileOptions;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class MacroTest {
+    private static final String TEST_DATA_PATH = "testData/org/elixir_lang";
+    private static final String GOLDEN_PATH = TEST_DATA_PATH + "/macro/to_string/dbgi.txt";
+    private static final String HEADER_PREFIX = "#### ";
+    private static final Set<String> TYPE_SPECIFICATION_ATTRIBUTES =
+            new HashSet<>(Arrays.asList("callback", "export_type", "opaque", "spec", "type"));
+
+    /**
+     * The golden file has the text of the clauses of the Elixir definitions and of the Erlang type specifications in
+     * the Dbgi chunks of the `.beam` files under `testData`.  Each item is headed by
+     * `#### <beam path> definition <definition index> <clause index>` or `#### <beam path> form <form index>`.
+     */
+    @Test
+    public void dbgiMatchesGolden() throws IOException, OtpErlangDecodeException {
+        Map<String, Map<String, String>> expectedByHeaderByBeamPath = golden();
+
+        assertFalse(expectedByHeaderByBeamPath.isEmpty());
+
+        for (Map.Entry<String, Map<String, String>> beamEntry : expectedByHeaderByBeamPath.entrySet()) {
+            Path path = Paths.get(TEST_DATA_PATH, beamEntry.getKey());
+            Beam beam = Beam.Companion.from(Files.readAllBytes(path), path.toString());
+
+            assertNotNull(beam);
+
+            DebugInfo debugInfo = beam.debugInfo();
+            TypeSpecifications typeSpecifications = null;
+
+            if (debugInfo instanceof AbstractCodeCompileOptions) {
+                typeSpecifications = typeSpecifications((AbstractCodeCompileOptions) debugInfo);
+            }
+
+            for (Map.Entry<String, String> itemEntry : beamEntry.getValue().entrySet()) {
+                String header = itemEntry.getKey();
+                String[] item = header.substring(beamEntry.getKey().length() + 1).split(" ");
+                String actual;
+
+                if (item[0].equals("definition")) {
+                    Clause clause = ((V1) debugInfo)
+                            .getDefinitions()
+                            .get(Integer.parseInt(item[1]))
+                            .getClauses()
+                            .get(Integer.parseInt(item[2]));
+
+                    actual = clause.getHead() + "\n" + Macro.INSTANCE.toString(clause.getBlock());
+                } else {
+                    OtpErlangList forms = ((AbstractCodeCompileOptions) debugInfo).getAbstractCode();
+                    TypeSpecification typeSpecification =
+                            TypeSpecification.Companion.from(forms.elementAt(Integer.parseInt(item[1])));
+
+                    assertNotNull(header, typeSpecification);
+
+                    if (typeSpecification instanceof Type) {
+                        actual = ((Type) typeSpecification).toString(typeSpecifications);
+                    } else {
+                        actual = typeSpecification.toString();
+                    }
+                }
+
+                assertEquals(header, itemEntry.getValue(), actual);
+            }
+        }
+    }
+
+    @Test
+    public void specialForms() {
+        assertToString("x", variable("x"));
+        assertToString("Foo.Bar", call("__aliases__", atom("Foo"), atom("Bar")));
+        assertToString(
+                "<<1, x::binary-size, (<<2>>)>>",
+                call(
+                        "<<>>",
+                        integer(1),
+                        call("::", variable("x"), call("-", variable("binary"), variable("size"))),
+                        call("<<>>", integer(2))
+                )
+        );
+        assertToString("{1, :ok}", tuple(integer(1), atom("ok")));
+        assertToString("%{map | a: 1}", call("%{}", call("|", variable("map"), list(tuple(atom("a"), integer(1))))));
+        assertToString(
+                "%URI{host: host}",
+                call("%", atom("Elixir.URI"), call("%{}", tuple(atom("host"), variable("host"))))
+        );
+        assertToString("(x, y) when is_integer(x)", call("when", variable("x"), variable("y"), call("is_integer", variable("x"))));
+        assertToString("&Enum.:map/2", call("&", call("/", dot(atom("Elixir.Enum"), atom("map")), integer(2))));
+        assertToString("&(&1 + 1)", call("&", call("+", call("&", integer(1)), integer(1))));
+        assertToString("x not in [1, 2]", call("not", call("in", variable("x"), list(integer(1), integer(2)))));
+        assertToString(
+                "Foo.{Bar, Baz}",
+                call(
+                        dot(call("__aliases__", atom("Foo")), atom("{}")),
+                        call("__aliases__", atom("Bar")),
+                        call("__aliases__", atom("Baz"))
+                )
+        );
+        assertToString("'ab'", list(integer(97), integer(98)));
+    }
+
+    @Test
+    public void operators() {
+        assertToString("@doc false", call("@", call("doc", atom("false"))));
+        assertToString("not(x)", call("not", variable("x")));
+        assertToString("-(x + y)", call("-", call("+", variable("x"), variable("y"))));
+        assertToString("(a + b) * c", call("*", call("+", variable("a"), variable("b")), variable("c")));
+        assertToString("(a ++ b) ++ c", call("++", call("++", variable("a"), variable("b")), variable("c")));
+        assertToString("1..10", call("..", integer(1), integer(10)));
+        assertToString("is_nil(x)", call("==", variable("x"), atom("nil")));
+        assertToString("elem(tuple, 1)", remote("erlang", "element", integer(2), variable("tuple")));
+        assertToString("Map.has_key?(map, key)", remote("maps", "is_key", variable("key"), variable("map")));
+    }
+
+    @Test
+    public void nestedBlocksAreIndented() {
+        assertToString(
+                "(\n  a\n  (\n    b\n    c\n  )\n)",
+                block(variable("a"), block(variable("b"), variable("c")))
+        );
+        assertToString(
+                "fn\n 1 ->\n    :one\n  _ ->\n    a\n    b\nend",
+                call(
+                        "fn",
+                        arrow(list(integer(1)), atom("one")),
+                        arrow(list(variable("_")), block(variable("a"), variable("b")))
+                )
+        );
+        assertToString(
+                "case(x) do\n" +
+                        "  1 ->\n" +
+                        "    if(y) do\n" +
+                        "      a\n" +
+                        "      b\n" +
+                        "    end\n" +
+                        "    c\n" +
+                        "  _ ->\n" +
+                        "    :error\n" +
+                        "end",
+                call(
+                        "case",
+                        variable("x"),
+                        list(
+                                tuple(
+                                        atom("do"),
+                                        list(
+                                                arrow(
+                                                        list(integer(1)),
+                                                        block(
+                                                                call(
+                                                                        "if",
+                                                                        variable("y"),
+                                                                        list(tuple(atom("do"), block(variable("a"), variable("b"))))
+                                                                ),
+                                                                variable("c")
+                                                        )
+                                                ),
+                                                arrow(list(variable("_")), atom("error"))
+                                        )
+                                )
+                        )
+                )
+        );
+        assertToString(
+                "try() do\n  a\nrescue\n  e ->\n    e\nafter\n  b\nend",
+                call(
+                        "try",
+                        list(
+                                tuple(atom("do"), variable("a")),
+                                tuple(atom("rescue"), list(arrow(list(variable("e")), variable("e")))),
+                                tuple(atom("after"), variable("b"))
+                        )
+                )
+        );
+    }
+
+    @Test
+    public void appendsToAppendable() {
+        OtpErlangObject macro = call(
+                "if",
+                variable("x"),
+                list(tuple(atom("do"), block(variable("a"), variable("b"))), tuple(atom("else"), atom("nil")))
+        );
+        String expected = "if(x) do\n  a\n  b\nelse\n  nil\nend";
+
+        assertEquals(expected, Macro.INSTANCE.toString(macro));
+        assertEquals("# " + expected, Macro.INSTANCE.toString(macro, new StringBuilder("# ")).toString());
+        assertEquals(expected, Macro.INSTANCE.toString(macro, new StringWriter()).toString());
+    }
+
+    private static void assertToString(@NotNull String expected, @NotNull OtpErlangObject macro) {
+        assertEquals(expected, Macro.INSTANCE.toString(macro));
+    }
+
+    @NotNull
+    private static Map<String, Map<String, String>> golden() throws IOException {
+        Map<String, Map<String, String>> expectedByHeaderByBeamPath = new LinkedHashMap<>();
+        String header = null;
+        StringBuilder expected = new StringBuilder();
+
+        for (String line : Files.readAllLines(Paths.get(GOLDEN_PATH), StandardCharsets.UTF_8)) {
+            if (line.startsWith(HEADER_PREFIX)) {
+                putGolden(expectedByHeaderByBeamPath, header, expected);
+                header = line.substring(HEADER_PREFIX.length());
+                expected.setLength(0);
+            } else {
+                if (expected.length() > 0) {
+                    expected.append('\n');
+                }
+
+                expected.append(line);
+            }
+        }
+
+        putGolden(expectedByHeaderByBeamPath, header, expected);
+
+        return expectedByHeaderByBeamPath;
+    }
+
+    private static void putGolden(@NotNull Map<String, Map<String, String>> expectedByHeaderByBeamPath,
+                                  String header,
+                                  @NotNull StringBuilder expected) {
+        if (header != null) {
+            String beamPath = header.substring(0, header.indexOf(".beam ") + ".beam".length());
+
+            expectedByHeaderByBeamPath
+                    .computeIfAbsent(beamPath, key -> new LinkedHashMap<>())
+                    .put(header, expected.toString());
+        }
+    }
+
+    /**
+     * The type specifications of the module, which decide whether a type is rendered as `@type` or `@typep`.  Forms
+     * that the decoder rejects are skipped, as they were when the golden file was written.
+     */
+    @NotNull
+    private static TypeSpecifications typeSpecifications(@NotNull AbstractCodeCompileOptions debugInfo) {
+        List<TypeSpecification> typeSpecificationList = new ArrayList<>();
+
+        for (OtpErlangObject form : debugInfo.getAbstractCode()) {
+            if (form instanceof OtpErlangTuple) {
+                OtpErlangTuple tuple = (OtpErlangTuple) form;
+
+                if (tuple.arity() == 4 &&
+                        tuple.elementAt(0).equals(atom("attribute")) &&
+                        tuple.elementAt(2) instanceof OtpErlangAtom &&
+                        TYPE_SPECIFICATION_ATTRIBUTES.contains(((OtpErlangAtom) tuple.elementAt(2)).atomValue())) {
+                    try {
+                        TypeSpecification typeSpecification = TypeSpecification.Companion.from(tuple);
+
+                        if (typeSpecification != null) {
+                            typeSpecificationList.add(typeSpecification);
+                        }
+                    } catch (AssertionError assertionError) {
+                        // logged as an error by the decoder
+                    }
+                }
+            }
+        }
+
+        return new TypeSpecifications(typeSpecificationList);
+    }
+
+    @NotNull
+    private static OtpErlangTuple arrow(@NotNull OtpErlangList left, @NotNull OtpErlangObject right) {
+        return call("->", left, right);
+    }
+
+    @NotNull
+    private static OtpErlangAtom atom(@NotNull String name) {
+        return new OtpErlangAtom(name);
+    }
+
+    @NotNull
+    private static OtpErlangTuple block(@NotNull OtpErlangObject... expressions) {
+        return call("__block__", expressions);
+    }
+
+    @NotNull
+    private static OtpErlangTuple call(@NotNull String name, @NotNull OtpErlangObject... arguments) {
+        return call(atom(name), arguments);
+    }
+
+    @NotNull
+    private static OtpErlangTuple call(@NotNull OtpErlangObject target, @NotNull OtpErlangObject... arguments) {
+        return tuple(target, list(), list(arguments));
+    }
+
+    @NotNull
+    private static OtpErlangTuple dot(@NotNull OtpErlangObject left, @NotNull OtpErlangObject right) {
+        return call(".", left, right);
+    }
+
+    @NotNull
+    private static OtpErlangLong integer(long value) {
+        return new OtpErlangLong(value);
+    }
+
+    @NotNull
+    private static OtpErlangList list(@NotNull OtpErlangObject... elements) {
+        return new OtpErlangList(elements);
+    }
+
+    @NotNull
+    private static OtpErlangTuple remote(@NotNull String module,
+                                         @NotNull String function,
+                                         @NotNull OtpErlangObject... arguments) {
+        return call(dot(atom(module), atom(function)), arguments);
+    }
+
+    @NotNull
+    private static OtpErlangTuple tuple(@NotNull OtpErlangObject... elements) {
+        return new OtpErlangTuple(elements);
+    }
+
+    @NotNull
+    private static OtpErlangTuple variable(@NotNull String name) {
+        return tuple(atom(name), list(), atom("nil"));
+    }
+}
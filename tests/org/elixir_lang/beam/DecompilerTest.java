@@ -9,6 +9,7 @@ import com.intellij.testFramework.LightCodeInsightTestCase;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -153,6 +154,19 @@ public class DecompilerTest extends LightCodeInsightTestCase {
         assertDecompiled("OTP20/Elixir.AtU8Test");
     }
 
+    public void testExpandedBodies() {
+        VirtualFile virtualFile = virtualFile("OTP20/Elixir.Kernel");
+        String decompiled = Decompiler.decompiled(virtualFile, Collections.singleton("tl/1")).toString();
+
+        String tl = definition(decompiled, "  def tl(");
+        assertFalse(tl, tl.contains("# body not decompiled"));
+        assertTrue(tl, tl.contains(":erlang.tl("));
+
+        // only the expanded definition is rendered
+        String hd = definition(decompiled, "  def hd(");
+        assertTrue(hd, hd.contains("# body not decompiled"));
+    }
+
     /*
      * Instance Methods
      */
@@ -177,20 +191,43 @@ public class DecompilerTest extends LightCodeInsightTestCase {
         File expectedFile = new File(prefix + "ex");
         String expected = Files.toString(expectedFile, UTF_8);
 
+        VirtualFile virtualFile = virtualFile(name);
+
+        Decompiler decompiler = new Decompiler();
+        CharSequence decompiled = decompiler.decompile(virtualFile);
+
+        assertEquals(expected, decompiled.toString());
+    }
+
+    /**
+     * The text of the definition starting with {@code head} up to the start of the next definition.
+     */
+    private static String definition(String decompiled, String head) {
+        int start = decompiled.indexOf(head);
+
+        assertTrue(head + " not found", start >= 0);
+
+        int end = decompiled.indexOf("\n  end\n", start);
+
+        assertTrue(head + " does not end", end >= 0);
+
+        return decompiled.substring(start, end);
+    }
+
+    private VirtualFile virtualFile(String name) {
+        String testDataPath = getTestDataPath();
+
         VfsRootAccess.allowRootAccess(testDataPath);
 
         VirtualFile virtualFile = LocalFileSystem
                 .getInstance()
                 .findFileByIoFile(
-                        new File(prefix + "beam")
+                        new File(testDataPath + "/" + name + ".beam")
                 );
 
         assertNotNull(virtualFile);
 
-        Decompiler decompiler = new Decompiler();
-        CharSequence decompiled = decompiler.decompile(virtualFile);
-
-        assertEquals(expected, decompiled.toString());
+        return virtualFile;
     }
 
     private String ebinDirectory() {
@@ -0,0 +1,75 @@
+package org.elixir_lang.beam.cache.persistent;
+
+import com.ericsson.otp.erlang.OtpErlangDecodeException;
+import com.intellij.util.io.DataExternalizer;
+import org.elixir_lang.beam.Beam;
+import org.elixir_lang.beam.MacroNameArity;
+import org.elixir_lang.beam.chunk.Atoms;
+import org.elixir_lang.beam.chunk.CallDefinitions;
+import org.elixir_lang.beam.chunk.Chunk;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.SortedSet;
+
+import static org.junit.Assert.*;
+
+public class ExternalizerTest {
+    private static final String PATH = "testData/org/elixir_lang/beam/decompiler/OTP20/Elixir.Kernel.beam";
+
+    @Test
+    public void callDefinitions() throws IOException, OtpErlangDecodeException {
+        Beam beam = beam();
+        Atoms atoms = beam.atoms();
+        CallDefinitions exports = beam.exports(atoms);
+
+        assertNotNull(exports);
+
+        CallDefinitions read = roundTrip(
+                new org.elixir_lang.beam.cache.persistent.CallDefinitions(Chunk.TypeID.EXPT, atoms),
+                exports
+        );
+        SortedSet<MacroNameArity> expected = exports.macroNameAritySortedSet();
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, read.macroNameAritySortedSet());
+    }
+
+    @Test
+    public void lines() throws IOException, OtpErlangDecodeException {
+        org.elixir_lang.beam.chunk.Lines lines = beam().lines(null);
+
+        assertNotNull(lines);
+
+        org.elixir_lang.beam.chunk.Lines read = roundTrip(org.elixir_lang.beam.cache.persistent.Lines.INSTANCE, lines);
+
+        assertEquals(lines.getFileNameList(), read.getFileNameList());
+        assertEquals(lines.getLineReferenceList().size(), read.getLineReferenceList().size());
+    }
+
+    @NotNull
+    private static Beam beam() throws IOException, OtpErlangDecodeException {
+        Beam beam = Beam.Companion.from(Files.readAllBytes(Paths.get(PATH)), PATH);
+
+        assertNotNull(beam);
+
+        return beam;
+    }
+
+    private static <T> T roundTrip(@NotNull DataExternalizer<T> externalizer, @NotNull T value) throws IOException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+        try (DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream)) {
+            externalizer.save(dataOutputStream, value);
+        }
+
+        try (DataInputStream dataInputStream = new DataInputStream(
+                new ByteArrayInputStream(byteArrayOutputStream.toByteArray())
+        )) {
+            return externalizer.read(dataInputStream);
+        }
+    }
+}
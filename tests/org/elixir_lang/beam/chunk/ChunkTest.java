@@ -0,0 +1,60 @@
+package org.elixir_lang.beam.chunk;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ChunkTest {
+    @Test
+    public void skipPadsToAlignment() {
+        byte[] bytes = chunk(0x5);
+
+        assertEquals(16, Chunk.skip(bytes, 0));
+    }
+
+    @Test
+    public void skipDoesNotWrapBackToOffset() {
+        byte[] bytes = chunk(0xFFFFFFF8L);
+
+        assertEquals(bytes.length, Chunk.skip(bytes, 0));
+    }
+
+    @Test
+    public void skipDoesNotGoNegative() {
+        byte[] bytes = chunk(0x7FFFFFFFL);
+
+        assertEquals(bytes.length, Chunk.skip(bytes, 0));
+    }
+
+    @Test
+    public void skipDoesNotGoPastEnd() {
+        byte[] bytes = chunk(0x10);
+
+        assertEquals(bytes.length, Chunk.skip(bytes, 0));
+    }
+
+    @Test
+    public void skipTruncatedHeader() {
+        byte[] bytes = new byte[6];
+
+        assertEquals(bytes.length, Chunk.skip(bytes, 0));
+    }
+
+    /**
+     * A `Test` chunk header with {@code length} followed by 8 bytes of data
+     */
+    private static byte[] chunk(long length) {
+        byte[] bytes = new byte[16];
+
+        bytes[0] = 'T';
+        bytes[1] = 'e';
+        bytes[2] = 's';
+        bytes[3] = 't';
+        bytes[4] = (byte) (length >>> 24);
+        bytes[5] = (byte) (length >>> 16);
+        bytes[6] = (byte) (length >>> 8);
+        bytes[7] = (byte) length;
+
+        return bytes;
+    }
+}
@@ -0,0 +1,181 @@
+package org.elixir_lang.beam.chunk;
+
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.newvfs.impl.VfsRootAccess;
+import com.intellij.testFramework.LightCodeInsightTestCase;
+import kotlin.Pair;
+import org.elixir_lang.beam.Cache;
+import org.elixir_lang.beam.chunk.code.Operation;
+import org.elixir_lang.beam.chunk.code.operation.CodeKt;
+import org.elixir_lang.beam.term.Literal;
+import org.elixir_lang.beam.term.Term;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the packed {@link Code} with the operations decoded one {@link Term} at a time with
+ * {@link Term.Companion#from(byte[], int, boolean)}, as the {@code Code} chunk was decoded before it was packed.
+ */
+public class CodeTest extends LightCodeInsightTestCase {
+    private static final List<Code.Options> OPTIONS_LIST = Arrays.asList(
+            new Code.Options(),
+            Code.Options.Companion.getUNAMBIGUOUS(),
+            new Code.Options(new Code.Options.Inline(false, false, false, false, false, false, false, false, false), true),
+            new Code.Options(new Code.Options.Inline(true, true, true, true, true, true, true, true, true), false)
+    );
+
+    /*
+     * Tests
+     */
+
+    public void testDocgenXmerlXmlCb() {
+        assertAssemblyMatchesBaseline("docgen_xmerl_xml_cb");
+    }
+
+    public void testElixirAtU8Test() {
+        assertAssemblyMatchesBaseline("OTP20/Elixir.AtU8Test");
+    }
+
+    public void testElixirLDAPExELDAPv3() {
+        assertAssemblyMatchesBaseline("Elixir.LDAPEx.ELDAPv3");
+    }
+
+    public void testFprof() {
+        assertAssemblyMatchesBaseline("fprof");
+    }
+
+    public void testRebar3HexConfig() {
+        assertAssemblyMatchesBaseline("rebar3_hex_config");
+    }
+
+    /*
+     * Protected Instance Methods
+     */
+
+    @Override
+    protected String getTestDataPath() {
+        return "testData/org/elixir_lang/beam/decompiler";
+    }
+
+    /*
+     * Private Instance Methods
+     */
+
+    private void assertAssemblyMatchesBaseline(@NotNull String name) {
+        Cache cache = Cache.Companion.from(virtualFile(name));
+
+        assertNotNull(cache);
+
+        Code code = cache.getCode();
+
+        assertNotNull(code);
+
+        List<Operation> baseline = baseline(codeChunk(cache));
+
+        assertEquals(baseline.size(), code.size());
+
+        for (int index = 0; index < baseline.size(); index++) {
+            Operation expected = baseline.get(index);
+            Operation actual = code.get(index);
+
+            assertEquals("Operation " + index, expected.getCode(), actual.getCode());
+            assertEquals("Operation " + index, expected.getTermList().size(), actual.getTermList().size());
+
+            for (Code.Options options : OPTIONS_LIST) {
+                assertEquals(
+                        "Operation " + index + " with " + options,
+                        expected.assembly(cache, options),
+                        actual.assembly(cache, options)
+                );
+            }
+
+            if (expected.getCode() == org.elixir_lang.beam.chunk.code.operation.Code.LABEL) {
+                assertLabelIndexed(code, baseline, index);
+            }
+        }
+    }
+
+    private VirtualFile virtualFile(@NotNull String name) {
+        String testDataPath = getTestDataPath();
+
+        VfsRootAccess.allowRootAccess(testDataPath);
+
+        VirtualFile virtualFile = LocalFileSystem
+                .getInstance()
+                .findFileByIoFile(
+                        new File(testDataPath + "/" + name + ".beam")
+                );
+
+        assertNotNull(virtualFile);
+
+        return virtualFile;
+    }
+
+    /*
+     * Private Static Methods
+     */
+
+    private static void assertLabelIndexed(@NotNull Code code, @NotNull List<Operation> baseline, int labelIndex) {
+        int label = ((Literal) baseline.get(labelIndex).getTermList().get(0)).getIndex();
+        int funcInfoIndex = labelIndex - 1;
+        Integer expected = null;
+
+        if (funcInfoIndex >= 0 &&
+                baseline.get(funcInfoIndex).getCode() == org.elixir_lang.beam.chunk.code.operation.Code.FUNC_INFO) {
+            expected = funcInfoIndex;
+        }
+
+        assertEquals("Label " + label, expected, code.labelIndexToFuncInfoIndex(label));
+    }
+
+    /**
+     * The operations of the {@code Code} chunk decoded one {@link Term} at a time
+     */
+    @NotNull
+    private static List<Operation> baseline(@NotNull Chunk chunk) {
+        byte[] data = chunk.bytes;
+        // sub-size, version, max opcode, label count, and function count
+        int offset = chunk.offset + 5 * 4;
+        int lastIndex = chunk.end() - 1;
+        List<Operation> operationList = new ArrayList<>();
+
+        while (offset < lastIndex) {
+            int opcode = Chunk.unsignedByte(data[offset]).first;
+            offset++;
+
+            org.elixir_lang.beam.chunk.code.operation.Code code = CodeKt.getCodeByNumber().get(opcode);
+
+            assertNotNull("Unknown opcode (" + opcode + ")", code);
+
+            List<Term> termList = new ArrayList<>();
+
+            for (int argument = 0; argument < code.getArguments().length; argument++) {
+                Pair<Term, Integer> termByteCount = Term.Companion.from(data, offset, true);
+                termList.add(termByteCount.getFirst());
+                offset += termByteCount.getSecond();
+            }
+
+            operationList.add(new Operation(code, termList));
+        }
+
+        return operationList;
+    }
+
+    @NotNull
+    private static Chunk codeChunk(@NotNull Cache cache) {
+        for (Chunk chunk : cache.chunkCollection()) {
+            if (chunk.typeID.equals(Chunk.TypeID.CODE.toString())) {
+                return chunk;
+            }
+        }
+
+        fail("No Code chunk");
+
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,173 @@
+package org.elixir_lang.beam.chunk;
+
+import com.ericsson.otp.erlang.*;
+import org.elixir_lang.beam.chunk.docs.Entry;
+import org.elixir_lang.beam.chunk.docs.Key;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class DocsTest {
+    private static final int ITERATION_COUNT = 100;
+    private static final int THREAD_COUNT = 4;
+
+    @Test
+    public void indexesKeysInOrder() {
+        Docs docs = docs();
+
+        assertEquals("elixir", docs.getBeamLanguage());
+        assertEquals("text/markdown", docs.getFormat());
+        assertEquals(
+                Arrays.asList(new Key("function", "at", 2), new Key("macro", "unless", 2), new Key("type", "t", 0)),
+                docs.getKeyList()
+        );
+    }
+
+    @Test
+    public void decodesModuleDocInEnglish() {
+        assertEquals("Module documentation", docs().getModuleDoc());
+    }
+
+    @Test
+    public void decodesEntries() {
+        Docs docs = docs();
+
+        Entry at = docs.get(new Key("function", "at", 2));
+
+        assertNotNull(at);
+        assertEquals(Arrays.asList("at(list, index)"), at.getSignatures());
+        assertEquals("Returns the element at `index`.", at.getDoc());
+        assertTrue(at.getMetadata() instanceof OtpErlangMap);
+
+        Entry unless = docs.get(1);
+
+        assertNotNull(unless);
+        assertEquals(Boolean.FALSE, unless.getDoc());
+
+        Entry t = docs.get(2);
+
+        assertNotNull(t);
+        assertNull(t.getDoc());
+    }
+
+    @Test
+    public void decodesConcurrently() throws InterruptedException, ExecutionException {
+        Docs expected = docs();
+        List<Object> expectedDecoded = decoded(expected);
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+
+        try {
+            for (int iteration = 0; iteration < ITERATION_COUNT; iteration++) {
+                // moduleDoc, metadata and each entry decode through the same atom table
+                Docs docs = docs();
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<List<Object>>> futures = new ArrayList<>();
+
+                for (int thread = 0; thread < THREAD_COUNT; thread++) {
+                    futures.add(executorService.submit(() -> {
+                        start.await();
+
+                        return decoded(docs);
+                    }));
+                }
+
+                start.countDown();
+
+                for (Future<List<Object>> future : futures) {
+                    assertEquals(expectedDecoded, future.get());
+                }
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void missingKeyIsNull() {
+        assertNull(docs().get(new Key("function", "at", 3)));
+    }
+
+    @NotNull
+    private static List<Object> decoded(@NotNull Docs docs) {
+        List<Object> decoded = new ArrayList<>();
+
+        decoded.add(docs.getModuleDoc());
+        decoded.add(docs.getMetadata());
+
+        for (int index = 0; index < docs.size(); index++) {
+            Entry entry = docs.get(index);
+
+            assertNotNull(entry);
+
+            decoded.add(entry.getSignatures());
+            decoded.add(entry.getDoc());
+            decoded.add(entry.getMetadata());
+        }
+
+        return decoded;
+    }
+
+    @NotNull
+    private static Docs docs() {
+        OtpErlangMap moduleDoc = new OtpErlangMap(
+                new OtpErlangObject[]{new OtpErlangBinary("de".getBytes()), new OtpErlangBinary("en".getBytes())},
+                new OtpErlangObject[]{
+                        new OtpErlangBinary("Moduldokumentation".getBytes()),
+                        new OtpErlangBinary("Module documentation".getBytes())
+                }
+        );
+        OtpErlangObject[] entries = new OtpErlangObject[]{
+                entry(
+                        "function",
+                        "at",
+                        2,
+                        "at(list, index)",
+                        new OtpErlangMap(
+                                new OtpErlangObject[]{new OtpErlangBinary("en".getBytes())},
+                                new OtpErlangObject[]{new OtpErlangBinary("Returns the element at `index`.".getBytes())}
+                        )
+                ),
+                entry("macro", "unless", 2, "unless(condition, clauses)", new OtpErlangAtom("hidden")),
+                entry("type", "t", 0, "t()", new OtpErlangAtom("none"))
+        };
+        OtpErlangTuple docsV1 = new OtpErlangTuple(new OtpErlangObject[]{
+                new OtpErlangAtom("docs_v1"),
+                new OtpErlangLong(1),
+                new OtpErlangAtom("elixir"),
+                new OtpErlangBinary("text/markdown".getBytes()),
+                moduleDoc,
+                new OtpErlangMap(),
+                new OtpErlangList(entries)
+        });
+
+        OtpOutputStream outputStream = new OtpOutputStream();
+        outputStream.write1(OtpExternal.versionTag);
+        outputStream.write_any(docsV1);
+        byte[] bytes = outputStream.toByteArray();
+
+        Docs docs = Docs.Companion.from(bytes, 0, bytes.length);
+
+        assertNotNull(docs);
+
+        return docs;
+    }
+
+    @NotNull
+    private static OtpErlangTuple entry(String kind, String name, int arity, String signature, OtpErlangObject doc) {
+        return new OtpErlangTuple(new OtpErlangObject[]{
+                new OtpErlangTuple(new OtpErlangObject[]{
+                        new OtpErlangAtom(kind), new OtpErlangAtom(name), new OtpErlangLong(arity)
+                }),
+                new OtpErlangLong(1),
+                new OtpErlangList(new OtpErlangBinary(signature.getBytes())),
+                doc,
+                new OtpErlangMap()
+        });
+    }
+}
@@ -0,0 +1,69 @@
+package org.elixir_lang.beam.chunk;
+
+import com.ericsson.otp.erlang.OtpErlangDecodeException;
+import org.elixir_lang.beam.Beam;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.*;
+
+public class LiteralsTest {
+    private static final String PATH = "testData/org/elixir_lang/beam/decompiler/OTP20/Elixir.Kernel.beam";
+
+    @Test
+    public void residentAndStreamingDecodeTheSameLiterals() throws IOException, OtpErlangDecodeException {
+        Chunk chunk = chunk();
+        Literals resident = Literals.Companion.fromResident(chunk);
+        Literals streaming = Literals.Companion.fromStreaming(chunk);
+
+        assertNotNull(resident);
+        assertNotNull(streaming);
+        assertTrue(resident.size() > 0);
+        assertEquals(resident.size(), streaming.size());
+
+        for (int index = 0; index < resident.size(); index++) {
+            assertEquals("Literal " + index, resident.get(index), streaming.get(index));
+        }
+    }
+
+    @Test
+    public void streamingDecodesOutOfOrder() throws IOException, OtpErlangDecodeException {
+        Chunk chunk = chunk();
+        Literals resident = Literals.Companion.fromResident(chunk);
+        Literals streaming = Literals.Companion.fromStreaming(chunk);
+
+        assertNotNull(resident);
+        assertNotNull(streaming);
+
+        // decoding an earlier literal after a later one re-inflates the table from the start
+        for (int index = resident.size() - 1; index >= 0; index -= 7) {
+            assertEquals("Literal " + index, resident.get(index), streaming.get(index));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getOutOfBounds() throws IOException, OtpErlangDecodeException {
+        Literals streaming = Literals.Companion.fromStreaming(chunk());
+
+        assertNotNull(streaming);
+
+        streaming.get(streaming.size());
+    }
+
+    @NotNull
+    private static Chunk chunk() throws IOException, OtpErlangDecodeException {
+        Beam beam = Beam.Companion.from(Files.readAllBytes(Paths.get(PATH)), PATH);
+
+        assertNotNull(beam);
+
+        Chunk chunk = beam.chunk(Chunk.TypeID.LITT);
+
+        assertNotNull(chunk);
+
+        return chunk;
+    }
+}
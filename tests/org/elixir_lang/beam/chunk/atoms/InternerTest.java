@@ -0,0 +1,43 @@
+package org.elixir_lang.beam.chunk.atoms;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class InternerTest {
+    @Test
+    public void bytesAndStringInternToTheSameInstance() {
+        byte[] bytes = "xmodule_infox".getBytes(StandardCharsets.UTF_8);
+
+        String fromBytes = Interner.INSTANCE.intern(bytes, 1, 11, StandardCharsets.UTF_8);
+        String fromString = Interner.INSTANCE.intern(new String("module_info"));
+
+        assertEquals("module_info", fromBytes);
+        assertSame(fromBytes, fromString);
+        assertSame(fromBytes, Interner.INSTANCE.intern(bytes, 1, 11, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void nonAsciiNamesAreInterned() {
+        byte[] bytes = "Elixir.\u00C9moji".getBytes(StandardCharsets.UTF_8);
+
+        String first = Interner.INSTANCE.intern(bytes, 0, bytes.length, StandardCharsets.UTF_8);
+        String second = Interner.INSTANCE.intern(bytes, 0, bytes.length, StandardCharsets.UTF_8);
+
+        assertEquals("Elixir.\u00C9moji", first);
+        assertSame(first, second);
+    }
+
+    @Test
+    public void prefixesAreDistinct() {
+        byte[] bytes = "erlang".getBytes(StandardCharsets.UTF_8);
+
+        String whole = Interner.INSTANCE.intern(bytes, 0, 6, StandardCharsets.UTF_8);
+        String prefix = Interner.INSTANCE.intern(bytes, 0, 3, StandardCharsets.UTF_8);
+
+        assertEquals("erlang", whole);
+        assertEquals("erl", prefix);
+    }
+}
@@ -0,0 +1,158 @@
+package org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl;
+
+import com.ericsson.otp.erlang.*;
+import org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.v1.Definitions;
+import org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.v1.definitions.Definition;
+import org.elixir_lang.beam.etf.Cursor;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class V1Test {
+    @Test
+    public void indexesElixirV1() {
+        V1 debugInfo = debugInfo();
+
+        assertNotNull(debugInfo);
+        assertEquals(new OtpErlangAtom("Elixir.Example"), debugInfo.getModule());
+        assertEquals(Integer.valueOf(1), debugInfo.getLine());
+    }
+
+    @Test
+    public void readsDefinitionHeaders() {
+        Definitions definitions = debugInfo().getDefinitions();
+
+        assertNotNull(definitions);
+        assertEquals(2, definitions.size());
+
+        Definition first = definitions.get(0);
+
+        assertEquals("first", first.getName());
+        assertEquals(Integer.valueOf(1), first.getArity());
+        assertEquals("def", first.getMacro());
+        assertEquals(Integer.valueOf(2), first.getLine());
+
+        Definition second = definitions.get(1);
+
+        assertEquals("second", second.getName());
+        assertEquals(Integer.valueOf(0), second.getArity());
+        assertEquals("defmacro", second.getMacro());
+        assertEquals(Integer.valueOf(5), second.getLine());
+    }
+
+    @Test
+    public void decodesClausesWhenUsed() {
+        Definition first = debugInfo().getDefinitions().get(0);
+
+        assertNotNull(first.getClauses());
+        assertEquals(2, first.getClauses().size());
+        assertEquals(first, first.getClauses().get(0).getDefinition());
+    }
+
+    @Test
+    public void matchesDecodedMetadata() {
+        V1 indexed = debugInfo();
+        V1 decoded = new V1(indexed.getElixirErl(), indexed.getMetadata());
+
+        assertEquals(decoded.getModule(), indexed.getModule());
+        assertEquals(decoded.getDefinitions().size(), indexed.getDefinitions().size());
+
+        for (int i = 0; i < decoded.getDefinitions().size(); i++) {
+            Definition decodedDefinition = decoded.getDefinitions().get(i);
+            Definition indexedDefinition = indexed.getDefinitions().get(i);
+
+            assertEquals(decodedDefinition.getName(), indexedDefinition.getName());
+            assertEquals(decodedDefinition.getArity(), indexedDefinition.getArity());
+            assertEquals(decodedDefinition.getMacro(), indexedDefinition.getMacro());
+            assertEquals(decodedDefinition.getClauses().size(), indexedDefinition.getClauses().size());
+        }
+    }
+
+    @Test
+    public void otherBackendsAreNotIndexed() {
+        OtpErlangTuple term = tuple(
+                atom("debug_info_v1"),
+                atom("erl_abstract_code"),
+                tuple(new OtpErlangList(), new OtpErlangList())
+        );
+
+        assertNull(V1.Companion.from(cursor(term)));
+    }
+
+    private static V1 debugInfo() {
+        OtpErlangTuple term = tuple(
+                atom("debug_info_v1"),
+                atom("elixir_erl"),
+                tuple(
+                        atom("elixir_v1"),
+                        new OtpErlangMap(
+                                new OtpErlangObject[]{
+                                        atom("module"),
+                                        atom("line"),
+                                        atom("definitions")
+                                },
+                                new OtpErlangObject[]{
+                                        atom("Elixir.Example"),
+                                        new OtpErlangLong(1),
+                                        new OtpErlangList(
+                                                new OtpErlangObject[]{
+                                                        definition("first", 1, "def", 2, 2),
+                                                        definition("second", 0, "defmacro", 5, 1)
+                                                }
+                                        )
+                                }
+                        ),
+                        new OtpErlangList()
+                )
+        );
+
+        return V1.Companion.from(cursor(term));
+    }
+
+    @NotNull
+    private static OtpErlangTuple definition(String name, int arity, String macro, int line, int clauseCount) {
+        OtpErlangObject[] clauses = new OtpErlangObject[clauseCount];
+
+        for (int i = 0; i < clauseCount; i++) {
+            clauses[i] = tuple(
+                    metadata(line + i),
+                    new OtpErlangList(),
+                    new OtpErlangList(),
+                    atom("ok")
+            );
+        }
+
+        return tuple(
+                tuple(atom(name), new OtpErlangLong(arity)),
+                atom(macro),
+                metadata(line),
+                new OtpErlangList(clauses)
+        );
+    }
+
+    @NotNull
+    private static OtpErlangList metadata(int line) {
+        return new OtpErlangList(tuple(atom("line"), new OtpErlangLong(line)));
+    }
+
+    @NotNull
+    private static Cursor cursor(@NotNull OtpErlangObject term) {
+        OtpOutputStream outputStream = new OtpOutputStream();
+        outputStream.write1(OtpExternal.versionTag);
+        outputStream.write_any(term);
+        byte[] bytes = outputStream.toByteArray();
+
+        return Cursor.Companion.from(bytes, 0, bytes.length);
+    }
+
+    @NotNull
+    private static OtpErlangAtom atom(@NotNull String name) {
+        return new OtpErlangAtom(name);
+    }
+
+    @NotNull
+    private static OtpErlangTuple tuple(@NotNull OtpErlangObject... elements) {
+        return new OtpErlangTuple(elements);
+    }
+}
@@ -0,0 +1,50 @@
+package org.elixir_lang.beam.chunk.docs.summaries;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SummaryTest {
+    @Test
+    public void docIsFirstParagraphOnOneLine() {
+        Summary summary = Summary.Companion.from(
+                "Returns the element\nat `index`.\n\n## Examples\n\n    iex> at([1], 0)\n",
+                null,
+                "1.4.0"
+        );
+
+        assertEquals("Returns the element at `index`.", summary.getDoc());
+        assertEquals("1.4.0", summary.getSince());
+        assertEquals("Returns the element at `index`.", summary.text());
+    }
+
+    @Test
+    public void longDocIsShortened() {
+        StringBuilder doc = new StringBuilder();
+
+        for (int i = 0; i < Summary.MAX_DOC_LENGTH; i++) {
+            doc.append("a ");
+        }
+
+        String summaryDoc = Summary.Companion.from(doc.toString(), null, null).getDoc();
+
+        assertNotNull(summaryDoc);
+        assertEquals(Summary.MAX_DOC_LENGTH, summaryDoc.length());
+        assertTrue(summaryDoc.endsWith("\u2026"));
+    }
+
+    @Test
+    public void hiddenDocHasNoText() {
+        Summary summary = Summary.Companion.from(false, null, null);
+
+        assertTrue(summary.isEmpty());
+        assertNull(summary.text());
+    }
+
+    @Test
+    public void deprecationComesFirst() {
+        Summary summary = Summary.Companion.from("Old.", "Use new/1 instead", null);
+
+        assertEquals("Deprecated: Use new/1 instead Old.", summary.text());
+    }
+}
@@ -0,0 +1,76 @@
+package org.elixir_lang.beam.chunk.elixir_documentation;
+
+import com.ericsson.otp.erlang.*;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DocTest {
+    @Test
+    public void defaultArgumentsWidenArityRange() {
+        // def at(list, index, default \\ nil)
+        Doc doc = doc(
+                "at",
+                variable("list"),
+                variable("index"),
+                call("\\\\", variable("default"), new OtpErlangAtom("nil"))
+        );
+
+        assertEquals(1, doc.getDefaultCount());
+        assertEquals(2, doc.arityRange().getFirst());
+        assertEquals(3, doc.arityRange().getLast());
+    }
+
+    @Test
+    public void otherOperatorsAreNotDefaultArguments() {
+        // def split(string = "", pattern \\ " ")
+        Doc doc = doc(
+                "split",
+                call("=", variable("string"), new OtpErlangBinary("".getBytes())),
+                call("\\\\", variable("pattern"), new OtpErlangBinary(" ".getBytes()))
+        );
+
+        assertEquals(1, doc.getDefaultCount());
+        assertEquals(1, doc.arityRange().getFirst());
+        assertEquals(2, doc.arityRange().getLast());
+    }
+
+    @NotNull
+    private static Doc doc(@NotNull String name, @NotNull OtpErlangObject... arguments) {
+        Doc doc = Doc.Companion.from(
+                new OtpErlangTuple(new OtpErlangObject[]{
+                        new OtpErlangTuple(new OtpErlangObject[]{
+                                new OtpErlangAtom(name),
+                                new OtpErlangLong(arguments.length)
+                        }),
+                        new OtpErlangLong(1),
+                        new OtpErlangAtom("def"),
+                        new OtpErlangList(arguments),
+                        new OtpErlangBinary("Documentation".getBytes())
+                })
+        );
+
+        assertNotNull(doc);
+
+        return doc;
+    }
+
+    @NotNull
+    private static OtpErlangTuple call(@NotNull String name, @NotNull OtpErlangObject... arguments) {
+        return new OtpErlangTuple(new OtpErlangObject[]{
+                new OtpErlangAtom(name),
+                new OtpErlangList(),
+                new OtpErlangList(arguments)
+        });
+    }
+
+    @NotNull
+    private static OtpErlangTuple variable(@NotNull String name) {
+        return new OtpErlangTuple(new OtpErlangObject[]{
+                new OtpErlangAtom(name),
+                new OtpErlangList(),
+                new OtpErlangAtom("nil")
+        });
+    }
+}
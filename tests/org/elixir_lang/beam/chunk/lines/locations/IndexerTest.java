@@ -0,0 +1,80 @@
+package org.elixir_lang.beam.chunk.lines.locations;
+
+import com.ericsson.otp.erlang.OtpErlangDecodeException;
+import org.elixir_lang.beam.Beam;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class IndexerTest {
+    private static final String DIRECTORY = "testData/org/elixir_lang/beam/decompiler/";
+
+    @Test
+    public void erlangModuleLinesAreInTheirFunctions() throws IOException, OtpErlangDecodeException {
+        Map<String, Locations> locationsByFileName = map("docgen_xmerl_xml_cb");
+
+        assertEquals(1, locationsByFileName.size());
+
+        Map.Entry<String, Locations> entry = locationsByFileName.entrySet().iterator().next();
+
+        // file name index 0 is indexed under the `source` in the `CInf` chunk
+        assertTrue(entry.getKey(), entry.getKey().endsWith("/docgen_xmerl_xml_cb.erl"));
+
+        Locations locations = entry.getValue();
+
+        // the first `line` of the `Code` chunk is the first line reference
+        assertEquals(
+                Collections.singletonList(new Location(37, "docgen_xmerl_xml_cb", "#xml-inheritance#", 0, 2)),
+                locations.get(37)
+        );
+        assertEquals(
+                Arrays.asList(
+                        new Location(42, "docgen_xmerl_xml_cb", "#root#", 4, 4),
+                        new Location(42, "docgen_xmerl_xml_cb", "-#root#/4-lc$^0/1-0-", 1, 45)
+                ),
+                locations.get(42)
+        );
+        // the last line reference is kept
+        assertEquals(
+                Collections.singletonList(new Location(92, "docgen_xmerl_xml_cb", "is_url", 1, 34)),
+                locations.get(92)
+        );
+        assertEquals(Integer.valueOf(37), locations.ceilingLine(1));
+        assertNull(locations.ceilingLine(93));
+    }
+
+    @Test
+    public void codeWithoutLocationIsNotIndexed() throws IOException, OtpErlangDecodeException {
+        Map<String, Locations> locationsByFileName = map("OTP20/Elixir.AtU8Test");
+
+        assertEquals(Collections.singleton("lib/elixir1_5_0.ex"), locationsByFileName.keySet());
+
+        Locations locations = locationsByFileName.get("lib/elixir1_5_0.ex");
+
+        // `__info__/1` and `module_info/0,1` only have `line 0`, so only the one defined function has a line
+        assertEquals(1, locations.size());
+        assertEquals(
+                Collections.singletonList(new Location(2, "Elixir.AtU8Test", "こんにちは世界", 0, 7)),
+                locations.get(2)
+        );
+    }
+
+    @NotNull
+    private static Map<String, Locations> map(@NotNull String baseName)
+            throws IOException, OtpErlangDecodeException {
+        String path = DIRECTORY + baseName + ".beam";
+        Beam beam = Beam.Companion.from(Files.readAllBytes(Paths.get(path)), path);
+
+        assertNotNull(beam);
+
+        return new Indexer().map(beam);
+    }
+}
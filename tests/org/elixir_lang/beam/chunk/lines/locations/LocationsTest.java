@@ -0,0 +1,69 @@
+package org.elixir_lang.beam.chunk.lines.locations;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LocationsTest {
+    @Test
+    public void getsFunctionsOnLine() {
+        List<Location> locations = locations().get(3);
+
+        assertEquals(
+                Arrays.asList(
+                        new Location(3, "Elixir.Example", "first", 1, 2),
+                        new Location(3, "Elixir.Example", "second", 0, 4)
+                ),
+                locations
+        );
+    }
+
+    @Test
+    public void linesWithoutCodeAreNotExecutable() {
+        Locations locations = locations();
+
+        assertTrue(locations.isExecutable(2));
+        assertFalse(locations.isExecutable(4));
+        assertEquals(Collections.emptyList(), locations.get(4));
+    }
+
+    @Test
+    public void ceilingLineIsNextExecutableLine() {
+        Locations locations = locations();
+
+        assertEquals(Integer.valueOf(2), locations.ceilingLine(1));
+        assertEquals(Integer.valueOf(7), locations.ceilingLine(4));
+        assertNull(locations.ceilingLine(8));
+    }
+
+    @Test
+    public void keepsOnlyFunctionsWithLines() {
+        Locations locations = locations();
+
+        assertEquals(4, locations.size());
+        assertEquals(
+                Collections.singletonList(new Location(7, "Elixir.Example", "second", 0, 4)),
+                locations.get(7)
+        );
+    }
+
+    private static Locations locations() {
+        Locations.Builder builder = new Locations.Builder("Elixir.Example");
+        builder.add(7, 2);
+        builder.add(3, 2);
+        builder.add(2, 0);
+        builder.add(3, 0);
+        // duplicate lines are only kept once
+        builder.add(2, 0);
+
+        return builder.build(
+                Arrays.asList("first", "unused", "second"),
+                new int[]{1, 2, 0},
+                new int[]{2, 3, 4}
+        );
+    }
+}
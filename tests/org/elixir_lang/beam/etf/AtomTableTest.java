@@ -0,0 +1,66 @@
+package org.elixir_lang.beam.etf;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.assertEquals;
+
+public class AtomTableTest {
+    private static final int ATOM_COUNT = 1000;
+    private static final int NAME_LENGTH = 4;
+    private static final int THREAD_COUNT = 4;
+
+    @Test
+    public void sharedAcrossThreads() throws InterruptedException, ExecutionException {
+        byte[] bytes = new byte[ATOM_COUNT * NAME_LENGTH];
+
+        for (int i = 0; i < ATOM_COUNT; i++) {
+            byte[] name = String.format("a%03d", i).getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(name, 0, bytes, i * NAME_LENGTH, NAME_LENGTH);
+        }
+
+        AtomTable atomTable = new AtomTable(bytes);
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<int[]>> futures = new ArrayList<>();
+
+        try {
+            for (int thread = 0; thread < THREAD_COUNT; thread++) {
+                futures.add(executorService.submit(() -> {
+                    start.await();
+
+                    int[] indices = new int[ATOM_COUNT];
+
+                    // every thread grows the table while the others read it
+                    for (int i = 0; i < ATOM_COUNT; i++) {
+                        indices[i] = atomTable.index(i * NAME_LENGTH, NAME_LENGTH, false);
+                        atomTable.name(indices[i]);
+                    }
+
+                    return indices;
+                }));
+            }
+
+            start.countDown();
+
+            int[] expected = futures.get(0).get();
+
+            for (Future<int[]> future : futures) {
+                int[] indices = future.get();
+
+                for (int i = 0; i < ATOM_COUNT; i++) {
+                    assertEquals(expected[i], indices[i]);
+                    assertEquals(String.format("a%03d", i), atomTable.name(indices[i]));
+                }
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        assertEquals(ATOM_COUNT, atomTable.getSize());
+    }
+}
@@ -0,0 +1,96 @@
+package org.elixir_lang.beam.etf;
+
+import com.ericsson.otp.erlang.*;
+import org.elixir_lang.beam.Beam;
+import org.elixir_lang.beam.chunk.Chunk;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.elixir_lang.beam.chunk.Chunk.TypeID.*;
+import static org.junit.Assert.*;
+
+public class CursorTest {
+    private static final String PATH = "testData/org/elixir_lang/beam/decompiler/OTP20/Elixir.Kernel.beam";
+
+    @Test
+    public void skipEndsWhereOtpInputStreamEnds() throws IOException, OtpErlangDecodeException {
+        Beam beam = beam();
+
+        for (Chunk.TypeID typeID : new Chunk.TypeID[]{ATTR, CINF, DBGI, EXDC}) {
+            Chunk chunk = beam.chunk(typeID);
+
+            assertNotNull(chunk);
+
+            Cursor skipped = Cursor.Companion.from(chunk.bytes, chunk.offset, chunk.end());
+            Cursor decoded = skipped.copy();
+
+            skipped.skip();
+            decoded.term();
+
+            assertEquals(typeID.toString(), decoded.getPosition(), skipped.getPosition());
+            assertFalse(typeID.toString(), skipped.hasRemaining());
+        }
+    }
+
+    @Test
+    public void readers() throws OtpErlangDecodeException {
+        OtpErlangObject term = new OtpErlangTuple(new OtpErlangObject[]{
+                new OtpErlangAtom("key"),
+                new OtpErlangList(new OtpErlangObject[]{
+                        new OtpErlangLong(1),
+                        new OtpErlangLong(-123456789012L),
+                        new OtpErlangBinary("binary".getBytes()),
+                        new OtpErlangAtom("key")
+                }),
+                new OtpErlangString("string")
+        });
+
+        for (boolean compressed : new boolean[]{false, true}) {
+            Cursor cursor = cursor(term, compressed);
+
+            assertEquals(3, cursor.tupleArity());
+            int keyIndex = cursor.atomIndex();
+            assertEquals("key", cursor.getAtomTable().name(keyIndex));
+            assertEquals(4, cursor.listLength());
+            assertEquals(Long.valueOf(1), cursor.integer());
+            assertEquals(Long.valueOf(-123456789012L), cursor.integer());
+            assertEquals("binary", cursor.binaryString());
+            // same atom, same table index
+            assertEquals(keyIndex, cursor.atomIndex());
+            assertTrue(cursor.listTail());
+            // strings are not lists to the cursor
+            assertEquals(-1, cursor.listLength());
+            assertEquals(new OtpErlangString("string"), cursor.term());
+            assertFalse(cursor.hasRemaining());
+        }
+    }
+
+    @NotNull
+    private static Cursor cursor(@NotNull OtpErlangObject term, boolean compressed) {
+        OtpOutputStream otpOutputStream = new OtpOutputStream();
+        otpOutputStream.write1(Tag.VERSION);
+
+        if (compressed) {
+            otpOutputStream.write_compressed(term);
+        } else {
+            otpOutputStream.write_any(term);
+        }
+
+        byte[] bytes = otpOutputStream.toByteArray();
+
+        return Cursor.Companion.from(bytes, 0, bytes.length);
+    }
+
+    @NotNull
+    private static Beam beam() throws IOException, OtpErlangDecodeException {
+        Beam beam = Beam.Companion.from(Files.readAllBytes(Paths.get(PATH)), PATH);
+
+        assertNotNull(beam);
+
+        return beam;
+    }
+}
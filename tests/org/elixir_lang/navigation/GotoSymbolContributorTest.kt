@@ -4,6 +4,8 @@ import com.intellij.navigation.ChooseByNameRegistry
 import com.intellij.testFramework.fixtures.BasePlatformTestCase
 import org.elixir_lang.psi.call.Call
 import org.elixir_lang.structure_view.element.CallDefinitionClause
+import org.elixir_lang.structure_view.element.CallDefinitionSpecification
+import org.elixir_lang.structure_view.element.Callback
 
 class GotoSymbolContributorTest : BasePlatformTestCase() {
     private fun gotoSymbolContributor(): GotoSymbolContributor {
@@ -36,7 +38,7 @@ class GotoSymbolContributorTest : BasePlatformTestCase() {
         myFixture.configureByFile("issue_472.ex")
         val gotoSymbolContributor = gotoSymbolContributor()
         val itemsByName = gotoSymbolContributor.getItemsByName(
-                "decode_auth_type",
+                "decode_auth_type/1",
                 "decode_a",
                 myFixture.project,
                 false
@@ -49,6 +51,49 @@ class GotoSymbolContributorTest : BasePlatformTestCase() {
         assertEquals("decode_auth_type", callDefinitionClause.name)
     }
 
+    fun testNamesAreNameArity() {
+        myFixture.configureByFile("name_arity.ex")
+        val names = gotoSymbolContributor().getNames(myFixture.project, false).toSet()
+
+        assertTrue(names.containsAll(listOf("NameArity", "default/1", "default/2", "handle/1")))
+        assertFalse(names.contains("default"))
+    }
+
+    fun testNameArityOnlyPicksThatArity() {
+        myFixture.configureByFile("name_arity.ex")
+        val gotoSymbolContributor = gotoSymbolContributor()
+
+        val itemsByName = gotoSymbolContributor.getItemsByName("default/2", "default", myFixture.project, false)
+
+        assertEquals(1, itemsByName.size)
+        assertInstanceOf(itemsByName[0], CallDefinitionClause::class.java)
+        assertEquals(2, (itemsByName[0] as CallDefinitionClause).callDefinition.arity)
+    }
+
+    fun testNameArityIncludesSpecification() {
+        myFixture.configureByFile("name_arity.ex")
+        val itemsByName = gotoSymbolContributor().getItemsByName("default/1", "default", myFixture.project, false)
+
+        assertEquals(2, itemsByName.size)
+        assertEquals(
+                1,
+                itemsByName
+                        .filterIsInstance<CallDefinitionClause>()
+                        .single()
+                        .callDefinition
+                        .arity
+        )
+        assertEquals(1, itemsByName.filterIsInstance<CallDefinitionSpecification>().size)
+    }
+
+    fun testNameArityIncludesCallback() {
+        myFixture.configureByFile("name_arity.ex")
+        val itemsByName = gotoSymbolContributor().getItemsByName("handle/1", "handle", myFixture.project, false)
+
+        assertEquals(1, itemsByName.size)
+        assertInstanceOf(itemsByName[0], Callback::class.java)
+    }
+
     fun testIssue705BeforeCompile() {
         myFixture.configureByFile("issue_705__before_compile__.ex")
         val elementAtCaret = myFixture.file.findElementAt(myFixture.caretOffset)
@@ -0,0 +1,45 @@
+package org.elixir_lang.psi.scope
+
+import org.junit.Assert.*
+import org.junit.Test
+
+class VisitedElementSetTest {
+    @Test
+    fun containsAddedElementsAcrossSegments() {
+        var set = VisitedElementSet.of(0)
+
+        for (element in 1 until VisitedElementSet.SEGMENT_SIZE * 3) {
+            set += element
+        }
+
+        for (element in 0 until VisitedElementSet.SEGMENT_SIZE * 3) {
+            assertTrue("$element was not found", element in set)
+        }
+
+        assertFalse(VisitedElementSet.SEGMENT_SIZE * 3 in set)
+        assertEquals(VisitedElementSet.SEGMENT_SIZE * 3, set.size)
+    }
+
+    @Test
+    fun addingDoesNotChangeOriginal() {
+        val original = VisitedElementSet.of("a")
+        val added = original + "b"
+
+        assertTrue("b" in added)
+        assertFalse("b" in original)
+    }
+
+    @Test
+    fun addingVisitedElementReturnsSameSet() {
+        val set = VisitedElementSet.of("a") + "b"
+
+        assertSame(set, set + "a")
+    }
+
+    @Test
+    fun equalElementsAreVisited() {
+        val set = VisitedElementSet.of(String(charArrayOf('a')))
+
+        assertTrue("a" in set)
+    }
+}
@@ -0,0 +1,34 @@
+package org.elixir_lang.psi.stub.index
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+
+class CallableNameTest {
+    @Test
+    fun keyIsNameSlashArity() {
+        assertEquals("foo/2", CallableName.key("foo", 2))
+    }
+
+    @Test
+    fun defaultArgumentsAreIndexedUnderEachArity() {
+        assertEquals(setOf("foo/1", "foo/2", "foo/3"), CallableName.keySet("foo", 1..3))
+    }
+
+    @Test
+    fun operatorNameIsNotSplit() {
+        assertEquals(setOf("//2"), CallableName.keySet("/", 2..2))
+        assertEquals(2, CallableName.arity("//2"))
+    }
+
+    @Test
+    fun arityIsReadFromKey() {
+        assertEquals(3, CallableName.arity(CallableName.key("foo", 3)))
+    }
+
+    @Test
+    fun modularNameHasNoArity() {
+        assertNull(CallableName.arity("Foo.Bar"))
+        assertNull(CallableName.arity("/"))
+    }
+}
@@ -0,0 +1,26 @@
+package org.elixir_lang.psi.stub.index
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+class NamePrefixTest {
+    @Test
+    fun aliasIsIndexedUnderPrefixesAndNamespaces() {
+        assertEquals(setOf("F", "Fo", "Foo", "Foo.", "Foo.Bar."), NamePrefix.keySet("Foo.Bar.Baz"))
+    }
+
+    @Test
+    fun atomIsIndexedUnderPrefixes() {
+        assertEquals(setOf(":", ":f", ":fo"), NamePrefix.keySet(":foo_bar"))
+    }
+
+    @Test
+    fun shortNameIsIndexedUnderItself() {
+        assertEquals(setOf("a"), NamePrefix.keySet("a"))
+    }
+
+    @Test
+    fun leadingDotIsNotANamespace() {
+        assertEquals(setOf(".", ".."), NamePrefix.keySet(".."))
+    }
+}
@@ -0,0 +1,126 @@
+package org.elixir_lang.reference.callable;
+
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiPolyVariantReference;
+import com.intellij.psi.PsiReference;
+import com.intellij.psi.ResolveResult;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.StubIndex;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import kotlin.ranges.IntRange;
+import org.elixir_lang.psi.NamedElement;
+import org.elixir_lang.psi.call.Call;
+import org.elixir_lang.psi.stub.index.QualifiedCallableName;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+
+/**
+ * Remote calls resolve to the clauses of the qualifier's module through {@link QualifiedCallableName}.
+ */
+public class RemoteTest extends BasePlatformTestCase {
+    /*
+     * Tests
+     */
+
+    public void testNestedModuleQualifier() {
+        myFixture.configureByFiles("nested_module_qualifier.ex", "remote.ex");
+
+        ResolveResult[] resolveResults = multiResolve("defaulted", 1);
+
+        // `Remote.defaulted/1..3` is in the outer module, so is not a clause of `Remote.Nested`
+        assertEquals(2, resolveResults.length);
+        assertResolveResult(resolveResults, new IntRange(1, 2), true);
+        assertResolveResult(resolveResults, new IntRange(4, 4), false);
+    }
+
+    public void testOuterModuleQualifier() {
+        myFixture.configureByFiles("outer_module_qualifier.ex", "remote.ex");
+
+        ResolveResult[] resolveResults = multiResolve("defaulted", 2);
+
+        // `Remote.Nested.defaulted` clauses are in the nested module, so are not clauses of `Remote`
+        assertEquals(1, resolveResults.length);
+        assertResolveResult(resolveResults, new IntRange(1, 3), true);
+    }
+
+    public void testQualifiedCallableNameKeys() {
+        myFixture.configureByFiles("remote.ex");
+
+        assertEquals(1, qualifiedCallableNameElements("Remote.defaulted").size());
+        assertEquals(2, qualifiedCallableNameElements("Remote.Nested.defaulted").size());
+        assertEquals(0, qualifiedCallableNameElements("Nested.defaulted").size());
+    }
+
+    /*
+     * Protected Instance Methods
+     */
+
+    @Override
+    protected String getTestDataPath() {
+        return "testData/org/elixir_lang/reference/callable/remote";
+    }
+
+    /*
+     * Private Instance Methods
+     */
+
+    @NotNull
+    private ResolveResult[] multiResolve(@NotNull String name, int arity) {
+        PsiElement elementAtCaret = myFixture
+                .getFile()
+                .findElementAt(myFixture.getCaretOffset());
+
+        assertNotNull(elementAtCaret);
+
+        PsiElement grandParent = elementAtCaret.getParent().getParent();
+
+        assertNotNull(grandParent);
+        assertInstanceOf(grandParent, Call.class);
+
+        Call grandParentCall = (Call) grandParent;
+
+        assertEquals(name, grandParentCall.functionName());
+        assertEquals(arity, grandParentCall.resolvedFinalArity());
+
+        PsiReference reference = grandParentCall.getReference();
+
+        assertNotNull(reference);
+        assertInstanceOf(reference, PsiPolyVariantReference.class);
+
+        return ((PsiPolyVariantReference) reference).multiResolve(false);
+    }
+
+    @NotNull
+    private Collection<NamedElement> qualifiedCallableNameElements(@NotNull String key) {
+        return StubIndex.getElements(
+                QualifiedCallableName.KEY,
+                key,
+                getProject(),
+                GlobalSearchScope.allScope(getProject()),
+                NamedElement.class
+        );
+    }
+
+    /*
+     * Private Static Methods
+     */
+
+    private static void assertResolveResult(@NotNull ResolveResult[] resolveResults,
+                                            @NotNull IntRange definedArityRange,
+                                            boolean validResult) {
+        for (ResolveResult resolveResult : resolveResults) {
+            PsiElement resolved = resolveResult.getElement();
+
+            assertInstanceOf(resolved, Call.class);
+
+            if (definedArityRange.equals(QualifiedCallableName.definedArityRange((Call) resolved))) {
+                assertEquals(resolved.getText(), validResult, resolveResult.isValidResult());
+
+                return;
+            }
+        }
+
+        fail("No clause with arity range " + definedArityRange);
+    }
+}
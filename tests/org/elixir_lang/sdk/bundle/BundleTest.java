@@ -0,0 +1,64 @@
+package org.elixir_lang.sdk.bundle;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class BundleTest {
+    private static final Key KEY = new Key("Elixir 1.9.1", "Erlang/OTP 22 [erts-10.4]", 5, 1, 3);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void roundTrip() throws IOException {
+        Map<String, byte[]> stubTreeByHash = new LinkedHashMap<>();
+        stubTreeByHash.put("da39a3ee5e6b4b0d3255bfef95601890afd80709", new byte[0]);
+        stubTreeByHash.put("2fd4e1c67a2d28fced849ee1bb76e7391b93eb12", "stub tree".getBytes(StandardCharsets.UTF_8));
+        File file = new File(temporaryFolder.getRoot(), KEY.getFileName());
+
+        new Bundle(KEY, stubTreeByHash).write(file);
+
+        Bundle read = Bundle.Companion.read(file, key -> true);
+
+        assertNotNull(read);
+        assertEquals(KEY, read.getKey());
+        assertEquals(stubTreeByHash.size(), read.getSize());
+
+        for (Map.Entry<String, byte[]> entry : stubTreeByHash.entrySet()) {
+            assertArrayEquals(entry.getValue(), read.stubTree(entry.getKey()));
+        }
+
+        assertNull(read.stubTree("0000000000000000000000000000000000000000"));
+    }
+
+    @Test
+    public void unacceptedKeyIsNotRead() {
+        File file = new File(temporaryFolder.getRoot(), KEY.getFileName());
+        new Bundle(KEY, new LinkedHashMap<>()).write(file);
+
+        assertNull(Bundle.Companion.read(file, key -> !key.equals(KEY)));
+    }
+
+    @Test
+    public void otherFileIsNotRead() throws IOException {
+        File file = temporaryFolder.newFile("other" + Key.EXTENSION);
+        Files.write(file.toPath(), "not a bundle".getBytes(StandardCharsets.UTF_8));
+
+        assertNull(Bundle.Companion.read(file, key -> true));
+    }
+
+    @Test
+    public void fileNameIncludesReleasesAndVersions() {
+        assertEquals("Elixir_1.9.1-Erlang_OTP_22_erts_10.4_-5.1.3.stubs.gz", KEY.getFileName());
+    }
+}
@@ -0,0 +1,65 @@
+package org.elixir_lang.sdk.bundle;
+
+import com.intellij.psi.stubs.Stub;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import org.elixir_lang.beam.psi.BeamFileImpl;
+import org.elixir_lang.beam.psi.stubs.CallDefinitionStub;
+import org.elixir_lang.psi.stub.call.Stubbic;
+import org.elixir_lang.psi.stub.impl.ElixirFileStubImpl;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+public class StubTreesTest extends BasePlatformTestCase {
+    private static final String PATH = "testData/org/elixir_lang/beam/decompiler/OTP20/Elixir.Kernel.beam";
+
+    public void testBeamRoundTrip() throws IOException {
+        byte[] content = Files.readAllBytes(Paths.get(PATH));
+        Stub built = BeamFileImpl.buildFileStub(content, PATH).orElse(null);
+
+        assertNotNull(built);
+        assertFalse(built.getChildrenStubs().isEmpty());
+
+        Stub read = StubTrees.INSTANCE.read(StubTrees.INSTANCE.write(built), new ElixirFileStubImpl());
+
+        assertNotNull(read);
+        assertChildrenEquals(built, read);
+    }
+
+    public void testCorruptStubTreeIsNotRead() {
+        // one name, then more children than there are bytes
+        byte[] corrupt = {0, 0, 0, 1, 0, 1, 'x', 127};
+
+        assertNull(StubTrees.INSTANCE.read(corrupt, new ElixirFileStubImpl()));
+    }
+
+    private static void assertChildrenEquals(@NotNull Stub expected, @NotNull Stub actual) {
+        List<? extends Stub> expectedChildren = expected.getChildrenStubs();
+        List<? extends Stub> actualChildren = actual.getChildrenStubs();
+
+        assertEquals(expectedChildren.size(), actualChildren.size());
+
+        for (int i = 0; i < expectedChildren.size(); i++) {
+            Stub expectedChild = expectedChildren.get(i);
+            Stub actualChild = actualChildren.get(i);
+
+            assertEquals(expectedChild.getStubType(), actualChild.getStubType());
+
+            if (expectedChild instanceof Stubbic) {
+                assertEquals(((Stubbic) expectedChild).getName(), ((Stubbic) actualChild).getName());
+            }
+
+            if (expectedChild instanceof CallDefinitionStub) {
+                assertEquals(
+                        ((CallDefinitionStub) expectedChild).callDefinitionClauseHeadArity(),
+                        ((CallDefinitionStub) actualChild).callDefinitionClauseHeadArity()
+                );
+            }
+
+            assertChildrenEquals(expectedChild, actualChild);
+        }
+    }
+}